@@ -1,9 +1,30 @@
 package edu.kit.kastel.monstercombat;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.ConfigurationCache;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.MonsterPack;
+import edu.kit.kastel.monstercombat.model.Ruleset;
+import edu.kit.kastel.monstercombat.model.battlelog.BattleLogWriter;
 import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
-import edu.kit.kastel.monstercombat.model.ConfigurationLoader;
+import edu.kit.kastel.monstercombat.model.ladder.RatingLadder;
+import edu.kit.kastel.monstercombat.model.policy.Policies;
+import edu.kit.kastel.monstercombat.model.policy.Policy;
+import edu.kit.kastel.monstercombat.view.GameDaemon;
+import edu.kit.kastel.monstercombat.view.GameServer;
+import edu.kit.kastel.monstercombat.view.SessionPrintStream;
 import edu.kit.kastel.monstercombat.view.UserInterface;
+import edu.kit.kastel.monstercombat.view.command.CommandAutoplay;
 
 /**
  * Main application class.
@@ -11,6 +32,20 @@ import edu.kit.kastel.monstercombat.view.UserInterface;
  */
 public final class Application {
     private static final String ERROR_MESSAGE_COMMAND_LINE_ARGUMENTS = "Error, invalid command line arguments.";
+    private static final String SERVER_OPTION = "--server";
+    private static final String DAEMON_OPTION = "--daemon";
+    private static final String ARENA_OPTION = "--arena";
+    private static final String FIXED_POINT_OPTION = "--fixed";
+    private static final String LADDER_OPTION = "--ladder";
+    private static final String BATTLE_LOG_OPTION = "--battlelog";
+    private static final String AUTOPLAY_OPTION = "--autoplay";
+    private static final String RENDER_OPTION = "--render";
+    private static final String LAZY_OPTION = "--lazy";
+    private static final String AUTOPLAY_USAGE = "Usage: java -jar MonsterBattle.jar " + AUTOPLAY_OPTION + " ["
+            + RENDER_OPTION + "] <policy> <games> <config_file> <seed> <monster> <monster>...";
+    private static final int AUTOPLAY_MIN_ARGUMENTS = 6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final int EXIT_CODE_ERROR = 1;
 
     /**
      * Private constructor to prevent instantiation.
@@ -25,10 +60,72 @@ public final class Application {
      * @param args the command line arguments
      */
     public static void main(String[] args) {
+        String[] arguments = args;
+        // The storage and arithmetic options may be given in any order
+        while (arguments.length > 0
+                && (arguments[0].equals(ARENA_OPTION) || arguments[0].equals(FIXED_POINT_OPTION))) {
+            if (arguments[0].equals(ARENA_OPTION)) {
+                Competition.setArenaByDefault(true);
+            } else {
+                Competition.setFixedPointByDefault(true);
+            }
+            arguments = Arrays.copyOfRange(arguments, 1, arguments.length);
+        }
+        while (arguments.length >= 2 && (arguments[0].equals(LADDER_OPTION) || arguments[0].equals(BATTLE_LOG_OPTION))) {
+            boolean opened = arguments[0].equals(LADDER_OPTION) ? openLadder(arguments[1]) : openBattleLog(arguments[1]);
+            if (!opened) {
+                System.exit(EXIT_CODE_ERROR);
+            }
+            arguments = Arrays.copyOfRange(arguments, 2, arguments.length);
+        }
+
+        if (arguments.length > 0 && arguments[0].equals(SERVER_OPTION)) {
+            runServer(Arrays.copyOfRange(arguments, 1, arguments.length));
+            return;
+        }
+        if (arguments.length > 0 && arguments[0].equals(DAEMON_OPTION)) {
+            runDaemon(Arrays.copyOfRange(arguments, 1, arguments.length));
+            return;
+        }
+        if (arguments.length > 0 && arguments[0].equals(AUTOPLAY_OPTION)) {
+            if (!runAutoplay(Arrays.copyOfRange(arguments, 1, arguments.length))) {
+                System.exit(EXIT_CODE_ERROR);
+            }
+            return;
+        }
+
+        int exitCode = run(arguments, System.in, false);
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Runs one game with the given command line arguments until the input ends or the player quits.
+     *
+     * @param arguments the command line arguments, {@code [--lazy] <config_file> [<seed>|debug]}
+     * @param input the input of the player
+     * @param isolated whether the game gets its own competition bound to the current thread
+     *                 instead of the global one
+     * @return the exit code
+     */
+    public static int run(String[] arguments, InputStream input, boolean isolated) {
+        boolean lazy = arguments.length > 0 && arguments[0].equals(LAZY_OPTION);
+        String[] args = lazy ? Arrays.copyOfRange(arguments, 1, arguments.length) : arguments;
         if (args.length < 1 || args.length > 2) {
             System.err.println(ERROR_MESSAGE_COMMAND_LINE_ARGUMENTS);
-            System.err.println("Usage: java -jar MonsterBattle.jar <config_file> [<seed>|debug]");
-            return;
+            System.err.println("Usage: java -jar MonsterBattle.jar [" + LAZY_OPTION + "] <config_file> [<seed>|debug]");
+            System.err.println("       java -jar MonsterBattle.jar " + SERVER_OPTION + " <port> <config_file> [<seed>]");
+            System.err.println("       java -jar MonsterBattle.jar " + DAEMON_OPTION + " <socket> [<config_file>...]");
+            System.err.println("       java -jar MonsterBattle.jar " + AUTOPLAY_OPTION + " [" + RENDER_OPTION
+                    + "] <policy> <games> <config_file> <seed> <monster> <monster>...");
+            System.err.println("A leading " + ARENA_OPTION
+                    + " keeps the participants of all competitions in arrays, which suits very large competitions.");
+            System.err.println("A leading " + FIXED_POINT_OPTION
+                    + " plays all competitions in fixed-point arithmetic, which is the same on every machine.");
+            System.err.println("Any mode can be preceded by " + LADDER_OPTION + " <directory> to record results");
+            System.err.println("and by " + BATTLE_LOG_OPTION + " <file> to export every effect to a columnar battle log.");
+            return EXIT_CODE_ERROR;
         }
 
         String configFile = args[0];
@@ -43,28 +140,242 @@ public final class Application {
                     seed = Long.parseLong(args[1]);
                 } catch (NumberFormatException e) {
                     System.err.println("Error, invalid seed. Must be a number or 'debug'.");
-                    return;
+                    return EXIT_CODE_ERROR;
                 }
             }
         }
 
         // Initialize the competition
-        Competition.initialize(seed, debugMode);
+        if (isolated) {
+            if (debugMode) {
+                // Debug mode reads random values from the standard input of the process
+                System.err.println("Error, debug mode is only available when running without a daemon.");
+                return EXIT_CODE_ERROR;
+            }
+            Competition.bindToCurrentThread(Competition.create(seed, false));
+        } else {
+            Competition.initialize(seed, debugMode);
+        }
 
-        // Load the initial configuration
-        ConfigurationLoader loader = new ConfigurationLoader();
         try {
-            String configContent = loader.loadConfiguration(configFile);
-            System.out.println(configContent);
-            System.out.printf("Loaded %d actions, %d monsters.\n",
-                    loader.getActionCount(), loader.getMonsterCount());
-        } catch (ConfigurationException e) {
+            // Start the user interface with the initial configuration
+            UserInterface userInterface = new UserInterface(input, System.out, System.err);
+            try {
+                if (lazy) {
+                    // Only the monsters of competitions are parsed, so the configuration is not printed
+                    MonsterPack pack = MonsterPack.open(configFile);
+                    System.out.printf("Loaded %d actions, %d monsters.\n",
+                            pack.getActionCount(), pack.getMonsterCount());
+                    userInterface.setMonsterPack(pack);
+                } else {
+                    ConfigurationCache.CachedConfiguration configuration = ConfigurationCache.load(configFile);
+                    System.out.println(configuration.getContent());
+                    System.out.println(configuration.getLoadedMessage());
+                    userInterface.setMonsters(configuration.getMonsters(), configuration.getSymbols(),
+                            configuration.getRuleset());
+                }
+            } catch (ConfigurationException e) {
+                System.err.println("Error, " + e.getMessage());
+                return EXIT_CODE_ERROR;
+            }
+            userInterface.handleUserInput();
+            return 0;
+        } finally {
+            if (isolated) {
+                Competition.bindToCurrentThread(null);
+            }
+        }
+    }
+
+    /**
+     * Opens the rating ladder and records the results of all competitions in it.
+     *
+     * @param directory the directory of the ladder files
+     * @return true if the ladder was opened
+     */
+    private static boolean openLadder(String directory) {
+        try {
+            RatingLadder.initialize(Paths.get(directory));
+        } catch (IOException e) {
+            System.err.println("Error, cannot open ladder: " + e.getMessage());
+            return false;
+        }
+        Competition.setResultListener(RatingLadder.getInstance());
+        return true;
+    }
+
+    /**
+     * Opens the battle log and exports every effect executed by any competition to it.
+     * The last batch is written when the process exits.
+     *
+     * @param file the battle log file, replaced if it exists
+     * @return true if the battle log was opened
+     */
+    private static boolean openBattleLog(String file) {
+        BattleLogWriter writer;
+        try {
+            writer = new BattleLogWriter(Paths.get(file));
+        } catch (IOException e) {
+            System.err.println("Error, cannot open battle log: " + e.getMessage());
+            return false;
+        }
+        Competition.setEffectListener(writer);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("Error, cannot write battle log: " + e.getMessage());
+            }
+        }));
+        return true;
+    }
+
+    /**
+     * Runs the game server, where every connection plays its own session.
+     *
+     * @param args the command line arguments after the server option
+     */
+    private static void runServer(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println(ERROR_MESSAGE_COMMAND_LINE_ARGUMENTS);
+            System.err.println("Usage: java -jar MonsterBattle.jar " + SERVER_OPTION + " <port> <config_file> [<seed>]");
+            return;
+        }
+
+        int port;
+        long seed = System.currentTimeMillis();
+        try {
+            port = Integer.parseInt(args[0]);
+            if (args.length == 3) {
+                seed = Long.parseLong(args[2]);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Error, port and seed must be numbers.");
+            return;
+        }
+
+        try {
+            new GameServer(port, args[1], seed).run();
+        } catch (IOException | ConfigurationException e) {
             System.err.println("Error, " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the daemon, which serves the thin client {@link DaemonClient} with a warm JVM.
+     *
+     * @param args the command line arguments after the daemon option
+     */
+    private static void runDaemon(String[] args) {
+        if (args.length < 1) {
+            System.err.println(ERROR_MESSAGE_COMMAND_LINE_ARGUMENTS);
+            System.err.println("Usage: java -jar MonsterBattle.jar " + DAEMON_OPTION + " <socket> [<config_file>...]");
             return;
         }
 
-        // Start the user interface
-        UserInterface userInterface = new UserInterface(System.in, System.out, System.err);
-        userInterface.handleUserInput();
+        List<String> configFiles = Arrays.asList(args).subList(1, args.length);
+        try {
+            new GameDaemon(Paths.get(args[0]), configFiles, (sessionArgs, input) -> run(sessionArgs, input, true)).run();
+        } catch (IOException | ConfigurationException e) {
+            System.err.println("Error, " + e.getMessage());
+        }
+    }
+
+    /**
+     * Plays competitions in which every monster is controlled by a built-in policy, one after another and without
+     * reading any input. The battles are only printed with the render option; otherwise, one line per game and
+     * a summary are printed, so the engine runs at full speed, e.g. to soak-test it or to fill a battle log.
+     *
+     * @param args the command line arguments after the autoplay option
+     * @return true if the arguments were valid
+     */
+    private static boolean runAutoplay(String[] args) {
+        boolean render = args.length > 0 && args[0].equals(RENDER_OPTION);
+        String[] arguments = render ? Arrays.copyOfRange(args, 1, args.length) : args;
+        if (arguments.length < AUTOPLAY_MIN_ARGUMENTS) {
+            System.err.println(ERROR_MESSAGE_COMMAND_LINE_ARGUMENTS);
+            System.err.println(AUTOPLAY_USAGE);
+            return false;
+        }
+
+        Policy policy = Policies.create(arguments[0]);
+        if (policy == null) {
+            System.err.printf("Error, unknown policy %s. Known policies are %s.\n", arguments[0],
+                    String.join(", ", Policies.NAMES));
+            return false;
+        }
+        long games;
+        long seed;
+        try {
+            games = Long.parseLong(arguments[1]);
+            seed = Long.parseLong(arguments[3]);
+        } catch (NumberFormatException e) {
+            System.err.println("Error, games and seed must be numbers.");
+            return false;
+        }
+        if (games < 0) {
+            System.err.println("Error, the number of games must not be negative.");
+            return false;
+        }
+
+        Map<String, Monster> species = new HashMap<>();
+        Ruleset ruleset;
+        try {
+            ConfigurationCache.CachedConfiguration configuration = ConfigurationCache.load(arguments[2]);
+            for (Monster monster : configuration.getMonsters()) {
+                species.putIfAbsent(monster.getName(), monster);
+            }
+            ruleset = configuration.getRuleset();
+        } catch (ConfigurationException e) {
+            System.err.println("Error, " + e.getMessage());
+            return false;
+        }
+        List<String> names = Arrays.asList(arguments).subList(4, arguments.length);
+        for (String name : names) {
+            if (!species.containsKey(name)) {
+                System.err.printf("Error, monster %s not found.\n", name);
+                return false;
+            }
+        }
+
+        PrintStream output = System.out;
+        if (!render) {
+            SessionPrintStream.install();
+            SessionPrintStream.bind(new PrintStream(OutputStream.nullOutputStream()), System.err);
+        }
+        long rounds = 0;
+        long start = System.nanoTime();
+        long game = 0;
+        try {
+            // Zero games means playing until the process is stopped
+            while (games == 0 || game < games) {
+                Competition competition = Competition.create(seed + game, false);
+                Competition.bindToCurrentThread(competition);
+                competition.setRuleset(ruleset);
+                for (String name : names) {
+                    competition.addMonster(species.get(name));
+                }
+                for (Monster participant : competition.getMonsters()) {
+                    competition.setPolicy(participant, policy);
+                }
+                competition.setMaxRounds(CommandAutoplay.MAX_ROUNDS);
+                competition.start();
+
+                game++;
+                rounds += competition.getCurrentRound();
+                Monster winner = competition.getWinner();
+                String outcome = winner == null ? "no winner" : winner.getDisplayName() + " wins";
+                output.printf("Game %d: %s after %d rounds.\n", game, outcome, competition.getCurrentRound());
+            }
+        } finally {
+            Competition.bindToCurrentThread(null);
+            if (!render) {
+                SessionPrintStream.bind(null);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        output.printf("Played %d games with %d rounds in %.2f s (%.0f games/s).\n", game, rounds, seconds,
+                game / seconds);
+        return true;
     }
 }
\ No newline at end of file
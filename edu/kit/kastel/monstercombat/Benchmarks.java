@@ -0,0 +1,244 @@
+package edu.kit.kastel.monstercombat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+import edu.kit.kastel.monstercombat.model.generator.ArithmeticBenchmark;
+import edu.kit.kastel.monstercombat.model.generator.LoadSweep;
+import edu.kit.kastel.monstercombat.model.generator.OptimizationVerifier;
+import edu.kit.kastel.monstercombat.model.generator.ReloadOddsVerifier;
+import edu.kit.kastel.monstercombat.model.generator.SpectatorBenchmark;
+import edu.kit.kastel.monstercombat.view.SessionPrintStream;
+
+/**
+ * Entry point for the benchmarks and verifiers, kept apart from the game in {@link Application}.
+ * @author ursxd
+ */
+public final class Benchmarks {
+    private static final String ERROR_MESSAGE_COMMAND_LINE_ARGUMENTS = "Error, invalid command line arguments.";
+    private static final String USAGE_PREFIX = "java -cp MonsterBattle.jar " + Benchmarks.class.getName() + " ";
+    private static final String LOAD_TEST_OPTION = "--loadtest";
+    private static final String VERIFY_OPTION = "--verify";
+    private static final String VERIFY_ODDS_OPTION = "--verify-odds";
+    private static final String SPECTATE_OPTION = "--spectate";
+    private static final String ARITHMETIC_OPTION = "--arithmetic";
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final int EXIT_CODE_ERROR = 1;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Benchmarks() {
+        // Utility class
+    }
+
+    /**
+     * Runs the benchmark selected by the first command line argument.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        boolean success;
+        if (args.length > 0 && args[0].equals(LOAD_TEST_OPTION)) {
+            success = runLoadTest(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals(VERIFY_OPTION)) {
+            success = runVerifier(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals(VERIFY_ODDS_OPTION)) {
+            success = runOddsVerifier(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals(SPECTATE_OPTION)) {
+            success = runSpectatorBenchmark(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals(ARITHMETIC_OPTION)) {
+            success = runArithmeticBenchmark(Arrays.copyOfRange(args, 1, args.length));
+        } else {
+            System.err.println(ERROR_MESSAGE_COMMAND_LINE_ARGUMENTS);
+            System.err.println("Usage: " + USAGE_PREFIX + LOAD_TEST_OPTION + " <csv_file> <seed>");
+            System.err.println("       " + USAGE_PREFIX + VERIFY_OPTION + " <config_file> <seed> <games>");
+            System.err.println("       " + USAGE_PREFIX + VERIFY_ODDS_OPTION + " <config_file>");
+            System.err.println("       " + USAGE_PREFIX + SPECTATE_OPTION
+                    + " <config_file> <seed> <games> <spectators>");
+            System.err.println("       " + USAGE_PREFIX + ARITHMETIC_OPTION + " <seed>");
+            success = false;
+        }
+        if (!success) {
+            System.exit(EXIT_CODE_ERROR);
+        }
+    }
+
+    /**
+     * Generates configurations of growing size and writes their load times, heap usage and battle throughput
+     * to a CSV file, see {@link LoadSweep}.
+     *
+     * @param args the command line arguments after the load test option
+     * @return true if the sweep finished
+     */
+    private static boolean runLoadTest(String[] args) {
+        if (args.length != 2) {
+            System.err.println(ERROR_MESSAGE_COMMAND_LINE_ARGUMENTS);
+            System.err.println("Usage: " + USAGE_PREFIX + LOAD_TEST_OPTION + " <csv_file> <seed>");
+            return false;
+        }
+        long seed;
+        try {
+            seed = Long.parseLong(args[1]);
+        } catch (NumberFormatException e) {
+            System.err.println("Error, the seed must be a number.");
+            return false;
+        }
+
+        PrintStream output = System.out;
+        SessionPrintStream.install();
+        SessionPrintStream.bind(new PrintStream(OutputStream.nullOutputStream()), System.err);
+        long start = System.nanoTime();
+        int rows;
+        try (Writer writer = Files.newBufferedWriter(Paths.get(args[0]))) {
+            rows = new LoadSweep(seed).run(writer);
+        } catch (IOException | ConfigurationException e) {
+            System.err.println("Error, load test failed: " + e.getMessage());
+            return false;
+        } finally {
+            SessionPrintStream.bind(null);
+        }
+        output.printf("Measured %d configurations in %.2f s.\n", rows, (System.nanoTime() - start) / NANOS_PER_SECOND);
+        return true;
+    }
+
+    /**
+     * Plays the same games with and without optimized actions and checks that their transcripts are identical,
+     * see {@link OptimizationVerifier}.
+     *
+     * @param args the command line arguments after the verify option
+     * @return true if all transcripts were identical
+     */
+    private static boolean runVerifier(String[] args) {
+        if (args.length != 3) {
+            System.err.println(ERROR_MESSAGE_COMMAND_LINE_ARGUMENTS);
+            System.err.println("Usage: " + USAGE_PREFIX + VERIFY_OPTION + " <config_file> <seed> <games>");
+            return false;
+        }
+        long seed;
+        int games;
+        try {
+            seed = Long.parseLong(args[1]);
+            games = Integer.parseInt(args[2]);
+        } catch (NumberFormatException e) {
+            System.err.println("Error, the seed and the number of games must be numbers.");
+            return false;
+        }
+
+        PrintStream output = System.out;
+        SessionPrintStream.install();
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        try {
+            return new OptimizationVerifier(seed, games, stream -> SessionPrintStream.bind(stream, null))
+                    .verify(args[0], writer);
+        } catch (IOException | ConfigurationException e) {
+            System.err.println("Error, verification failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks that odds are not stale after reloading a changed configuration, see {@link ReloadOddsVerifier}.
+     *
+     * @param args the command line arguments after the option
+     * @return true if no odds were stale
+     */
+    private static boolean runOddsVerifier(String[] args) {
+        if (args.length != 1) {
+            System.err.println(ERROR_MESSAGE_COMMAND_LINE_ARGUMENTS);
+            System.err.println("Usage: " + USAGE_PREFIX + VERIFY_ODDS_OPTION + " <config_file>");
+            return false;
+        }
+        Writer writer = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+        try {
+            return new ReloadOddsVerifier().verify(args[0], writer);
+        } catch (IOException | ConfigurationException e) {
+            System.err.println("Error, verification failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Plays the same games with and without many spectators and prints what the spectators cost,
+     * see {@link SpectatorBenchmark}.
+     *
+     * @param args the command line arguments after the spectate option
+     * @return true if all spectators knew the final state
+     */
+    private static boolean runSpectatorBenchmark(String[] args) {
+        if (args.length != 4) {
+            System.err.println(ERROR_MESSAGE_COMMAND_LINE_ARGUMENTS);
+            System.err.println("Usage: " + USAGE_PREFIX + SPECTATE_OPTION
+                    + " <config_file> <seed> <games> <spectators>");
+            return false;
+        }
+        long seed;
+        int games;
+        int spectators;
+        try {
+            seed = Long.parseLong(args[1]);
+            games = Integer.parseInt(args[2]);
+            spectators = Integer.parseInt(args[3]);
+        } catch (NumberFormatException e) {
+            System.err.println("Error, the seed and the numbers of games and spectators must be numbers.");
+            return false;
+        }
+
+        PrintStream output = System.out;
+        SessionPrintStream.install();
+        SessionPrintStream.bind(new PrintStream(OutputStream.nullOutputStream()), System.err);
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        try {
+            return new SpectatorBenchmark(seed, games, spectators).run(args[0], writer);
+        } catch (IOException | ConfigurationException e) {
+            System.err.println("Error, benchmark failed: " + e.getMessage());
+            return false;
+        } finally {
+            SessionPrintStream.bind(null);
+        }
+    }
+
+    /**
+     * Plays the same battles in double and in fixed-point arithmetic and prints how fast both are,
+     * see {@link ArithmeticBenchmark}.
+     *
+     * @param args the command line arguments after the arithmetic option
+     * @return true if the benchmark finished
+     */
+    private static boolean runArithmeticBenchmark(String[] args) {
+        if (args.length != 1) {
+            System.err.println(ERROR_MESSAGE_COMMAND_LINE_ARGUMENTS);
+            System.err.println("Usage: " + USAGE_PREFIX + ARITHMETIC_OPTION + " <seed>");
+            return false;
+        }
+        long seed;
+        try {
+            seed = Long.parseLong(args[0]);
+        } catch (NumberFormatException e) {
+            System.err.println("Error, the seed must be a number.");
+            return false;
+        }
+
+        PrintStream output = System.out;
+        SessionPrintStream.install();
+        SessionPrintStream.bind(new PrintStream(OutputStream.nullOutputStream()), System.err);
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        try {
+            new ArithmeticBenchmark(seed).run(writer);
+        } catch (IOException | ConfigurationException e) {
+            System.err.println("Error, benchmark failed: " + e.getMessage());
+            return false;
+        } finally {
+            SessionPrintStream.bind(null);
+        }
+        return true;
+    }
+}
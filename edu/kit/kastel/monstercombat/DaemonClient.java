@@ -0,0 +1,122 @@
+package edu.kit.kastel.monstercombat;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+import edu.kit.kastel.monstercombat.view.DaemonProtocol;
+
+/**
+ * Thin client for the game daemon.
+ * Forwards the command line arguments and standard input to a running daemon, prints what it answers
+ * and exits with the exit code of the session. The configuration file is forwarded as an absolute path,
+ * because the daemon runs in a working directory of its own. Only loads JDK classes, so it reaches the first prompt
+ * as fast as the JVM starts.
+ * @author ursxd
+ */
+public final class DaemonClient {
+    private static final int EXIT_CODE_CONNECTION_LOST = 1;
+    private static final int EXIT_CODE_USAGE = 2;
+    private static final int BUFFER_SIZE = 8192;
+    private static final String OPTION_PREFIX = "--";
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private DaemonClient() {
+        // Utility class
+    }
+
+    /**
+     * Main entry point for the client.
+     *
+     * @param args the socket path followed by the arguments for the session
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Error, invalid command line arguments.");
+            System.err.println("Usage: java -cp MonsterBattle.jar edu.kit.kastel.monstercombat.DaemonClient "
+                    + "<socket> <config_file> [<seed>]");
+            System.exit(EXIT_CODE_USAGE);
+        }
+
+        int exitCode;
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(args[0]))) {
+            DataOutputStream request = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            request.writeInt(args.length - 1);
+            boolean configFile = true;
+            for (int i = 1; i < args.length; i++) {
+                String argument = args[i];
+                // Options such as --lazy precede the configuration file, which is the first other argument
+                if (configFile && !argument.startsWith(OPTION_PREFIX)) {
+                    argument = Path.of(argument).toAbsolutePath().toString();
+                    configFile = false;
+                }
+                request.writeUTF(argument);
+            }
+            request.flush();
+
+            Thread inputForwarder = new Thread(() -> forwardInput(channel, request), "input-forwarder");
+            inputForwarder.setDaemon(true);
+            inputForwarder.start();
+
+            exitCode = readResponse(new DataInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE)));
+        } catch (IOException e) {
+            System.err.println("Error, cannot reach the daemon: " + e.getMessage());
+            exitCode = EXIT_CODE_CONNECTION_LOST;
+        }
+        System.exit(exitCode);
+    }
+
+    private static void forwardInput(SocketChannel channel, DataOutputStream request) {
+        InputStream input = System.in;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try {
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                request.write(buffer, 0, read);
+                request.flush();
+            }
+            channel.shutdownOutput();
+        } catch (IOException e) {
+            // The daemon ended the session; the response reader reports the exit code
+        }
+    }
+
+    private static int readResponse(DataInputStream response) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try {
+            while (true) {
+                byte type = response.readByte();
+                int length = response.readInt();
+                if (type == DaemonProtocol.FRAME_EXIT) {
+                    System.out.flush();
+                    return length;
+                }
+
+                PrintStream target = type == DaemonProtocol.FRAME_ERROR ? System.err : System.out;
+                while (length > 0) {
+                    int chunk = Math.min(length, buffer.length);
+                    response.readFully(buffer, 0, chunk);
+                    target.write(buffer, 0, chunk);
+                    length -= chunk;
+                }
+                target.flush();
+            }
+        } catch (EOFException e) {
+            System.err.println("Error, the daemon closed the connection.");
+            return EXIT_CODE_CONNECTION_LOST;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package edu.kit.kastel.monstercombat.model;
 
 import edu.kit.kastel.monstercombat.model.effect.Effect;
+import edu.kit.kastel.monstercombat.model.effect.EffectOptimizer;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -8,19 +9,55 @@ import java.util.List;
 public class Action {
 
     private final String name;
+    private final int symbol;
     private final Element element;
     private final List<Effect> effects;
+    private List<Effect> executedEffects;
 
-    public Action(String name, Element element) {
+    /**
+     * Constructs an action whose name is interned into the symbols of its configuration.
+     *
+     * @param name the name of the action
+     * @param element the element of the action
+     * @param symbols the symbols of the configuration
+     */
+    public Action(String name, Element element, SymbolTable symbols) {
         this.name = name;
+        this.symbol = symbols.intern(name);
         this.element = element;
         this.effects = new ArrayList<>();
+        this.executedEffects = effects;
+    }
+
+    /**
+     * Constructs an action with a fixed list of effects, which may be shared with other actions.
+     *
+     * @param name the name of the action
+     * @param element the element of the action
+     * @param effects the effects, which are never changed
+     * @param symbols the symbols of the configuration
+     */
+    Action(String name, Element element, List<Effect> effects, SymbolTable symbols) {
+        this.name = name;
+        this.symbol = symbols.intern(name);
+        this.element = element;
+        this.effects = effects;
+        this.executedEffects = effects;
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * Gets the symbol of the action name.
+     *
+     * @return the name symbol
+     */
+    public int getSymbol() {
+        return symbol;
+    }
+
     public Element getElement() {
         return element;
     }
@@ -33,6 +70,25 @@ public class Action {
         return new ArrayList<>(effects);
     }
 
+    /**
+     * Gets the effects the battle manager executes, which may be optimized, see {@link EffectOptimizer}.
+     * Everything else uses the effects as they are configured.
+     *
+     * @return the executed effects, which must not be changed
+     */
+    List<Effect> getExecutedEffects() {
+        return executedEffects;
+    }
+
+    /**
+     * Sets the optimized effects to execute, before the action is used.
+     *
+     * @param executedEffects the effects, which yield the same output as the configured ones
+     */
+    void setExecutedEffects(List<Effect> executedEffects) {
+        this.executedEffects = executedEffects;
+    }
+
     public int getFirstEffectHitRate() {
         if (effects.isEmpty()) {
             return 0;
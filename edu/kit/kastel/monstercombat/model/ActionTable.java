@@ -0,0 +1,83 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The actions a monster knows, in the order of the configuration and by the symbols of their names.
+ * The symbols are kept sorted, so an action is found by binary search instead of comparing names.
+ * If a monster knows several actions of the same name, the first one is found, as in a search through the list.
+ * The table is shared by a species and all of its participants.
+ * @author ursxd
+ */
+final class ActionTable {
+    private final SymbolTable symbolTable;
+    private final List<Action> actions = new ArrayList<>();
+    private int[] symbols = new int[0];
+    private Action[] bySymbol = new Action[0];
+
+    /**
+     * Constructs an empty table.
+     *
+     * @param symbolTable the symbols of the configuration the actions belong to
+     */
+    ActionTable(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    /**
+     * Adds an action after the known ones.
+     *
+     * @param action the action
+     */
+    void add(Action action) {
+        actions.add(action);
+        int position = Arrays.binarySearch(symbols, action.getSymbol());
+        if (position >= 0) {
+            return;
+        }
+
+        int insertion = -position - 1;
+        int[] newSymbols = new int[symbols.length + 1];
+        Action[] newActions = new Action[symbols.length + 1];
+        System.arraycopy(symbols, 0, newSymbols, 0, insertion);
+        System.arraycopy(bySymbol, 0, newActions, 0, insertion);
+        newSymbols[insertion] = action.getSymbol();
+        newActions[insertion] = action;
+        System.arraycopy(symbols, insertion, newSymbols, insertion + 1, symbols.length - insertion);
+        System.arraycopy(bySymbol, insertion, newActions, insertion + 1, symbols.length - insertion);
+        symbols = newSymbols;
+        bySymbol = newActions;
+    }
+
+    /**
+     * Gets the action with the given name symbol.
+     *
+     * @param symbol the symbol of the action name
+     * @return the action, or null if there is none with this name
+     */
+    Action get(int symbol) {
+        int position = Arrays.binarySearch(symbols, symbol);
+        return position < 0 ? null : bySymbol[position];
+    }
+
+    /**
+     * Gets the action with the given name.
+     *
+     * @param name the action name
+     * @return the action, or null if there is none with this name
+     */
+    Action get(String name) {
+        return get(symbolTable.find(name));
+    }
+
+    /**
+     * Gets the actions in the order they were added.
+     *
+     * @return a copy of the actions
+     */
+    List<Action> list() {
+        return new ArrayList<>(actions);
+    }
+}
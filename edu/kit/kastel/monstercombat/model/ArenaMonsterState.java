@@ -0,0 +1,100 @@
+package edu.kit.kastel.monstercombat.model;
+
+/**
+ * Monster state that reads and writes the arrays of a {@link MonsterArena}.
+ * @author ursxd
+ */
+class ArenaMonsterState extends MonsterState {
+    private final MonsterArena arena;
+    private final int handle;
+
+    ArenaMonsterState(MonsterArena arena, int handle) {
+        this.arena = arena;
+        this.handle = handle;
+    }
+
+    @Override
+    public int getBaseStat(Stat stat) {
+        return arena.getBaseStat(handle, stat);
+    }
+
+    @Override
+    public double getEffectiveStat(Stat stat) {
+        return arena.getEffectiveStat(handle, stat);
+    }
+
+    @Override
+    public long getFixedEffectiveStat(Stat stat) {
+        return arena.getFixedEffectiveStat(handle, stat);
+    }
+
+    @Override
+    public int getCurrentHp() {
+        return arena.getCurrentHp(handle);
+    }
+
+    @Override
+    public int getMaxHp() {
+        return arena.getMaxHp(handle);
+    }
+
+    @Override
+    public StatusCondition getStatusCondition() {
+        return arena.getStatusCondition(handle);
+    }
+
+    @Override
+    public void setStatusCondition(StatusCondition condition) {
+        arena.setStatusCondition(handle, condition);
+    }
+
+    @Override
+    public int getStatChange(Stat stat) {
+        return arena.getStatChange(handle, stat);
+    }
+
+    @Override
+    public void setStatChange(Stat stat, int statChange) {
+        arena.setStatChange(handle, stat, statChange);
+    }
+
+    @Override
+    public int takeDamage(int amount) {
+        return arena.takeDamage(handle, amount);
+    }
+
+    @Override
+    public int heal(int amount) {
+        return arena.heal(handle, amount);
+    }
+
+    @Override
+    public boolean isDefeated() {
+        return arena.isDefeated(handle);
+    }
+
+    @Override
+    public boolean isProtectedAgainstDamage() {
+        return arena.isProtectedAgainstDamage(handle);
+    }
+
+    @Override
+    public boolean isProtectedAgainstStatChanges() {
+        return arena.isProtectedAgainstStatChanges(handle);
+    }
+
+    @Override
+    public void setProtection(boolean protectHealth, boolean protectStatChanges, int protectionDuration) {
+        arena.setProtection(handle, protectHealth, protectStatChanges, protectionDuration);
+    }
+
+    @Override
+    public int getProtectionDuration() {
+        return arena.getProtectionDuration(handle);
+    }
+
+    @Override
+    public boolean decreaseProtectionDuration() {
+        return arena.decreaseProtectionDuration(handle);
+    }
+}
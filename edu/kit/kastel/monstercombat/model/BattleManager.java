@@ -1,102 +1,78 @@
 package edu.kit.kastel.monstercombat.model;
 
-import java.util.LinkedList;
-import java.util.Queue;
-
 import edu.kit.kastel.monstercombat.model.effect.Effect;
-import edu.kit.kastel.monstercombat.model.effect.EffectDamage;
+import edu.kit.kastel.monstercombat.model.effect.EffectStream;
 
 public class BattleManager {
     private final Competition competition;
+    private boolean criticalHit;
 
     public BattleManager(Competition competition) {
         this.competition = competition;
     }
 
     public void executeAction(Monster user, Action action, Monster target) {
-        if (user.getStatusCondition() == StatusCondition.SLEEP) {
-            System.out.printf("%s is asleep!\n", user.getDisplayName());
-            if (competition.checkProbability("sleep end", 33.33)) {
-                System.out.printf("%s woke up!\n", user.getDisplayName());
-                user.setStatusCondition(StatusCondition.NONE);
-            }
+        if (user.getStatusCondition().beforeAction(user, competition)) {
             return;
         }
         System.out.printf("%s uses %s!\n", user.getDisplayName(), action.getName());
-        Queue<Effect> effectQueue = createEffectQueue(action);
-        executeEffectQueue(user, target, effectQueue);
-        processStatusConditions(user);
+        // Repeats are entered lazily, so their effects are never copied
+        EffectStream effects = new EffectStream(action.getExecutedEffects(), user, target);
+        executeEffects(user, target, effects);
+        user.getStatusCondition().afterAction(user, competition);
     }
 
 
 //ToDo Instanceof ist verboten.
 
 
-    private Queue<Effect> createEffectQueue(Action action) {
-        Queue<Effect> effectQueue = new LinkedList<>();
-
-        for (Effect effect : action.getEffects()) {
-            effect.addToQueue(effectQueue);
-        }
-
-        return effectQueue;
-    }
-
-    private void executeEffectQueue(Monster user, Monster target, Queue<Effect> effectQueue) {
-        if (!effectQueue.isEmpty()) {
-            Effect firstEffect = effectQueue.poll();
+    private void executeEffects(Monster user, Monster target, EffectStream effects) {
+        Effect firstEffect = effects.next();
+        if (firstEffect != null) {
             boolean firstEffectHit = executeEffect(user, target, firstEffect, true);
             if (!firstEffectHit) {
                 System.out.println("The action failed...");
                 return;
             }
-            while (!effectQueue.isEmpty()) {
-                Effect effect = effectQueue.poll();
+            Effect effect = effects.next();
+            while (effect != null) {
                 executeEffect(user, target, effect, false);
+                effect = effects.next();
             }
         }
     }
 
     private boolean executeEffect(Monster user, Monster target, Effect effect, boolean isFirstEffect) {
-        // Calculate hit chance
-        double hitChance = effect.getHitRate();
+        int hitRate = effect.getHitRate();
+        boolean hits;
+        if (competition.isFixedPoint()) {
+            hits = competition.checkFixedProbability("effect hit", FixedPoint.hitChance(hitRate, user, target));
+        } else {
+            // Calculate hit chance
+            double hitChance = hitRate;
+
+            // Apply precision/evasion if target is not user
+            if (target != null && target != user) {
+                hitChance *= user.getEffectiveStat(Stat.PRC) / target.getEffectiveStat(Stat.AGL);
+            }
 
-        // Apply precision/evasion if target is not user
-        if (target != null && target != user) {
-            hitChance *= user.getEffectiveStat(Stat.PRC) / target.getEffectiveStat(Stat.AGL);
+            // Check if effect hits
+            hits = competition.checkProbability("effect hit", hitChance);
         }
 
-        // Check if effect hits
-        boolean hits = competition.checkProbability("effect hit", hitChance);
-
-        if (hits) {
-            return effect.execute(user, target, isFirstEffect);
+        if (!competition.isRecordingEffects()) {
+            return hits && effect.execute(user, target, isFirstEffect);
         }
 
-        return false;
+        // Record what the effect did for the battle log
+        criticalHit = false;
+        int hpBefore = target == null ? 0 : target.getCurrentHp();
+        boolean result = hits && effect.execute(user, target, isFirstEffect);
+        competition.reportEffect(user, effect, target, hits, criticalHit, hpBefore);
+        return result;
     }
 
-    private void processStatusConditions(Monster monster) {
-        if (monster.getStatusCondition() != StatusCondition.NONE
-                && monster.getStatusCondition() != StatusCondition.SLEEP) {
-            System.out.printf("%s is %s!\n", monster.getDisplayName(),
-                    monster.getStatusCondition().getActiveMessage());
-
-            // Check if condition ends
-            if (competition.checkProbability("status condition end", 33.33)) {
-                System.out.printf("%s %s!\n", monster.getDisplayName(),
-                        monster.getStatusCondition().getEndMessage());
-                monster.setStatusCondition(StatusCondition.NONE);
-            } else if (monster.getStatusCondition() == StatusCondition.BURN) {
-                // Burn damage
-                EffectDamage burnDamage = new EffectDamage(monster);
-                burnDamage.execute(monster, null, false);
-
-                // Check if fainted
-                if (monster.isDefeated()) {
-                    System.out.printf("%s faints!\n", monster.getDisplayName());
-                }
-            }
-        }
+    void markCriticalHit() {
+        criticalHit = true;
     }
 }
\ No newline at end of file
@@ -1,44 +1,93 @@
 package edu.kit.kastel.monstercombat.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import edu.kit.kastel.monstercombat.model.effect.Effect;
+import edu.kit.kastel.monstercombat.model.policy.Policy;
 
 public final class Competition {
+    private static final ThreadLocal<Competition> SESSION_INSTANCE = new ThreadLocal<>();
     private static Competition instance;
+    private static volatile boolean arenaByDefault;
+    private static final AtomicLong BATTLE_IDS = new AtomicLong();
+    private static volatile ResultListener resultListener;
+    private static volatile EffectListener effectListener;
+    private static volatile boolean fixedPointByDefault;
+    private static final ExecutorService DECISION_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    private static final long DECISION_SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final boolean PARALLEL_DECISIONS = Runtime.getRuntime().availableProcessors() > 1;
     private final BattleManager battleManager;
 
     private final List<Monster> monsters;
+    private final List<CopyOnWriteMonsterState> states;
     private final Map<String, Monster> monstersByNumber;
+    private MonsterArena arena;
+    // Receives the participants whose protection faded at the end of a round in arena storage
+    private int[] fadedHandles = new int[0];
 
     private Monster currentMonster;
     private Action currentAction;
     private Monster currentTarget;
+    private int choosingIndex;
+    private Action[] chosenActions;
+    private Monster[] chosenTargets;
+    private final Map<Integer, Policy> policies;
+    private final Map<Integer, FutureTask<Decision>> pendingDecisions;
 
+    private long battleId;
     private int currentRound;
+    private int maxRounds;
     private boolean decided;
     private Monster winner;
 
-    private final Random random;
+    private final long seed;
+    private final CompetitionRandom random;
     private final boolean debugMode;
+    private final boolean forked;
     private Scanner debugScanner;
+    private Ruleset ruleset = Ruleset.BUILT_IN;
+    private SpectatorFeed spectatorFeed;
+    private boolean fixedPoint;
+
+    // States whose version differs from this one are shared with a fork and copied before they are changed
+    private Object stateVersion;
 
     private Competition(long seed, boolean debug) {
+        this(seed, debug, false);
+    }
+
+    private Competition(long seed, boolean debug, boolean forked) {
         this.battleManager = new BattleManager(this);
 
         this.monsters = new ArrayList<>();
+        this.states = new ArrayList<>();
         this.monstersByNumber = new HashMap<>();
+        this.policies = new HashMap<>();
+        this.pendingDecisions = new HashMap<>();
+        this.stateVersion = new Object();
 
         this.currentRound = 0;
         this.decided = false;
         this.winner = null;
 
-        this.random = new Random(seed);
+        this.seed = seed;
+        this.random = new CompetitionRandom(seed);
         this.debugMode = debug;
+        this.forked = forked;
+        this.fixedPoint = fixedPointByDefault;
         if (debug) {
             this.debugScanner = new Scanner(System.in);
         }
@@ -48,16 +97,257 @@ public final class Competition {
         instance = new Competition(seed, debug);
     }
 
+    /**
+     * Creates a competition that is not registered as the global instance.
+     * Used by sessions that bind their own competition with {@link #bindToCurrentThread(Competition)}.
+     *
+     * @param seed the seed for the random number generator
+     * @param debug whether random values are asked from the user
+     * @return the new competition
+     */
+    public static Competition create(long seed, boolean debug) {
+        return new Competition(seed, debug);
+    }
+
+    /**
+     * Makes {@link #getInstance()} return the given competition on the current thread.
+     *
+     * @param competition the competition of the current session, or null to fall back to the global instance
+     */
+    public static void bindToCurrentThread(Competition competition) {
+        if (competition == null) {
+            SESSION_INSTANCE.remove();
+        } else {
+            SESSION_INSTANCE.set(competition);
+        }
+    }
+
+    /**
+     * Sets the listener that is notified when any competition is decided, e.g. the rating ladder.
+     *
+     * @param listener the listener, or null to stop notifying
+     */
+    public static void setResultListener(ResultListener listener) {
+        resultListener = listener;
+    }
+
+    /**
+     * Sets the listener that is notified about every effect executed in any competition, e.g. the battle log.
+     *
+     * @param listener the listener, or null to stop notifying
+     */
+    public static void setEffectListener(EffectListener listener) {
+        effectListener = listener;
+    }
+
     public static Competition getInstance() {
+        Competition session = SESSION_INSTANCE.get();
+        if (session != null) {
+            return session;
+        }
         if (instance == null) {
             throw new IllegalStateException("Competition has not been initialized");
         }
         return instance;
     }
 
+    /**
+     * Switches this competition to arena storage, where the combat state of all participants is kept
+     * in primitive arrays instead of one {@link MonsterState} per monster.
+     * Must be called before monsters are added.
+     *
+     * @param expectedMonsters the number of participants to reserve space for
+     */
+    public void useArena(int expectedMonsters) {
+        if (!monsters.isEmpty() || (arena != null && arena.size() > 0)) {
+            throw new IllegalStateException("Arena storage must be chosen before monsters are added");
+        }
+        this.arena = new MonsterArena(expectedMonsters, ruleset);
+    }
+
+    /**
+     * Selects arena storage, see {@link #useArena(int)}, for every competition that gets its first monster from
+     * now on. The storage is chosen when the first monster is added, so every mode can use it without knowing
+     * the participants in advance.
+     *
+     * @param arena true to keep participants in arena storage
+     */
+    public static void setArenaByDefault(boolean arena) {
+        arenaByDefault = arena;
+    }
+
     public void addMonster(Monster monster) {
-        monsters.add(monster);
-        nameDuplicateMonsters(monster);
+        if (arena == null && arenaByDefault && monsters.isEmpty()) {
+            useArena(0);
+        }
+        if (arena != null) {
+            arena.add(monster);
+            return;
+        }
+        CopyOnWriteMonsterState state = new CopyOnWriteMonsterState(this, new MonsterState(monster.getMaxHp(),
+                monster.getBaseStat(Stat.ATK), monster.getBaseStat(Stat.DEF), monster.getBaseStat(Stat.SPD)));
+        Monster participant = monster.createParticipant(state);
+        participant.setParticipantIndex(monsters.size());
+        monsters.add(participant);
+        states.add(state);
+        nameDuplicateMonsters(participant);
+    }
+
+    /**
+     * Lets a policy choose the actions of a participant instead of the player.
+     * The decisions of all participants controlled by a policy are computed concurrently at the start of
+     * Phase I, while the player chooses for the other participants. A policy set during a round is asked
+     * from the next round on.
+     *
+     * @param participant the participant of this competition
+     * @param policy the policy, or null to let the player choose again
+     */
+    public void setPolicy(Monster participant, Policy policy) {
+        if (policy == null) {
+            policies.remove(participant.getParticipantIndex());
+        } else {
+            policies.put(participant.getParticipantIndex(), policy);
+        }
+    }
+
+    /**
+     * Limits the number of rounds, e.g. for competitions of policies that might never defeat each other.
+     * A competition that reaches the limit ends without a winner.
+     *
+     * @param maxRounds the last round that is played, or 0 for no limit
+     */
+    public void setMaxRounds(int maxRounds) {
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Sets the ruleset of the configuration whose monsters take part, which snapshots, arena storage and
+     * spectators resolve status conditions with. Must be called before arena storage is chosen and monsters
+     * are added. The ruleset is kept when the competition is cleared and is copied by forks.
+     *
+     * @param ruleset the ruleset
+     */
+    public void setRuleset(Ruleset ruleset) {
+        if (ruleset != this.ruleset && (arena != null || !monsters.isEmpty())) {
+            throw new IllegalStateException("The ruleset must be chosen before monsters are added");
+        }
+        this.ruleset = ruleset;
+    }
+
+    public Ruleset getRuleset() {
+        return ruleset;
+    }
+
+    /**
+     * Publishes this competition to spectators from its next start on. Forks publish nothing.
+     *
+     * @param feed the feed, or null to stop publishing
+     */
+    public void setSpectatorFeed(SpectatorFeed feed) {
+        this.spectatorFeed = feed;
+    }
+
+    /**
+     * Selects the arithmetic mode of all competitions created from now on, see {@link #setFixedPoint(boolean)}.
+     *
+     * @param fixedPoint true for the fixed-point mode, false for the double mode
+     */
+    public static void setFixedPointByDefault(boolean fixedPoint) {
+        fixedPointByDefault = fixedPoint;
+    }
+
+    /**
+     * Selects the arithmetic of damage, healing, effective stats and chances, see {@link FixedPoint}.
+     * In the fixed-point mode, a seed gives the same battle on every machine and JVM; the double mode is the
+     * default and the one all other results, e.g. of the odds calculator, are computed with.
+     * The mode is kept when the competition is cleared and is copied by forks and snapshots.
+     *
+     * @param fixedPoint true for the fixed-point mode, false for the double mode
+     */
+    public void setFixedPoint(boolean fixedPoint) {
+        this.fixedPoint = fixedPoint;
+    }
+
+    public boolean isFixedPoint() {
+        return fixedPoint;
+    }
+
+    /**
+     * Gets the policy that chooses the actions of a participant.
+     *
+     * @param participant the participant of this competition
+     * @return the policy, or null if the player chooses
+     */
+    public Policy getPolicy(Monster participant) {
+        return policies.get(participant.getParticipantIndex());
+    }
+
+    /**
+     * Gets the participants a monster can act against.
+     *
+     * @param monster the participant that acts
+     * @return all other participants that are not defeated
+     */
+    public List<Monster> getOpponents(Monster monster) {
+        List<Monster> opponents = new ArrayList<>();
+        for (int i = 0; i < getMonsterCount(); i++) {
+            Monster other = getParticipant(i);
+            if (other != monster && !other.isDefeated()) {
+                opponents.add(other);
+            }
+        }
+        return opponents;
+    }
+
+    /**
+     * Forks this competition, e.g. to play out a hypothetical choice without changing this competition.
+     * The fork continues from the current round, including the choices made so far, with its own random
+     * number generator. It shares the state of every participant with this competition, and a state is
+     * only copied when either competition changes it. Arena participants are copied right away.
+     * Forks neither notify the effect listener nor the result listener, and all their participants are
+     * controlled by the caller.
+     * Forking changes no state, but must not run concurrently with other methods of this competition.
+     *
+     * @param forkSeed the seed of the random number generator of the fork
+     * @return the fork
+     */
+    public Competition fork(long forkSeed) {
+        Competition fork = new Competition(forkSeed, false, true);
+        // From now on, this competition copies every state before changing it, just like the fork
+        stateVersion = new Object();
+        for (int i = 0; i < getMonsterCount(); i++) {
+            Monster monster = getParticipant(i);
+            CopyOnWriteMonsterState state = arena != null
+                    ? new CopyOnWriteMonsterState(fork, MonsterState.copyOf(monster.getState()))
+                    : states.get(i).share(fork);
+            Monster participant = new Monster(monster, state, monster.getDisplayName());
+            participant.setParticipantIndex(i);
+            fork.monsters.add(participant);
+            fork.states.add(state);
+            fork.monstersByNumber.put(participant.getDisplayName(), participant);
+        }
+
+        fork.fixedPoint = fixedPoint;
+        fork.ruleset = ruleset;
+        fork.battleId = battleId;
+        fork.currentRound = currentRound;
+        fork.decided = decided;
+        fork.winner = winner == null ? null : fork.getParticipant(winner.getParticipantIndex());
+        fork.choosingIndex = choosingIndex;
+        if (chosenActions != null) {
+            fork.chosenActions = chosenActions.clone();
+            fork.chosenTargets = new Monster[chosenTargets.length];
+            for (int i = 0; i < chosenTargets.length; i++) {
+                Monster target = chosenTargets[i];
+                fork.chosenTargets[i] = target == null ? null : fork.getParticipant(target.getParticipantIndex());
+            }
+        }
+        fork.currentMonster = currentMonster == null ? null : fork.getParticipant(currentMonster.getParticipantIndex());
+        return fork;
+    }
+
+    Object getStateVersion() {
+        return stateVersion;
     }
 
     private void nameDuplicateMonsters(Monster monster) {
@@ -77,10 +367,17 @@ public final class Competition {
     }
 
     public Monster getMonster(String name) {
+        if (arena != null) {
+            int handle = arena.find(name);
+            return handle < 0 ? null : arena.view(handle);
+        }
         return monstersByNumber.get(name);
     }
 
     public List<Monster> getMonsters() {
+        if (arena != null) {
+            return arena.views();
+        }
         return new ArrayList<>(monsters);
     }
 
@@ -92,16 +389,43 @@ public final class Competition {
         return currentAction;
     }
 
-    public void setCurrentAction(Action action) {
-        this.currentAction = action;
-    }
-
     public Monster getCurrentTarget() {
         return currentTarget;
     }
 
-    public void setCurrentTarget(Monster target) {
-        this.currentTarget = target;
+    public int getCurrentRound() {
+        return currentRound;
+    }
+
+    /**
+     * Gets the ID of the running competition. Every start or restore gets a new ID that is unique within this process.
+     *
+     * @return the battle ID
+     */
+    public long getBattleId() {
+        return battleId;
+    }
+
+    /**
+     * Marks the effect that is currently executed as a critical hit, so the effect listener can record it.
+     */
+    public void reportCriticalHit() {
+        battleManager.markCriticalHit();
+    }
+
+    boolean isRecordingEffects() {
+        return !forked && effectListener != null;
+    }
+
+    void reportEffect(Monster user, Effect effect, Monster target, boolean hit, boolean critical, int hpBefore) {
+        EffectListener listener = effectListener;
+        if (listener == null) {
+            return;
+        }
+        int hpAfter = target == null ? -1 : target.getCurrentHp();
+        int damage = target == null ? 0 : hpBefore - hpAfter;
+        listener.effectExecuted(new EffectRecord(battleId, currentRound, user.getName(), currentAction.getName(),
+                effect.getTypeName(), hit, critical, damage, hpAfter));
     }
 
     public boolean isDecided() {
@@ -140,99 +464,310 @@ public final class Competition {
         return random;
     }
 
+    CompetitionRandom getCompetitionRandom() {
+        return random;
+    }
+
+    boolean usesArena() {
+        return arena != null;
+    }
+
+    boolean isStarted() {
+        return chosenActions != null;
+    }
+
+    int getChoosingIndex() {
+        return choosingIndex;
+    }
+
+    Action getChosenAction(int index) {
+        return chosenActions[index];
+    }
+
+    Monster getChosenTarget(int index) {
+        return chosenTargets[index];
+    }
+
+    /**
+     * Continues a competition from a snapshot. The participants must already have been added and restored.
+     *
+     * @param round the current round
+     * @param isDecided whether the competition is decided
+     * @param winnerIndex the participant index of the winner, or -1
+     * @param choosing the participant index of the monster choosing its action
+     * @param actions the actions chosen so far in this round, or null if the competition has not started
+     * @param targets the targets chosen so far in this round, or null if the competition has not started
+     */
+    void restoreProgress(int round, boolean isDecided, int winnerIndex, int choosing, Action[] actions,
+                         Monster[] targets) {
+        cancelDecisions();
+        battleId = BATTLE_IDS.incrementAndGet();
+        currentRound = round;
+        decided = isDecided;
+        winner = winnerIndex < 0 ? null : getParticipant(winnerIndex);
+        choosingIndex = choosing;
+        chosenActions = actions;
+        chosenTargets = targets;
+        currentMonster = actions == null || decided || choosing >= getMonsterCount() ? null : getParticipant(choosing);
+        currentAction = null;
+        currentTarget = null;
+        if (spectatorFeed != null && !forked && actions != null) {
+            // Spectators follow a restored competition as if it started in the restored round
+            spectatorFeed.begin(this);
+            spectatorFeed.roundStarted(round);
+            if (decided) {
+                spectatorFeed.decided(this, winnerIndex);
+            }
+        }
+    }
+
     public boolean checkProbability(String context, double probability) {
         if (debugMode) {
-            System.out.printf("Decide %s: yes or no? (y/n) ", context);
-            String input = debugScanner.nextLine().trim().toLowerCase();
-            while (!input.equals("y") && !input.equals("n")) {
-                System.out.println("Error, enter y or n.");
-                System.out.printf("Decide %s: yes or no? (y/n) ", context);
-                input = debugScanner.nextLine().trim().toLowerCase();
-            }
-            return input.equals("y");
+            return askDecision(context);
         }
         return random.nextDouble() * 100 <= probability;
     }
 
-    public void run() {
-        System.out.printf("The %d monsters enter the competition!\n", monsters.size());
+    /**
+     * Decides randomly like {@link #checkProbability(String, double)}, but with a fixed-point chance that is
+     * compared exactly, see {@link FixedPoint#isWithinChance(double, long)}.
+     *
+     * @param context the name of the decision, for debug mode
+     * @param probability the fixed-point chance in percent
+     * @return true if the decision is positive
+     */
+    public boolean checkFixedProbability(String context, long probability) {
+        if (debugMode) {
+            return askDecision(context);
+        }
+        return FixedPoint.isWithinChance(random.nextDouble(), probability);
+    }
+
+    private boolean askDecision(String context) {
+        System.out.printf("Decide %s: yes or no? (y/n) ", context);
+        String input = debugScanner.nextLine().trim().toLowerCase();
+        while (!input.equals("y") && !input.equals("n")) {
+            System.out.println("Error, enter y or n.");
+            System.out.printf("Decide %s: yes or no? (y/n) ", context);
+            input = debugScanner.nextLine().trim().toLowerCase();
+        }
+        return input.equals("y");
+    }
+
+    /**
+     * Starts the first round of the competition. Afterwards the competition waits in Phase I
+     * until an action was chosen for every monster, see {@link #chooseAction(Action, Monster)}.
+     */
+    public void start() {
+        int count = getMonsterCount();
+        chosenActions = new Action[count];
+        chosenTargets = new Monster[count];
+        battleId = BATTLE_IDS.incrementAndGet();
+        currentRound = 0;
+        decided = false;
+        winner = null;
+        if (spectatorFeed != null && !forked) {
+            spectatorFeed.begin(this);
+        }
+        beginRound();
+        if (!decided) {
+            continueRounds();
+        }
+    }
+
+    /**
+     * Chooses the action of the current monster and continues the competition.
+     * Once every monster has chosen, the actions are executed and the next round begins,
+     * so this method returns when the next choice of the player is needed or the competition is decided.
+     * Participants controlled by a policy choose on their own.
+     *
+     * @param action the chosen action, or null to pass
+     * @param target the target of the action
+     */
+    public void chooseAction(Action action, Monster target) {
+        if (currentMonster == null || decided) {
+            throw new IllegalStateException("No monster is choosing an action");
+        }
+        recordChoice(action, target);
+        continueRounds();
+    }
+
+    private void recordChoice(Action action, Monster target) {
+        chosenActions[choosingIndex] = action;
+        chosenTargets[choosingIndex] = target;
+        choosingIndex = nextChoosingIndex(choosingIndex + 1);
+    }
+
+    /**
+     * Plays until the player has to choose or the competition is decided.
+     * Runs in a loop rather than recursively, since competitions of policies only may last many rounds.
+     */
+    private void continueRounds() {
+        while (true) {
+            if (choosingIndex < getMonsterCount()) {
+                currentMonster = getParticipant(choosingIndex);
+                FutureTask<Decision> pending = pendingDecisions.remove(choosingIndex);
+                if (pending == null) {
+                    return;
+                }
+                Decision decision = awaitDecision(pending);
+                recordChoice(decision.action, decision.target);
+                continue;
+            }
+            currentMonster = null;
+
+            // Phase II: Execute actions
+            executeActionsPhase();
+            if (decided) {
+                return;
+            }
 
-        while (!decided) {
-            runRound();
+            // End of round - check for protection expiry
+            endRoundPhase();
+            beginRound();
+            if (decided) {
+                return;
+            }
         }
     }
 
-    private void runRound() {
+    private void beginRound() {
         currentRound++;
 
         // Phase 0: Check if competition is decided
         checkDecided();
-        if (decided) {
-            return;
+        if (!decided && maxRounds > 0 && currentRound > maxRounds) {
+            decided = true;
+            winner = null;
+            System.out.println();
+            System.out.printf("The competition ends without a winner after %d rounds!\n", maxRounds);
+            reportResult();
         }
-
-        // Phase I: Choose actions for each monster
-        chooseActionsPhase();
-
-        // If competition decided during action choice, exit
         if (decided) {
+            currentMonster = null;
             return;
         }
+        if (spectatorFeed != null && !forked) {
+            spectatorFeed.roundStarted(currentRound);
+        }
 
-        // Phase II: Execute actions
-        executeActionsPhase();
-
-        // End of round - check for protection expiry
-        endRoundPhase();
+        // Phase I: Choose actions for each monster, one choice at a time
+        Arrays.fill(chosenActions, null);
+        Arrays.fill(chosenTargets, null);
+        startDecisions();
+        choosingIndex = nextChoosingIndex(0);
+        currentMonster = getParticipant(choosingIndex);
     }
 
-    private void chooseActionsPhase() {
-        for (Monster monster : monsters) {
-            if (monster.isDefeated()) {
+    /**
+     * Starts the decisions of all conscious participants that are controlled by a policy.
+     * Nothing changes the participants during Phase I, so the decisions can run while the player chooses.
+     * Every decision gets its own random number generator derived from the seed, the round and the participant,
+     * so decisions are reproducible and independent of the order in which they finish.
+     * On a single processor, decisions only run in the background while the player chooses, since they could
+     * not run in parallel to each other anyway.
+     */
+    private void startDecisions() {
+        cancelDecisions();
+        boolean background = PARALLEL_DECISIONS;
+        for (int i = 0; i < getMonsterCount() && !background; i++) {
+            background = !policies.containsKey(i) && !getParticipant(i).isDefeated();
+        }
+        for (Map.Entry<Integer, Policy> entry : policies.entrySet()) {
+            int index = entry.getKey();
+            if (index >= getMonsterCount() || getParticipant(index).isDefeated()) {
                 continue;
             }
+            Monster monster = getParticipant(index);
+            Policy policy = entry.getValue();
+            List<Monster> opponents = getOpponents(monster);
+            long decisionSeed = seed + DECISION_SEED_MULTIPLIER * ((long) currentRound * getMonsterCount() + index);
+            FutureTask<Decision> pending = new FutureTask<>(() -> {
+                Random decisionRandom = new Random(decisionSeed);
+                Monster opponent = policy.chooseOpponent(monster, opponents, decisionRandom);
+                Action action = policy.choose(monster, opponent, decisionRandom);
+                return new Decision(action, action == null ? null : policy.chooseTarget(monster, action, opponent));
+            });
+            pendingDecisions.put(index, pending);
+            if (background) {
+                DECISION_EXECUTOR.execute(pending);
+            }
+        }
+    }
 
-            currentMonster = monster;
-            currentAction = null;
-            currentTarget = null;
+    private static Decision awaitDecision(FutureTask<Decision> pending) {
+        // Decides on the current thread if no other thread has started yet, which keeps cheap policies fast
+        pending.run();
+        try {
+            return pending.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Policy failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a policy", e);
+        }
+    }
 
-            // User chooses action through UI
-            System.out.println();
-            System.out.printf("What should %s do?\n", monster.getDisplayName());
-
-            // Wait for action to be set by UI
-            while (currentAction == null && !monster.isDefeated() && !decided) {
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
+    private void cancelDecisions() {
+        for (FutureTask<Decision> pending : pendingDecisions.values()) {
+            pending.cancel(false);
+        }
+        pendingDecisions.clear();
+    }
 
-            // If competition was decided while waiting, exit
-            if (decided) {
-                return;
-            }
+    int getMonsterCount() {
+        return arena != null ? arena.size() : monsters.size();
+    }
+
+    Monster getParticipant(int index) {
+        return arena != null ? arena.view(index) : monsters.get(index);
+    }
+
+    private int nextChoosingIndex(int from) {
+        int index = from;
+        while (index < getMonsterCount() && getParticipant(index).isDefeated()) {
+            index++;
         }
+        return index;
     }
 
     private void executeActionsPhase() {
         // Sort monsters by speed
-        List<Monster> monstersSortedBySpeed = new ArrayList<>(monsters);
-        monstersSortedBySpeed.sort(Comparator.comparingDouble(
-                (Monster m) -> m.getEffectiveStat(Stat.SPD)).reversed());
+        int[] order;
+        if (fixedPoint) {
+            // Sorting is stable, so monsters of equal speed keep their order like in the double mode
+            order = IntStream.range(0, getMonsterCount()).boxed()
+                    .sorted(Comparator.comparingLong(
+                            (Integer i) -> getParticipant(i).getFixedEffectiveStat(Stat.SPD)).reversed())
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        } else if (arena != null) {
+            order = arena.sortBySpeed();
+        } else {
+            order = IntStream.range(0, monsters.size()).boxed()
+                    .sorted(Comparator.comparingDouble(
+                            (Integer i) -> monsters.get(i).getEffectiveStat(Stat.SPD)).reversed())
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
 
-        for (Monster monster : monstersSortedBySpeed) {
+        for (int index : order) {
+            Monster monster = getParticipant(index);
             if (monster.isDefeated()) {
                 continue;
             }
 
             currentMonster = monster;
+            currentAction = chosenActions[index];
+            currentTarget = chosenTargets[index];
 
             System.out.println();
             System.out.printf("It's %s's turn.\n", monster.getDisplayName());
+            if (spectatorFeed != null && !forked) {
+                spectatorFeed.turnStarted(index);
+            }
 
-            // Skip if monster has no action (should never happen)
+            // Skip if monster has no action
             if (currentAction == null) {
                 System.out.printf("%s passes!\n", monster.getDisplayName());
                 continue;
@@ -240,16 +775,33 @@ public final class Competition {
 
             // Execute action
             battleManager.executeAction(monster, currentAction, currentTarget);
+            if (spectatorFeed != null && !forked) {
+                spectatorFeed.publishChanges(this);
+            }
 
             // Check if competition is decided
             checkDecided();
             if (decided) {
-                return;
+                break;
             }
         }
+
+        currentMonster = null;
+        currentAction = null;
+        currentTarget = null;
     }
 
     private void endRoundPhase() {
+        if (arena != null) {
+            if (fadedHandles.length < arena.size()) {
+                fadedHandles = new int[arena.size()];
+            }
+            int count = arena.decreaseProtectionDurations(fadedHandles);
+            for (int i = 0; i < count; i++) {
+                System.out.printf("%s's protection fades away...\n", arena.view(fadedHandles[i]).getDisplayName());
+            }
+            return;
+        }
         for (Monster monster : monsters) {
             if (monster.decreaseProtectionDuration()) {
                 System.out.printf("%s's protection fades away...\n", monster.getDisplayName());
@@ -262,10 +814,17 @@ public final class Competition {
         int consciousMonsters = 0;
         Monster lastConsciousMonster = null;
 
-        for (Monster monster : monsters) {
-            if (!monster.isDefeated()) {
-                consciousMonsters++;
-                lastConsciousMonster = monster;
+        if (arena != null) {
+            consciousMonsters = arena.countConscious();
+            if (consciousMonsters == 1) {
+                lastConsciousMonster = arena.view(arena.lastConscious());
+            }
+        } else {
+            for (Monster monster : monsters) {
+                if (!monster.isDefeated()) {
+                    consciousMonsters++;
+                    lastConsciousMonster = monster;
+                }
             }
         }
 
@@ -282,11 +841,31 @@ public final class Competition {
                 System.out.println();
                 System.out.println("All monsters have fainted. The competition ends without a winner!");
             }
+            reportResult();
         }
     }
 
+    private void reportResult() {
+        if (spectatorFeed != null && !forked) {
+            spectatorFeed.decided(this, winner == null ? -1 : winner.getParticipantIndex());
+        }
+        ResultListener listener = resultListener;
+        if (listener == null || forked) {
+            return;
+        }
+        List<String> participants = new ArrayList<>(getMonsterCount());
+        for (int i = 0; i < getMonsterCount(); i++) {
+            participants.add(getParticipant(i).getName());
+        }
+        int winnerIndex = winner == null ? -1 : winner.getParticipantIndex();
+        listener.competitionDecided(new CompetitionResult(participants, winnerIndex, currentRound, seed));
+    }
+
     public void reset() {
         // Reset all monsters
+        if (arena != null) {
+            arena.reset();
+        }
         for (Monster monster : monsters) {
             monster.heal(monster.getMaxHp()); // Heal to full
             monster.setStatusCondition(StatusCondition.NONE);
@@ -306,15 +885,35 @@ public final class Competition {
     }
 
     public void clear() {
+        cancelDecisions();
+        policies.clear();
+        maxRounds = 0;
         monsters.clear();
+        states.clear();
         monstersByNumber.clear();
+        arena = null;
         currentMonster = null;
         currentAction = null;
         currentTarget = null;
+        chosenActions = null;
+        chosenTargets = null;
         currentRound = 0;
         decided = false;
         winner = null;
     }
+
+    /**
+     * Action and target chosen by a policy.
+     */
+    private static final class Decision {
+        private final Action action;
+        private final Monster target;
+
+        Decision(Action action, Monster target) {
+            this.action = action;
+            this.target = target;
+        }
+    }
 }
 /*
     private final List<Monster> monsters;
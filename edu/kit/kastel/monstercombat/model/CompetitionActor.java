@@ -0,0 +1,140 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.io.PrintStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-threaded actor that owns one competition.
+ * Messages, such as commands of a player, are queued in a mailbox and processed one after another
+ * on a shared executor, with the competition bound to the processing thread.
+ * No thread is blocked while the competition waits for the next choice.
+ * The mailbox is bounded, so a session that sends faster than it is served gets its messages rejected.
+ * @author ursxd
+ */
+public class CompetitionActor implements Executor {
+    private final Competition competition;
+    private final Executor executor;
+    private final int throughput;
+    private final int capacity;
+    private final PrintStream errorStream;
+    private final Queue<Runnable> mailbox;
+    private final AtomicBoolean scheduled;
+    private final AtomicInteger queueDepth;
+    private final AtomicInteger maxQueueDepth;
+    private final AtomicLong processedMessages;
+
+    /**
+     * Constructs a new actor.
+     *
+     * @param competition the competition owned by this actor
+     * @param executor the executor shared with other actors
+     * @param throughput the number of messages processed before other actors get their turn
+     * @param capacity the number of messages the mailbox holds
+     * @param errorStream the stream of the session, which receives the errors of messages
+     */
+    public CompetitionActor(Competition competition, Executor executor, int throughput, int capacity,
+                            PrintStream errorStream) {
+        this.competition = competition;
+        this.executor = executor;
+        this.throughput = throughput;
+        this.capacity = capacity;
+        this.errorStream = errorStream;
+        this.mailbox = new ConcurrentLinkedQueue<>();
+        this.scheduled = new AtomicBoolean();
+        this.queueDepth = new AtomicInteger();
+        this.maxQueueDepth = new AtomicInteger();
+        this.processedMessages = new AtomicLong();
+    }
+
+    /**
+     * Sends a message to this actor. Messages are processed in the order they were sent.
+     *
+     * @param message the message to process with the competition of this actor
+     * @throws RejectedExecutionException if the mailbox is full
+     */
+    @Override
+    public void execute(Runnable message) {
+        int depth = queueDepth.getAndUpdate(current -> current < capacity ? current + 1 : current);
+        if (depth >= capacity) {
+            throw new RejectedExecutionException("too many pending messages, at most " + capacity + " are queued.");
+        }
+        mailbox.add(message);
+        maxQueueDepth.accumulateAndGet(depth + 1, Math::max);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::processMailbox);
+        }
+    }
+
+    private void processMailbox() {
+        Competition.bindToCurrentThread(competition);
+        try {
+            for (int i = 0; i < throughput; i++) {
+                Runnable message = mailbox.poll();
+                if (message == null) {
+                    break;
+                }
+                queueDepth.decrementAndGet();
+                try {
+                    message.run();
+                } catch (RuntimeException e) {
+                    errorStream.println("Error, " + e.getMessage());
+                }
+                processedMessages.incrementAndGet();
+            }
+        } finally {
+            Competition.bindToCurrentThread(null);
+            scheduled.set(false);
+        }
+
+        // Go to the back of the executor queue, so that other actors get their turn
+        if (!mailbox.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Gets the competition owned by this actor.
+     *
+     * @return the competition
+     */
+    public Competition getCompetition() {
+        return competition;
+    }
+
+    /**
+     * Gets the number of messages waiting in the mailbox.
+     *
+     * @return the current queue depth
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Gets the largest number of messages that were waiting in the mailbox at once.
+     *
+     * @return the maximum queue depth
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * Gets the number of messages processed so far.
+     *
+     * @return the number of processed messages
+     */
+    public long getProcessedMessages() {
+        return processedMessages.get();
+    }
+}
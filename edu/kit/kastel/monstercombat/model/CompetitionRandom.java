@@ -0,0 +1,57 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.util.Random;
+
+/**
+ * Random number generator of a competition whose state can be saved and restored.
+ * Uses the same linear congruential generator as {@link Random}, so a seed produces the same values.
+ * Unlike {@link Random}, it is not meant to be shared between threads.
+ * @author ursxd
+ */
+public class CompetitionRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // Assigned by setSeed, which the superclass constructor calls before field initializers would run
+    private long state;
+
+    /**
+     * Constructs a new generator.
+     *
+     * @param seed the initial seed
+     */
+    public CompetitionRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        this.state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /**
+     * Gets the internal state, from which the generator continues after {@link #setState(long)}.
+     *
+     * @return the internal state
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Sets the internal state as returned by {@link #getState()}.
+     *
+     * @param state the internal state
+     */
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
@@ -0,0 +1,45 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a decided competition.
+ * @author ursxd
+ */
+public final class CompetitionResult {
+    private final List<String> participants;
+    private final int winnerIndex;
+    private final int rounds;
+    private final long seed;
+
+    /**
+     * Constructs a new result.
+     *
+     * @param participants the species names of all participants in competition order
+     * @param winnerIndex the participant index of the winner, or -1 if all monsters fainted
+     * @param rounds the number of rounds played
+     * @param seed the seed of the competition
+     */
+    public CompetitionResult(List<String> participants, int winnerIndex, int rounds, long seed) {
+        this.participants = List.copyOf(participants);
+        this.winnerIndex = winnerIndex;
+        this.rounds = rounds;
+        this.seed = seed;
+    }
+
+    public List<String> getParticipants() {
+        return participants;
+    }
+
+    public int getWinnerIndex() {
+        return winnerIndex;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
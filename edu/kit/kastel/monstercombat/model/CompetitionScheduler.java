@@ -0,0 +1,90 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many {@link CompetitionActor}s on a small fixed pool of threads.
+ * Actors with pending messages are scheduled round-robin, each processing a bounded number of messages per turn.
+ * Each actor queues a bounded number of messages, so no session can fill the memory of the server.
+ * @author ursxd
+ */
+public class CompetitionScheduler {
+    private static final int DEFAULT_THROUGHPUT = 8;
+    private static final int DEFAULT_MAILBOX_CAPACITY = 1024;
+
+    private final ExecutorService executor;
+    private final Set<CompetitionActor> actors;
+
+    /**
+     * Constructs a new scheduler.
+     *
+     * @param threads the number of threads shared by all competitions
+     */
+    public CompetitionScheduler(int threads) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "competition-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.actors = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Creates an actor for the given competition.
+     *
+     * @param competition the competition
+     * @param errorStream the stream of the session, which receives the errors of its messages
+     * @return the new actor
+     */
+    public CompetitionActor createActor(Competition competition, PrintStream errorStream) {
+        CompetitionActor actor = new CompetitionActor(competition, executor, DEFAULT_THROUGHPUT,
+                DEFAULT_MAILBOX_CAPACITY, errorStream);
+        actors.add(actor);
+        return actor;
+    }
+
+    /**
+     * Removes an actor whose competition has ended from the metrics.
+     *
+     * @param actor the actor
+     */
+    public void release(CompetitionActor actor) {
+        actors.remove(actor);
+    }
+
+    /**
+     * Gets all actors of this scheduler, e.g. to read their queue depths.
+     *
+     * @return the actors
+     */
+    public List<CompetitionActor> getActors() {
+        return List.copyOf(actors);
+    }
+
+    /**
+     * Gets the number of messages waiting in all mailboxes.
+     *
+     * @return the total queue depth
+     */
+    public int getTotalQueueDepth() {
+        int depth = 0;
+        for (CompetitionActor actor : actors) {
+            depth += actor.getQueueDepth();
+        }
+        return depth;
+    }
+
+    /**
+     * Stops the threads of this scheduler after the queued messages were processed.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,185 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot of a running competition.
+ * Stores the roster, the combat state of every participant, the progress of the current round
+ * including the choices made so far, and the state of the random number generator,
+ * so that a restored competition continues exactly like the saved one.
+ * Snapshots also store the arithmetic mode; snapshots of the first version are restored in the double mode.
+ * Species are stored by name and conditions by their index in the ruleset, and both are resolved against
+ * the loaded configuration when restoring.
+ * @author ursxd
+ */
+public final class CompetitionSnapshot {
+    /**
+     * Magic number at the start of every snapshot, "MCSP".
+     */
+    private static final int MAGIC = 0x4D435350;
+    private static final short VERSION = 2;
+    private static final short VERSION_WITHOUT_MODE = 1;
+    private static final Stat[] STATS = Stat.values();
+    private static final int PROTECT_DAMAGE = 1;
+    private static final int PROTECT_STATS = 2;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private CompetitionSnapshot() {
+        // Utility class
+    }
+
+    /**
+     * Writes a snapshot of a competition.
+     *
+     * @param competition the competition to save
+     * @param output the output to write to
+     * @throws IOException if writing fails
+     */
+    public static void write(Competition competition, DataOutput output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeShort(VERSION);
+        output.writeLong(competition.getCompetitionRandom().getState());
+        output.writeBoolean(competition.usesArena());
+        output.writeBoolean(competition.isFixedPoint());
+
+        int count = competition.getMonsterCount();
+        output.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            writeMonster(competition.getParticipant(i), output);
+        }
+
+        output.writeInt(competition.getCurrentRound());
+        output.writeBoolean(competition.isDecided());
+        Monster winner = competition.getWinner();
+        output.writeInt(winner == null ? -1 : winner.getParticipantIndex());
+        output.writeBoolean(competition.isStarted());
+        if (competition.isStarted()) {
+            output.writeInt(competition.getChoosingIndex());
+            for (int i = 0; i < count; i++) {
+                Action action = competition.getChosenAction(i);
+                Monster target = competition.getChosenTarget(i);
+                List<Action> actions = competition.getParticipant(i).getActions();
+                output.writeShort(action == null ? -1 : actions.indexOf(action));
+                output.writeInt(target == null ? -1 : target.getParticipantIndex());
+            }
+        }
+    }
+
+    private static void writeMonster(Monster monster, DataOutput output) throws IOException {
+        output.writeUTF(monster.getName());
+        output.writeInt(monster.getCurrentHp());
+        for (Stat stat : STATS) {
+            output.writeByte(monster.getStatChange(stat));
+        }
+        output.writeByte(monster.getStatusCondition().getIndex());
+        output.writeInt(monster.getProtectionDuration());
+        output.writeByte((monster.isProtectedAgainstDamage() ? PROTECT_DAMAGE : 0)
+                | (monster.isProtectedAgainstStatChanges() ? PROTECT_STATS : 0));
+    }
+
+    /**
+     * Replaces the state of a competition with a snapshot.
+     *
+     * @param competition the competition to restore into
+     * @param input the input to read from
+     * @param species the monsters of the loaded configuration by name
+     * @param ruleset the ruleset of the loaded configuration
+     * @throws IOException if reading fails or the snapshot does not match the configuration
+     */
+    public static void read(Competition competition, DataInput input, Map<String, Monster> species,
+                            Ruleset ruleset) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("not a competition snapshot");
+        }
+        short version = input.readShort();
+        if (version != VERSION && version != VERSION_WITHOUT_MODE) {
+            throw new IOException("unsupported snapshot version " + version);
+        }
+        long randomState = input.readLong();
+        boolean arena = input.readBoolean();
+        boolean fixedPoint = version != VERSION_WITHOUT_MODE && input.readBoolean();
+        int count = input.readInt();
+        if (count < 0) {
+            throw new IOException("invalid number of monsters " + count);
+        }
+
+        competition.clear();
+        competition.setRuleset(ruleset);
+        competition.setFixedPoint(fixedPoint);
+        if (arena) {
+            competition.useArena(count);
+        }
+        for (int i = 0; i < count; i++) {
+            readMonster(competition, input, species);
+        }
+
+        int round = input.readInt();
+        boolean decided = input.readBoolean();
+        int winnerIndex = readIndex(input.readInt(), count);
+        Action[] actions = null;
+        Monster[] targets = null;
+        int choosingIndex = 0;
+        if (input.readBoolean()) {
+            choosingIndex = input.readInt();
+            if (choosingIndex < 0 || choosingIndex > count) {
+                throw new IOException("invalid choosing monster " + choosingIndex);
+            }
+            actions = new Action[count];
+            targets = new Monster[count];
+            for (int i = 0; i < count; i++) {
+                int actionIndex = input.readShort();
+                int targetIndex = readIndex(input.readInt(), count);
+                List<Action> known = competition.getParticipant(i).getActions();
+                if (actionIndex >= known.size()) {
+                    throw new IOException("invalid action of monster " + (i + 1));
+                }
+                actions[i] = actionIndex < 0 ? null : known.get(actionIndex);
+                targets[i] = targetIndex < 0 ? null : competition.getParticipant(targetIndex);
+            }
+        }
+
+        competition.restoreProgress(round, decided, winnerIndex, choosingIndex, actions, targets);
+        competition.getCompetitionRandom().setState(randomState);
+    }
+
+    private static void readMonster(Competition competition, DataInput input, Map<String, Monster> species)
+            throws IOException {
+        String name = input.readUTF();
+        Monster template = species.get(name);
+        if (template == null) {
+            throw new IOException("monster " + name + " is not in the loaded configuration");
+        }
+        competition.addMonster(template);
+        Monster monster = competition.getParticipant(competition.getMonsterCount() - 1);
+
+        // A new participant has full health, no stat changes and no protection
+        int currentHp = input.readInt();
+        monster.takeDamage(monster.getMaxHp() - currentHp);
+        for (Stat stat : STATS) {
+            monster.setStatChange(stat, input.readByte());
+        }
+        int condition = input.readByte();
+        Ruleset ruleset = competition.getRuleset();
+        if (condition < 0 || condition >= ruleset.getConditionCount()) {
+            throw new IOException("invalid status condition " + condition);
+        }
+        monster.setStatusCondition(ruleset.getCondition(condition));
+        int protectionDuration = input.readInt();
+        int protection = input.readByte();
+        monster.setProtection((protection & PROTECT_DAMAGE) != 0, (protection & PROTECT_STATS) != 0,
+                protectionDuration);
+    }
+
+    private static int readIndex(int index, int count) throws IOException {
+        if (index < -1 || index >= count) {
+            throw new IOException("invalid monster index " + index);
+        }
+        return index;
+    }
+}
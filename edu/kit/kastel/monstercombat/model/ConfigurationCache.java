@@ -0,0 +1,220 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+
+/**
+ * Cache of parsed configurations shared by all sessions.
+ * A file is parsed again only if its size or modification time changed. The actions and monsters whose
+ * definitions did not change are then taken over from the earlier configuration instead of being created again.
+ * Every configuration has its own {@link Ruleset}, which is only taken over if no declaration changed.
+ * Cached configurations are immutable, so a new one can be published while others are still in use.
+ * @author ursxd
+ */
+public final class ConfigurationCache {
+    private static final long PARALLEL_PARSE_BYTES = 1 << 20;
+    private static final Map<Path, CachedConfiguration> CACHE = new ConcurrentHashMap<>();
+    private static final Map<Path, ConfigurationWatcher> WATCHERS = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ConfigurationCache() {
+        // Utility class
+    }
+
+    /**
+     * Loads a configuration, reusing the parsed result if the file did not change.
+     * Files of a megabyte or more are parsed in parallel.
+     *
+     * @param filePath the path to the configuration file
+     * @return the parsed configuration
+     * @throws ConfigurationException if the configuration is invalid
+     */
+    public static CachedConfiguration load(String filePath) throws ConfigurationException {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new ConfigurationException("Error reading configuration file: " + e.getMessage());
+        }
+
+        CachedConfiguration cached = CACHE.get(path);
+        if (cached != null && cached.isUpToDate(attributes)) {
+            return cached;
+        }
+
+        ConfigurationLoader loader = cached == null
+                ? new ConfigurationLoader(Map.of(), Map.of(), Ruleset.BUILT_IN)
+                : new ConfigurationLoader(cached.actionsBySource, cached.monstersBySource, cached.ruleset);
+        loader.setParallel(attributes.size() >= PARALLEL_PARSE_BYTES);
+        String content = loader.loadConfiguration(filePath);
+        cached = new CachedConfiguration(content, loader, attributes);
+        CACHE.put(path, cached);
+        return cached;
+    }
+
+    /**
+     * Loads a configuration and keeps loading it again in the background whenever the file changes.
+     * All sessions watching the same file share one watcher.
+     *
+     * @param filePath the path to the configuration file
+     * @return the watcher, which publishes every successfully loaded version
+     * @throws ConfigurationException if the configuration is invalid or the file cannot be watched
+     */
+    public static ConfigurationWatcher watch(String filePath) throws ConfigurationException {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        CachedConfiguration configuration = load(filePath);
+        ConfigurationWatcher watcher = WATCHERS.get(path);
+        if (watcher != null) {
+            return watcher;
+        }
+        synchronized (WATCHERS) {
+            watcher = WATCHERS.get(path);
+            if (watcher == null) {
+                try {
+                    watcher = ConfigurationWatcher.start(path, configuration);
+                } catch (IOException e) {
+                    throw new ConfigurationException("Cannot watch configuration file: " + e.getMessage());
+                }
+                WATCHERS.put(path, watcher);
+            }
+        }
+        return watcher;
+    }
+
+    /**
+     * A parsed configuration file.
+     */
+    public static final class CachedConfiguration {
+        private final String content;
+        private final List<Monster> monsters;
+        private final SymbolTable symbols;
+        private final int actionCount;
+        private final Map<String, Action> actionsBySource;
+        private final Map<String, Monster> monstersBySource;
+        private final Ruleset ruleset;
+        private final int sharedActionCount;
+        private final int sharedMonsterCount;
+        private final int effectCount;
+        private final int sharedEffectCount;
+        private final FileTime lastModified;
+        private final long size;
+
+        private CachedConfiguration(String content, ConfigurationLoader loader, BasicFileAttributes attributes) {
+            this.content = content;
+            this.monsters = List.copyOf(loader.getMonsters());
+            this.symbols = loader.getSymbols();
+            this.actionCount = loader.getActionCount();
+            this.actionsBySource = Map.copyOf(loader.getActionsBySource());
+            this.monstersBySource = Map.copyOf(loader.getMonstersBySource());
+            this.ruleset = loader.getRuleset();
+            this.sharedActionCount = loader.getSharedActionCount();
+            this.sharedMonsterCount = loader.getSharedMonsterCount();
+            this.effectCount = loader.getEffectCount();
+            this.sharedEffectCount = loader.getSharedEffectCount();
+            this.lastModified = attributes.lastModifiedTime();
+            this.size = attributes.size();
+        }
+
+        private boolean isUpToDate(BasicFileAttributes attributes) {
+            return lastModified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+
+        /**
+         * Gets the configuration as it was read from the file.
+         *
+         * @return the configuration content
+         */
+        public String getContent() {
+            return content;
+        }
+
+        /**
+         * Gets the monsters of the configuration.
+         *
+         * @return the monsters
+         */
+        public List<Monster> getMonsters() {
+            return monsters;
+        }
+
+        /**
+         * Gets the symbols of the action and monster names of the configuration.
+         *
+         * @return the symbol table
+         */
+        public SymbolTable getSymbols() {
+            return symbols;
+        }
+
+        /**
+         * Gets the ruleset with the elements and conditions the configuration declares.
+         *
+         * @return the ruleset
+         */
+        public Ruleset getRuleset() {
+            return ruleset;
+        }
+
+        /**
+         * Gets the number of actions in the configuration.
+         *
+         * @return the number of actions
+         */
+        public int getActionCount() {
+            return actionCount;
+        }
+
+        /**
+         * Gets the number of monsters in the configuration.
+         *
+         * @return the number of monsters
+         */
+        public int getMonsterCount() {
+            return monsters.size();
+        }
+
+        /**
+         * Gets the message reporting the loaded configuration, including how many effects were shared because
+         * they were defined identically, if any.
+         *
+         * @return the message
+         */
+        public String getLoadedMessage() {
+            String message = String.format("Loaded %d actions, %d monsters", actionCount, monsters.size());
+            if (sharedEffectCount > 0) {
+                message += String.format(" (%d of %d effects shared)", sharedEffectCount, effectCount);
+            }
+            return message + ".";
+        }
+
+        /**
+         * Gets the number of actions that were taken over unchanged from the previous version of the file.
+         *
+         * @return the number of shared actions
+         */
+        public int getSharedActionCount() {
+            return sharedActionCount;
+        }
+
+        /**
+         * Gets the number of monsters that were taken over unchanged from the previous version of the file.
+         *
+         * @return the number of shared monsters
+         */
+        public int getSharedMonsterCount() {
+            return sharedMonsterCount;
+        }
+    }
+}
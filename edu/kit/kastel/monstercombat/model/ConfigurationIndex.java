@@ -0,0 +1,334 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of where the actions and monsters of a configuration file are, so single monsters can be parsed without
+ * the rest of the file. Every monster lists the actions it refers to, resolved to the last definition before its
+ * line as when the whole file is parsed. Declared elements and status conditions are indexed as well, since any
+ * action or monster may use them.
+ * The index is stored next to the configuration file and is built again once the file changed.
+ * @author ursxd
+ */
+final class ConfigurationIndex {
+    private static final String SIDECAR_SUFFIX = ".idx";
+    private static final String HEADER = "monstercombat-index 3";
+    private static final String ACTION_PREFIX = "action ";
+    private static final String CONDITION_PREFIX = "condition ";
+    private static final String ELEMENT_PREFIX = "element ";
+    private static final String MONSTER_PREFIX = "monster ";
+    private static final int FIRST_ACTION_PART = 7;
+
+    private final long size;
+    private final long lastModified;
+    private final List<Entry> actions = new ArrayList<>();
+    private final List<Entry> monsters = new ArrayList<>();
+    private final List<Entry> conditions = new ArrayList<>();
+    private final List<Entry> elements = new ArrayList<>();
+    private int actionNameCount;
+
+    private ConfigurationIndex(BasicFileAttributes attributes) {
+        this.size = attributes.size();
+        this.lastModified = attributes.lastModifiedTime().toMillis();
+    }
+
+    /**
+     * Reads the index of a configuration file, or builds and stores it if there is none for the current version.
+     *
+     * @param path the path to the configuration file
+     * @return the index, or null if the file is not structured like a configuration
+     * @throws IOException if the configuration file cannot be read
+     */
+    static ConfigurationIndex open(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        Path sidecar = path.resolveSibling(path.getFileName() + SIDECAR_SUFFIX);
+        ConfigurationIndex index = read(sidecar, attributes);
+        if (index != null) {
+            return index;
+        }
+
+        index = build(path, attributes);
+        if (index != null) {
+            try {
+                index.write(sidecar);
+            } catch (IOException e) {
+                // Without a stored index the next load builds it again
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether the configuration file is still the version this index was built for.
+     *
+     * @param attributes the current attributes of the file
+     * @return true if the index is up to date
+     */
+    boolean isUpToDate(BasicFileAttributes attributes) {
+        return attributes.size() == size && attributes.lastModifiedTime().toMillis() == lastModified;
+    }
+
+    /**
+     * Gets the action definitions in file order, including redefinitions of a name.
+     *
+     * @return the action entries
+     */
+    List<Entry> getActions() {
+        return actions;
+    }
+
+    /**
+     * Gets the monster lines in file order.
+     *
+     * @return the monster entries
+     */
+    List<Entry> getMonsters() {
+        return monsters;
+    }
+
+    /**
+     * Gets the status condition declarations in file order.
+     *
+     * @return the condition entries
+     */
+    List<Entry> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * Gets the element declarations in file order.
+     *
+     * @return the element entries
+     */
+    List<Entry> getElements() {
+        return elements;
+    }
+
+    /**
+     * Gets the number of distinct action names.
+     *
+     * @return the number of actions
+     */
+    int getActionCount() {
+        return actionNameCount;
+    }
+
+    private static ConfigurationIndex build(Path path, BasicFileAttributes attributes) throws IOException {
+        ConfigurationIndex index = new ConfigurationIndex(attributes);
+        Map<String, Integer> latestActions = new HashMap<>();
+        Entry openAction = null;
+        // A condition or element block, with the list it goes to and the line ending it
+        Entry openDeclaration = null;
+        List<Entry> declarations = null;
+        String declarationEnd = null;
+
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(path))) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            long lineStart = 0;
+            long offset = 0;
+            boolean more = true;
+            while (more) {
+                int next = input.read();
+                more = next >= 0;
+                if (more) {
+                    offset++;
+                    if (next != '\n') {
+                        buffer.write(next);
+                        continue;
+                    }
+                }
+
+                String line = buffer.toString(StandardCharsets.UTF_8).trim();
+                buffer.reset();
+                if (openAction != null) {
+                    if (line.equals("end action")) {
+                        openAction.length = (int) (offset - openAction.offset);
+                        latestActions.put(openAction.name, index.actions.size());
+                        index.actions.add(openAction);
+                        openAction = null;
+                    }
+                } else if (openDeclaration != null) {
+                    if (line.equals(declarationEnd)) {
+                        openDeclaration.length = (int) (offset - openDeclaration.offset);
+                        declarations.add(openDeclaration);
+                        openDeclaration = null;
+                    }
+                } else if (line.startsWith(CONDITION_PREFIX)) {
+                    openDeclaration = new Entry(line.substring(CONDITION_PREFIX.length()).trim(), lineStart, null);
+                    declarations = index.conditions;
+                    declarationEnd = "end condition";
+                } else if (line.startsWith(ELEMENT_PREFIX)) {
+                    openDeclaration = new Entry(line.substring(ELEMENT_PREFIX.length()).trim(), lineStart, null);
+                    declarations = index.elements;
+                    declarationEnd = "end element";
+                } else if (line.startsWith(ACTION_PREFIX)) {
+                    String[] headerParts = line.split(" ", 3);
+                    if (headerParts.length < 3) {
+                        return null;
+                    }
+                    openAction = new Entry(headerParts[1], lineStart, null);
+                } else if (line.startsWith(MONSTER_PREFIX)) {
+                    String[] parts = line.split(" ");
+                    int[] references = new int[Math.max(0, parts.length - FIRST_ACTION_PART)];
+                    for (int i = 0; i < references.length; i++) {
+                        references[i] = latestActions.getOrDefault(parts[FIRST_ACTION_PART + i], -1);
+                    }
+                    Entry monster = new Entry(parts.length > 1 ? parts[1] : "", lineStart, references);
+                    monster.length = (int) (offset - lineStart);
+                    index.monsters.add(monster);
+                } else if (!line.isEmpty()) {
+                    return null;
+                }
+                lineStart = offset;
+            }
+        }
+        if (openAction != null || openDeclaration != null) {
+            return null;
+        }
+        index.actionNameCount = latestActions.size();
+        return index;
+    }
+
+    private static ConfigurationIndex read(Path sidecar, BasicFileAttributes attributes) throws IOException {
+        ConfigurationIndex index = new ConfigurationIndex(attributes);
+        try (BufferedReader reader = Files.newBufferedReader(sidecar, StandardCharsets.UTF_8)) {
+            if (!index.header().equals(reader.readLine())) {
+                return null;
+            }
+            index.actionNameCount = Integer.parseInt(reader.readLine());
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                int[] references = null;
+                if (parts[0].equals("monster")) {
+                    references = new int[parts.length - 4];
+                    for (int i = 0; i < references.length; i++) {
+                        references[i] = Integer.parseInt(parts[4 + i]);
+                    }
+                }
+                Entry entry = new Entry(parts[3], Long.parseLong(parts[1]), references);
+                entry.length = Integer.parseInt(parts[2]);
+                if (parts[0].equals("condition")) {
+                    index.conditions.add(entry);
+                } else if (parts[0].equals("element")) {
+                    index.elements.add(entry);
+                } else {
+                    (references == null ? index.actions : index.monsters).add(entry);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // A damaged index is simply built again
+            return null;
+        }
+        return index;
+    }
+
+    private void write(Path sidecar) throws IOException {
+        List<Entry> declarations = new ArrayList<>(elements);
+        declarations.addAll(conditions);
+        for (Entry entry : declarations) {
+            if (entry.name.isEmpty() || entry.name.contains(" ")) {
+                // The header is invalid anyway and its name could not be read back
+                return;
+            }
+        }
+        for (Entry monster : monsters) {
+            if (monster.name.isEmpty()) {
+                // The line is invalid anyway and its name could not be read back
+                return;
+            }
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(sidecar, StandardCharsets.UTF_8)) {
+            writer.write(header() + "\n" + actionNameCount + "\n");
+            for (Entry element : elements) {
+                writer.write("element " + element.offset + " " + element.length + " " + element.name + "\n");
+            }
+            for (Entry condition : conditions) {
+                writer.write("condition " + condition.offset + " " + condition.length + " " + condition.name + "\n");
+            }
+            for (Entry action : actions) {
+                writer.write("action " + action.offset + " " + action.length + " " + action.name + "\n");
+            }
+            for (Entry monster : monsters) {
+                StringBuilder line = new StringBuilder("monster ").append(monster.offset).append(' ')
+                        .append(monster.length).append(' ').append(monster.name);
+                for (int reference : monster.references) {
+                    line.append(' ').append(reference);
+                }
+                writer.write(line.append('\n').toString());
+            }
+        }
+    }
+
+    private String header() {
+        return HEADER + " " + size + " " + lastModified;
+    }
+
+    /**
+     * The bytes of an element, condition or action block or a monster line in the configuration file.
+     */
+    static final class Entry {
+        private final String name;
+        private final long offset;
+        private final int[] references;
+        private int length;
+
+        Entry(String name, long offset, int[] references) {
+            this.name = name;
+            this.offset = offset;
+            this.references = references;
+        }
+
+        /**
+         * Gets the name of the element, condition, action or monster.
+         *
+         * @return the name
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the position of the first byte in the file.
+         *
+         * @return the offset
+         */
+        long getOffset() {
+            return offset;
+        }
+
+        /**
+         * Gets the number of bytes.
+         *
+         * @return the length
+         */
+        int getLength() {
+            return length;
+        }
+
+        /**
+         * Gets the actions a monster refers to, in the order of its line.
+         *
+         * @return the indices of the action entries, -1 for an unknown action
+         */
+        int[] getReferences() {
+            return references;
+        }
+    }
+}
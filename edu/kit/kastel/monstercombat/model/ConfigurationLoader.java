@@ -4,27 +4,122 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import edu.kit.kastel.monstercombat.model.effect.Effect;
+import edu.kit.kastel.monstercombat.model.effect.EffectOptimizer;
 import edu.kit.kastel.monstercombat.model.effect.EffectRepeat;
 import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
 
 public class ConfigurationLoader {
+    private static final int BATCH_SIZE = 256;
+    private static final String CONDITION_PREFIX = "condition ";
+    private static final String ELEMENT_PREFIX = "element ";
+    private static final String END_PREFIX = "end ";
+
     private final Map<String, Action> actions;
     private final List<Monster> monsters;
-    private final EffectParser effectParser;
+    private EffectParser effectParser;
+    private final EffectInterner interner;
+    private final Map<String, Action> sharedActions;
+    private final Map<String, Monster> sharedMonsters;
+    private final Ruleset sharedRuleset;
+    private Ruleset ruleset;
+    // Whether the earlier load has the same ruleset, so its actions and monsters can be shared
+    private boolean sharing;
+    private final Map<String, Action> actionsBySource;
+    private final Map<String, Monster> monstersBySource;
+    private final boolean trackSources;
+    private final AtomicInteger optimizedActionCount = new AtomicInteger();
+    private int sharedActionCount;
+    private int sharedMonsterCount;
+    private SymbolTable symbols;
+    private boolean parallel;
+    private boolean optimizing = true;
 
     /**
      * Constructs a new configuration loader.
      */
     public ConfigurationLoader() {
+        this(Map.of(), Map.of(), Ruleset.BUILT_IN, false);
+    }
+
+    /**
+     * Constructs a loader that reuses the actions and monsters of an earlier load whose definitions did not change,
+     * so competitions and caches that still use them see the same objects. The definitions of the loaded actions
+     * and monsters are kept, so a later load can share them in turn.
+     * Actions and monsters are only shared if the declarations of elements and conditions did not change either,
+     * in which case the ruleset of the earlier load is kept as well.
+     *
+     * @param sharedActions the actions of the earlier load by their definition, see {@link #getActionsBySource()}
+     * @param sharedMonsters the monsters of the earlier load by their definition
+     * @param sharedRuleset the ruleset of the earlier load
+     */
+    ConfigurationLoader(Map<String, Action> sharedActions, Map<String, Monster> sharedMonsters,
+            Ruleset sharedRuleset) {
+        this(sharedActions, sharedMonsters, sharedRuleset, true);
+    }
+
+    private ConfigurationLoader(Map<String, Action> sharedActions, Map<String, Monster> sharedMonsters,
+            Ruleset sharedRuleset, boolean trackSources) {
         this.actions = new HashMap<>();
         this.monsters = new ArrayList<>();
-        this.effectParser = new EffectParser();
+        this.interner = new EffectInterner();
+        this.sharedActions = sharedActions;
+        this.sharedMonsters = sharedMonsters;
+        this.sharedRuleset = sharedRuleset;
+        // Until a file is loaded, declarations of a lazily loaded configuration go into a ruleset of their own
+        useRuleset(new Ruleset(List.of()));
+        this.actionsBySource = new HashMap<>();
+        this.monstersBySource = new HashMap<>();
+        this.trackSources = trackSources;
+        this.symbols = createSymbols();
+    }
+
+    /**
+     * Creates the symbols of a new load. Shared actions and monsters keep their symbols.
+     *
+     * @return the symbol table
+     */
+    private SymbolTable createSymbols() {
+        SymbolTable table = new SymbolTable();
+        for (Action action : sharedActions.values()) {
+            table.reserve(action.getName(), action.getSymbol());
+        }
+        for (Monster monster : sharedMonsters.values()) {
+            table.reserve(monster.getName(), monster.getSymbol());
+        }
+        return table;
+    }
+
+    /**
+     * Sets whether configurations are parsed in parallel, which pays off for very large files.
+     * The result, and for an invalid configuration the error of its first invalid line, is the same either way.
+     *
+     * @param parallel true to parse in parallel
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Sets whether the effects of the loaded actions are optimized for execution, see {@link EffectOptimizer}.
+     * Optimizing is enabled by default. The output of battles is the same either way.
+     *
+     * @param optimizing true to optimize actions
+     */
+    public void setOptimizing(boolean optimizing) {
+        this.optimizing = optimizing;
     }
 
     /**
@@ -43,6 +138,15 @@ public class ConfigurationLoader {
             // Clear previous data
             actions.clear();
             monsters.clear();
+            actionsBySource.clear();
+            monstersBySource.clear();
+            sharedActionCount = 0;
+            sharedMonsterCount = 0;
+            symbols = createSymbols();
+            interner.reset();
+            optimizedActionCount.set(0);
+            useRuleset(selectRuleset(lines));
+            sharing = ruleset == sharedRuleset;
 
             // First pass to collect all configurations for output
             for (String line : lines) {
@@ -55,9 +159,65 @@ public class ConfigurationLoader {
             return configContent.toString();
         } catch (IOException e) {
             throw new ConfigurationException("Error reading configuration file: " + e.getMessage());
+        } finally {
+            interner.release();
         }
     }
 
+    private void useRuleset(Ruleset newRuleset) {
+        this.ruleset = newRuleset;
+        this.effectParser = new EffectParser(newRuleset);
+    }
+
+    /**
+     * Chooses the ruleset of a configuration: the built-in one if it declares no elements and conditions,
+     * the one of the earlier load if its declarations did not change, and a new one otherwise.
+     *
+     * @param lines the lines of the configuration file
+     * @return the ruleset
+     */
+    private Ruleset selectRuleset(List<String> lines) {
+        List<String> declarationLines = findDeclarationLines(lines);
+        if (declarationLines.isEmpty()) {
+            return Ruleset.BUILT_IN;
+        }
+        if (sharedRuleset.isDeclaredBy(declarationLines)) {
+            return sharedRuleset;
+        }
+        return new Ruleset(declarationLines);
+    }
+
+    /**
+     * Finds the lines of the element and condition declarations, from their headers to their 'end' lines.
+     *
+     * @param lines the lines of the configuration file
+     * @return the trimmed, non-empty lines of all declarations in file order
+     */
+    private static List<String> findDeclarationLines(List<String> lines) {
+        List<String> declarationLines = new ArrayList<>();
+        boolean declaring = false;
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith(CONDITION_PREFIX) || trimmed.startsWith(ELEMENT_PREFIX)) {
+                declaring = true;
+            }
+            if (declaring && !trimmed.isEmpty()) {
+                declarationLines.add(trimmed);
+                declaring = !trimmed.startsWith(END_PREFIX);
+            }
+        }
+        return declarationLines;
+    }
+
+    /**
+     * Gets the ruleset of the last load, with the elements and conditions its actions and monsters use.
+     *
+     * @return the ruleset
+     */
+    public Ruleset getRuleset() {
+        return ruleset;
+    }
+
     /**
      * Parses the configuration from the provided lines.
      *
@@ -65,6 +225,12 @@ public class ConfigurationLoader {
      * @throws ConfigurationException if the configuration is invalid
      */
     private void parseConfiguration(List<String> lines) throws ConfigurationException {
+        // Declared conditions and elements must be known to the lines after them, so such files are parsed in order
+        if (parallel && ruleset == Ruleset.BUILT_IN) {
+            parseConfigurationInParallel(lines);
+            return;
+        }
+
         List<String> filteredLines = new ArrayList<>();
 
         // Remove empty lines for easier parsing
@@ -84,12 +250,166 @@ public class ConfigurationLoader {
                 index = parseAction(filteredLines, index);
             } else if (line.startsWith("monster ")) {
                 index = parseMonster(filteredLines, index);
+            } else if (line.startsWith(CONDITION_PREFIX)) {
+                index = parseCondition(filteredLines, index);
+            } else if (line.startsWith(ELEMENT_PREFIX)) {
+                index = parseElement(filteredLines, index);
             } else {
                 throw new ConfigurationException("Invalid configuration line: " + line);
             }
         }
     }
 
+    /**
+     * Parses the configuration in two phases that both run in parallel. The first splits the lines into action
+     * blocks and monster lines and parses each of them on its own. The second resolves the actions of every monster
+     * to the definitions that came before its line. The blocks are then taken over in file order up to the first
+     * one that failed, whose error is thrown, so the result is the same as parsing the lines one after another.
+     *
+     * @param lines the lines of the configuration file
+     * @throws ConfigurationException if the configuration is invalid
+     */
+    private void parseConfigurationInParallel(List<String> lines) throws ConfigurationException {
+        List<String> filteredLines = lines.parallelStream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .toList();
+        List<Block> blocks = splitBlocks(filteredLines);
+
+        // Every batch gets its own effect parser
+        forEachBatch(blocks.size(), (from, to) -> {
+            EffectParser parser = new EffectParser(ruleset);
+            for (int i = from; i < to; i++) {
+                parseBlock(blocks.get(i), filteredLines, parser);
+            }
+        });
+
+        // Blocks after the first failure would never have been reached
+        Map<String, List<Block>> definitions = new HashMap<>();
+        int reached = 0;
+        while (reached < blocks.size() && !blocks.get(reached).hasFailed()) {
+            Block block = blocks.get(reached);
+            if (block.action != null) {
+                definitions.computeIfAbsent(block.action.name, name -> new ArrayList<>(1)).add(block);
+            }
+            reached++;
+        }
+
+        forEachBatch(reached, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                resolveBlock(blocks.get(i), definitions);
+            }
+        });
+
+        for (int i = 0; i < Math.min(reached + 1, blocks.size()); i++) {
+            Block block = blocks.get(i);
+            block.rethrow();
+            if (block.action != null) {
+                registerAction(block.action);
+            } else {
+                registerMonster(block.monsterLine.line, block.monster);
+            }
+        }
+    }
+
+    /**
+     * Splits the lines into blocks the way the sequential parser walks them: an action from its header to the
+     * next 'end action', or to the end of the file, and a monster as a single line. Splitting stops at the first
+     * line that starts neither, which becomes a failed block.
+     *
+     * @param lines the non-empty, trimmed lines of the configuration file
+     * @return the blocks in file order
+     */
+    private static List<Block> splitBlocks(List<String> lines) {
+        List<Block> blocks = new ArrayList<>();
+        int index = 0;
+        while (index < lines.size()) {
+            String line = lines.get(index);
+            Block block = new Block(blocks.size(), index);
+            blocks.add(block);
+
+            if (line.startsWith("action ")) {
+                int endIndex = findActionEnd(lines, index);
+                index = endIndex < 0 ? lines.size() : endIndex + 1;
+            } else if (line.startsWith("monster ")) {
+                index++;
+            } else {
+                block.configurationFailure = new ConfigurationException("Invalid configuration line: " + line);
+                break;
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Runs a task for consecutive batches of indices in parallel.
+     *
+     * @param size the number of indices
+     * @param task the task, called with the first index of a batch and the index after its last
+     */
+    private static void forEachBatch(int size, BiConsumer<Integer, Integer> task) {
+        IntStream.range(0, (size + BATCH_SIZE - 1) / BATCH_SIZE).parallel()
+                .forEach(batch -> task.accept(batch * BATCH_SIZE, Math.min(size, (batch + 1) * BATCH_SIZE)));
+    }
+
+    private void parseBlock(Block block, List<String> lines, EffectParser parser) {
+        if (block.hasFailed()) {
+            return;
+        }
+        try {
+            String line = lines.get(block.start);
+            if (line.startsWith("action ")) {
+                block.action = parseActionBlock(lines, block.start, parser);
+            } else {
+                block.monsterLine = new MonsterLine(line, ruleset);
+            }
+        } catch (ConfigurationException e) {
+            block.configurationFailure = e;
+        } catch (RuntimeException e) {
+            // e.g. a malformed number, which the sequential parser does not catch either
+            block.runtimeFailure = e;
+        }
+    }
+
+    private void resolveBlock(Block block, Map<String, List<Block>> definitions) {
+        if (block.monsterLine == null) {
+            return;
+        }
+        try {
+            List<Action> monsterActions = resolveActions(block.monsterLine,
+                    name -> findDefinition(definitions.get(name), block.position));
+            block.monster = createMonster(block.monsterLine, monsterActions);
+        } catch (ConfigurationException e) {
+            block.configurationFailure = e;
+        } catch (RuntimeException e) {
+            block.runtimeFailure = e;
+        }
+    }
+
+    /**
+     * Finds the action that a name referred to at a position, which is the last definition before it.
+     *
+     * @param definitions the blocks defining actions of that name in file order, or null if there are none
+     * @param position the position of the block referring to the name
+     * @return the action, or null if the name was not defined before
+     */
+    private static Action findDefinition(List<Block> definitions, int position) {
+        if (definitions == null) {
+            return null;
+        }
+        int low = 0;
+        int high = definitions.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (definitions.get(middle).position < position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low == 0 ? null : definitions.get(low - 1).action.action;
+    }
+
     /**
      * Parses an action from the configuration.
      *
@@ -99,6 +419,22 @@ public class ConfigurationLoader {
      * @throws ConfigurationException if the action configuration is invalid
      */
     private int parseAction(List<String> lines, int startIndex) throws ConfigurationException {
+        ParsedAction parsed = parseActionBlock(lines, startIndex, effectParser);
+        registerAction(parsed);
+        return parsed.endIndex + 1;
+    }
+
+    /**
+     * Parses an action from the configuration without registering it.
+     *
+     * @param lines the lines of the configuration file
+     * @param startIndex the index of the action header
+     * @param parser the parser for the effects
+     * @return the parsed action
+     * @throws ConfigurationException if the action configuration is invalid
+     */
+    private ParsedAction parseActionBlock(List<String> lines, int startIndex, EffectParser parser)
+            throws ConfigurationException {
         // Parse action header
         String headerLine = lines.get(startIndex);
         String[] headerParts = headerLine.split(" ", 3);
@@ -108,14 +444,23 @@ public class ConfigurationLoader {
         }
 
         String actionName = headerParts[1];
-        Element element = Element.fromString(headerParts[2]);
+        Element element = ruleset.getElement(headerParts[2]);
 
         if (element == null) {
             throw new ConfigurationException("Invalid element: " + headerParts[2]);
         }
 
-        Action action = new Action(actionName, element);
-        List<Effect> repeatedEffects = null;
+        // An unchanged definition from an earlier load is reused without parsing it again
+        int endIndex = trackSources ? findActionEnd(lines, startIndex) : -1;
+        String source = endIndex < 0 ? null : String.join("\n", lines.subList(startIndex, endIndex + 1));
+        Action shared = source == null || !sharing ? null : sharedActions.get(source);
+        if (shared != null) {
+            return new ParsedAction(actionName, shared, source, endIndex);
+        }
+
+        List<Effect> actionEffects = new ArrayList<>();
+        // Repeats that are not closed yet, innermost first
+        Deque<EffectRepeat> openRepeats = new ArrayDeque<>();
 
         int index = startIndex + 1;
 
@@ -124,29 +469,36 @@ public class ConfigurationLoader {
             String line = lines.get(index);
 
             if (line.equals("end action")) {
-                // Add action to map
-                actions.put(actionName, action);
-                return index + 1;
+                // Repeats that are still open end with the action
+                while (!openRepeats.isEmpty()) {
+                    addEffect(openRepeats.pop(), openRepeats, actionEffects);
+                }
+                List<Effect> effects = interner.internSequence(actionEffects);
+                Action action = new Action(actionName, element, effects, symbols);
+                List<Effect> optimized = optimizing ? EffectOptimizer.optimize(effects) : effects;
+                if (optimized != effects) {
+                    action.setExecutedEffects(optimized);
+                    optimizedActionCount.incrementAndGet();
+                }
+                return new ParsedAction(actionName, action, source, index);
             } else if (line.equals("end repeat")) {
-                if (repeatedEffects == null) {
+                if (openRepeats.isEmpty()) {
                     throw new ConfigurationException("Unexpected 'end repeat' without matching 'repeat'");
                 }
 
-                // Repeats are handled in the repeat parsing
-                repeatedEffects = null;
+                addEffect(interner.internRepeat(openRepeats.pop()), openRepeats, actionEffects);
                 index++;
             } else if (line.startsWith("repeat ")) {
-                index = parseRepeatEffect(lines, index, action, repeatedEffects);
-                repeatedEffects = new ArrayList<>();
+                // Following effects go into the repeat until its 'end repeat'
+                openRepeats.push(parseRepeatEffect(line, new ArrayList<>()));
+                index++;
             } else {
-                // Parse single effect
-                Effect effect = effectParser.parseEffect(line);
-
-                if (repeatedEffects != null) {
-                    repeatedEffects.add(effect);
-                } else {
-                    action.addEffect(effect);
+                // Parse single effect, or reuse an identical one
+                Effect effect = interner.find(line);
+                if (effect == null) {
+                    effect = interner.intern(line, parser.parseEffect(line));
                 }
+                addEffect(effect, openRepeats, actionEffects);
 
                 index++;
             }
@@ -155,29 +507,61 @@ public class ConfigurationLoader {
         throw new ConfigurationException("Unexpected end of file while parsing action: " + actionName);
     }
 
+    private static void addEffect(Effect effect, Deque<EffectRepeat> openRepeats, List<Effect> actionEffects) {
+        if (openRepeats.isEmpty()) {
+            actionEffects.add(effect);
+        } else {
+            openRepeats.peek().getRepeatedEffects().add(effect);
+        }
+    }
+
+    /**
+     * Adds a parsed action to the configuration, replacing an earlier action of the same name.
+     *
+     * @param parsed the parsed action
+     */
+    private void registerAction(ParsedAction parsed) {
+        actions.put(parsed.name, parsed.action);
+        if (parsed.source == null) {
+            return;
+        }
+        actionsBySource.put(parsed.source, parsed.action);
+        if (parsed.action == sharedActions.get(parsed.source)) {
+            sharedActionCount++;
+        }
+    }
+
     /**
-     * Parses a repeat effect.
+     * Finds the end of an action, whose lines are the key to reuse it in a later load.
      *
      * @param lines the lines of the configuration file
-     * @param index the current index
-     * @param action the current action
-     * @param repeatedEffects the current repeated effects
-     * @return the next index to parse from
+     * @param startIndex the index of the action header
+     * @return the index of the line ending the action, or -1 if the action does not end
+     */
+    private static int findActionEnd(List<String> lines, int startIndex) {
+        for (int index = startIndex + 1; index < lines.size(); index++) {
+            if (lines.get(index).equals("end action")) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses the header of a repeat effect.
+     *
+     * @param line the repeat line
+     * @param repeatedEffects the list the repeated effects will be added to
+     * @return the repeat effect
      * @throws ConfigurationException if the repeat effect configuration is invalid
      */
-    private int parseRepeatEffect(List<String> lines, int index, Action action, List<Effect> repeatedEffects)
-            throws ConfigurationException {
-        String line = lines.get(index);
+    private EffectRepeat parseRepeatEffect(String line, List<Effect> repeatedEffects) throws ConfigurationException {
         String[] parts = line.split(" ");
 
         if (parts.length < 2) {
             throw new ConfigurationException("Invalid repeat format: " + line);
         }
 
-        if (repeatedEffects == null) {
-            repeatedEffects = new ArrayList<>();
-        }
-
         if (parts[1].equals("random")) {
             if (parts.length < 4) {
                 throw new ConfigurationException("Invalid random repeat format: " + line);
@@ -186,63 +570,247 @@ public class ConfigurationLoader {
             int min = Integer.parseInt(parts[2]);
             int max = Integer.parseInt(parts[3]);
 
-            EffectRepeat repeatEffect = new EffectRepeat(min, max, repeatedEffects);
-            action.addEffect(repeatEffect);
+            return new EffectRepeat(min, max, repeatedEffects);
         } else {
             int count = Integer.parseInt(parts[1]);
 
-            EffectRepeat repeatEffect = new EffectRepeat(count, repeatedEffects);
-            action.addEffect(repeatEffect);
+            return new EffectRepeat(count, repeatedEffects);
         }
-
-        return index + 1;
     }
 
     /**
-     * Parses a monster from the configuration.
+     * Parses and declares a status condition from the configuration, see {@link StatusCondition}.
      *
      * @param lines the lines of the configuration file
-     * @param startIndex the index to start parsing from
+     * @param startIndex the index of the condition header
      * @return the next index to parse from
-     * @throws ConfigurationException if the monster configuration is invalid
+     * @throws ConfigurationException if the condition configuration is invalid or conflicts with another condition
      */
-    private int parseMonster(List<String> lines, int startIndex) throws ConfigurationException {
-        String line = lines.get(startIndex);
-        String[] parts = line.split(" ");
+    private int parseCondition(List<String> lines, int startIndex) throws ConfigurationException {
+        String[] headerParts = lines.get(startIndex).split(" ");
+        if (headerParts.length != 2) {
+            throw new ConfigurationException("Invalid condition header: " + lines.get(startIndex));
+        }
+
+        String name = headerParts[1];
+        StatusCondition.Definition definition = new StatusCondition.Definition(name);
+        String inflicted = " is " + name + "!";
+        String active = inflicted;
+        String ended = " is no longer " + name + "!";
+        int index = startIndex + 1;
 
-        if (parts.length < 8) {
-            throw new ConfigurationException("Invalid monster format: " + line);
+        while (index < lines.size()) {
+            String line = lines.get(index);
+            String[] parts = line.split(" ", 2);
+            try {
+                switch (parts[0]) {
+                    case "end" -> {
+                        if (!line.equals("end condition")) {
+                            throw new ConfigurationException("Invalid condition line: " + line);
+                        }
+                        ruleset.declareCondition(definition.messages(inflicted, active, ended));
+                        return index + 1;
+                    }
+                    case "inflicted" -> inflicted = " " + parts[1];
+                    case "active" -> active = " " + parts[1];
+                    case "ended" -> ended = " " + parts[1];
+                    case "stat" -> {
+                        String[] statParts = parts[1].split(" ");
+                        Stat stat = Stat.fromString(statParts[0]);
+                        if (stat == null || stat == Stat.HP || statParts.length != 2) {
+                            throw new ConfigurationException("Invalid condition stat: " + line);
+                        }
+                        definition.multiplier(stat, Double.parseDouble(statParts[1]));
+                    }
+                    case "damage" -> definition.damage(Integer.parseInt(parts[1]),
+                            "%s takes %d damage from " + name.replace("%", "%%") + "!\n");
+                    case "skip" -> definition.skipsTurn(name + " end");
+                    case "ends" -> definition.endChance(Double.parseDouble(parts[1]));
+                    default -> throw new ConfigurationException("Invalid condition line: " + line);
+                }
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                throw new ConfigurationException("Invalid condition line: " + line);
+            }
+            index++;
         }
 
-        String monsterName = parts[1];
-        Element element = Element.fromString(parts[2]);
+        throw new ConfigurationException("Unexpected end of file while parsing condition: " + name);
+    }
 
-        if (element == null) {
-            throw new ConfigurationException("Invalid element: " + parts[2]);
+    /**
+     * Parses and declares an element with its effectiveness against the elements before it, see {@link Element}.
+     *
+     * @param lines the lines of the configuration file
+     * @param startIndex the index of the element header
+     * @return the next index to parse from
+     * @throws ConfigurationException if the element configuration is invalid or conflicts with another element
+     */
+    private int parseElement(List<String> lines, int startIndex) throws ConfigurationException {
+        String[] headerParts = lines.get(startIndex).split(" ");
+        if (headerParts.length != 2) {
+            throw new ConfigurationException("Invalid element header: " + lines.get(startIndex));
+        }
+
+        String name = headerParts[1];
+        Element.Definition definition = new Element.Definition(name);
+        int index = startIndex + 1;
+
+        while (index < lines.size()) {
+            String line = lines.get(index);
+            if (line.equals("end element")) {
+                ruleset.declareElement(definition);
+                return index + 1;
+            }
+
+            String[] parts = line.split(" ");
+            if (parts.length != 3 || !parts[0].equals("against") && !parts[0].equals("from")) {
+                throw new ConfigurationException("Invalid element line: " + line);
+            }
+            double multiplier;
+            try {
+                multiplier = Double.parseDouble(parts[2]);
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException("Invalid element line: " + line);
+            }
+            if (!(multiplier >= 0) || Double.isInfinite(multiplier)) {
+                throw new ConfigurationException("Invalid effectiveness: " + line);
+            }
+
+            if (parts[0].equals("against")) {
+                definition.against(parts[1], multiplier);
+            } else {
+                definition.from(parts[1], multiplier);
+            }
+            index++;
         }
 
-        int maxHp = Integer.parseInt(parts[3]);
-        int attack = Integer.parseInt(parts[4]);
-        int defense = Integer.parseInt(parts[5]);
-        int speed = Integer.parseInt(parts[6]);
+        throw new ConfigurationException("Unexpected end of file while parsing element: " + name);
+    }
 
-        Monster monster = new Monster(monsterName, element, maxHp, attack, defense, speed);
+    /**
+     * Parses a single element block on its own, for loading a configuration lazily.
+     *
+     * @param lines the non-empty, trimmed lines from the element header to 'end element'
+     * @throws ConfigurationException if the element configuration is invalid or conflicts with another element
+     */
+    void parseSingleElement(List<String> lines) throws ConfigurationException {
+        parseElement(lines, 0);
+    }
 
-        // Add actions to monster
-        for (int i = 7; i < parts.length; i++) {
-            String actionName = parts[i];
-            Action action = actions.get(actionName);
+    /**
+     * Parses a single condition block on its own, for loading a configuration lazily.
+     *
+     * @param lines the non-empty, trimmed lines from the condition header to 'end condition'
+     * @throws ConfigurationException if the condition configuration is invalid or conflicts with another condition
+     */
+    void parseSingleCondition(List<String> lines) throws ConfigurationException {
+        parseCondition(lines, 0);
+    }
+
+    /**
+     * Parses a monster from the configuration.
+     *
+     * @param lines the lines of the configuration file
+     * @param startIndex the index to start parsing from
+     * @return the next index to parse from
+     * @throws ConfigurationException if the monster configuration is invalid
+     */
+    private int parseMonster(List<String> lines, int startIndex) throws ConfigurationException {
+        MonsterLine monsterLine = new MonsterLine(lines.get(startIndex), ruleset);
+        List<Action> monsterActions = resolveActions(monsterLine, actions::get);
+        registerMonster(monsterLine.line, createMonster(monsterLine, monsterActions));
+
+        return startIndex + 1;
+    }
+
+    /**
+     * Looks up the actions a monster knows.
+     *
+     * @param monsterLine the parsed monster line
+     * @param lookup finds the action of a name, or null if there is none
+     * @return the actions in the order of the line
+     * @throws ConfigurationException if an action is unknown
+     */
+    private static List<Action> resolveActions(MonsterLine monsterLine, Function<String, Action> lookup)
+            throws ConfigurationException {
+        List<Action> monsterActions = new ArrayList<>();
+        for (String actionName : monsterLine.actionNames) {
+            Action action = lookup.apply(actionName);
 
             if (action == null) {
                 throw new ConfigurationException("Unknown action: " + actionName);
             }
 
+            monsterActions.add(action);
+        }
+        return monsterActions;
+    }
+
+    /**
+     * Creates a monster, or reuses the monster of an earlier load if neither its line nor any of its actions changed.
+     *
+     * @param monsterLine the parsed monster line
+     * @param monsterActions the actions of the monster
+     * @return the monster
+     */
+    private Monster createMonster(MonsterLine monsterLine, List<Action> monsterActions) {
+        Monster monster = sharing ? sharedMonsters.get(monsterLine.line) : null;
+        if (monster != null && monster.getActions().equals(monsterActions)) {
+            return monster;
+        }
+
+        monster = new Monster(monsterLine.name, monsterLine.element, monsterLine.maxHp, monsterLine.attack,
+                monsterLine.defense, monsterLine.speed, symbols);
+
+        // Add actions to monster
+        for (Action action : monsterActions) {
             monster.addAction(action);
         }
+        return monster;
+    }
 
+    /**
+     * Adds a monster to the configuration.
+     *
+     * @param line the line defining the monster
+     * @param monster the monster
+     */
+    private void registerMonster(String line, Monster monster) {
         monsters.add(monster);
+        if (trackSources) {
+            monstersBySource.put(line, monster);
+        }
+        if (monster == sharedMonsters.get(line)) {
+            sharedMonsterCount++;
+        }
+    }
 
-        return startIndex + 1;
+    /**
+     * Parses a single action block on its own, for loading a configuration lazily.
+     *
+     * @param lines the non-empty, trimmed lines from the action header to 'end action'
+     * @return the action
+     * @throws ConfigurationException if the action configuration is invalid
+     */
+    Action parseSingleAction(List<String> lines) throws ConfigurationException {
+        try {
+            return parseActionBlock(lines, 0, effectParser).action;
+        } finally {
+            interner.release();
+        }
+    }
+
+    /**
+     * Parses a single monster line on its own, for loading a configuration lazily.
+     *
+     * @param line the trimmed monster line
+     * @param knownActions the actions its names refer to
+     * @return the monster
+     * @throws ConfigurationException if the monster configuration is invalid or refers to an unknown action
+     */
+    Monster parseSingleMonster(String line, Map<String, Action> knownActions) throws ConfigurationException {
+        MonsterLine monsterLine = new MonsterLine(line, ruleset);
+        return createMonster(monsterLine, resolveActions(monsterLine, knownActions::get));
     }
 
     /**
@@ -254,6 +822,15 @@ public class ConfigurationLoader {
         return new ArrayList<>(monsters);
     }
 
+    /**
+     * Gets the symbols of the names of the last load.
+     *
+     * @return the symbol table
+     */
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
     /**
      * Gets the number of actions in the configuration.
      *
@@ -271,4 +848,151 @@ public class ConfigurationLoader {
     public int getMonsterCount() {
         return monsters.size();
     }
+
+    /**
+     * Gets the number of effects the actions of the last load use, counting every effect line and repeat.
+     *
+     * @return the number of effects
+     */
+    public int getEffectCount() {
+        return interner.getEffectCount();
+    }
+
+    /**
+     * Gets the number of effects of the last load that were identical to an earlier one and share its object.
+     *
+     * @return the number of shared effects
+     */
+    public int getSharedEffectCount() {
+        return interner.getSharedEffectCount();
+    }
+
+    /**
+     * Gets the number of actions of the last load whose executed effects were optimized.
+     *
+     * @return the number of optimized actions
+     */
+    public int getOptimizedActionCount() {
+        return optimizedActionCount.get();
+    }
+
+    /**
+     * Gets the actions of the last load by their definition, to share them with a later load.
+     *
+     * @return the actions by the lines that define them
+     */
+    Map<String, Action> getActionsBySource() {
+        return actionsBySource;
+    }
+
+    /**
+     * Gets the monsters of the last load by their definition, to share them with a later load.
+     *
+     * @return the monsters by the line that defines them
+     */
+    Map<String, Monster> getMonstersBySource() {
+        return monstersBySource;
+    }
+
+    /**
+     * Gets the number of actions of the last load that were reused from an earlier load.
+     *
+     * @return the number of shared actions
+     */
+    int getSharedActionCount() {
+        return sharedActionCount;
+    }
+
+    /**
+     * Gets the number of monsters of the last load that were reused from an earlier load.
+     *
+     * @return the number of shared monsters
+     */
+    int getSharedMonsterCount() {
+        return sharedMonsterCount;
+    }
+
+    /**
+     * An action parsed from its block, before it is added to the configuration.
+     */
+    private static final class ParsedAction {
+        private final String name;
+        private final Action action;
+        private final String source;
+        private final int endIndex;
+
+        ParsedAction(String name, Action action, String source, int endIndex) {
+            this.name = name;
+            this.action = action;
+            this.source = source;
+            this.endIndex = endIndex;
+        }
+    }
+
+    /**
+     * The values of a monster line, whose actions are not looked up yet.
+     */
+    private static final class MonsterLine {
+        private final String line;
+        private final String name;
+        private final Element element;
+        private final int maxHp;
+        private final int attack;
+        private final int defense;
+        private final int speed;
+        private final List<String> actionNames;
+
+        MonsterLine(String line, Ruleset ruleset) throws ConfigurationException {
+            String[] parts = line.split(" ");
+
+            if (parts.length < 8) {
+                throw new ConfigurationException("Invalid monster format: " + line);
+            }
+
+            this.line = line;
+            this.name = parts[1];
+            this.element = ruleset.getElement(parts[2]);
+
+            if (element == null) {
+                throw new ConfigurationException("Invalid element: " + parts[2]);
+            }
+
+            this.maxHp = Integer.parseInt(parts[3]);
+            this.attack = Integer.parseInt(parts[4]);
+            this.defense = Integer.parseInt(parts[5]);
+            this.speed = Integer.parseInt(parts[6]);
+            this.actionNames = Arrays.asList(parts).subList(7, parts.length);
+        }
+    }
+
+    /**
+     * An action block or monster line of a parallel parse with its result or the error it caused.
+     */
+    private static final class Block {
+        private final int position;
+        private final int start;
+        private ParsedAction action;
+        private MonsterLine monsterLine;
+        private Monster monster;
+        private ConfigurationException configurationFailure;
+        private RuntimeException runtimeFailure;
+
+        Block(int position, int start) {
+            this.position = position;
+            this.start = start;
+        }
+
+        boolean hasFailed() {
+            return configurationFailure != null || runtimeFailure != null;
+        }
+
+        void rethrow() throws ConfigurationException {
+            if (configurationFailure != null) {
+                throw configurationFailure;
+            }
+            if (runtimeFailure != null) {
+                throw runtimeFailure;
+            }
+        }
+    }
 }
\ No newline at end of file
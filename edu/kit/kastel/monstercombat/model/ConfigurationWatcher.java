@@ -0,0 +1,127 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+
+/**
+ * Watches a configuration file and loads it again in the background whenever it changes.
+ * A new version is published at once as a whole, and only if it loaded without error, so readers always see
+ * a complete configuration. Running battles keep the monsters they started with.
+ * @author ursxd
+ */
+public final class ConfigurationWatcher {
+    private static final long SETTLE_MILLIS = 100;
+
+    private final Path path;
+    private final AtomicReference<ConfigurationCache.CachedConfiguration> configuration;
+    private volatile String failure;
+    private volatile int failureCount;
+
+    private ConfigurationWatcher(Path path, ConfigurationCache.CachedConfiguration configuration) {
+        this.path = path;
+        this.configuration = new AtomicReference<>(configuration);
+    }
+
+    /**
+     * Starts watching a configuration file on a daemon thread.
+     *
+     * @param path the absolute path to the configuration file
+     * @param configuration the currently loaded version of the file
+     * @return the running watcher
+     * @throws IOException if the directory of the file cannot be watched
+     */
+    static ConfigurationWatcher start(Path path, ConfigurationCache.CachedConfiguration configuration)
+            throws IOException {
+        ConfigurationWatcher watcher = new ConfigurationWatcher(path, configuration);
+        WatchService service = path.getFileSystem().newWatchService();
+        try {
+            path.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            service.close();
+            throw e;
+        }
+        Thread thread = new Thread(() -> watcher.watch(service), "config-watcher-" + path.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+        return watcher;
+    }
+
+    /**
+     * Gets the latest version of the configuration that loaded without error.
+     *
+     * @return the configuration
+     */
+    public ConfigurationCache.CachedConfiguration getConfiguration() {
+        return configuration.get();
+    }
+
+    /**
+     * Gets the number of changes of the file that could not be loaded.
+     *
+     * @return the number of failed reloads
+     */
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Gets the reason the last failed reload failed.
+     *
+     * @return the error message, or null if no reload failed yet
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    private void watch(WatchService service) {
+        try (service) {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = drain(key);
+                // Editors often write a file in several steps, so wait until it settled
+                WatchKey next;
+                while ((next = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= drain(next);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            failure = e.getMessage();
+            failureCount++;
+        }
+    }
+
+    private boolean drain(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // On an overflow events were lost, so the file may have changed
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || path.getFileName().equals(event.context());
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        try {
+            configuration.set(ConfigurationCache.load(path.toString()));
+        } catch (ConfigurationException e) {
+            failure = e.getMessage();
+            failureCount++;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package edu.kit.kastel.monstercombat.model;
+
+/**
+ * Monster state of a participant that may share its data with forks of its competition.
+ * The data is only written while it belongs to the current state version of the competition;
+ * otherwise it is copied first, so forking a competition copies no state at all
+ * and afterwards only the monsters that are changed get copied.
+ * @author ursxd
+ */
+class CopyOnWriteMonsterState extends MonsterState {
+    private final Competition competition;
+    private MonsterState data;
+    private Object version;
+
+    /**
+     * Constructs a state that owns its data.
+     *
+     * @param competition the competition of the participant
+     * @param data the data of the state
+     */
+    CopyOnWriteMonsterState(Competition competition, MonsterState data) {
+        this(competition, data, competition.getStateVersion());
+    }
+
+    private CopyOnWriteMonsterState(Competition competition, MonsterState data, Object version) {
+        this.competition = competition;
+        this.data = data;
+        this.version = version;
+    }
+
+    /**
+     * Creates a state for a fork that shares the data of this state until either of them changes it.
+     * The competition of this state must get a new state version before it changes any state.
+     *
+     * @param fork the forked competition
+     * @return the state of the participant in the fork
+     */
+    CopyOnWriteMonsterState share(Competition fork) {
+        return new CopyOnWriteMonsterState(fork, data, null);
+    }
+
+    private MonsterState writable() {
+        Object current = competition.getStateVersion();
+        if (version != current) {
+            data = MonsterState.copyOf(data);
+            version = current;
+        }
+        return data;
+    }
+
+    @Override
+    public int getBaseStat(Stat stat) {
+        return data.getBaseStat(stat);
+    }
+
+    @Override
+    public double getEffectiveStat(Stat stat) {
+        return data.getEffectiveStat(stat);
+    }
+
+    @Override
+    public long getFixedEffectiveStat(Stat stat) {
+        return data.getFixedEffectiveStat(stat);
+    }
+
+    @Override
+    public int getCurrentHp() {
+        return data.getCurrentHp();
+    }
+
+    @Override
+    public int getMaxHp() {
+        return data.getMaxHp();
+    }
+
+    @Override
+    public StatusCondition getStatusCondition() {
+        return data.getStatusCondition();
+    }
+
+    @Override
+    public void setStatusCondition(StatusCondition condition) {
+        writable().setStatusCondition(condition);
+    }
+
+    @Override
+    public int getStatChange(Stat stat) {
+        return data.getStatChange(stat);
+    }
+
+    @Override
+    public void setStatChange(Stat stat, int statChange) {
+        writable().setStatChange(stat, statChange);
+    }
+
+    @Override
+    public int takeDamage(int amount) {
+        return writable().takeDamage(amount);
+    }
+
+    @Override
+    public int heal(int amount) {
+        return writable().heal(amount);
+    }
+
+    @Override
+    public boolean isDefeated() {
+        return data.isDefeated();
+    }
+
+    @Override
+    public boolean isProtectedAgainstDamage() {
+        return data.isProtectedAgainstDamage();
+    }
+
+    @Override
+    public boolean isProtectedAgainstStatChanges() {
+        return data.isProtectedAgainstStatChanges();
+    }
+
+    @Override
+    public void setProtection(boolean protectHealth, boolean protectStatChanges, int protectionDuration) {
+        writable().setProtection(protectHealth, protectStatChanges, protectionDuration);
+    }
+
+    @Override
+    public int getProtectionDuration() {
+        return data.getProtectionDuration();
+    }
+
+    @Override
+    public boolean decreaseProtectionDuration() {
+        // Called for every participant at the end of every round, so unprotected states stay shared
+        if (data.getProtectionDuration() == 0) {
+            return false;
+        }
+        return writable().decreaseProtectionDuration();
+    }
+}
@@ -0,0 +1,155 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.kit.kastel.monstercombat.model.effect.Effect;
+import edu.kit.kastel.monstercombat.model.effect.EffectRepeat;
+
+/**
+ * Canonicalizes the effects of a configuration while it is loaded, so structurally identical effects and effect
+ * sequences are created only once and shared by all actions and repeats that use them.
+ * This is possible because effects never change after loading. A single effect is identified by its line,
+ * a sequence by its canonical effects and a repeat by its counts and canonical body.
+ * Safe to use from several parsing threads at once.
+ * @author ursxd
+ */
+final class EffectInterner {
+    private final Map<String, Effect> effects = new ConcurrentHashMap<>();
+    private final Map<List<Effect>, List<Effect>> sequences = new ConcurrentHashMap<>();
+    private final Map<RepeatKey, EffectRepeat> repeats = new ConcurrentHashMap<>();
+    private final AtomicInteger effectCount = new AtomicInteger();
+    private final AtomicInteger sharedEffectCount = new AtomicInteger();
+
+    /**
+     * Finds the effect defined by the same line as an earlier one and counts the use.
+     *
+     * @param line the line defining the effect
+     * @return the shared effect, or null if there is none yet
+     */
+    Effect find(String line) {
+        Effect effect = effects.get(line);
+        if (effect != null) {
+            count(true);
+        }
+        return effect;
+    }
+
+    /**
+     * Registers a newly parsed effect, unless another thread registered one for the same line in the meantime.
+     *
+     * @param line the line defining the effect
+     * @param effect the new effect
+     * @return the effect to use
+     */
+    Effect intern(String line, Effect effect) {
+        Effect existing = effects.putIfAbsent(line, effect);
+        count(existing != null);
+        return existing == null ? effect : existing;
+    }
+
+    /**
+     * Gets the shared repeat with the same counts and body as a newly parsed one.
+     *
+     * @param repeat the new repeat, whose body consists of canonical effects
+     * @return the repeat to use
+     */
+    EffectRepeat internRepeat(EffectRepeat repeat) {
+        List<Effect> body = internSequence(repeat.getRepeatedEffects());
+        EffectRepeat created = new EffectRepeat(repeat.getMinCount(), repeat.getMaxCount(), body);
+        EffectRepeat existing = repeats.putIfAbsent(new RepeatKey(created.getMinCount(), created.getMaxCount(), body),
+                created);
+        count(existing != null);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * Gets the shared, unmodifiable copy of an effect sequence.
+     *
+     * @param sequence the canonical effects of the sequence
+     * @return the shared sequence
+     */
+    List<Effect> internSequence(List<Effect> sequence) {
+        List<Effect> copy = List.copyOf(sequence);
+        List<Effect> existing = sequences.putIfAbsent(copy, copy);
+        return existing == null ? copy : existing;
+    }
+
+    /**
+     * Forgets all effects, so they are not kept alive by the interner after loading, but keeps the counts.
+     */
+    void release() {
+        effects.clear();
+        sequences.clear();
+        repeats.clear();
+    }
+
+    /**
+     * Resets the counts for a new load.
+     */
+    void reset() {
+        release();
+        effectCount.set(0);
+        sharedEffectCount.set(0);
+    }
+
+    /**
+     * Gets the number of effects used by the actions that were parsed, counting every effect line and repeat.
+     *
+     * @return the number of effects
+     */
+    int getEffectCount() {
+        return effectCount.get();
+    }
+
+    /**
+     * Gets the number of effects that were shared instead of created.
+     *
+     * @return the number of shared effects
+     */
+    int getSharedEffectCount() {
+        return sharedEffectCount.get();
+    }
+
+    private void count(boolean shared) {
+        effectCount.incrementAndGet();
+        if (shared) {
+            sharedEffectCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Identifies a repeat by its counts and the identity of its canonical body.
+     */
+    private static final class RepeatKey {
+        private final int minCount;
+        private final int maxCount;
+        private final List<Effect> body;
+
+        RepeatKey(int minCount, int maxCount, List<Effect> body) {
+            this.minCount = minCount;
+            this.maxCount = maxCount;
+            this.body = body;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            RepeatKey key = (RepeatKey) other;
+            return minCount == key.minCount && maxCount == key.maxCount && body == key.body;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(minCount, maxCount, System.identityHashCode(body));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package edu.kit.kastel.monstercombat.model;
+
+/**
+ * Listener that is notified about every effect an action executes, e.g. the battle log exporter.
+ * @author ursxd
+ */
+@FunctionalInterface
+public interface EffectListener {
+
+    /**
+     * Called after an effect of an action was executed or missed.
+     *
+     * @param record what the effect did
+     */
+    void effectExecuted(EffectRecord record);
+}
@@ -14,6 +14,16 @@ import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
  * @author ursxd
  */
 public class EffectParser {
+    private final Ruleset ruleset;
+
+    /**
+     * Constructs a new effect parser.
+     *
+     * @param ruleset the ruleset whose status conditions effects may inflict
+     */
+    public EffectParser(Ruleset ruleset) {
+        this.ruleset = ruleset;
+    }
 
     /**
      * Parses an effect from a configuration line.
@@ -92,9 +102,9 @@ public class EffectParser {
         }
 
         Effect.TargetType targetType = parseTargetType(parts[1]);
-        StatusCondition condition = StatusCondition.fromString(parts[2]);
+        StatusCondition condition = ruleset.getCondition(parts[2]);
 
-        if (condition == StatusCondition.NONE) {
+        if (condition == null || condition == StatusCondition.NONE) {
             throw new ConfigurationException("Invalid status condition: " + parts[2]);
         }
 
@@ -0,0 +1,79 @@
+package edu.kit.kastel.monstercombat.model;
+
+/**
+ * Outcome of a single effect of an action.
+ * @author ursxd
+ */
+public final class EffectRecord {
+    private final long battleId;
+    private final int round;
+    private final String actor;
+    private final String action;
+    private final String effectType;
+    private final boolean hit;
+    private final boolean critical;
+    private final int damage;
+    private final int targetHpAfter;
+
+    /**
+     * Constructs a new effect record.
+     *
+     * @param battleId the ID of the competition, unique within this process
+     * @param round the round the effect was executed in
+     * @param actor the species name of the monster using the action
+     * @param action the name of the action
+     * @param effectType the type name of the effect, see {@link edu.kit.kastel.monstercombat.model.effect.Effect#getTypeName()}
+     * @param hit whether the effect hit
+     * @param critical whether the effect was a critical hit
+     * @param damage the health points the target lost, negative if it was healed
+     * @param targetHpAfter the health points of the target afterwards, or -1 if there was no target
+     */
+    public EffectRecord(long battleId, int round, String actor, String action, String effectType, boolean hit,
+                        boolean critical, int damage, int targetHpAfter) {
+        this.battleId = battleId;
+        this.round = round;
+        this.actor = actor;
+        this.action = action;
+        this.effectType = effectType;
+        this.hit = hit;
+        this.critical = critical;
+        this.damage = damage;
+        this.targetHpAfter = targetHpAfter;
+    }
+
+    public long getBattleId() {
+        return battleId;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getEffectType() {
+        return effectType;
+    }
+
+    public boolean isHit() {
+        return hit;
+    }
+
+    public boolean isCritical() {
+        return critical;
+    }
+
+    public int getDamage() {
+        return damage;
+    }
+
+    public int getTargetHpAfter() {
+        return targetHpAfter;
+    }
+}
@@ -1,15 +1,123 @@
 package edu.kit.kastel.monstercombat.model;
 
-public enum Element {
-    NORMAL("NORMAL"),
-    WATER("WATER"),
-    FIRE("FIRE"),
-    EARTH("EARTH");
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+
+/**
+ * An element of actions and monsters. How effective an element is against another is stored in a dense matrix
+ * with one row per attacking element, so looking it up is a single array load however many elements there are.
+ * Elements belong to the {@link Ruleset} of a configuration: the four elements of the game are built into every
+ * ruleset, further ones can be declared by a configuration file.
+ * @author ursxd
+ */
+public final class Element {
+    /**
+     * The largest number of elements of a ruleset, including the built-in ones.
+     */
+    public static final int MAX_ELEMENTS = 64;
+
+    private static final double VERY_EFFECTIVE = 2.0;
+    private static final double NOT_VERY_EFFECTIVE = 0.5;
+    private static final double NORMAL_EFFECTIVE = 1.0;
+
+    private final int index;
     private final String representation;
+    private final Definition definition;
+    // The row of the matrix, indexed by the target element; entries of later elements are written on declaration
+    private final double[] effectiveness = new double[MAX_ELEMENTS];
+    // The same row for the fixed-point mode
+    private final long[] fixedEffectiveness = new long[MAX_ELEMENTS];
+
+    private Element(int index, Definition definition) {
+        this.index = index;
+        this.representation = definition.name;
+        this.definition = definition;
+        Arrays.fill(effectiveness, NORMAL_EFFECTIVE);
+        Arrays.fill(fixedEffectiveness, FixedPoint.ONE);
+    }
+
+    /**
+     * Creates the built-in elements of a new ruleset, NORMAL, WATER, FIRE and EARTH, where WATER is very effective
+     * against FIRE, FIRE against EARTH and EARTH against WATER.
+     *
+     * @return the elements in the order of their indices
+     */
+    static List<Element> createBuiltIns() {
+        Element normal = new Element(0, new Definition("NORMAL"));
+        Element water = new Element(1, new Definition("WATER"));
+        Element fire = new Element(2, new Definition("FIRE"));
+        Element earth = new Element(3, new Definition("EARTH"));
+        water.setEffectiveness(fire, VERY_EFFECTIVE);
+        fire.setEffectiveness(earth, VERY_EFFECTIVE);
+        earth.setEffectiveness(water, VERY_EFFECTIVE);
+        fire.setEffectiveness(water, NOT_VERY_EFFECTIVE);
+        earth.setEffectiveness(fire, NOT_VERY_EFFECTIVE);
+        water.setEffectiveness(earth, NOT_VERY_EFFECTIVE);
+        return List.of(normal, water, fire, earth);
+    }
+
+    /**
+     * Creates an element declared by a configuration and writes how effective the earlier elements of its ruleset
+     * are against it into their rows. Nothing is written if the definition refers to an unknown element.
+     *
+     * @param definition the definition of the element
+     * @param index the index of the element within its ruleset
+     * @param earlier the elements of the ruleset declared before, by their names
+     * @return the element
+     * @throws ConfigurationException if the definition refers to an unknown element
+     */
+    static Element declare(Definition definition, int index, Map<String, Element> earlier)
+            throws ConfigurationException {
+        Element element = new Element(index, definition);
+        // All names are checked before any entry of an earlier element is written
+        for (String name : definition.from.keySet()) {
+            resolve(name, element, earlier);
+        }
+        for (Map.Entry<String, Double> against : definition.against.entrySet()) {
+            element.setEffectiveness(resolve(against.getKey(), element, earlier), against.getValue());
+        }
+        // These entries only concern the new element, which no battle can use yet
+        for (Map.Entry<String, Double> from : definition.from.entrySet()) {
+            resolve(from.getKey(), element, earlier).setEffectiveness(element, from.getValue());
+        }
+        return element;
+    }
+
+    private static Element resolve(String name, Element self, Map<String, Element> earlier)
+            throws ConfigurationException {
+        Element element = name.equals(self.representation) ? self : earlier.get(name);
+        if (element == null) {
+            throw new ConfigurationException("Unknown element: " + name);
+        }
+        return element;
+    }
+
+    private void setEffectiveness(Element target, double multiplier) {
+        effectiveness[target.index] = multiplier;
+        fixedEffectiveness[target.index] = FixedPoint.fromDouble(multiplier);
+    }
 
-    Element(String representation) {
-        this.representation = representation;
+    /**
+     * Checks whether the element was declared with a definition, so declaring it again changes nothing.
+     *
+     * @param other the definition
+     * @return true if the element has that definition
+     */
+    boolean isDefinedAs(Definition other) {
+        return definition.equals(other);
+    }
+
+    /**
+     * Gets the index of the element, which identifies it within its ruleset.
+     *
+     * @return the index
+     */
+    public int getIndex() {
+        return index;
     }
 
     @Override
@@ -18,35 +126,96 @@ public enum Element {
     }
 
     public boolean isVeryEffectiveAgainst(final Element target) {
-        return (this == WATER && target == FIRE)
-                || (this == FIRE && target == EARTH)
-                || (this == EARTH && target == WATER);
+        return getEffectivenessMultiplier(target) > NORMAL_EFFECTIVE;
     }
 
     public boolean isNotVeryEffectiveAgainst(final Element target) {
-        return target.isVeryEffectiveAgainst(this);
+        return getEffectivenessMultiplier(target) < NORMAL_EFFECTIVE;
     }
 
     public boolean isNormalEffectiveAgainst(final Element target) {
-        return this == NORMAL || target == NORMAL || this == target;
+        return getEffectivenessMultiplier(target) == NORMAL_EFFECTIVE;
     }
 
     public double getEffectivenessMultiplier(final Element target) {
-        if (this.isVeryEffectiveAgainst(target)) {
-            return 2.0;
-        } else if (this.isNotVeryEffectiveAgainst(target)) {
-            return 0.5;
-        } else {
-            return 1.0;
-        }
+        return effectiveness[target.index];
+    }
+
+    /**
+     * Gets the factor of the damage of this element against another in the fixed-point mode.
+     *
+     * @param target the element of the target
+     * @return the fixed-point factor
+     */
+    public long getFixedEffectivenessMultiplier(final Element target) {
+        return fixedEffectiveness[target.index];
     }
 
-    public static Element fromString(String representation) {
-        for (Element element : values()) {
-            if (element.representation.equals(representation)) {
-                return element;
+    /**
+     * The definition of an element, as read from a configuration file.
+     */
+    static final class Definition {
+        private final String name;
+        private final Map<String, Double> against = new LinkedHashMap<>();
+        private final Map<String, Double> from = new LinkedHashMap<>();
+
+        /**
+         * Constructs an element that is normally effective against all elements.
+         *
+         * @param name the name of the element
+         */
+        Definition(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets the name of the element.
+         *
+         * @return the name
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Sets the factor of the damage of this element against another.
+         *
+         * @param target the name of the target element, which is declared before or is this element
+         * @param multiplier the factor
+         * @return this definition
+         */
+        Definition against(String target, double multiplier) {
+            against.put(target, multiplier);
+            return this;
+        }
+
+        /**
+         * Sets the factor of the damage of another element against this one.
+         *
+         * @param attacker the name of the attacking element, which is declared before or is this element
+         * @param multiplier the factor
+         * @return this definition
+         */
+        Definition from(String attacker, double multiplier) {
+            from.put(attacker, multiplier);
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
             }
+            Definition definition = (Definition) other;
+            return name.equals(definition.name) && against.equals(definition.against) && from.equals(definition.from);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
         }
-        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,203 @@
+package edu.kit.kastel.monstercombat.model;
+
+/**
+ * Arithmetic of the fixed-point mode of a competition, see {@link Competition#setFixedPoint(boolean)}.
+ * Every factor of the damage, healing, stat and chance rules is a {@code long} with {@value #FRACTION_BITS}
+ * fraction bits, and every step is an integer multiplication, division or shift with a fixed rounding, so
+ * a battle gives the same results on every machine, JVM and JIT tier. Configured factors are converted once
+ * when they are declared. Random draws are taken exactly like in the double mode, and their 53 random bits
+ * are compared as integers, so both modes consume the same random numbers.
+ * A result that does not fit into a {@code long} throws an {@link ArithmeticException} instead of losing bits.
+ * @author ursxd
+ */
+public final class FixedPoint {
+    /**
+     * The number of fraction bits.
+     */
+    public static final int FRACTION_BITS = 16;
+    /**
+     * The value 1.
+     */
+    public static final long ONE = 1L << FRACTION_BITS;
+
+    private static final int DRAW_BITS = 53;
+    private static final double DRAW_SCALE = 0x1p53;
+    // The upper bits of a draw that scale the random damage factor, so the product fits into a long
+    private static final int RANDOM_FACTOR_BITS = 32;
+    private static final int PERCENT = 100;
+    private static final long MIN_RANDOM_FACTOR = 85;
+    private static final long RANDOM_FACTOR_RANGE = 15;
+    private static final long CRITICAL_CHANCE = 10;
+    private static final long CRITICAL_FACTOR = 2;
+    private static final long SAME_ELEMENT_NUMERATOR = 3;
+    private static final long SAME_ELEMENT_DENOMINATOR = 2;
+    private static final long NORMALIZATION_DIVISOR = 3;
+
+    private FixedPoint() {
+        // Utility class
+    }
+
+    /**
+     * Converts a configured factor, rounding to the nearest fixed-point value.
+     * The conversion only scales by a power of two and rounds, so it is exact and the same everywhere.
+     *
+     * @param value the factor
+     * @return the fixed-point value
+     */
+    public static long fromDouble(double value) {
+        return Math.round(value * ONE);
+    }
+
+    /**
+     * Multiplies two fixed-point values, rounding towards zero.
+     *
+     * @param first the first value
+     * @param second the second value
+     * @return the product
+     */
+    public static long multiply(long first, long second) {
+        return Math.multiplyExact(first, second) >> FRACTION_BITS;
+    }
+
+    /**
+     * Rounds a non-negative fixed-point value up to an integer.
+     *
+     * @param value the fixed-point value
+     * @return the smallest integer that is at least the value
+     */
+    public static int ceil(long value) {
+        return Math.toIntExact((value + ONE - 1) >> FRACTION_BITS);
+    }
+
+    /**
+     * Gets a percentage of an amount, rounded up, as the relative damage, healing and condition damage use it.
+     *
+     * @param amount the amount, usually the maximum health
+     * @param percent the percentage
+     * @return the rounded up share
+     */
+    public static int percentOf(int amount, int percent) {
+        return Math.toIntExact((Math.multiplyExact((long) amount, percent) + PERCENT - 1) / PERCENT);
+    }
+
+    /**
+     * Gets the amount of base healing, a third of the value rounded up.
+     *
+     * @param value the base value
+     * @return the amount in health points
+     */
+    public static int baseHealing(int value) {
+        return Math.toIntExact((value + NORMALIZATION_DIVISOR - 1) / NORMALIZATION_DIVISOR);
+    }
+
+    /**
+     * Computes an effective stat like {@link MonsterState#getEffectiveStat(Stat)}: the base value with the factors
+     * of the stat change and the condition, but at least 1.
+     *
+     * @param base the base value of the stat
+     * @param stat the stat
+     * @param stage the stat change
+     * @param condition the status condition
+     * @return the fixed-point effective stat
+     */
+    public static long effectiveStat(int base, Stat stat, int stage, StatusCondition condition) {
+        // An integer times a fixed-point factor is already a fixed-point value
+        long value = Math.multiplyExact((long) base, stat.calculateFixedStatChangeFactor(stage));
+        return Math.max(ONE, multiply(value, condition.getFixedMultiplier(stat)));
+    }
+
+    /**
+     * Converts a draw of {@link java.util.Random#nextDouble()} into its 53 random bits. The draw is a multiple
+     * of 2<sup>-53</sup>, so the conversion is exact.
+     *
+     * @param draw the draw
+     * @return the draw as an integer below 2<sup>53</sup>
+     */
+    public static long drawBits(double draw) {
+        return (long) (draw * DRAW_SCALE);
+    }
+
+    /**
+     * Checks {@code draw * 100 <= chance} exactly, the check of all random decisions.
+     *
+     * @param draw the draw of {@link java.util.Random#nextDouble()}
+     * @param chance the fixed-point chance in percent
+     * @return true if the decision is positive
+     */
+    public static boolean isWithinChance(double draw, long chance) {
+        if (chance >= PERCENT * ONE) {
+            return true;
+        }
+        // Both sides are below 2^60: the draw has 53 bits and the chance at most 23
+        return drawBits(draw) * PERCENT <= chance << (DRAW_BITS - FRACTION_BITS);
+    }
+
+    /**
+     * Gets the chance that an effect hits, which the precision of the user and the agility of the target scale
+     * unless the target is the user.
+     *
+     * @param hitRate the hit rate of the effect
+     * @param user the user
+     * @param target the target, or null
+     * @return the fixed-point chance in percent
+     */
+    public static long hitChance(int hitRate, Monster user, Monster target) {
+        long chance = (long) hitRate << FRACTION_BITS;
+        if (target == null || target == user) {
+            return chance;
+        }
+        return Math.multiplyExact(chance, user.getFixedEffectiveStat(Stat.PRC))
+                / target.getFixedEffectiveStat(Stat.AGL);
+    }
+
+    /**
+     * Gets the chance of a critical hit, ten percent scaled by the speed of the user against the target.
+     *
+     * @param user the user
+     * @param target the target
+     * @return the fixed-point chance in percent
+     */
+    public static long criticalChance(Monster user, Monster target) {
+        return Math.multiplyExact(CRITICAL_CHANCE * ONE, user.getFixedEffectiveStat(Stat.SPD))
+                / target.getFixedEffectiveStat(Stat.SPD);
+    }
+
+    /**
+     * Computes base damage. The factors are applied in the order of the double mode, each rounding towards
+     * zero, and the result is rounded up.
+     *
+     * @param baseDamage the base value of the damage effect
+     * @param elementFactor the fixed-point effectiveness of the action against the target
+     * @param attack the fixed-point effective attack of the user
+     * @param defense the fixed-point effective defense of the target
+     * @param critical whether the hit is critical
+     * @param sameElement whether the action has the element of the user
+     * @param randomDraw the draw of {@link java.util.Random#nextDouble()} for the random factor
+     * @return the damage
+     */
+    public static int baseDamage(int baseDamage, long elementFactor, long attack, long defense, boolean critical,
+                                 boolean sameElement, double randomDraw) {
+        long damage = multiply((long) baseDamage << FRACTION_BITS, elementFactor);
+        damage = Math.multiplyExact(damage, attack) / defense;
+        if (critical) {
+            damage = Math.multiplyExact(damage, CRITICAL_FACTOR);
+        }
+        if (sameElement) {
+            damage = Math.multiplyExact(damage, SAME_ELEMENT_NUMERATOR) / SAME_ELEMENT_DENOMINATOR;
+        }
+        damage = multiply(damage, randomFactor(randomDraw));
+        return ceil(damage / NORMALIZATION_DIVISOR);
+    }
+
+    /**
+     * Gets the random factor of base damage, between 0.85 and 1.0.
+     *
+     * @param draw the draw of {@link java.util.Random#nextDouble()}
+     * @return the fixed-point factor
+     */
+    static long randomFactor(double draw) {
+        long bits = drawBits(draw) >>> (DRAW_BITS - RANDOM_FACTOR_BITS);
+        long range = (RANDOM_FACTOR_RANGE * ONE * bits) >>> RANDOM_FACTOR_BITS;
+        return (MIN_RANDOM_FACTOR * ONE + range) / PERCENT;
+    }
+}
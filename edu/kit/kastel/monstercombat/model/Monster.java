@@ -1,33 +1,104 @@
 package edu.kit.kastel.monstercombat.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class Monster {
+    /**
+     * The number of cells of a health bar.
+     */
+    public static final int HEALTH_BAR_CELLS = 20;
 
     private final String name;
+    private final int symbol;
     private final Element element;
-    private final List<Action> actions;
+    private final ActionTable actions;
     private final MonsterState state;
     private String displayName;
+    private int participantIndex;
     /*
     private int competitorNumber;
     private Action selectedAction;
     private Monster actionTarget;
      */
 
-    public Monster(String name, Element element, int maxHp, int baseAttack, int baseDefense, int baseSpeed) {
+    /**
+     * Constructs a monster whose name is interned into the symbols of its configuration.
+     *
+     * @param name the name of the monster
+     * @param element the element of the monster
+     * @param maxHp the maximum health points
+     * @param baseAttack the base attack
+     * @param baseDefense the base defense
+     * @param baseSpeed the base speed
+     * @param symbols the symbols of the configuration, which also resolve the names of its actions
+     */
+    public Monster(String name, Element element, int maxHp, int baseAttack, int baseDefense, int baseSpeed,
+                   SymbolTable symbols) {
         this.name = name;
+        this.symbol = symbols.intern(name);
         this.element = element;
-        this.actions = new ArrayList<>();
+        this.actions = new ActionTable(symbols);
         this.state = new MonsterState(maxHp, baseAttack, baseDefense, baseSpeed);
         this.displayName = name;
+        this.participantIndex = -1;
+    }
+
+    /**
+     * Constructs a participant that shares name, element and actions with its species.
+     *
+     * @param species the monster from the configuration
+     * @param state the combat state of the participant
+     * @param displayName the display name of the participant
+     */
+    Monster(Monster species, MonsterState state, String displayName) {
+        this.name = species.name;
+        this.symbol = species.symbol;
+        this.element = species.element;
+        this.actions = species.actions;
+        this.state = state;
+        this.displayName = displayName;
+        this.participantIndex = -1;
+    }
+
+    /**
+     * Creates a fresh participant of this species with its own combat state.
+     *
+     * @return the new participant
+     */
+    public Monster createParticipant() {
+        MonsterState participantState = new MonsterState(getMaxHp(), getBaseStat(Stat.ATK),
+                getBaseStat(Stat.DEF), getBaseStat(Stat.SPD));
+        return new Monster(this, participantState, name);
+    }
+
+    /**
+     * Creates a participant of this species whose combat state is kept in the given state,
+     * e.g. a state that is decoded from a solver.
+     *
+     * @param participantState the combat state of the participant
+     * @return the new participant
+     */
+    public Monster createParticipant(MonsterState participantState) {
+        return new Monster(this, participantState, name);
+    }
+
+    MonsterState getState() {
+        return state;
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * Gets the symbol of the species name.
+     *
+     * @return the name symbol
+     */
+    public int getSymbol() {
+        return symbol;
+    }
+
     public String getDisplayName() {
         return displayName;
     }
@@ -36,6 +107,19 @@ public class Monster {
         this.displayName = displayName;
     }
 
+    /**
+     * Gets the position of this monster in its competition, starting at 0.
+     *
+     * @return the participant index, or -1 if this monster is not a participant
+     */
+    public int getParticipantIndex() {
+        return participantIndex;
+    }
+
+    void setParticipantIndex(int participantIndex) {
+        this.participantIndex = participantIndex;
+    }
+
     public Element getElement() {
         return element;
     }
@@ -48,6 +132,10 @@ public class Monster {
         return state.getEffectiveStat(stat);
     }
 
+    public long getFixedEffectiveStat(Stat stat) {
+        return state.getFixedEffectiveStat(stat);
+    }
+
     public int getCurrentHp() {
         return state.getCurrentHp();
     }
@@ -77,16 +165,21 @@ public class Monster {
     }
 
     public List<Action> getActions() {
-        return new ArrayList<>(actions);
+        return actions.list();
     }
 
     public Action getAction(String actionName) {
-        for (Action action : actions) {
-            if (action.getName().equals(actionName)) {
-                return action;
-            }
-        }
-        return null;
+        return actions.get(actionName);
+    }
+
+    /**
+     * Gets the first known action with the given name symbol.
+     *
+     * @param actionSymbol the symbol of the action name
+     * @return the action, or null if this monster does not know it
+     */
+    public Action getAction(int actionSymbol) {
+        return actions.get(actionSymbol);
     }
 
     public int takeDamage(int amount) {
@@ -122,8 +215,26 @@ public class Monster {
     }
 
     public String getHealthBar() {
-        int filledBars = (int) Math.round(20.0 * getCurrentHp() / getMaxHp());
-        int emptyBars = 20 - filledBars;
+        return formatHealthBar(getHealthBarCells());
+    }
+
+    /**
+     * Gets the number of filled cells of the health bar, without building the bar.
+     *
+     * @return the filled cells, out of {@link #HEALTH_BAR_CELLS}
+     */
+    public int getHealthBarCells() {
+        return (int) Math.round((double) HEALTH_BAR_CELLS * getCurrentHp() / getMaxHp());
+    }
+
+    /**
+     * Formats a health bar like {@link #getHealthBar()}.
+     *
+     * @param filledBars the filled cells
+     * @return the health bar
+     */
+    public static String formatHealthBar(int filledBars) {
+        int emptyBars = HEALTH_BAR_CELLS - filledBars;
 
         return "[" + "X".repeat(Math.max(0, filledBars)) + "_".repeat(Math.max(0, emptyBars)) + "]";
     }
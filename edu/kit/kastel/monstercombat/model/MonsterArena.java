@@ -0,0 +1,378 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data-oriented storage for the participants of a competition.
+ * All per-monster combat state lives in parallel primitive arrays indexed by an integer handle,
+ * so very large competitions need neither an {@link java.util.EnumMap} nor a name per participant.
+ * The species (name, element and actions) is shared with the monster from the configuration.
+ * @author ursxd
+ */
+public class MonsterArena {
+    private static final int STAT_COUNT = Stat.values().length;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MIN_STAGE = -5;
+    private static final int MAX_STAGE = 5;
+    private static final byte PROTECT_DAMAGE = 1;
+    private static final byte PROTECT_STATS = 2;
+    private static final Stat[] STATS = Stat.values();
+
+    private final Ruleset ruleset;
+    private final List<Monster> species;
+    private final Map<String, Integer> speciesByName;
+    private final List<int[]> handlesBySpecies;
+    private int[] handleCountBySpecies;
+
+    private int size;
+    private int[] speciesOf;
+    private int[] suffix;
+    private int[] currentHp;
+    private int[] baseStats;
+    private byte[] stages;
+    private byte[] status;
+    private int[] protectionDuration;
+    private byte[] protectionFlags;
+    private Monster[] views;
+    // The buffers of the speed sort, reused every round while the number of participants stays the same
+    private double[] speeds = new double[0];
+    private int[] order = new int[0];
+    private int[] sortBuffer = new int[0];
+
+    /**
+     * Constructs a new arena.
+     *
+     * @param expectedMonsters the number of participants to reserve space for
+     * @param ruleset the ruleset of the participants, whose condition indices the arena stores
+     */
+    public MonsterArena(int expectedMonsters, Ruleset ruleset) {
+        this.ruleset = ruleset;
+        this.species = new ArrayList<>();
+        this.speciesByName = new HashMap<>();
+        this.handlesBySpecies = new ArrayList<>();
+        this.handleCountBySpecies = new int[0];
+        allocate(Math.max(DEFAULT_CAPACITY, expectedMonsters));
+    }
+
+    private void allocate(int capacity) {
+        speciesOf = Arrays.copyOf(speciesOf == null ? new int[0] : speciesOf, capacity);
+        suffix = Arrays.copyOf(suffix == null ? new int[0] : suffix, capacity);
+        currentHp = Arrays.copyOf(currentHp == null ? new int[0] : currentHp, capacity);
+        baseStats = Arrays.copyOf(baseStats == null ? new int[0] : baseStats, capacity * STAT_COUNT);
+        stages = Arrays.copyOf(stages == null ? new byte[0] : stages, capacity * STAT_COUNT);
+        status = Arrays.copyOf(status == null ? new byte[0] : status, capacity);
+        protectionDuration = Arrays.copyOf(protectionDuration == null ? new int[0] : protectionDuration, capacity);
+        protectionFlags = Arrays.copyOf(protectionFlags == null ? new byte[0] : protectionFlags, capacity);
+        views = Arrays.copyOf(views == null ? new Monster[0] : views, capacity);
+    }
+
+    /**
+     * Adds a participant of the given species.
+     * Duplicate species are numbered like in a regular competition.
+     *
+     * @param monster the monster from the configuration
+     * @return the handle of the new participant
+     */
+    public int add(Monster monster) {
+        if (size == speciesOf.length) {
+            allocate(size * 2);
+        }
+        int speciesIndex = speciesByName.computeIfAbsent(monster.getName(), name -> {
+            species.add(monster);
+            handlesBySpecies.add(new int[DEFAULT_CAPACITY]);
+            handleCountBySpecies = Arrays.copyOf(handleCountBySpecies, species.size());
+            return species.size() - 1;
+        });
+
+        int handle = size++;
+        int count = handleCountBySpecies[speciesIndex]++;
+        int[] handles = handlesBySpecies.get(speciesIndex);
+        if (count == handles.length) {
+            handles = Arrays.copyOf(handles, count * 2);
+            handlesBySpecies.set(speciesIndex, handles);
+        }
+        handles[count] = handle;
+
+        speciesOf[handle] = speciesIndex;
+        suffix[handle] = count;
+        int offset = handle * STAT_COUNT;
+        for (Stat stat : STATS) {
+            baseStats[offset + stat.ordinal()] = monster.getBaseStat(stat);
+            stages[offset + stat.ordinal()] = 0;
+        }
+        currentHp[handle] = monster.getMaxHp();
+        status[handle] = (byte) StatusCondition.NONE.getIndex();
+        protectionDuration[handle] = 0;
+        protectionFlags[handle] = 0;
+        views[handle] = null;
+        return handle;
+    }
+
+    /**
+     * Gets the number of participants.
+     *
+     * @return the number of participants
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the handle of a participant by its display name.
+     *
+     * @param displayName the display name, e.g. {@code Dog} or {@code Dog#2}
+     * @return the handle, or -1 if there is no such participant
+     */
+    public int find(String displayName) {
+        String name = displayName;
+        int number = 0;
+        int separator = displayName.lastIndexOf('#');
+        if (separator >= 0) {
+            name = displayName.substring(0, separator);
+            try {
+                number = Integer.parseInt(displayName.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+            if (number <= 0) {
+                return -1;
+            }
+        }
+        Integer speciesIndex = speciesByName.get(name);
+        if (speciesIndex == null || number >= handleCountBySpecies[speciesIndex]) {
+            return -1;
+        }
+        return handlesBySpecies.get(speciesIndex)[number];
+    }
+
+    /**
+     * Gets the monster view of a participant.
+     * Views are created on first use and then reused, so identity comparisons keep working.
+     *
+     * @param handle the handle of the participant
+     * @return the monster backed by this arena
+     */
+    public Monster view(int handle) {
+        Monster view = views[handle];
+        if (view == null) {
+            Monster template = species.get(speciesOf[handle]);
+            String displayName = suffix[handle] == 0 ? template.getName() : template.getName() + "#" + suffix[handle];
+            view = new Monster(template, new ArenaMonsterState(this, handle), displayName);
+            view.setParticipantIndex(handle);
+            views[handle] = view;
+        }
+        return view;
+    }
+
+    /**
+     * Gets the views of all participants in insertion order.
+     *
+     * @return the monsters backed by this arena
+     */
+    public List<Monster> views() {
+        List<Monster> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(view(i));
+        }
+        return result;
+    }
+
+    int getBaseStat(int handle, Stat stat) {
+        return baseStats[handle * STAT_COUNT + stat.ordinal()];
+    }
+
+    double getEffectiveStat(int handle, Stat stat) {
+        int index = handle * STAT_COUNT + stat.ordinal();
+        double value = baseStats[index];
+        value *= stat.calculateStatChangeFactor(stages[index])
+                * ruleset.getCondition(status[handle]).getStatusConditionMultiplier(stat);
+        return Math.max(1.0, value);
+    }
+
+    long getFixedEffectiveStat(int handle, Stat stat) {
+        int index = handle * STAT_COUNT + stat.ordinal();
+        return FixedPoint.effectiveStat(baseStats[index], stat, stages[index], ruleset.getCondition(status[handle]));
+    }
+
+    int getCurrentHp(int handle) {
+        return currentHp[handle];
+    }
+
+    int getMaxHp(int handle) {
+        return baseStats[handle * STAT_COUNT + Stat.HP.ordinal()];
+    }
+
+    StatusCondition getStatusCondition(int handle) {
+        return ruleset.getCondition(status[handle]);
+    }
+
+    void setStatusCondition(int handle, StatusCondition condition) {
+        status[handle] = (byte) condition.getIndex();
+    }
+
+    int getStatChange(int handle, Stat stat) {
+        return stages[handle * STAT_COUNT + stat.ordinal()];
+    }
+
+    void setStatChange(int handle, Stat stat, int statChange) {
+        int index = handle * STAT_COUNT + stat.ordinal();
+        stages[index] = (byte) Math.max(MIN_STAGE, Math.min(MAX_STAGE, stages[index] + statChange));
+    }
+
+    int takeDamage(int handle, int amount) {
+        if ((protectionFlags[handle] & PROTECT_DAMAGE) != 0) {
+            return 0;
+        }
+        int actualDamage = Math.min(currentHp[handle], amount);
+        currentHp[handle] -= actualDamage;
+        return actualDamage;
+    }
+
+    int heal(int handle, int amount) {
+        int actualHeal = Math.min(getMaxHp(handle) - currentHp[handle], amount);
+        currentHp[handle] += actualHeal;
+        return actualHeal;
+    }
+
+    /**
+     * Checks whether a participant is defeated.
+     *
+     * @param handle the handle of the participant
+     * @return true if the participant is defeated
+     */
+    public boolean isDefeated(int handle) {
+        return currentHp[handle] <= 0 || status[handle] == StatusCondition.FAINTED.getIndex();
+    }
+
+    boolean isProtectedAgainstDamage(int handle) {
+        return (protectionFlags[handle] & PROTECT_DAMAGE) != 0;
+    }
+
+    boolean isProtectedAgainstStatChanges(int handle) {
+        return (protectionFlags[handle] & PROTECT_STATS) != 0;
+    }
+
+    void setProtection(int handle, boolean protectHealth, boolean protectStatChanges, int duration) {
+        protectionFlags[handle] = (byte) ((protectHealth ? PROTECT_DAMAGE : 0) | (protectStatChanges ? PROTECT_STATS : 0));
+        protectionDuration[handle] = duration;
+    }
+
+    int getProtectionDuration(int handle) {
+        return protectionDuration[handle];
+    }
+
+    boolean decreaseProtectionDuration(int handle) {
+        if (protectionDuration[handle] > 0 && --protectionDuration[handle] == 0) {
+            boolean hadProtection = protectionFlags[handle] != 0;
+            protectionFlags[handle] = 0;
+            return hadProtection;
+        }
+        return false;
+    }
+
+    /**
+     * Decreases the protection duration of all participants in one sweep.
+     *
+     * @param faded receives the handles whose protection faded, in insertion order; must hold at least
+     *     {@link #size()} entries
+     * @return the number of handles written to {@code faded}
+     */
+    public int decreaseProtectionDurations(int[] faded) {
+        int count = 0;
+        for (int handle = 0; handle < size; handle++) {
+            if (protectionDuration[handle] > 0 && --protectionDuration[handle] == 0) {
+                if (protectionFlags[handle] != 0) {
+                    faded[count++] = handle;
+                }
+                protectionFlags[handle] = 0;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the participants that are not defeated.
+     *
+     * @return the number of conscious participants
+     */
+    public int countConscious() {
+        int count = 0;
+        for (int handle = 0; handle < size; handle++) {
+            if (!isDefeated(handle)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the last participant that is not defeated.
+     *
+     * @return the handle, or -1 if all participants are defeated
+     */
+    public int lastConscious() {
+        for (int handle = size - 1; handle >= 0; handle--) {
+            if (!isDefeated(handle)) {
+                return handle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Orders all participants by effective speed, fastest first.
+     * Participants with equal speed keep their insertion order.
+     *
+     * @return the handles in turn order, an array that the next call reuses
+     */
+    public int[] sortBySpeed() {
+        if (order.length != size) {
+            speeds = new double[size];
+            order = new int[size];
+            sortBuffer = new int[size];
+        }
+        for (int handle = 0; handle < size; handle++) {
+            speeds[handle] = getEffectiveStat(handle, Stat.SPD);
+            order[handle] = handle;
+        }
+        mergeSort(order, sortBuffer, 0, size, speeds);
+        return order;
+    }
+
+    private static void mergeSort(int[] order, int[] buffer, int from, int to, double[] speed) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(order, buffer, from, middle, speed);
+        mergeSort(order, buffer, middle, to, speed);
+        if (speed[order[middle - 1]] >= speed[order[middle]]) {
+            return;
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && speed[buffer[left]] >= speed[buffer[right]])) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
+            }
+        }
+    }
+
+    /**
+     * Restores all participants to full health and removes their stat changes and conditions.
+     */
+    public void reset() {
+        for (int handle = 0; handle < size; handle++) {
+            currentHp[handle] = getMaxHp(handle);
+            status[handle] = (byte) StatusCondition.NONE.getIndex();
+        }
+        Arrays.fill(stages, 0, size * STAT_COUNT, (byte) 0);
+    }
+}
@@ -0,0 +1,204 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+
+/**
+ * A configuration that is parsed lazily: only the monsters a competition asks for and the actions they know are
+ * read from the file, using its {@link ConfigurationIndex}, so loading does not take longer the larger the file is.
+ * The most recently used monsters and actions are kept parsed.
+ * Unlike a full load, errors are only found in the parts that are actually parsed.
+ * @author ursxd
+ */
+public final class MonsterPack {
+    private static final int CACHE_SIZE = 256;
+
+    private final Path path;
+    private final ConfigurationIndex index;
+    private final ConfigurationLoader parser = new ConfigurationLoader();
+    private final Map<String, Integer> monstersByName = new HashMap<>();
+    private final Map<Integer, Monster> parsedMonsters = createCache();
+    private final Map<Integer, Action> parsedActions = createCache();
+
+    private MonsterPack(Path path, ConfigurationIndex index) {
+        this.path = path;
+        this.index = index;
+        List<ConfigurationIndex.Entry> monsters = index.getMonsters();
+        for (int i = 0; i < monsters.size(); i++) {
+            monstersByName.putIfAbsent(monsters.get(i).getName(), i);
+        }
+    }
+
+    /**
+     * Opens a configuration file for lazy loading, building its index if needed.
+     *
+     * @param filePath the path to the configuration file
+     * @return the monster pack
+     * @throws ConfigurationException if the file cannot be read or is not structured like a configuration
+     */
+    public static MonsterPack open(String filePath) throws ConfigurationException {
+        Path path = Paths.get(filePath);
+        ConfigurationIndex index;
+        try {
+            index = ConfigurationIndex.open(path);
+        } catch (IOException e) {
+            throw new ConfigurationException("Error reading configuration file: " + e.getMessage());
+        }
+        if (index == null) {
+            // A full load reports the same error as without lazy loading
+            new ConfigurationLoader().loadConfiguration(filePath);
+            throw new ConfigurationException("Invalid configuration file: " + filePath);
+        }
+        MonsterPack pack = new MonsterPack(path, index);
+        // Any action or monster may use a declared element or condition, so all of them are declared up front
+        for (ConfigurationIndex.Entry element : index.getElements()) {
+            pack.parser.parseSingleElement(pack.readLines(element));
+        }
+        for (ConfigurationIndex.Entry condition : index.getConditions()) {
+            pack.parser.parseSingleCondition(pack.readLines(condition));
+        }
+        return pack;
+    }
+
+    /**
+     * Gets the ruleset with the elements and conditions the configuration declares.
+     *
+     * @return the ruleset
+     */
+    public Ruleset getRuleset() {
+        return parser.getRuleset();
+    }
+
+    /**
+     * Gets the number of actions in the configuration.
+     *
+     * @return the number of actions
+     */
+    public int getActionCount() {
+        return index.getActionCount();
+    }
+
+    /**
+     * Gets the number of monsters in the configuration.
+     *
+     * @return the number of monsters
+     */
+    public int getMonsterCount() {
+        return index.getMonsters().size();
+    }
+
+    /**
+     * Gets the first monster of a name, parsing it and its actions if needed.
+     *
+     * @param name the name of the monster
+     * @return the monster, or null if there is no monster of that name
+     * @throws ConfigurationException if the monster or one of its actions is invalid
+     */
+    public synchronized Monster getMonster(String name) throws ConfigurationException {
+        Integer monster = monstersByName.get(name);
+        return monster == null ? null : getMonster(monster);
+    }
+
+    /**
+     * Gets all monsters, which parses the whole configuration.
+     *
+     * @return the monsters in file order
+     * @throws ConfigurationException if a monster or action is invalid
+     */
+    public synchronized List<Monster> getMonsters() throws ConfigurationException {
+        List<Monster> monsters = new ArrayList<>();
+        for (int i = 0; i < index.getMonsters().size(); i++) {
+            monsters.add(getMonster(i));
+        }
+        return monsters;
+    }
+
+    private Monster getMonster(int position) throws ConfigurationException {
+        Monster monster = parsedMonsters.get(position);
+        if (monster != null) {
+            return monster;
+        }
+
+        checkUpToDate();
+        ConfigurationIndex.Entry entry = index.getMonsters().get(position);
+        String line = read(entry).trim();
+        // The actions come before the monster in the file, so their errors are reported first
+        String[] parts = line.split(" ");
+        int[] references = entry.getReferences();
+        Map<String, Action> knownActions = new HashMap<>();
+        for (int i = 0; i < references.length; i++) {
+            if (references[i] >= 0) {
+                knownActions.put(parts[parts.length - references.length + i], getAction(references[i]));
+            }
+        }
+
+        monster = parser.parseSingleMonster(line, knownActions);
+        parsedMonsters.put(position, monster);
+        return monster;
+    }
+
+    private Action getAction(int position) throws ConfigurationException {
+        Action action = parsedActions.get(position);
+        if (action == null) {
+            action = parser.parseSingleAction(readLines(index.getActions().get(position)));
+            parsedActions.put(position, action);
+        }
+        return action;
+    }
+
+    private void checkUpToDate() throws ConfigurationException {
+        try {
+            if (!index.isUpToDate(Files.readAttributes(path, BasicFileAttributes.class))) {
+                throw new ConfigurationException("Configuration file changed, load it again: " + path);
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException("Error reading configuration file: " + e.getMessage());
+        }
+    }
+
+    private List<String> readLines(ConfigurationIndex.Entry entry) throws ConfigurationException {
+        List<String> lines = new ArrayList<>();
+        for (String line : read(entry).split("\n")) {
+            if (!line.trim().isEmpty()) {
+                lines.add(line.trim());
+            }
+        }
+        return lines;
+    }
+
+    private String read(ConfigurationIndex.Entry entry) throws ConfigurationException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.getLength());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int read = 0;
+            while (buffer.hasRemaining() && read >= 0) {
+                read = channel.read(buffer, entry.getOffset() + buffer.position());
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException("Error reading configuration file: " + e.getMessage());
+        }
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    private static <V> Map<Integer, V> createCache() {
+        return new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+}
@@ -33,6 +33,34 @@ public class MonsterState {
         this.isProtectedAgainstStatChanges = false;
     }
 
+    /**
+     * Constructor for states whose data is kept outside this object, e.g. in a {@link MonsterArena}.
+     */
+    protected MonsterState() {
+        this.baseStats = null;
+        this.statChanges = null;
+    }
+
+    /**
+     * Creates an independent copy of a state, e.g. before changing a state that is shared with a fork.
+     *
+     * @param source the state to copy
+     * @return the copy
+     */
+    static MonsterState copyOf(MonsterState source) {
+        MonsterState copy = new MonsterState(source.getMaxHp(), source.getBaseStat(Stat.ATK),
+                source.getBaseStat(Stat.DEF), source.getBaseStat(Stat.SPD));
+        for (Stat stat : Stat.values()) {
+            copy.statChanges.put(stat, source.getStatChange(stat));
+        }
+        copy.statusCondition = source.getStatusCondition();
+        copy.currentHp = source.getCurrentHp();
+        copy.protectionDuration = source.getProtectionDuration();
+        copy.isProtectedAgainstDamage = source.isProtectedAgainstDamage();
+        copy.isProtectedAgainstStatChanges = source.isProtectedAgainstStatChanges();
+        return copy;
+    }
+
     public int getBaseStat(Stat stat) {
         return baseStats.getOrDefault(stat, 0);
     }
@@ -48,6 +76,17 @@ public class MonsterState {
         return Math.max(1.0, value);
     }
 
+    /**
+     * Gets the effective value of a stat in the fixed-point mode, see {@link FixedPoint}.
+     *
+     * @param stat the stat
+     * @return the fixed-point effective stat
+     */
+    public long getFixedEffectiveStat(Stat stat) {
+        return FixedPoint.effectiveStat(baseStats.getOrDefault(stat, 0), stat, statChanges.getOrDefault(stat, 0),
+                statusCondition);
+    }
+
     public int getCurrentHp() {
         return currentHp;
     }
@@ -0,0 +1,16 @@
+package edu.kit.kastel.monstercombat.model;
+
+/**
+ * Listener that is notified whenever a competition is decided.
+ * @author ursxd
+ */
+@FunctionalInterface
+public interface ResultListener {
+
+    /**
+     * Called once when a competition is decided.
+     *
+     * @param result the outcome of the competition
+     */
+    void competitionDecided(CompetitionResult result);
+}
@@ -0,0 +1,143 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+
+/**
+ * The elements and status conditions of a loaded configuration: the built-in ones and those the configuration
+ * declares. Every configuration with declarations has a ruleset of its own, so a declaration never affects
+ * another configuration, another session or a later version of the same file. Elements and conditions are
+ * identified by their index within their ruleset.
+ * A ruleset is only changed while its configuration is loaded and is immutable once the configuration is published.
+ * @author ursxd
+ */
+public final class Ruleset {
+    /**
+     * The ruleset of all configurations without declarations, which only has the built-in elements and conditions.
+     */
+    public static final Ruleset BUILT_IN = new Ruleset(List.of());
+
+    private final List<String> declarationLines;
+    private final Map<String, Element> elementsByName = new HashMap<>();
+    private final Map<String, StatusCondition> conditionsByName = new HashMap<>();
+    private final List<StatusCondition> conditions = new ArrayList<>();
+
+    /**
+     * Constructs a ruleset with the built-in elements and conditions.
+     *
+     * @param declarationLines the lines of the declarations that will be made, see {@link #isDeclaredBy(List)}
+     */
+    Ruleset(List<String> declarationLines) {
+        this.declarationLines = List.copyOf(declarationLines);
+        for (Element element : Element.createBuiltIns()) {
+            elementsByName.put(element.toString(), element);
+        }
+        for (StatusCondition condition : StatusCondition.getBuiltIns()) {
+            conditionsByName.put(condition.toString(), condition);
+            conditions.add(condition);
+        }
+    }
+
+    /**
+     * Checks whether the ruleset was made by the same declarations. Declaring them again then returns the existing
+     * elements and conditions, so a reloaded configuration can keep this ruleset and everything that uses it.
+     *
+     * @param lines the trimmed lines of the element and condition declarations of a configuration, in file order
+     * @return true if the ruleset was made by these lines
+     */
+    boolean isDeclaredBy(List<String> lines) {
+        return declarationLines.equals(lines);
+    }
+
+    /**
+     * Declares an element. Declaring an element again is allowed if it is defined the same way.
+     *
+     * @param definition the definition of the element
+     * @return the element
+     * @throws ConfigurationException if another element of that name exists, there are too many elements or the
+     *     definition refers to an unknown element
+     */
+    Element declareElement(Element.Definition definition) throws ConfigurationException {
+        Element existing = elementsByName.get(definition.getName());
+        if (existing != null) {
+            if (!existing.isDefinedAs(definition)) {
+                throw new ConfigurationException("Element already defined differently: " + definition.getName());
+            }
+            return existing;
+        }
+        if (elementsByName.size() >= Element.MAX_ELEMENTS) {
+            throw new ConfigurationException("Too many elements: " + definition.getName());
+        }
+        Element element = Element.declare(definition, elementsByName.size(), elementsByName);
+        elementsByName.put(definition.getName(), element);
+        return element;
+    }
+
+    /**
+     * Declares a condition. Declaring a condition again is allowed if it is defined the same way.
+     *
+     * @param definition the definition of the condition
+     * @return the condition
+     * @throws ConfigurationException if another condition of that name exists or there are too many conditions
+     */
+    StatusCondition declareCondition(StatusCondition.Definition definition) throws ConfigurationException {
+        StatusCondition existing = conditionsByName.get(definition.getName());
+        if (existing != null) {
+            if (!existing.isDefinedAs(definition)) {
+                throw new ConfigurationException("Status condition already defined differently: "
+                        + definition.getName());
+            }
+            return existing;
+        }
+        if (conditions.size() >= StatusCondition.MAX_CONDITIONS) {
+            throw new ConfigurationException("Too many status conditions: " + definition.getName());
+        }
+        StatusCondition condition = StatusCondition.declare(definition, conditions.size());
+        conditionsByName.put(definition.getName(), condition);
+        conditions.add(condition);
+        return condition;
+    }
+
+    /**
+     * Gets an element by its name.
+     *
+     * @param name the name
+     * @return the element, or null if there is no element of that name
+     */
+    public Element getElement(String name) {
+        return elementsByName.get(name);
+    }
+
+    /**
+     * Gets a condition by its name.
+     *
+     * @param name the name
+     * @return the condition, or null if there is no condition of that name
+     */
+    public StatusCondition getCondition(String name) {
+        return conditionsByName.get(name);
+    }
+
+    /**
+     * Gets the condition with an index.
+     *
+     * @param index the index, see {@link StatusCondition#getIndex()}
+     * @return the condition
+     */
+    public StatusCondition getCondition(int index) {
+        return conditions.get(index);
+    }
+
+    /**
+     * Gets the number of conditions, whose indices are 0 up to this number.
+     *
+     * @return the number of conditions
+     */
+    public int getConditionCount() {
+        return conditions.size();
+    }
+}
@@ -0,0 +1,297 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the course of a competition to any number of spectators, see {@link SpectatorSubscription}.
+ * The competition is the only writer: it encodes every event into a long in a ring buffer that is allocated
+ * once, and spectators read it with a cursor of their own. The writer never waits for, allocates for or even
+ * knows about its spectators, so a thousand spectators cost the battle as much as none.
+ * Health and status conditions are published as changes only: the number of health bar cells a participant
+ * gained or lost, and its new condition. A spectator that falls more than the capacity behind misses events
+ * and instead copies the latest state, which the writer keeps next to the buffer.
+ * A feed can be used by one competition at a time, and is started again with every start of the competition.
+ * @author ursxd
+ */
+public final class SpectatorFeed {
+    /** A competition started, the value is the number of participants. */
+    static final int START = 0;
+    /** A round started, the value is the round. */
+    static final int ROUND = 1;
+    /** A participant acts. */
+    static final int TURN = 2;
+    /** The health bar of a participant changed, the value is the change of its filled cells. */
+    static final int HEALTH = 3;
+    /** The status condition of a participant changed, the value is the index of the new condition in the ruleset. */
+    static final int STATUS = 4;
+    /** The competition is decided, the value is the index of the winner or -1. */
+    static final int DECIDED = 5;
+
+    private static final int TYPE_SHIFT = 56;
+    private static final int PARTICIPANT_SHIFT = 32;
+    private static final long PARTICIPANT_MASK = (1L << (TYPE_SHIFT - PARTICIPANT_SHIFT)) - 1;
+    private static final long VALUE_MASK = 0xFFFFFFFFL;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] ring;
+    private final int mask;
+    private final int maxParticipants;
+    // The number of events written, which readers may read up to
+    private final AtomicLong published = new AtomicLong();
+
+    // The state after all published events, guarded by a sequence lock: odd versions are being written
+    private final AtomicLong snapshotVersion = new AtomicLong();
+    private final int[] snapshotCells;
+    private final int[] snapshotStatus;
+    private long snapshotSequence;
+    private int snapshotParticipants;
+    private int snapshotRound;
+    private int snapshotWinner;
+    private boolean snapshotDecided;
+    private Ruleset snapshotRuleset = Ruleset.BUILT_IN;
+
+    // The state last published by the writer, which changes are computed against
+    private final int[] cells;
+    private final int[] status;
+    private int participants;
+    // The ruleset of the current competition, which the indices of its conditions refer to
+    private volatile Ruleset ruleset = Ruleset.BUILT_IN;
+
+    /**
+     * Constructs a new feed.
+     *
+     * @param capacity the number of events a spectator may fall behind before it misses some, a power of two
+     * @param maxParticipants the largest number of participants of the competition
+     */
+    public SpectatorFeed(int capacity, int maxParticipants) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        if (maxParticipants < 1 || maxParticipants > PARTICIPANT_MASK) {
+            throw new IllegalArgumentException("Invalid number of participants: " + maxParticipants);
+        }
+        this.ring = new long[capacity];
+        this.mask = capacity - 1;
+        this.maxParticipants = maxParticipants;
+        this.snapshotCells = new int[maxParticipants];
+        this.snapshotStatus = new int[maxParticipants];
+        this.cells = new int[maxParticipants];
+        this.status = new int[maxParticipants];
+        this.snapshotWinner = -1;
+    }
+
+    /**
+     * Subscribes a new spectator, who starts at the latest state.
+     *
+     * @return the subscription, which must only be polled by one thread at a time
+     */
+    public SpectatorSubscription subscribe() {
+        return new SpectatorSubscription(this);
+    }
+
+    /**
+     * Gets the number of events a spectator may fall behind.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * Gets the largest number of participants.
+     *
+     * @return the number of participants
+     */
+    public int getMaxParticipants() {
+        return maxParticipants;
+    }
+
+    /**
+     * Gets the ruleset of the competition published last, which spectators resolve conditions with.
+     *
+     * @return the ruleset
+     */
+    Ruleset getRuleset() {
+        return ruleset;
+    }
+
+    /**
+     * Gets the number of events published so far.
+     *
+     * @return the number of events
+     */
+    public long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * Starts publishing a competition. All participants start with an empty health bar and no condition,
+     * so their actual state follows as changes.
+     *
+     * @param competition the competition that starts
+     */
+    void begin(Competition competition) {
+        int count = competition.getMonsterCount();
+        if (count > maxParticipants) {
+            throw new IllegalStateException("Too many participants for the spectator feed: " + count);
+        }
+        participants = count;
+        ruleset = competition.getRuleset();
+        Arrays.fill(cells, 0);
+        Arrays.fill(status, StatusCondition.NONE.getIndex());
+        publish(START, 0, count);
+        publishChanges(competition);
+    }
+
+    /**
+     * Publishes the start of a round.
+     *
+     * @param round the round
+     */
+    void roundStarted(int round) {
+        publish(ROUND, 0, round);
+    }
+
+    /**
+     * Publishes that a participant acts.
+     *
+     * @param participant the index of the participant
+     */
+    void turnStarted(int participant) {
+        publish(TURN, participant, 0);
+    }
+
+    /**
+     * Publishes the health bars and conditions that changed since they were last published.
+     *
+     * @param competition the competition
+     */
+    void publishChanges(Competition competition) {
+        for (int i = 0; i < participants; i++) {
+            Monster monster = competition.getParticipant(i);
+            int currentCells = monster.getHealthBarCells();
+            if (currentCells != cells[i]) {
+                publish(HEALTH, i, currentCells - cells[i]);
+                cells[i] = currentCells;
+            }
+            int currentStatus = monster.getStatusCondition().getIndex();
+            if (currentStatus != status[i]) {
+                publish(STATUS, i, currentStatus);
+                status[i] = currentStatus;
+            }
+        }
+    }
+
+    /**
+     * Publishes the end of the competition, after its last changes.
+     *
+     * @param competition the competition
+     * @param winner the index of the winner, or -1 if there is none
+     */
+    void decided(Competition competition, int winner) {
+        publishChanges(competition);
+        publish(DECIDED, 0, winner);
+    }
+
+    private void publish(int type, int participant, int value) {
+        long event = ((long) type << TYPE_SHIFT) | ((long) participant << PARTICIPANT_SHIFT) | (value & VALUE_MASK);
+        long sequence = published.getPlain();
+
+        long version = snapshotVersion.getPlain();
+        snapshotVersion.setOpaque(version + 1);
+        // Neither the slot nor the snapshot may be seen changed before the version is odd
+        VarHandle.storeStoreFence();
+        SLOTS.setOpaque(ring, (int) sequence & mask, event);
+        apply(event);
+        snapshotSequence = sequence + 1;
+        snapshotVersion.setRelease(version + 2);
+
+        published.setRelease(sequence + 1);
+    }
+
+    private void apply(long event) {
+        int participant = participant(event);
+        int value = value(event);
+        switch (type(event)) {
+            case START -> {
+                snapshotParticipants = value;
+                snapshotRuleset = ruleset;
+                Arrays.fill(snapshotCells, 0);
+                Arrays.fill(snapshotStatus, StatusCondition.NONE.getIndex());
+                snapshotRound = 0;
+                snapshotWinner = -1;
+                snapshotDecided = false;
+            }
+            case ROUND -> snapshotRound = value;
+            case HEALTH -> snapshotCells[participant] += value;
+            case STATUS -> snapshotStatus[participant] = value;
+            case DECIDED -> {
+                snapshotDecided = true;
+                snapshotWinner = value;
+            }
+            default -> {
+                // Turns do not change the state
+            }
+        }
+    }
+
+    /**
+     * Reads an event, which is only valid if {@link #isOverwritten(long)} is false afterwards.
+     *
+     * @param sequence the number of the event, below {@link #getPublished()}
+     * @return the encoded event
+     */
+    long read(long sequence) {
+        return (long) SLOTS.getOpaque(ring, (int) sequence & mask);
+    }
+
+    /**
+     * Checks whether the writer may have overwritten an event already.
+     *
+     * @param sequence the number of the event
+     * @return true if the event is lost
+     */
+    boolean isOverwritten(long sequence) {
+        VarHandle.loadLoadFence();
+        // The writer may be writing the event after the last published one, which is one slot further
+        return published.getAcquire() - sequence >= ring.length;
+    }
+
+    /**
+     * Copies the latest state into a subscription.
+     *
+     * @param subscription the subscription
+     * @return the number of events the state includes
+     */
+    long copySnapshot(SpectatorSubscription subscription) {
+        while (true) {
+            long version = snapshotVersion.getAcquire();
+            if ((version & 1) == 0) {
+                long sequence = snapshotSequence;
+                subscription.load(snapshotParticipants, snapshotCells, snapshotStatus, snapshotRound,
+                        snapshotDecided, snapshotWinner, snapshotRuleset);
+                VarHandle.loadLoadFence();
+                if (snapshotVersion.getOpaque() == version) {
+                    return sequence;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    static int type(long event) {
+        return (int) (event >>> TYPE_SHIFT);
+    }
+
+    static int participant(long event) {
+        return (int) ((event >>> PARTICIPANT_SHIFT) & PARTICIPANT_MASK);
+    }
+
+    static int value(long event) {
+        return (int) event;
+    }
+}
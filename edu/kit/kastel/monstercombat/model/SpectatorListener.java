@@ -0,0 +1,67 @@
+package edu.kit.kastel.monstercombat.model;
+
+/**
+ * Listener of a spectator, which is told about the events of a {@link SpectatorFeed} when its
+ * {@link SpectatorSubscription} is polled. The subscription is already updated when a method is called.
+ * @author ursxd
+ */
+public interface SpectatorListener {
+
+    /**
+     * Called when a competition starts.
+     *
+     * @param participants the number of participants
+     */
+    default void competitionStarted(int participants) {
+    }
+
+    /**
+     * Called when a round starts.
+     *
+     * @param round the round
+     */
+    default void roundStarted(int round) {
+    }
+
+    /**
+     * Called when a participant acts.
+     *
+     * @param participant the index of the participant
+     */
+    default void turnStarted(int participant) {
+    }
+
+    /**
+     * Called when the health bar of a participant changed.
+     *
+     * @param participant the index of the participant
+     * @param cells the filled cells of its health bar
+     */
+    default void healthChanged(int participant, int cells) {
+    }
+
+    /**
+     * Called when the status condition of a participant changed.
+     *
+     * @param participant the index of the participant
+     * @param condition the new condition
+     */
+    default void statusChanged(int participant, StatusCondition condition) {
+    }
+
+    /**
+     * Called when the competition is decided.
+     *
+     * @param winner the index of the winner, or -1 if there is none
+     */
+    default void competitionDecided(int winner) {
+    }
+
+    /**
+     * Called when the spectator fell too far behind and missed events, so it continues from the latest state.
+     *
+     * @param missed the number of missed events
+     */
+    default void resynchronized(long missed) {
+    }
+}
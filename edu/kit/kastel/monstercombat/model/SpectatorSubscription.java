@@ -0,0 +1,168 @@
+package edu.kit.kastel.monstercombat.model;
+
+/**
+ * A spectator of a {@link SpectatorFeed}, who reads its events at its own pace and keeps the state they describe.
+ * A subscription must only be polled by one thread at a time, but every spectator may use a thread of its own.
+ * @author ursxd
+ */
+public final class SpectatorSubscription {
+    private final SpectatorFeed feed;
+    private final int[] cells;
+    private final int[] status;
+    private Ruleset ruleset = Ruleset.BUILT_IN;
+    private long cursor;
+    private long missed;
+    private int participants;
+    private int round;
+    private boolean decided;
+    private int winner;
+
+    /**
+     * Constructs a new subscription that starts at the latest state of the feed.
+     *
+     * @param feed the feed
+     */
+    SpectatorSubscription(SpectatorFeed feed) {
+        this.feed = feed;
+        this.cells = new int[feed.getMaxParticipants()];
+        this.status = new int[feed.getMaxParticipants()];
+        this.cursor = feed.copySnapshot(this);
+    }
+
+    /**
+     * Reads all events published since the last poll and tells the listener about them.
+     * If the spectator fell too far behind, it skips to the latest state instead.
+     *
+     * @param listener the listener of the spectator
+     * @return the number of events read
+     */
+    public int poll(SpectatorListener listener) {
+        long available = feed.getPublished();
+        int read = 0;
+        while (cursor < available) {
+            long event = feed.read(cursor);
+            if (feed.isOverwritten(cursor)) {
+                long skippedFrom = cursor;
+                cursor = feed.copySnapshot(this);
+                missed += cursor - skippedFrom;
+                listener.resynchronized(cursor - skippedFrom);
+                return read;
+            }
+            cursor++;
+            read++;
+            apply(event, listener);
+        }
+        return read;
+    }
+
+    private void apply(long event, SpectatorListener listener) {
+        int participant = SpectatorFeed.participant(event);
+        int value = SpectatorFeed.value(event);
+        switch (SpectatorFeed.type(event)) {
+            case SpectatorFeed.START -> {
+                load(value, null, null, 0, false, -1, feed.getRuleset());
+                listener.competitionStarted(value);
+            }
+            case SpectatorFeed.ROUND -> {
+                round = value;
+                listener.roundStarted(value);
+            }
+            case SpectatorFeed.TURN -> listener.turnStarted(participant);
+            case SpectatorFeed.HEALTH -> {
+                cells[participant] += value;
+                listener.healthChanged(participant, cells[participant]);
+            }
+            case SpectatorFeed.STATUS -> {
+                status[participant] = value;
+                listener.statusChanged(participant, ruleset.getCondition(value));
+            }
+            case SpectatorFeed.DECIDED -> {
+                decided = true;
+                winner = value;
+                listener.competitionDecided(value);
+            }
+            default -> throw new IllegalStateException("Unknown spectator event: " + event);
+        }
+    }
+
+    /**
+     * Replaces the state, or resets it if no cells and conditions are given.
+     */
+    void load(int participantCount, int[] currentCells, int[] currentStatus, int currentRound,
+              boolean isDecided, int currentWinner, Ruleset currentRuleset) {
+        participants = participantCount;
+        ruleset = currentRuleset;
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = currentCells == null ? 0 : currentCells[i];
+            status[i] = currentStatus == null ? StatusCondition.NONE.getIndex() : currentStatus[i];
+        }
+        round = currentRound;
+        decided = isDecided;
+        winner = currentWinner;
+    }
+
+    /**
+     * Gets the number of participants of the current competition.
+     *
+     * @return the number of participants
+     */
+    public int getParticipantCount() {
+        return participants;
+    }
+
+    /**
+     * Gets the filled cells of the health bar of a participant.
+     *
+     * @param participant the index of the participant
+     * @return the filled cells, out of {@link Monster#HEALTH_BAR_CELLS}
+     */
+    public int getHealthBarCells(int participant) {
+        return cells[participant];
+    }
+
+    /**
+     * Gets the health bar of a participant, as {@link Monster#getHealthBar()} prints it.
+     *
+     * @param participant the index of the participant
+     * @return the health bar
+     */
+    public String getHealthBar(int participant) {
+        return Monster.formatHealthBar(cells[participant]);
+    }
+
+    /**
+     * Gets the status condition of a participant.
+     *
+     * @param participant the index of the participant
+     * @return the condition
+     */
+    public StatusCondition getStatusCondition(int participant) {
+        return ruleset.getCondition(status[participant]);
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public boolean isDecided() {
+        return decided;
+    }
+
+    /**
+     * Gets the winner of the decided competition.
+     *
+     * @return the index of the winner, or -1 if there is none or the competition is not decided
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Gets the number of events this spectator missed because it fell too far behind.
+     *
+     * @return the number of missed events
+     */
+    public long getMissed() {
+        return missed;
+    }
+}
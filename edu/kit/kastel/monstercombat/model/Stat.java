@@ -8,12 +8,20 @@ public enum Stat {
     PRC("PRC", 3),
     AGL("AGL", 3);
 
+    private static final int MAX_STAGE = 5;
+
     private final String representation;
     private final int baseFactor;
+    // The stat change factors from -5 to +5 for the fixed-point mode
+    private final long[] fixedStatChangeFactors = new long[2 * MAX_STAGE + 1];
 
     Stat(String representation, int baseFactor) {
         this.representation = representation;
         this.baseFactor = baseFactor;
+        for (int stage = -MAX_STAGE; stage <= MAX_STAGE; stage++) {
+            fixedStatChangeFactors[stage + MAX_STAGE] = baseFactor == 0 ? FixedPoint.ONE
+                    : calculateExactStatChangeFactor(stage);
+        }
     }
 
     @Override
@@ -34,6 +42,27 @@ public enum Stat {
         }
     }
 
+    /**
+     * Gets the stat change factor in the fixed-point mode, see {@link FixedPoint}.
+     *
+     * @param statChange the stat change
+     * @return the fixed-point factor, rounded towards zero
+     */
+    public long calculateFixedStatChangeFactor(int statChange) {
+        if (statChange < -MAX_STAGE || statChange > MAX_STAGE) {
+            return calculateExactStatChangeFactor(statChange);
+        }
+        return fixedStatChangeFactors[statChange + MAX_STAGE];
+    }
+
+    private long calculateExactStatChangeFactor(int statChange) {
+        if (statChange >= 0) {
+            return ((long) (baseFactor + statChange) << FixedPoint.FRACTION_BITS) / baseFactor;
+        } else {
+            return ((long) baseFactor << FixedPoint.FRACTION_BITS) / (baseFactor - statChange);
+        }
+    }
+
     public static Stat fromString(String representation) {
         for (Stat stat : values()) {
             if (stat.representation.equals(representation)) {
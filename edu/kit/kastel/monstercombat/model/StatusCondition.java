@@ -1,75 +1,367 @@
 package edu.kit.kastel.monstercombat.model;
 
-public enum StatusCondition {
-    NONE("NONE", null, null, null),
-    WET("WET", " becomes soaking wet!", " is soaking wet!", " woke up!"),
-    BURN("BURN", " caught on fire!", " is burning!", "'s burning has faded!"),
-    QUICKSAND("QUICKSAND", " gets caught by quicksand!", " is caught in quicksand!", " escaped the quicksand!"),
-    SLEEP("SLEEP", " falls asleep!", " is asleep!", " woke up!"),
-    FAINTED("FAINTED", null, null, null);
-
-    private final String representation;
-    private final String inflictedMessage;
-    private final String activeMessage;
-    private final String endMessage;
-
-    StatusCondition(String representation, String startMessage, String activeMessage, String endMessage) {
-        this.representation = representation;
-        this.inflictedMessage = startMessage;
-        this.activeMessage = activeMessage;
-        this.endMessage = endMessage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A status condition, described by one row of a table: its messages, the factor for every stat, whether its
+ * monster skips its actions, how much damage it deals after every action and how likely it ends.
+ * The hooks for the start, the active phase and the end of a condition only read this row, so they allocate
+ * nothing but their output. Conditions belong to the {@link Ruleset} of a configuration: the conditions of
+ * the game are built into every ruleset and shared by all of them, further ones can be declared by a configuration
+ * file.
+ * @author ursxd
+ */
+public final class StatusCondition {
+    /**
+     * The largest number of conditions of a ruleset, including the built-in ones.
+     */
+    public static final int MAX_CONDITIONS = 128;
+
+    private static final double DEFAULT_END_CHANCE = 33.33;
+    private static final double REDUCED = 0.75;
+    private static final int BURN_DAMAGE_PERCENT = 10;
+    private static final double PERCENT = 100.0;
+    private static final List<StatusCondition> BUILT_INS = new ArrayList<>();
+
+    public static final StatusCondition NONE = builtIn(new Definition("NONE"));
+    public static final StatusCondition WET = builtIn(new Definition("WET")
+            .messages(" becomes soaking wet!", " is soaking wet!", " woke up!")
+            .multiplier(Stat.DEF, REDUCED));
+    public static final StatusCondition BURN = builtIn(new Definition("BURN")
+            .messages(" caught on fire!", " is burning!", "'s burning has faded!")
+            .multiplier(Stat.ATK, REDUCED)
+            .damage(BURN_DAMAGE_PERCENT, "%s takes %d damage from burning!\n"));
+    public static final StatusCondition QUICKSAND = builtIn(new Definition("QUICKSAND")
+            .messages(" gets caught by quicksand!", " is caught in quicksand!", " escaped the quicksand!")
+            .multiplier(Stat.SPD, REDUCED));
+    public static final StatusCondition SLEEP = builtIn(new Definition("SLEEP")
+            .messages(" falls asleep!", " is asleep!", " woke up!")
+            .skipsTurn("sleep end"));
+    public static final StatusCondition FAINTED = builtIn(new Definition("FAINTED"));
+
+    private final int index;
+    private final Definition definition;
+    private final double[] multipliers;
+    // The factors and the end chance for the fixed-point mode, converted once
+    private final long[] fixedMultipliers;
+    private final long fixedEndChance;
+    private final String inflictedFormat;
+    private final String activeFormat;
+    private final String endFormat;
+
+    private StatusCondition(int index, Definition definition) {
+        this.index = index;
+        this.definition = definition;
+        this.multipliers = definition.multipliers.clone();
+        this.fixedMultipliers = new long[multipliers.length];
+        for (int i = 0; i < multipliers.length; i++) {
+            fixedMultipliers[i] = FixedPoint.fromDouble(multipliers[i]);
+        }
+        this.fixedEndChance = FixedPoint.fromDouble(definition.endChance);
+        // Messages start right after the name of the monster, e.g. " is burning!" or "'s burning has faded!"
+        this.inflictedFormat = "%s" + escape(definition.inflictedMessage) + "\n";
+        this.activeFormat = "%s" + escape(definition.activeMessage) + "\n";
+        this.endFormat = "%s" + escape(definition.endMessage) + "\n";
+    }
+
+    private static StatusCondition builtIn(Definition definition) {
+        StatusCondition condition = new StatusCondition(BUILT_INS.size(), definition);
+        BUILT_INS.add(condition);
+        return condition;
+    }
+
+    /**
+     * Gets the built-in conditions, which every ruleset starts with.
+     *
+     * @return the conditions in the order of their indices
+     */
+    static List<StatusCondition> getBuiltIns() {
+        return List.copyOf(BUILT_INS);
+    }
+
+    /**
+     * Creates a condition declared by a configuration.
+     *
+     * @param definition the definition of the condition
+     * @param index the index of the condition within its ruleset
+     * @return the condition
+     */
+    static StatusCondition declare(Definition definition, int index) {
+        return new StatusCondition(index, definition);
+    }
+
+    /**
+     * Checks whether the condition was declared with a definition, so declaring it again changes nothing.
+     *
+     * @param other the definition
+     * @return true if the condition has that definition
+     */
+    boolean isDefinedAs(Definition other) {
+        return definition.equals(other);
+    }
+
+    private static String escape(String message) {
+        return String.valueOf(message).replace("%", "%%");
+    }
+
+    /**
+     * Gets the index of the condition, which identifies it within its ruleset.
+     *
+     * @return the index
+     */
+    public int getIndex() {
+        return index;
     }
 
     @Override
     public String toString() {
-        return representation;
+        return definition.name;
     }
 
     public String getInflictedMessage() {
-        return inflictedMessage;
+        return definition.inflictedMessage;
     }
 
     public String getActiveMessage() {
-        return activeMessage;
+        return definition.activeMessage;
     }
 
     public String getEndMessage() {
-        return endMessage;
+        return definition.endMessage;
     }
 
     public double getStatusConditionMultiplier(Stat stat) {
-        switch (this) {
-            case WET:
-                if (stat == Stat.DEF) {
-                    return 0.75; // 25% reduction in defense
-                }
-                break;
-            case BURN:
-                if (stat == Stat.ATK) {
-                    return 0.75; // 25% reduction in attack
-                }
-                break;
-            case QUICKSAND:
-                if (stat == Stat.SPD) {
-                    return 0.75; // 25% reduction in speed
-                }
-                break;
-            default:
-                return 1.0;
-        }
-        return 1.0; // No effect on other stats
+        return multipliers[stat.ordinal()];
+    }
+
+    /**
+     * Gets the factor for a stat in the fixed-point mode.
+     *
+     * @param stat the stat
+     * @return the fixed-point factor
+     */
+    long getFixedMultiplier(Stat stat) {
+        return fixedMultipliers[stat.ordinal()];
+    }
+
+    /**
+     * Checks whether a monster with this condition skips its actions until the condition ends.
+     *
+     * @return true if the monster skips its actions
+     */
+    public boolean skipsTurn() {
+        return definition.skipsTurn;
+    }
+
+    /**
+     * Gets the share of the maximum health the condition takes from its monster after each of its actions.
+     *
+     * @return the damage in percent, 0 for none
+     */
+    public int getDamagePercent() {
+        return definition.damagePercent;
+    }
+
+    /**
+     * Gets the chance that the condition ends, which is checked once per action of its monster.
+     *
+     * @return the chance in percent
+     */
+    public double getEndChance() {
+        return definition.endChance;
     }
 
     public boolean preventsActions() {
-        return this == SLEEP || this == FAINTED;
+        return skipsTurn() || this == FAINTED;
+    }
+
+    /**
+     * Starts the condition on a monster.
+     *
+     * @param monster the monster
+     */
+    public void start(Monster monster) {
+        monster.setStatusCondition(this);
+        System.out.printf(inflictedFormat, monster.getDisplayName());
+    }
+
+    /**
+     * Runs the condition of a monster before it acts, which lets a monster that skips its actions wake up.
+     *
+     * @param monster the monster about to act
+     * @param competition the competition deciding whether the condition ends
+     * @return true if the monster skips its action
+     */
+    boolean beforeAction(Monster monster, Competition competition) {
+        if (!definition.skipsTurn) {
+            return false;
+        }
+        System.out.printf(activeFormat, monster.getDisplayName());
+        if (ends(competition)) {
+            end(monster);
+        }
+        return true;
     }
 
-    public static StatusCondition fromString(String representation) {
-        for (StatusCondition condition : values()) {
-            if (condition.representation.equals(representation)) {
-                return condition;
+    /**
+     * Runs the condition of a monster after it acted: the condition either ends or deals its damage.
+     *
+     * @param monster the monster that acted
+     * @param competition the competition deciding whether the condition ends
+     */
+    void afterAction(Monster monster, Competition competition) {
+        if (this == NONE || definition.skipsTurn) {
+            return;
+        }
+        System.out.printf(activeFormat, monster.getDisplayName());
+        if (ends(competition)) {
+            end(monster);
+        } else if (definition.damagePercent > 0) {
+            if (!monster.isDefeated()) {
+                int damage = competition.isFixedPoint()
+                        ? FixedPoint.percentOf(monster.getMaxHp(), definition.damagePercent)
+                        : (int) Math.ceil(monster.getMaxHp() * definition.damagePercent / PERCENT);
+                System.out.printf(definition.damageFormat, monster.getDisplayName(), monster.takeDamage(damage));
+            }
+            if (monster.isDefeated()) {
+                System.out.printf("%s faints!\n", monster.getDisplayName());
             }
         }
-        return NONE;
+    }
+
+    private boolean ends(Competition competition) {
+        if (competition.isFixedPoint()) {
+            return competition.checkFixedProbability(definition.endDecision, fixedEndChance);
+        }
+        return competition.checkProbability(definition.endDecision, definition.endChance);
+    }
+
+    private void end(Monster monster) {
+        System.out.printf(endFormat, monster.getDisplayName());
+        monster.setStatusCondition(NONE);
+    }
+
+    /**
+     * The definition of a condition, as read from a configuration file.
+     */
+    static final class Definition {
+        private final String name;
+        private final double[] multipliers = new double[Stat.values().length];
+        private String inflictedMessage;
+        private String activeMessage;
+        private String endMessage;
+        private boolean skipsTurn;
+        private String endDecision = "status condition end";
+        private int damagePercent;
+        private String damageFormat;
+        private double endChance = DEFAULT_END_CHANCE;
+
+        /**
+         * Constructs a condition that changes no stat, deals no damage and has no messages.
+         *
+         * @param name the name of the condition
+         */
+        Definition(String name) {
+            this.name = name;
+            Arrays.fill(multipliers, 1.0);
+        }
+
+        /**
+         * Gets the name of the condition.
+         *
+         * @return the name
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Sets the messages, which are printed after the name of the monster.
+         *
+         * @param inflicted the message when the condition starts
+         * @param active the message when the condition is active
+         * @param end the message when the condition ends
+         * @return this definition
+         */
+        Definition messages(String inflicted, String active, String end) {
+            this.inflictedMessage = inflicted;
+            this.activeMessage = active;
+            this.endMessage = end;
+            return this;
+        }
+
+        /**
+         * Sets the factor for a stat.
+         *
+         * @param stat the stat
+         * @param multiplier the factor
+         * @return this definition
+         */
+        Definition multiplier(Stat stat, double multiplier) {
+            multipliers[stat.ordinal()] = multiplier;
+            return this;
+        }
+
+        /**
+         * Lets the monster skip its actions until the condition ends.
+         *
+         * @param decision the name of the decision whether the condition ends, for debug mode
+         * @return this definition
+         */
+        Definition skipsTurn(String decision) {
+            this.skipsTurn = true;
+            this.endDecision = decision;
+            return this;
+        }
+
+        /**
+         * Sets the damage after every action.
+         *
+         * @param percent the share of the maximum health
+         * @param format the format of the message, with the name of the monster and the damage
+         * @return this definition
+         */
+        Definition damage(int percent, String format) {
+            this.damagePercent = percent;
+            this.damageFormat = format;
+            return this;
+        }
+
+        /**
+         * Sets the chance that the condition ends.
+         *
+         * @param chance the chance in percent
+         * @return this definition
+         */
+        Definition endChance(double chance) {
+            this.endChance = chance;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            Definition definition = (Definition) other;
+            return name.equals(definition.name) && Arrays.equals(multipliers, definition.multipliers)
+                    && Objects.equals(inflictedMessage, definition.inflictedMessage)
+                    && Objects.equals(activeMessage, definition.activeMessage)
+                    && Objects.equals(endMessage, definition.endMessage) && skipsTurn == definition.skipsTurn
+                    && endDecision.equals(definition.endDecision) && damagePercent == definition.damagePercent
+                    && Objects.equals(damageFormat, definition.damageFormat)
+                    && Double.compare(endChance, definition.endChance) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
     }
 }
@@ -0,0 +1,61 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the names of the actions and monsters of one loaded configuration into integer symbols, so names can be
+ * compared and looked up as numbers once they are resolved. Every name gets the same symbol within the table.
+ * The table is dropped together with its configuration, so names of earlier configurations do not pile up.
+ * @author ursxd
+ */
+public final class SymbolTable {
+    /**
+     * The symbol of names that were never interned.
+     */
+    public static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> symbols = new ConcurrentHashMap<>();
+    private int nextSymbol;
+
+    /**
+     * Gets the symbol of a name, creating it if the name is new.
+     * Actions may be created by several threads while a configuration is parsed in parallel.
+     *
+     * @param name the name
+     * @return the symbol
+     */
+    public int intern(String name) {
+        Integer symbol = symbols.get(name);
+        if (symbol != null) {
+            return symbol;
+        }
+        synchronized (symbols) {
+            return symbols.computeIfAbsent(name, key -> nextSymbol++);
+        }
+    }
+
+    /**
+     * Takes over the symbol of a name from the table of an earlier configuration,
+     * for an action or monster that is shared with it.
+     *
+     * @param name the name
+     * @param symbol the symbol of the name in the earlier table
+     */
+    void reserve(String name, int symbol) {
+        synchronized (symbols) {
+            symbols.put(name, symbol);
+            nextSymbol = Math.max(nextSymbol, symbol + 1);
+        }
+    }
+
+    /**
+     * Gets the symbol of a name without creating one, e.g. to resolve a name the user typed.
+     *
+     * @param name the name
+     * @return the symbol, or {@link #UNKNOWN} if no action or monster has this name
+     */
+    public int find(String name) {
+        return symbols.getOrDefault(name, UNKNOWN);
+    }
+}
@@ -0,0 +1,130 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import edu.kit.kastel.monstercombat.model.policy.Policy;
+
+/**
+ * Plays the rest of a competition many times from a hypothetical choice of the current monster,
+ * without changing the competition itself.
+ * Every playout runs on its own fork of the competition (see {@link Competition#fork(long)}), in which all
+ * following choices are made by a policy against a randomly chosen opponent.
+ * Playout seeds are derived from the state of the random number generator of the competition,
+ * so the result does not depend on the number of threads.
+ * @author ursxd
+ */
+public final class WhatIfAnalysis {
+    /**
+     * The number of rounds after which a playout is stopped and counted as undecided.
+     */
+    public static final int MAX_ROUNDS = 1000;
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    private final Competition competition;
+    private final Policy policy;
+
+    /**
+     * Constructs a new analysis.
+     *
+     * @param competition the competition to analyze, in Phase I
+     * @param policy the policy making all choices after the hypothetical one, used by several threads at once
+     */
+    public WhatIfAnalysis(Competition competition, Policy policy) {
+        this.competition = competition;
+        this.policy = policy;
+    }
+
+    /**
+     * Plays the rest of the competition after the current monster chose an action.
+     * The caller must not use the competition until this method returns.
+     *
+     * @param action the hypothetical action of the current monster, or null to pass
+     * @param target the target of the action
+     * @param playouts the number of playouts, at least 1
+     * @param executor the executor running the playouts, whose threads should discard their output
+     * @param parallelism the number of tasks the playouts are split into
+     * @return the outcome statistics
+     * @throws InterruptedException if the current thread is interrupted while waiting for the playouts
+     */
+    public WhatIfResult run(Action action, Monster target, int playouts, ExecutorService executor, int parallelism)
+            throws InterruptedException {
+        if (competition.getCurrentMonster() == null) {
+            throw new IllegalStateException("No monster is choosing an action");
+        }
+        if (playouts <= 0) {
+            throw new IllegalArgumentException("The number of playouts must be positive");
+        }
+        long baseSeed = competition.getCompetitionRandom().getState();
+        int targetIndex = target == null ? -1 : target.getParticipantIndex();
+        int tasks = Math.max(1, Math.min(playouts, parallelism));
+
+        // Forking must not run concurrently, so every task gets its own fork to fork the playouts from
+        List<Callable<long[]>> calls = new ArrayList<>(tasks);
+        for (int task = 0; task < tasks; task++) {
+            Competition base = competition.fork(baseSeed);
+            int from = (int) ((long) playouts * task / tasks);
+            int to = (int) ((long) playouts * (task + 1) / tasks);
+            calls.add(() -> play(base, action, targetIndex, from, to, baseSeed));
+        }
+
+        int count = competition.getMonsterCount();
+        long[] totals = new long[count + 3];
+        for (Future<long[]> future : executor.invokeAll(calls)) {
+            long[] counts;
+            try {
+                counts = future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A playout failed: " + e.getCause().getMessage(), e.getCause());
+            }
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += counts[i];
+            }
+        }
+        return new WhatIfResult(competition.getMonsters(), Arrays.copyOf(totals, count),
+                totals[count], totals[count + 1], totals[count + 2], playouts);
+    }
+
+    /**
+     * Plays a range of playouts on the current thread.
+     *
+     * @return the wins of every participant, followed by the playouts without a winner,
+     *      the undecided playouts and the total number of rounds
+     */
+    private long[] play(Competition base, Action action, int targetIndex, int from, int to, long baseSeed) {
+        int count = base.getMonsterCount();
+        long[] counts = new long[count + 3];
+        for (int i = from; i < to; i++) {
+            Competition playout = base.fork(baseSeed + (i + 1) * SEED_INCREMENT);
+            Competition.bindToCurrentThread(playout);
+            try {
+                playout.chooseAction(action, targetIndex < 0 ? null : playout.getParticipant(targetIndex));
+                while (!playout.isDecided() && playout.getCurrentRound() - base.getCurrentRound() < MAX_ROUNDS) {
+                    Monster monster = playout.getCurrentMonster();
+                    Monster opponent = policy.chooseOpponent(monster, playout.getOpponents(monster),
+                            playout.getRandom());
+                    Action choice = policy.choose(monster, opponent, playout.getRandom());
+                    Monster choiceTarget = choice == null ? null : policy.chooseTarget(monster, choice, opponent);
+                    playout.chooseAction(choice, choiceTarget);
+                }
+            } finally {
+                Competition.bindToCurrentThread(null);
+            }
+
+            if (!playout.isDecided()) {
+                counts[count + 1]++;
+            } else if (playout.getWinner() == null) {
+                counts[count]++;
+            } else {
+                counts[playout.getWinner().getParticipantIndex()]++;
+            }
+            counts[count + 2] += playout.getCurrentRound() - base.getCurrentRound();
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,80 @@
+package edu.kit.kastel.monstercombat.model;
+
+import java.util.List;
+
+/**
+ * Outcome statistics of the playouts of a what-if analysis.
+ * @author ursxd
+ */
+public final class WhatIfResult {
+    private final List<Monster> participants;
+    private final long[] wins;
+    private final long noWinner;
+    private final long undecided;
+    private final long rounds;
+    private final int playouts;
+
+    WhatIfResult(List<Monster> participants, long[] wins, long noWinner, long undecided, long rounds, int playouts) {
+        this.participants = participants;
+        this.wins = wins;
+        this.noWinner = noWinner;
+        this.undecided = undecided;
+        this.rounds = rounds;
+        this.playouts = playouts;
+    }
+
+    /**
+     * Gets the participants of the analyzed competition, in the order of {@link #getWinProbability(int)}.
+     *
+     * @return the participants
+     */
+    public List<Monster> getParticipants() {
+        return participants;
+    }
+
+    /**
+     * Gets the share of playouts a participant won.
+     *
+     * @param participantIndex the participant index
+     * @return the share of won playouts
+     */
+    public double getWinProbability(int participantIndex) {
+        return (double) wins[participantIndex] / playouts;
+    }
+
+    /**
+     * Gets the share of playouts in which all monsters fainted.
+     *
+     * @return the share of playouts without a winner
+     */
+    public double getNoWinnerProbability() {
+        return (double) noWinner / playouts;
+    }
+
+    /**
+     * Gets the share of playouts that were stopped before they were decided.
+     *
+     * @return the share of undecided playouts
+     */
+    public double getUndecidedProbability() {
+        return (double) undecided / playouts;
+    }
+
+    /**
+     * Gets the average number of rounds the playouts took until they were decided or stopped.
+     *
+     * @return the average number of remaining rounds
+     */
+    public double getAverageRounds() {
+        return (double) rounds / playouts;
+    }
+
+    /**
+     * Gets the number of playouts.
+     *
+     * @return the number of playouts
+     */
+    public int getPlayouts() {
+        return playouts;
+    }
+}
@@ -0,0 +1,59 @@
+package edu.kit.kastel.monstercombat.model.battlelog;
+
+/**
+ * The columns of a battle log file in the order they are stored in every batch.
+ * @author ursxd
+ */
+public enum BattleLogColumn {
+    /** The ID of the competition, delta-encoded. */
+    BATTLE(Encoding.DELTA),
+    /** The round of the competition, delta-encoded. */
+    ROUND(Encoding.DELTA),
+    /** The species name of the monster using the action. */
+    ACTOR(Encoding.DICTIONARY),
+    /** The name of the action. */
+    ACTION(Encoding.DICTIONARY),
+    /** The type name of the effect. */
+    EFFECT(Encoding.DICTIONARY),
+    /** Whether the effect hit. */
+    HIT(Encoding.BITS),
+    /** Whether the effect was a critical hit. */
+    CRITICAL(Encoding.BITS),
+    /** The health points the target lost, negative if it was healed. */
+    DAMAGE(Encoding.VARINT),
+    /** The health points of the target afterwards, or -1 if there was no target. */
+    TARGET_HP(Encoding.VARINT);
+
+    private final Encoding encoding;
+
+    BattleLogColumn(Encoding encoding) {
+        this.encoding = encoding;
+    }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Checks whether the values of this column are names.
+     *
+     * @return true if the column is dictionary-encoded
+     */
+    public boolean isDictionary() {
+        return encoding == Encoding.DICTIONARY;
+    }
+
+    /**
+     * How the values of a column are stored.
+     */
+    public enum Encoding {
+        /** Zigzag varints of the difference to the previous value of the batch. */
+        DELTA,
+        /** Zigzag varints of the values. */
+        VARINT,
+        /** One bit per row, least significant bit first. */
+        BITS,
+        /** The names first used in the batch, followed by one varint ID per row. */
+        DICTIONARY
+    }
+}
@@ -0,0 +1,232 @@
+package edu.kit.kastel.monstercombat.model.battlelog;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Reads a battle log file written by {@link BattleLogWriter} one column at a time.
+ * A scan only reads the batch headers and the bytes of the requested column; all other columns are skipped.
+ * @author ursxd
+ */
+public final class BattleLogReader implements AutoCloseable {
+    private static final int FILE_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int BATCH_HEADER_SIZE = (1 + BattleLogWriter.COLUMN_COUNT) * Integer.BYTES;
+
+    private final FileChannel channel;
+    private final ByteBuffer header;
+    private ByteBuffer columnBuffer;
+
+    /**
+     * Opens a battle log file.
+     *
+     * @param file the battle log file
+     * @throws IOException if the file cannot be read or is not a battle log
+     */
+    public BattleLogReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.header = ByteBuffer.allocate(BATCH_HEADER_SIZE);
+        this.columnBuffer = ByteBuffer.allocate(0);
+        try {
+            ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            readFully(fileHeader, 0);
+            if (fileHeader.getInt() != BattleLogWriter.MAGIC) {
+                throw new IOException("not a battle log");
+            }
+            int version = fileHeader.getInt();
+            if (version != BattleLogWriter.VERSION) {
+                throw new IOException("unsupported battle log version " + version);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Scans a numeric column. Bit columns report 1 for true and 0 for false.
+     *
+     * @param column the column to scan, must not be dictionary-encoded
+     * @param consumer receives the value of every record in file order
+     * @return the number of records
+     * @throws IOException if the file cannot be read
+     */
+    public long scanValues(BattleLogColumn column, LongConsumer consumer) throws IOException {
+        if (column.isDictionary()) {
+            throw new IllegalArgumentException(column + " is a name column");
+        }
+        long records = 0;
+        long position = FILE_HEADER_SIZE;
+        while (position < channel.size()) {
+            int rows = readBatchHeader(position);
+            ColumnCursor cursor = readColumn(position, column);
+            switch (column.getEncoding()) {
+                case DELTA -> {
+                    long previous = 0;
+                    for (int i = 0; i < rows; i++) {
+                        previous += cursor.readSigned();
+                        consumer.accept(previous);
+                    }
+                }
+                case BITS -> {
+                    int current = 0;
+                    for (int i = 0; i < rows; i++) {
+                        if ((i & (Byte.SIZE - 1)) == 0) {
+                            current = cursor.readByte();
+                        }
+                        consumer.accept((current >>> (i & (Byte.SIZE - 1))) & 1);
+                    }
+                }
+                default -> {
+                    for (int i = 0; i < rows; i++) {
+                        consumer.accept(cursor.readSigned());
+                    }
+                }
+            }
+            records += rows;
+            position = nextBatch(position);
+        }
+        return records;
+    }
+
+    /**
+     * Scans a name column.
+     *
+     * @param column the column to scan, must be dictionary-encoded
+     * @param consumer receives the name of every record in file order
+     * @return the number of records
+     * @throws IOException if the file cannot be read
+     */
+    public long scanNames(BattleLogColumn column, Consumer<String> consumer) throws IOException {
+        if (!column.isDictionary()) {
+            throw new IllegalArgumentException(column + " is not a name column");
+        }
+        List<String> dictionary = new ArrayList<>();
+        long records = 0;
+        long position = FILE_HEADER_SIZE;
+        while (position < channel.size()) {
+            int rows = readBatchHeader(position);
+            ColumnCursor cursor = readColumn(position, column);
+            long added = cursor.readUnsigned();
+            for (long i = 0; i < added; i++) {
+                dictionary.add(cursor.readString());
+            }
+            for (int i = 0; i < rows; i++) {
+                long id = cursor.readUnsigned();
+                if (id >= dictionary.size()) {
+                    throw new IOException("unknown name ID " + id);
+                }
+                consumer.accept(dictionary.get((int) id));
+            }
+            records += rows;
+            position = nextBatch(position);
+        }
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int readBatchHeader(long position) throws IOException {
+        header.clear();
+        readFully(header, position);
+        return header.getInt(0);
+    }
+
+    private ColumnCursor readColumn(long batchPosition, BattleLogColumn column) throws IOException {
+        long offset = batchPosition + BATCH_HEADER_SIZE;
+        for (int i = 0; i < column.ordinal(); i++) {
+            offset += columnLength(i);
+        }
+        int length = columnLength(column.ordinal());
+        if (columnBuffer.capacity() < length) {
+            columnBuffer = ByteBuffer.allocate(length);
+        }
+        columnBuffer.clear().limit(length);
+        readFully(columnBuffer, offset);
+        return new ColumnCursor(columnBuffer);
+    }
+
+    private long nextBatch(long batchPosition) {
+        long position = batchPosition + BATCH_HEADER_SIZE;
+        for (int i = 0; i < BattleLogWriter.COLUMN_COUNT; i++) {
+            position += columnLength(i);
+        }
+        return position;
+    }
+
+    private int columnLength(int columnIndex) {
+        return header.getInt((1 + columnIndex) * Integer.BYTES);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new EOFException("truncated battle log");
+            }
+            offset += read;
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Aggregates a single column of a battle log: name columns are counted per name,
+     * numeric columns are summed.
+     *
+     * @param args the battle log file and the column name, e.g. {@code battles.mcbl DAMAGE}
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: java " + BattleLogReader.class.getName() + " <battle_log> <column>");
+            return;
+        }
+        BattleLogColumn column;
+        try {
+            column = BattleLogColumn.valueOf(args[1].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error, unknown column " + args[1] + ".");
+            return;
+        }
+
+        try (BattleLogReader reader = new BattleLogReader(Paths.get(args[0]))) {
+            if (column.isDictionary()) {
+                Map<String, Long> counts = new LinkedHashMap<>();
+                long records = reader.scanNames(column, name -> counts.merge(name, 1L, Long::sum));
+                System.out.printf("%d records\n", records);
+                counts.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                        .forEach(entry -> System.out.printf("%s: %d\n", entry.getKey(), entry.getValue()));
+            } else {
+                long[] sum = new long[1];
+                long[] min = {Long.MAX_VALUE};
+                long[] max = {Long.MIN_VALUE};
+                long records = reader.scanValues(column, value -> {
+                    sum[0] += value;
+                    min[0] = Math.min(min[0], value);
+                    max[0] = Math.max(max[0], value);
+                });
+                System.out.printf("%d records\n", records);
+                if (records > 0) {
+                    System.out.printf("sum %d, min %d, max %d, mean %.3f\n",
+                            sum[0], min[0], max[0], (double) sum[0] / records);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error, cannot read battle log: " + e.getMessage());
+        }
+    }
+}
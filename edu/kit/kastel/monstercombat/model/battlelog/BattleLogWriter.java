@@ -0,0 +1,250 @@
+package edu.kit.kastel.monstercombat.model.battlelog;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.kastel.monstercombat.model.EffectListener;
+import edu.kit.kastel.monstercombat.model.EffectRecord;
+
+/**
+ * Exports the effects executed by the engine to a columnar battle log file.
+ * Records are collected in primitive arrays and written in batches. Every batch starts with its row count
+ * and the byte length of every column, so a {@link BattleLogReader} can skip the columns it does not need.
+ * Names are dictionary-encoded with one file-wide dictionary per column, where each batch carries only the
+ * names it uses for the first time. Battle IDs and rounds are delta-encoded and all integers are varints.
+ * @author ursxd
+ */
+public final class BattleLogWriter implements EffectListener, AutoCloseable {
+    static final int MAGIC = 0x4D43424C;
+    static final int VERSION = 1;
+    static final int COLUMN_COUNT = BattleLogColumn.values().length;
+
+    /**
+     * The number of records written per batch if no other size is given.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+
+    private final DataOutputStream output;
+    private final int batchSize;
+    private final ColumnBuffer[] columns;
+
+    private final long[] battles;
+    private final int[] rounds;
+    private final int[] actors;
+    private final int[] actions;
+    private final int[] effects;
+    private final boolean[] hits;
+    private final boolean[] criticals;
+    private final int[] damages;
+    private final int[] targetHps;
+    private final Dictionary actorNames;
+    private final Dictionary actionNames;
+    private final Dictionary effectNames;
+
+    private int rows;
+    private long writtenRows;
+    private boolean closed;
+
+    /**
+     * Creates a battle log file, replacing an existing one, with the default batch size.
+     *
+     * @param file the battle log file
+     * @throws IOException if the file cannot be created
+     */
+    public BattleLogWriter(Path file) throws IOException {
+        this(file, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a battle log file, replacing an existing one.
+     *
+     * @param file the battle log file
+     * @param batchSize the number of records per batch
+     * @throws IOException if the file cannot be created
+     */
+    public BattleLogWriter(Path file, int batchSize) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        this.batchSize = batchSize;
+        this.columns = new ColumnBuffer[COLUMN_COUNT];
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            columns[i] = new ColumnBuffer();
+        }
+        this.battles = new long[batchSize];
+        this.rounds = new int[batchSize];
+        this.actors = new int[batchSize];
+        this.actions = new int[batchSize];
+        this.effects = new int[batchSize];
+        this.hits = new boolean[batchSize];
+        this.criticals = new boolean[batchSize];
+        this.damages = new int[batchSize];
+        this.targetHps = new int[batchSize];
+        this.actorNames = new Dictionary();
+        this.actionNames = new Dictionary();
+        this.effectNames = new Dictionary();
+
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.flush();
+    }
+
+    @Override
+    public synchronized void effectExecuted(EffectRecord record) {
+        if (closed) {
+            return;
+        }
+        battles[rows] = record.getBattleId();
+        rounds[rows] = record.getRound();
+        actors[rows] = actorNames.idOf(record.getActor());
+        actions[rows] = actionNames.idOf(record.getAction());
+        effects[rows] = effectNames.idOf(record.getEffectType());
+        hits[rows] = record.isHit();
+        criticals[rows] = record.isCritical();
+        damages[rows] = record.getDamage();
+        targetHps[rows] = record.getTargetHpAfter();
+        if (++rows == batchSize) {
+            try {
+                writeBatch();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of records written to the file so far, excluding the current batch.
+     *
+     * @return the number of written records
+     */
+    public synchronized long getWrittenRows() {
+        return writtenRows;
+    }
+
+    /**
+     * Writes the current batch, even if it is not full.
+     *
+     * @throws IOException if the batch cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        if (rows > 0) {
+            writeBatch();
+        }
+        output.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            output.close();
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        for (ColumnBuffer column : columns) {
+            column.clear();
+        }
+        encodeDeltas(columns[BattleLogColumn.BATTLE.ordinal()], battles);
+        encodeDeltas(columns[BattleLogColumn.ROUND.ordinal()], rounds);
+        actorNames.encode(columns[BattleLogColumn.ACTOR.ordinal()], actors, rows);
+        actionNames.encode(columns[BattleLogColumn.ACTION.ordinal()], actions, rows);
+        effectNames.encode(columns[BattleLogColumn.EFFECT.ordinal()], effects, rows);
+        encodeBits(columns[BattleLogColumn.HIT.ordinal()], hits);
+        encodeBits(columns[BattleLogColumn.CRITICAL.ordinal()], criticals);
+        encodeValues(columns[BattleLogColumn.DAMAGE.ordinal()], damages);
+        encodeValues(columns[BattleLogColumn.TARGET_HP.ordinal()], targetHps);
+
+        output.writeInt(rows);
+        for (ColumnBuffer column : columns) {
+            output.writeInt(column.length());
+        }
+        for (ColumnBuffer column : columns) {
+            output.write(column.array(), 0, column.length());
+        }
+        output.flush();
+        writtenRows += rows;
+        rows = 0;
+    }
+
+    private void encodeDeltas(ColumnBuffer column, long[] values) {
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            column.writeSigned(values[i] - previous);
+            previous = values[i];
+        }
+    }
+
+    private void encodeDeltas(ColumnBuffer column, int[] values) {
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            column.writeSigned(values[i] - previous);
+            previous = values[i];
+        }
+    }
+
+    private void encodeValues(ColumnBuffer column, int[] values) {
+        for (int i = 0; i < rows; i++) {
+            column.writeSigned(values[i]);
+        }
+    }
+
+    private void encodeBits(ColumnBuffer column, boolean[] values) {
+        int current = 0;
+        for (int i = 0; i < rows; i++) {
+            if (values[i]) {
+                current |= 1 << (i & (Byte.SIZE - 1));
+            }
+            if ((i & (Byte.SIZE - 1)) == Byte.SIZE - 1) {
+                column.writeByte(current);
+                current = 0;
+            }
+        }
+        if ((rows & (Byte.SIZE - 1)) != 0) {
+            column.writeByte(current);
+        }
+    }
+
+    /**
+     * File-wide dictionary of one name column.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> added = new ArrayList<>();
+
+        int idOf(String name) {
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = ids.size();
+                ids.put(name, id);
+                added.add(name);
+            }
+            return id;
+        }
+
+        void encode(ColumnBuffer column, int[] values, int rows) {
+            column.writeUnsigned(added.size());
+            for (String name : added) {
+                column.writeString(name);
+            }
+            added.clear();
+            for (int i = 0; i < rows; i++) {
+                column.writeUnsigned(values[i]);
+            }
+        }
+    }
+}
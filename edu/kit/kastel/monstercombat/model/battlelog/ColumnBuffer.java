@@ -0,0 +1,67 @@
+package edu.kit.kastel.monstercombat.model.battlelog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that encodes the values of one column.
+ * @author ursxd
+ */
+final class ColumnBuffer {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION = 0x80;
+
+    private byte[] bytes;
+    private int length;
+
+    ColumnBuffer() {
+        this.bytes = new byte[INITIAL_CAPACITY];
+    }
+
+    void clear() {
+        length = 0;
+    }
+
+    int length() {
+        return length;
+    }
+
+    byte[] array() {
+        return bytes;
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[length++] = (byte) value;
+    }
+
+    void writeUnsigned(long value) {
+        ensureCapacity(Long.BYTES + 2);
+        long remaining = value;
+        while ((remaining & ~VARINT_PAYLOAD_MASK) != 0) {
+            bytes[length++] = (byte) ((remaining & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION);
+            remaining >>>= VARINT_PAYLOAD_BITS;
+        }
+        bytes[length++] = (byte) remaining;
+    }
+
+    void writeSigned(long value) {
+        writeUnsigned((value << 1) ^ (value >> (Long.SIZE - 1)));
+    }
+
+    void writeString(String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsigned(encoded.length);
+        ensureCapacity(encoded.length);
+        System.arraycopy(encoded, 0, bytes, length, encoded.length);
+        length += encoded.length;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (length + additional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+        }
+    }
+}
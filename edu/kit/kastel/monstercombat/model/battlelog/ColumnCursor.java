@@ -0,0 +1,58 @@
+package edu.kit.kastel.monstercombat.model.battlelog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes the values of one column from a buffer.
+ * @author ursxd
+ */
+final class ColumnCursor {
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION = 0x80;
+
+    private final ByteBuffer buffer;
+
+    ColumnCursor(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    int readByte() throws IOException {
+        if (!buffer.hasRemaining()) {
+            throw new IOException("truncated column");
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    long readUnsigned() throws IOException {
+        long value = 0;
+        int shift = 0;
+        int next;
+        do {
+            if (shift >= Long.SIZE) {
+                throw new IOException("malformed varint");
+            }
+            next = readByte();
+            value |= (long) (next & VARINT_PAYLOAD_MASK) << shift;
+            shift += VARINT_PAYLOAD_BITS;
+        } while ((next & VARINT_CONTINUATION) != 0);
+        return value;
+    }
+
+    long readSigned() throws IOException {
+        long value = readUnsigned();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    String readString() throws IOException {
+        long length = readUnsigned();
+        if (length > buffer.remaining()) {
+            throw new IOException("truncated column");
+        }
+        byte[] encoded = new byte[(int) length];
+        buffer.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+}
@@ -2,8 +2,6 @@ package edu.kit.kastel.monstercombat.model.effect;
 
 import edu.kit.kastel.monstercombat.model.Monster;
 
-import java.util.Queue;
-
 public abstract class Effect {
 
     public enum TargetType {
@@ -31,10 +29,41 @@ public abstract class Effect {
         return targetType == TargetType.USER ? user : selectedTarget;
     }
 
+    /**
+     * Gets the name of this effect type as used in the configuration.
+     *
+     * @return the type name, e.g. {@code damage}
+     */
+    public abstract String getTypeName();
+
+    /**
+     * Passes this effect to the matching method of the visitor.
+     *
+     * @param visitor the visitor
+     * @param <R> the result type of the visitor
+     * @return the result of the visit
+     */
+    public abstract <R> R accept(EffectVisitor<R> visitor);
+
     public abstract boolean execute(Monster user, Monster target, boolean isFirstEffect);
 
-    public void addToQueue(Queue<Effect> queue) {
-        queue.add(this);
+    /**
+     * Lets this effect replace itself by other effects when an {@link EffectStream} reaches it.
+     *
+     * @param stream the stream that reached this effect
+     * @return true if the stream must not execute this effect itself
+     */
+    boolean enter(EffectStream stream) {
+        return false;
+    }
+
+    /**
+     * Checks whether this effect changes the user even if the selected target is defeated.
+     *
+     * @return true if the effect acts on the user
+     */
+    boolean affectsUser() {
+        return false;
     }
 
     public int getValue() {
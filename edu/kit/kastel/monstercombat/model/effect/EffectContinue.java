@@ -8,6 +8,16 @@ public class EffectContinue extends Effect {
         super(hitRate, TargetType.USER);
     }
 
+    @Override
+    public String getTypeName() {
+        return "continue";
+    }
+
+    @Override
+    public <R> R accept(EffectVisitor<R> visitor) {
+        return visitor.visitContinue(this);
+    }
+
     @Override
     public boolean execute(Monster user, Monster target, boolean isFirstEffect) {
         return true; // Just continue to the next effect
@@ -2,6 +2,7 @@ package edu.kit.kastel.monstercombat.model.effect;
 
 import edu.kit.kastel.monstercombat.model.Competition;
 import edu.kit.kastel.monstercombat.model.Element;
+import edu.kit.kastel.monstercombat.model.FixedPoint;
 import edu.kit.kastel.monstercombat.model.Monster;
 import edu.kit.kastel.monstercombat.model.Stat;
 
@@ -15,20 +16,21 @@ public class EffectDamage extends Effect {
 
     private final DamageType type;
     private final int value;
-    private final boolean isFireDamage;
 
     public EffectDamage(TargetType targetType, DamageType type, int value, int hitRate) {
         super(hitRate, targetType);
         this.type = type;
         this.value = value;
-        this.isFireDamage = false;
     }
 
-    public EffectDamage(Monster target) {
-        super(100, TargetType.TARGET);
-        this.type = DamageType.RELATIVE;
-        this.value = 10;
-        this.isFireDamage = true;
+    @Override
+    public String getTypeName() {
+        return "damage";
+    }
+
+    @Override
+    public <R> R accept(EffectVisitor<R> visitor) {
+        return visitor.visitDamage(this);
     }
 
     @Override
@@ -42,6 +44,10 @@ public class EffectDamage extends Effect {
 
         if (type == DamageType.ABSOLUTE) {
             damage = value;
+        } else if (Competition.getInstance().isFixedPoint()) {
+            damage = type == DamageType.RELATIVE
+                    ? FixedPoint.percentOf(target.getMaxHp(), value)
+                    : calculateFixedBaseDamage(user, target, value);
         } else if (type == DamageType.RELATIVE) {
             damage = (int) Math.ceil(target.getMaxHp() * value / 100.0);
         } else {
@@ -52,9 +58,7 @@ public class EffectDamage extends Effect {
         int actualDamage = target.takeDamage(damage);
 
         // Output message
-        if (isFireDamage) {
-            System.out.printf("%s takes %d damage from burning!\n", target.getDisplayName(), actualDamage);
-        } else if (target.isProtectedAgainstDamage() && target != user) {
+        if (target.isProtectedAgainstDamage() && target != user) {
             System.out.printf("%s is protected and takes no damage!\n", target.getDisplayName());
         } else {
             System.out.printf("%s takes %d damage!\n", target.getDisplayName(), actualDamage);
@@ -64,14 +68,12 @@ public class EffectDamage extends Effect {
 
     private int calculateBaseDamage(Monster user, Monster target, int baseDamage) {
         // Element effectiveness factor
-        double elementFactor = 1.0;
         Element actionElement = Competition.getInstance().getCurrentAction().getElement();
+        double elementFactor = actionElement.getEffectivenessMultiplier(target.getElement());
 
-        if (actionElement.isVeryEffectiveAgainst(target.getElement())) {
-            elementFactor = 2.0;
+        if (elementFactor > 1.0) {
             System.out.println("It is very effective!");
-        } else if (actionElement.isNotVeryEffectiveAgainst(target.getElement())) {
-            elementFactor = 0.5;
+        } else if (elementFactor < 1.0) {
             System.out.println("It is not very effective...");
         }
 
@@ -83,6 +85,7 @@ public class EffectDamage extends Effect {
         double critChance = 10 * (user.getEffectiveStat(Stat.SPD) / target.getEffectiveStat(Stat.SPD));
         if (Competition.getInstance().getRandom().nextDouble() * 100 <= critChance) {
             criticalFactor = 2.0;
+            Competition.getInstance().reportCriticalHit();
             System.out.println("Critical hit!");
         }
 
@@ -103,6 +106,33 @@ public class EffectDamage extends Effect {
         return (int) Math.ceil(totalDamage);
     }
 
+    /**
+     * Calculates base damage like {@link #calculateBaseDamage(Monster, Monster, int)}, with the same messages and
+     * random draws, but in fixed-point arithmetic.
+     */
+    private int calculateFixedBaseDamage(Monster user, Monster target, int baseDamage) {
+        Competition competition = Competition.getInstance();
+        Element actionElement = competition.getCurrentAction().getElement();
+        long elementFactor = actionElement.getFixedEffectivenessMultiplier(target.getElement());
+
+        if (elementFactor > FixedPoint.ONE) {
+            System.out.println("It is very effective!");
+        } else if (elementFactor < FixedPoint.ONE) {
+            System.out.println("It is not very effective...");
+        }
+
+        boolean critical = FixedPoint.isWithinChance(competition.getRandom().nextDouble(),
+                FixedPoint.criticalChance(user, target));
+        if (critical) {
+            competition.reportCriticalHit();
+            System.out.println("Critical hit!");
+        }
+
+        return FixedPoint.baseDamage(baseDamage, elementFactor, user.getFixedEffectiveStat(Stat.ATK),
+                target.getFixedEffectiveStat(Stat.DEF), critical, actionElement == user.getElement(),
+                competition.getRandom().nextDouble());
+    }
+
     public DamageType getType() {
         return type;
     }
@@ -11,18 +11,28 @@ public class EffectDefense extends Effect {
     }
 
     private final ProtectionType target;
-    private final int duration;
+    private final int minDuration;
+    private final int maxDuration;
 
     public EffectDefense(ProtectionType target, int duration, int hitRate) {
-        super(hitRate, TargetType.USER);
-        this.target = target;
-        this.duration = duration;
+        this(target, duration, duration, hitRate);
     }
 
     public EffectDefense(ProtectionType target, int minDuration, int maxDuration, int hitRate) {
         super(hitRate, TargetType.USER);
         this.target = target;
-        this.duration = Competition.getInstance().getRandomInt(minDuration, maxDuration);
+        this.minDuration = minDuration;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public String getTypeName() {
+        return "protectStat";
+    }
+
+    @Override
+    public <R> R accept(EffectVisitor<R> visitor) {
+        return visitor.visitDefense(this);
     }
 
     @Override
@@ -35,6 +45,9 @@ public class EffectDefense extends Effect {
         boolean protectHealth = this.target == ProtectionType.HEALTH;
         boolean protectStatChanges = this.target == ProtectionType.STATS;
 
+        // A random duration is drawn anew on every use of the action
+        int duration = minDuration == maxDuration
+                ? minDuration : Competition.getInstance().getRandomInt(minDuration, maxDuration);
         user.setProtection(protectHealth, protectStatChanges, duration);
 
         // Output message
@@ -46,4 +59,21 @@ public class EffectDefense extends Effect {
         }
         return true;
     }
+
+    public ProtectionType getProtectionType() {
+        return target;
+    }
+
+    @Override
+    boolean affectsUser() {
+        return true;
+    }
+
+    public int getMinDuration() {
+        return minDuration;
+    }
+
+    public int getMaxDuration() {
+        return maxDuration;
+    }
 }
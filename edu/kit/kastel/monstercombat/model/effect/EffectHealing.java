@@ -1,5 +1,7 @@
 package edu.kit.kastel.monstercombat.model.effect;
 
+import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.FixedPoint;
 import edu.kit.kastel.monstercombat.model.Monster;
 
 public class EffectHealing extends Effect {
@@ -19,27 +21,66 @@ public class EffectHealing extends Effect {
         this.value = value;
     }
 
+    @Override
+    public String getTypeName() {
+        return "heal";
+    }
+
+    @Override
+    public <R> R accept(EffectVisitor<R> visitor) {
+        return visitor.visitHealing(this);
+    }
+
     @Override
     public boolean execute(Monster user, Monster target, boolean isFirstEffect) {
         if (target.isDefeated()) {
             return false;
         }
 
-        int healAmount;
-        if (healingType == HealingType.ABSOLUTE) {
-            healAmount = value;
-        } else if (healingType == HealingType.RELATIVE) {
+        int amount = Competition.getInstance().isFixedPoint()
+                ? calculateFixedHealAmount(target.getMaxHp())
+                : calculateHealAmount(target.getMaxHp());
+        int actualHeal = target.heal(amount);
+        System.out.printf("%s gains back %d health!\n", target.getDisplayName(), actualHeal);
+        return true;
+    }
+
+    /**
+     * Calculates how much this effect heals, before it is limited by the missing health of the target.
+     *
+     * @param maxHp the maximum health of the target
+     * @return the amount of health to heal
+     */
+    public int calculateHealAmount(int maxHp) {
+        return switch (healingType) {
+            case ABSOLUTE -> value;
             // Relative healing is a percentage of max HP
-            healAmount = (int) Math.ceil(target.getMaxHp() * value / 100.0);
-        } else if (healingType == HealingType.BASE) {
+            case RELATIVE -> (int) Math.ceil(maxHp * value / 100.0);
             // Similar to damage but simplified for healing
-            healAmount = (int) Math.ceil(value * (1.0 / 3.0));
-        } else {
-            return false;
-        }
+            case BASE -> (int) Math.ceil(value * (1.0 / 3.0));
+        };
+    }
 
-        int actualHeal = target.heal(healAmount);
-        System.out.printf("%s gains back %d health!\n", target.getDisplayName(), actualHeal);
-        return true;
+    /**
+     * Calculates how much this effect heals in the fixed-point mode, see {@link #calculateHealAmount(int)}.
+     *
+     * @param maxHp the maximum health of the target
+     * @return the amount of health to heal
+     */
+    public int calculateFixedHealAmount(int maxHp) {
+        return switch (healingType) {
+            case ABSOLUTE -> value;
+            case RELATIVE -> FixedPoint.percentOf(maxHp, value);
+            case BASE -> FixedPoint.baseHealing(value);
+        };
+    }
+
+    public HealingType getHealingType() {
+        return healingType;
+    }
+
+    @Override
+    public int getValue() {
+        return value;
     }
 }
@@ -0,0 +1,162 @@
+package edu.kit.kastel.monstercombat.model.effect;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rewrites the effects of an action into a form that an {@link EffectStream} plays with less work, but with the
+ * same effects in the same order, the same random draws and therefore the same output:
+ * <ul>
+ *     <li>repeats with a fixed count of zero or less, or without effects, are removed, since they are skipped,</li>
+ *     <li>a repeat with a fixed count of one inside another repeat is replaced by its effects, if both stop
+ *     early in the same situations,</li>
+ *     <li>a repeat with a fixed count whose only effect is another repeat with a fixed count becomes one repeat
+ *     with the product of both counts.</li>
+ * </ul>
+ * Effects themselves are never merged or removed, because every executed effect draws whether it hits and
+ * prints what it did. A repeat whose count is drawn at random is kept for its draw.
+ * Nothing that is shared is changed, so optimized actions may still share effects with other actions.
+ * @author ursxd
+ */
+public final class EffectOptimizer {
+    private static final EffectVisitor<EffectRepeat> AS_REPEAT = new RepeatCheck();
+    private static final long MAX_COUNT = Integer.MAX_VALUE / 2;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private EffectOptimizer() {
+        // Utility class
+    }
+
+    /**
+     * Optimizes the effects of an action.
+     *
+     * @param effects the effects of the action
+     * @return the optimized effects, or the given list if nothing could be optimized
+     */
+    public static List<Effect> optimize(List<Effect> effects) {
+        List<Effect> optimized = new ArrayList<>(effects.size());
+        boolean changed = false;
+        for (Effect effect : effects) {
+            Effect result = optimize(effect);
+            changed |= result != effect;
+            // The effects of the action itself never stop early, so skipped repeats can always be removed
+            if (result != null) {
+                optimized.add(result);
+            }
+        }
+        return changed ? List.copyOf(optimized) : effects;
+    }
+
+    /**
+     * Optimizes a single effect.
+     *
+     * @return the optimized effect, the given effect if nothing could be optimized, or null if it is skipped
+     */
+    private static Effect optimize(Effect effect) {
+        EffectRepeat repeat = effect.accept(AS_REPEAT);
+        return repeat == null ? effect : optimize(repeat);
+    }
+
+    /**
+     * Optimizes a repeat. An optimized repeat stops early in the same situations as the given one.
+     */
+    private static EffectRepeat optimize(EffectRepeat repeat) {
+        boolean affectsUser = repeat.affectsUser();
+        List<Effect> body = optimizeBody(repeat.getRepeatedEffects(), affectsUser, true);
+        if (affectsUser(body) != affectsUser) {
+            // Only skipped repeats acted on the user, but they still keep this repeat going
+            body = optimizeBody(repeat.getRepeatedEffects(), affectsUser, false);
+        }
+
+        boolean fixed = isFixed(repeat);
+        if (fixed && (repeat.getMinCount() <= 0 || body.isEmpty())) {
+            return null;
+        }
+        EffectRepeat only = body.size() == 1 ? body.get(0).accept(AS_REPEAT) : null;
+        if (fixed && only != null && isFixed(only)
+                && (long) repeat.getMinCount() * only.getMinCount() <= MAX_COUNT) {
+            return new EffectRepeat(repeat.getMinCount() * only.getMinCount(), only.getRepeatedEffects());
+        }
+        if (body.equals(repeat.getRepeatedEffects())) {
+            return repeat;
+        }
+        return new EffectRepeat(repeat.getMinCount(), repeat.getMaxCount(), List.copyOf(body));
+    }
+
+    private static List<Effect> optimizeBody(List<Effect> effects, boolean affectsUser, boolean removeSkipped) {
+        List<Effect> body = new ArrayList<>(effects.size());
+        for (Effect effect : effects) {
+            Effect result = optimize(effect);
+            if (result == null) {
+                if (!removeSkipped) {
+                    body.add(effect);
+                }
+                continue;
+            }
+            EffectRepeat nested = result.accept(AS_REPEAT);
+            if (nested != null && isFixed(nested) && nested.getMinCount() == 1
+                    && nested.affectsUser() == affectsUser) {
+                // A single pass stops early exactly when the enclosing repeat stops early
+                body.addAll(nested.getRepeatedEffects());
+            } else {
+                body.add(result);
+            }
+        }
+        return body;
+    }
+
+    private static boolean affectsUser(List<Effect> effects) {
+        for (Effect effect : effects) {
+            if (effect.affectsUser()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isFixed(EffectRepeat repeat) {
+        return repeat.getMinCount() == repeat.getMaxCount();
+    }
+
+    /**
+     * Gets the repeat an effect is, or null for all other effects.
+     */
+    private static final class RepeatCheck implements EffectVisitor<EffectRepeat> {
+        @Override
+        public EffectRepeat visitDamage(EffectDamage effect) {
+            return null;
+        }
+
+        @Override
+        public EffectRepeat visitHealing(EffectHealing effect) {
+            return null;
+        }
+
+        @Override
+        public EffectRepeat visitStatChange(EffectStatChange effect) {
+            return null;
+        }
+
+        @Override
+        public EffectRepeat visitStatusCondition(EffectStatusCondition effect) {
+            return null;
+        }
+
+        @Override
+        public EffectRepeat visitDefense(EffectDefense effect) {
+            return null;
+        }
+
+        @Override
+        public EffectRepeat visitContinue(EffectContinue effect) {
+            return null;
+        }
+
+        @Override
+        public EffectRepeat visitRepeat(EffectRepeat effect) {
+            return effect;
+        }
+    }
+}
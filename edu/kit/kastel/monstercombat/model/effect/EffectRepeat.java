@@ -4,40 +4,62 @@ import edu.kit.kastel.monstercombat.model.Competition;
 import edu.kit.kastel.monstercombat.model.Monster;
 
 import java.util.List;
-import java.util.Queue;
 
 public class EffectRepeat extends Effect {
-    private final int count;
+    private final int minCount;
+    private final int maxCount;
     private final List<Effect> repeatedEffects;
 
     public EffectRepeat(int count, List<Effect> repeatedEffects) {
-        super(100, TargetType.USER);
-        this.count = count;
-        this.repeatedEffects = repeatedEffects;
+        this(count, count, repeatedEffects);
     }
 
     public EffectRepeat(int minCount, int maxCount, List<Effect> repeatedEffects) {
         super(100, TargetType.USER);
-        this.count = Competition.getInstance().getRandomInt(minCount, maxCount);
+        this.minCount = minCount;
+        this.maxCount = maxCount;
         this.repeatedEffects = repeatedEffects;
     }
 
+    @Override
+    public String getTypeName() {
+        return "repeat";
+    }
+
+    @Override
+    public <R> R accept(EffectVisitor<R> visitor) {
+        return visitor.visitRepeat(this);
+    }
+
     @Override
     public boolean execute(Monster user, Monster target, boolean isFirstEffect) {
         return true;
     }
 
     @Override
-    public void addToQueue(Queue<Effect> queue) {
-        int repeatCount = getCount();
+    boolean enter(EffectStream stream) {
+        // A random count is drawn anew on every use of the action
+        int count = minCount == maxCount ? minCount : Competition.getInstance().getRandomInt(minCount, maxCount);
+        stream.repeat(this, count);
+        return true;
+    }
 
-        for (int i = 0; i < repeatCount; i++) {
-            queue.addAll(getRepeatedEffects());
+    @Override
+    boolean affectsUser() {
+        for (Effect effect : repeatedEffects) {
+            if (effect.affectsUser()) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    public int getMinCount() {
+        return minCount;
     }
 
-    public int getCount() {
-        return count;
+    public int getMaxCount() {
+        return maxCount;
     }
 
     public List<Effect> getRepeatedEffects() {
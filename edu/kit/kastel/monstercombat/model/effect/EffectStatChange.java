@@ -13,6 +13,16 @@ public class EffectStatChange extends Effect {
         this.statChanges = statChanges;
     }
 
+    @Override
+    public String getTypeName() {
+        return "inflictStatChange";
+    }
+
+    @Override
+    public <R> R accept(EffectVisitor<R> visitor) {
+        return visitor.visitStatChange(this);
+    }
+
     @Override
     public boolean execute(Monster user, Monster target, boolean isFirstEffect) {
         if (target.isDefeated()) {
@@ -37,4 +47,12 @@ public class EffectStatChange extends Effect {
 
         return true;
     }
+
+    public Stat getStat() {
+        return stat;
+    }
+
+    public int getStatChanges() {
+        return statChanges;
+    }
 }
@@ -11,6 +11,16 @@ public class EffectStatusCondition extends Effect {
         this.condition = statusCondition;
     }
 
+    @Override
+    public String getTypeName() {
+        return "inflictStatusCondition";
+    }
+
+    @Override
+    public <R> R accept(EffectVisitor<R> visitor) {
+        return visitor.visitStatusCondition(this);
+    }
+
     @Override
     public boolean execute(Monster user, Monster target, boolean isFirstEffect) {
         if (target.isDefeated()) {
@@ -23,11 +33,12 @@ public class EffectStatusCondition extends Effect {
         }
 
         // Inflict the condition
-        target.setStatusCondition(condition);
-
-        // Output message
-        System.out.printf("%s%s\n", target.getDisplayName(), condition.getInflictedMessage());
+        condition.start(target);
 
         return true;
     }
+
+    public StatusCondition getCondition() {
+        return condition;
+    }
 }
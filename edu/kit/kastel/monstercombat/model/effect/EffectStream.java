@@ -0,0 +1,98 @@
+package edu.kit.kastel.monstercombat.model.effect;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import edu.kit.kastel.monstercombat.model.Monster;
+
+/**
+ * Yields the effects of one use of an action in the order they are executed.
+ * Repeats are not expanded beforehand: the count of a repeat is drawn when the stream reaches it, and its
+ * effects are yielded from the list of the repeat as often as needed, so no copies are made.
+ * A repeat stops early once the selected target is defeated, because its remaining effects could not change
+ * anything anymore. Only repeats that protect the living user are played to the end.
+ * @author ursxd
+ */
+public final class EffectStream {
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final Monster user;
+    private final Monster target;
+
+    /**
+     * Constructs a stream over the effects of an action.
+     *
+     * @param effects the effects of the action
+     * @param user the monster using the action
+     * @param target the selected target, or null
+     */
+    public EffectStream(List<Effect> effects, Monster user, Monster target) {
+        this.user = user;
+        this.target = target;
+        push(effects, 1, null);
+    }
+
+    /**
+     * Gets the next effect to execute.
+     *
+     * @return the next effect, or null if the action has no more effects
+     */
+    public Effect next() {
+        while (!frames.isEmpty()) {
+            Frame frame = frames.peek();
+            if (frame.repeat != null && isFutile(frame.repeat)) {
+                frames.pop();
+                continue;
+            }
+            if (frame.index == frame.effects.size()) {
+                frame.index = 0;
+                frame.remaining--;
+                if (frame.remaining == 0) {
+                    frames.pop();
+                }
+                continue;
+            }
+            Effect effect = frame.effects.get(frame.index++);
+            if (!effect.enter(this)) {
+                return effect;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Continues with the effects of a repeat before the rest of the current effects.
+     *
+     * @param repeat the repeat that was reached
+     * @param count the number of repetitions for this use
+     */
+    void repeat(EffectRepeat repeat, int count) {
+        push(repeat.getRepeatedEffects(), count, repeat);
+    }
+
+    private void push(List<Effect> effects, int count, EffectRepeat repeat) {
+        if (count > 0 && !effects.isEmpty()) {
+            frames.push(new Frame(effects, count, repeat));
+        }
+    }
+
+    private boolean isFutile(EffectRepeat repeat) {
+        return target != null && target.isDefeated() && (user.isDefeated() || !repeat.affectsUser());
+    }
+
+    /**
+     * The position in one list of effects and the number of repetitions left, including the current one.
+     */
+    private static final class Frame {
+        private final List<Effect> effects;
+        private final EffectRepeat repeat;
+        private int index;
+        private int remaining;
+
+        Frame(List<Effect> effects, int count, EffectRepeat repeat) {
+            this.effects = effects;
+            this.remaining = count;
+            this.repeat = repeat;
+        }
+    }
+}
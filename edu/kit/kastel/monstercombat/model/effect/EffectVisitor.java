@@ -0,0 +1,24 @@
+package edu.kit.kastel.monstercombat.model.effect;
+
+/**
+ * Visitor over the effect types, so analyses can handle every type without type checks.
+ *
+ * @param <R> the result type of a visit
+ * @author ursxd
+ */
+public interface EffectVisitor<R> {
+
+    R visitDamage(EffectDamage effect);
+
+    R visitHealing(EffectHealing effect);
+
+    R visitStatChange(EffectStatChange effect);
+
+    R visitStatusCondition(EffectStatusCondition effect);
+
+    R visitDefense(EffectDefense effect);
+
+    R visitContinue(EffectContinue effect);
+
+    R visitRepeat(EffectRepeat effect);
+}
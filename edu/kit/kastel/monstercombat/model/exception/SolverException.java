@@ -0,0 +1,21 @@
+package edu.kit.kastel.monstercombat.model.exception;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown when a battle cannot be solved exactly, e.g. because its state space exceeds the memory cap.
+ * @author ursxd
+ */
+public class SolverException extends GameException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new solver exception with the specified message.
+     *
+     * @param message the detail message
+     */
+    public SolverException(String message) {
+        super(message);
+    }
+}
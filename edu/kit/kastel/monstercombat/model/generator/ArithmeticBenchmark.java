@@ -0,0 +1,246 @@
+package edu.kit.kastel.monstercombat.model.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.ConfigurationLoader;
+import edu.kit.kastel.monstercombat.model.Element;
+import edu.kit.kastel.monstercombat.model.FixedPoint;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.Stat;
+import edu.kit.kastel.monstercombat.model.StatusCondition;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+import edu.kit.kastel.monstercombat.model.policy.Policy;
+import edu.kit.kastel.monstercombat.model.policy.RandomPolicy;
+
+/**
+ * Compares the double and the fixed-point arithmetic of competitions, see {@link FixedPoint}.
+ * The same games of a generated configuration are played in both modes in turns, and the arithmetic alone,
+ * i.e. effective stats, hit and critical chances and base damage, is computed for the same monsters and random
+ * draws without playing. The fastest turn of each counts. The checksum of the fixed-point damage only depends
+ * on the seed, so it must be the same on every machine.
+ * Battles print like real ones, so the caller should discard the standard output while the benchmark runs.
+ * @author ursxd
+ */
+public final class ArithmeticBenchmark {
+    private static final int ACTIONS = 20;
+    private static final int MONSTERS = 40;
+    private static final int BATTLE_MONSTERS = 4;
+    private static final int MAX_ROUNDS = 1000;
+    private static final int GAMES = 2000;
+    private static final int TURNS = 5;
+    private static final int DRAWS = 1 << 12;
+    private static final int PASSES = 40;
+    private static final int MAX_STAGE = 5;
+    private static final int MAX_BASE_DAMAGE = 100;
+    private static final int HIT_RATE = 90;
+    private static final double CRITICAL_CHANCE = 10.0;
+    private static final double SAME_ELEMENT_FACTOR = 1.5;
+    private static final double MIN_RANDOM_FACTOR = 0.85;
+    private static final double RANDOM_FACTOR_RANGE = 0.15;
+    private static final double NORMALIZATION_FACTOR = 1.0 / 3.0;
+    private static final double PERCENT = 100.0;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final StatusCondition[] CONDITIONS = {StatusCondition.NONE, StatusCondition.WET,
+        StatusCondition.BURN, StatusCondition.QUICKSAND};
+
+    private final long seed;
+    private final Policy policy = new RandomPolicy();
+
+    /**
+     * Constructs a new benchmark.
+     *
+     * @param seed the seed for the generated configuration, the battles and the random draws
+     */
+    public ArithmeticBenchmark(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Runs the benchmark and writes the speed of both modes, the speedups and the fixed-point checksum.
+     *
+     * @param output the output for the results
+     * @throws IOException if the output or the temporary configuration file cannot be written
+     * @throws ConfigurationException if the generated configuration cannot be loaded
+     */
+    public void run(Writer output) throws IOException, ConfigurationException {
+        String configuration = new ConfigurationGenerator().actions(ACTIONS).monsters(MONSTERS).generate(seed);
+        Path file = Files.createTempFile("monstercombat", ".txt");
+        List<Monster> monsters;
+        try {
+            Files.writeString(file, configuration);
+            ConfigurationLoader loader = new ConfigurationLoader();
+            loader.loadConfiguration(file.toString());
+            monsters = loader.getMonsters();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        long[] doubleBattles = {0, Long.MAX_VALUE};
+        long[] fixedBattles = {0, Long.MAX_VALUE};
+        try {
+            for (int turn = 0; turn < TURNS; turn++) {
+                keepFastest(doubleBattles, battle(monsters, false));
+                keepFastest(fixedBattles, battle(monsters, true));
+            }
+        } finally {
+            Competition.bindToCurrentThread(null);
+        }
+
+        Competition competition = participants(monsters);
+        double[] draws = new double[DRAWS];
+        int[] baseDamages = new int[DRAWS];
+        Random random = new Random(seed);
+        for (int i = 0; i < DRAWS; i++) {
+            draws[i] = random.nextDouble();
+            baseDamages[i] = 1 + random.nextInt(MAX_BASE_DAMAGE);
+        }
+        long[] doubleArithmetic = {0, Long.MAX_VALUE};
+        long[] fixedArithmetic = {0, Long.MAX_VALUE};
+        for (int turn = 0; turn < TURNS; turn++) {
+            keepFastest(doubleArithmetic, arithmetic(competition, draws, baseDamages, false));
+            keepFastest(fixedArithmetic, arithmetic(competition, draws, baseDamages, true));
+        }
+
+        output.write(formatBattles("double", doubleBattles));
+        output.write(formatBattles("fixed-point", fixedBattles));
+        output.write(String.format(Locale.ROOT, "battle speedup: %.2fx\n",
+                (double) doubleBattles[1] / fixedBattles[1]));
+        int participants = competition.getMonsters().size();
+        long hits = (long) PASSES * participants * participants;
+        output.write(formatArithmetic("double", hits, doubleArithmetic));
+        output.write(formatArithmetic("fixed-point", hits, fixedArithmetic));
+        output.write(String.format(Locale.ROOT, "arithmetic speedup: %.2fx\n",
+                (double) doubleArithmetic[1] / fixedArithmetic[1]));
+        output.write(String.format(Locale.ROOT, "fixed-point checksum: %016x\n", fixedArithmetic[0]));
+        output.flush();
+    }
+
+    /**
+     * Plays the same games for every turn and mode.
+     *
+     * @return the number of played rounds and the nanoseconds they took
+     */
+    private long[] battle(List<Monster> monsters, boolean fixedPoint) {
+        Random random = new Random(seed);
+        long rounds = 0;
+        long start = System.nanoTime();
+        for (int game = 0; game < GAMES; game++) {
+            Competition competition = Competition.create(seed + game, false);
+            competition.setFixedPoint(fixedPoint);
+            Competition.bindToCurrentThread(competition);
+            for (int i = 0; i < BATTLE_MONSTERS; i++) {
+                competition.addMonster(monsters.get(random.nextInt(monsters.size())));
+            }
+            for (Monster participant : competition.getMonsters()) {
+                competition.setPolicy(participant, policy);
+            }
+            competition.setMaxRounds(MAX_ROUNDS);
+            competition.start();
+            rounds += competition.getCurrentRound();
+        }
+        return new long[] {rounds, System.nanoTime() - start};
+    }
+
+    /**
+     * Adds all monsters to a competition that is not played, with random stat changes and conditions.
+     */
+    private Competition participants(List<Monster> monsters) {
+        Random random = new Random(seed);
+        Competition competition = Competition.create(seed, false);
+        for (Monster monster : monsters) {
+            competition.addMonster(monster);
+        }
+        for (Monster participant : competition.getMonsters()) {
+            for (Stat stat : Stat.values()) {
+                if (stat != Stat.HP) {
+                    participant.setStatChange(stat, random.nextInt(2 * MAX_STAGE + 1) - MAX_STAGE);
+                }
+            }
+            participant.setStatusCondition(CONDITIONS[random.nextInt(CONDITIONS.length)]);
+        }
+        return competition;
+    }
+
+    /**
+     * Computes the damage of every participant against every other one for the same draws in every turn.
+     *
+     * @return the sum of the damage as a checksum, and the nanoseconds it took
+     */
+    private static long[] arithmetic(Competition competition, double[] draws, int[] baseDamages, boolean fixedPoint) {
+        List<Monster> participants = competition.getMonsters();
+        long checksum = 0;
+        int draw = 0;
+        long start = System.nanoTime();
+        for (int pass = 0; pass < PASSES; pass++) {
+            for (Monster user : participants) {
+                for (Monster target : participants) {
+                    int next = draw;
+                    draw = (draw + 2) & (DRAWS - 1);
+                    int damage = fixedPoint
+                            ? fixedDamage(user, target, baseDamages[next], draws[next], draws[next + 1])
+                            : doubleDamage(user, target, baseDamages[next], draws[next], draws[next + 1]);
+                    checksum = checksum * 31 + damage;
+                }
+            }
+        }
+        return new long[] {checksum, System.nanoTime() - start};
+    }
+
+    /**
+     * Computes a hit with base damage like the battle manager and the damage effect in the double mode.
+     */
+    private static int doubleDamage(Monster user, Monster target, int baseDamage, double hitDraw,
+                                    double randomDraw) {
+        double hitChance = HIT_RATE * (user.getEffectiveStat(Stat.PRC) / target.getEffectiveStat(Stat.AGL));
+        if (hitDraw * PERCENT > hitChance) {
+            return 0;
+        }
+        Element element = user.getElement();
+        double elementFactor = element.getEffectivenessMultiplier(target.getElement());
+        double statFactor = user.getEffectiveStat(Stat.ATK) / target.getEffectiveStat(Stat.DEF);
+        double criticalChance = CRITICAL_CHANCE * (user.getEffectiveStat(Stat.SPD) / target.getEffectiveStat(Stat.SPD));
+        double criticalFactor = randomDraw * PERCENT <= criticalChance ? 2.0 : 1.0;
+        double randomFactor = MIN_RANDOM_FACTOR + randomDraw * RANDOM_FACTOR_RANGE;
+        return (int) Math.ceil(baseDamage * elementFactor * statFactor * criticalFactor * SAME_ELEMENT_FACTOR
+                * randomFactor * NORMALIZATION_FACTOR);
+    }
+
+    /**
+     * Computes the same hit in the fixed-point mode.
+     */
+    private static int fixedDamage(Monster user, Monster target, int baseDamage, double hitDraw, double randomDraw) {
+        if (!FixedPoint.isWithinChance(hitDraw, FixedPoint.hitChance(HIT_RATE, user, target))) {
+            return 0;
+        }
+        Element element = user.getElement();
+        boolean critical = FixedPoint.isWithinChance(randomDraw, FixedPoint.criticalChance(user, target));
+        return FixedPoint.baseDamage(baseDamage, element.getFixedEffectivenessMultiplier(target.getElement()),
+                user.getFixedEffectiveStat(Stat.ATK), target.getFixedEffectiveStat(Stat.DEF), critical,
+                true, randomDraw);
+    }
+
+    private static void keepFastest(long[] best, long[] result) {
+        if (result[1] < best[1]) {
+            best[0] = result[0];
+            best[1] = result[1];
+        }
+    }
+
+    private static String formatBattles(String mode, long[] result) {
+        return String.format(Locale.ROOT, "%s battles: %d rounds in %.1f ms, %.0f rounds/s\n", mode, result[0],
+                result[1] / NANOS_PER_MILLI, result[0] * NANOS_PER_SECOND / result[1]);
+    }
+
+    private static String formatArithmetic(String mode, long hits, long[] result) {
+        return String.format(Locale.ROOT, "%s arithmetic: %d hits in %.1f ms, %.1f ns per hit\n", mode, hits,
+                result[1] / NANOS_PER_MILLI, (double) result[1] / hits);
+    }
+}
@@ -0,0 +1,297 @@
+package edu.kit.kastel.monstercombat.model.generator;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates random but valid configurations in the grammar of {@code Configuration.txt},
+ * e.g. to find out how loading and battling scale with the size of the configuration.
+ * The same settings and seed always produce the same configuration.
+ * @author ursxd
+ */
+public final class ConfigurationGenerator {
+    private static final String INDENT = "    ";
+    private static final String[] ELEMENTS = {"NORMAL", "WATER", "FIRE", "EARTH"};
+    private static final String[] STATS = {"ATK", "DEF", "SPD", "PRC", "AGL"};
+    private static final String[] CONDITIONS = {"WET", "BURN", "QUICKSAND", "SLEEP"};
+    private static final int MIN_HIT_RATE = 50;
+    private static final int MAX_HIT_RATE = 100;
+    private static final int MAX_STAGES = 3;
+    private static final int MIN_HP = 50;
+    private static final int MAX_HP = 200;
+    private static final int MIN_STAT = 10;
+    private static final int MAX_STAT = 60;
+    private static final int MAX_BASE_VALUE = 100;
+    private static final int MAX_RELATIVE_VALUE = 50;
+    private static final int MAX_ABSOLUTE_VALUE = 30;
+    private static final int MAX_PROTECTION = 3;
+
+    /**
+     * The kinds of effects the generator chooses from, named as in the configuration.
+     */
+    public enum EffectKind {
+        /** Damage against the target. */
+        DAMAGE("damage"),
+        /** Healing of the user. */
+        HEAL("heal"),
+        /** A stat change of the target. */
+        STAT_CHANGE("inflictStatChange"),
+        /** A status condition of the target. */
+        STATUS_CONDITION("inflictStatusCondition"),
+        /** Protection of the user. */
+        PROTECT("protectStat"),
+        /** An effect that does nothing. */
+        CONTINUE("continue");
+
+        private final String representation;
+
+        EffectKind(String representation) {
+            this.representation = representation;
+        }
+
+        @Override
+        public String toString() {
+            return representation;
+        }
+    }
+
+    private final Map<EffectKind, Integer> effectWeights = new EnumMap<>(EffectKind.class);
+    private int actions = 10;
+    private int monsters = 10;
+    private int minEffects = 1;
+    private int maxEffects = 3;
+    private int actionsPerMonster = 4;
+    private double repeatShare;
+    private int repeatDepth = 1;
+    private int minRepeatCount = 2;
+    private int maxRepeatCount = 2;
+    private double duplicateShare;
+
+    /**
+     * Constructs a generator with the default settings: 10 actions with one to three effects, 10 monsters
+     * with four actions each, no repeats, no duplicate monster names and mostly damage effects.
+     */
+    public ConfigurationGenerator() {
+        effectWeights.put(EffectKind.DAMAGE, 4);
+        effectWeights.put(EffectKind.HEAL, 1);
+        effectWeights.put(EffectKind.STAT_CHANGE, 1);
+        effectWeights.put(EffectKind.STATUS_CONDITION, 1);
+        effectWeights.put(EffectKind.PROTECT, 1);
+        effectWeights.put(EffectKind.CONTINUE, 0);
+    }
+
+    /**
+     * Sets the number of actions.
+     *
+     * @param actions the number of actions, at least 1
+     * @return this generator
+     */
+    public ConfigurationGenerator actions(int actions) {
+        if (actions < 1) {
+            throw new IllegalArgumentException("A configuration needs at least one action");
+        }
+        this.actions = actions;
+        return this;
+    }
+
+    /**
+     * Sets the number of monster lines.
+     *
+     * @param monsters the number of monsters
+     * @return this generator
+     */
+    public ConfigurationGenerator monsters(int monsters) {
+        this.monsters = Math.max(0, monsters);
+        return this;
+    }
+
+    /**
+     * Sets how many effects an action or the body of a repeat has.
+     *
+     * @param min the minimum number of effects, at least 1
+     * @param max the maximum number of effects
+     * @return this generator
+     */
+    public ConfigurationGenerator effectsPerAction(int min, int max) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("Invalid number of effects");
+        }
+        this.minEffects = min;
+        this.maxEffects = max;
+        return this;
+    }
+
+    /**
+     * Sets how many actions every monster knows, as far as there are enough actions.
+     *
+     * @param actionsPerMonster the number of actions per monster, at least 1
+     * @return this generator
+     */
+    public ConfigurationGenerator actionsPerMonster(int actionsPerMonster) {
+        if (actionsPerMonster < 1) {
+            throw new IllegalArgumentException("A monster needs at least one action");
+        }
+        this.actionsPerMonster = actionsPerMonster;
+        return this;
+    }
+
+    /**
+     * Sets the relative weight with which an effect kind is chosen.
+     *
+     * @param kind the effect kind
+     * @param weight the weight, 0 to never choose the kind
+     * @return this generator
+     */
+    public ConfigurationGenerator effectWeight(EffectKind kind, int weight) {
+        effectWeights.put(kind, Math.max(0, weight));
+        return this;
+    }
+
+    /**
+     * Sets which share of the actions contains repeats and how they are nested.
+     * Every level of nesting multiplies the number of executed effects by the repeat count.
+     *
+     * @param share the share of actions with a repeat, from 0 to 1
+     * @param depth the number of nested repeats in such an action, at least 1
+     * @param minCount the minimum repeat count
+     * @param maxCount the maximum repeat count; if larger than the minimum, the count is drawn at random
+     *                 by every other repeat and fixed by the rest
+     * @return this generator
+     */
+    public ConfigurationGenerator repeats(double share, int depth, int minCount, int maxCount) {
+        if (depth < 1 || minCount < 1 || maxCount < minCount) {
+            throw new IllegalArgumentException("Invalid repeat settings");
+        }
+        this.repeatShare = share;
+        this.repeatDepth = depth;
+        this.minRepeatCount = minCount;
+        this.maxRepeatCount = maxCount;
+        return this;
+    }
+
+    /**
+     * Sets which share of the monsters reuses the name of an earlier monster,
+     * so adding them all to a competition numbers them as duplicates.
+     *
+     * @param share the share of monsters with a duplicate name, from 0 to 1
+     * @return this generator
+     */
+    public ConfigurationGenerator duplicateShare(double share) {
+        this.duplicateShare = share;
+        return this;
+    }
+
+    /**
+     * Generates a configuration.
+     *
+     * @param seed the seed for all random choices
+     * @return the configuration text
+     */
+    public String generate(long seed) {
+        if (effectWeights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalStateException("At least one effect kind needs a positive weight");
+        }
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < actions; i++) {
+            builder.append("action Action").append(i).append(' ')
+                    .append(ELEMENTS[random.nextInt(ELEMENTS.length)]).append('\n');
+            int depth = random.nextDouble() < repeatShare ? repeatDepth : 0;
+            appendEffects(builder, random, 1, depth);
+            builder.append("end action\n\n");
+        }
+
+        List<String> names = new ArrayList<>(monsters);
+        for (int i = 0; i < monsters; i++) {
+            String name = !names.isEmpty() && random.nextDouble() < duplicateShare
+                    ? names.get(random.nextInt(names.size()))
+                    : "Monster" + i;
+            names.add(name);
+            builder.append("monster ").append(name).append(' ')
+                    .append(ELEMENTS[random.nextInt(ELEMENTS.length)]).append(' ')
+                    .append(between(random, MIN_HP, MAX_HP)).append(' ')
+                    .append(between(random, MIN_STAT, MAX_STAT)).append(' ')
+                    .append(between(random, MIN_STAT, MAX_STAT)).append(' ')
+                    .append(between(random, MIN_STAT, MAX_STAT));
+            // Consecutive actions starting at a random one, so no monster knows an action twice
+            int first = random.nextInt(actions);
+            for (int j = 0; j < Math.min(actionsPerMonster, actions); j++) {
+                builder.append(" Action").append((first + j) % actions);
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    private void appendEffects(StringBuilder builder, Random random, int level, int depth) {
+        int count = between(random, minEffects, maxEffects);
+        // The first effect decides whether the action hits, so it is never a repeat
+        for (int i = 0; i < count; i++) {
+            appendIndent(builder, level);
+            builder.append(createEffect(random)).append('\n');
+        }
+        if (depth > 0) {
+            appendIndent(builder, level);
+            if (maxRepeatCount > minRepeatCount && random.nextBoolean()) {
+                builder.append("repeat random ").append(minRepeatCount).append(' ').append(maxRepeatCount);
+            } else {
+                builder.append("repeat ").append(between(random, minRepeatCount, maxRepeatCount));
+            }
+            builder.append('\n');
+            appendEffects(builder, random, level + 1, depth - 1);
+            appendIndent(builder, level);
+            builder.append("end repeat\n");
+        }
+    }
+
+    private String createEffect(Random random) {
+        int hitRate = between(random, MIN_HIT_RATE, MAX_HIT_RATE);
+        return switch (chooseKind(random)) {
+            case DAMAGE -> "damage target " + createAmount(random) + " " + hitRate;
+            case HEAL -> "heal user " + createAmount(random) + " " + hitRate;
+            case STAT_CHANGE -> {
+                int stages = between(random, 1, MAX_STAGES) * (random.nextBoolean() ? 1 : -1);
+                yield "inflictStatChange target " + STATS[random.nextInt(STATS.length)] + " " + stages + " "
+                        + hitRate;
+            }
+            case STATUS_CONDITION -> "inflictStatusCondition target "
+                    + CONDITIONS[random.nextInt(CONDITIONS.length)] + " " + hitRate;
+            case PROTECT -> "protectStat " + (random.nextBoolean() ? "health" : "stats")
+                    + (random.nextBoolean() ? " random 1 " + MAX_PROTECTION : " " + between(random, 1, MAX_PROTECTION))
+                    + " " + hitRate;
+            case CONTINUE -> "continue " + hitRate;
+        };
+    }
+
+    private static String createAmount(Random random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> "base " + between(random, 1, MAX_BASE_VALUE);
+            case 1 -> "rel " + between(random, 1, MAX_RELATIVE_VALUE);
+            default -> "abs " + between(random, 1, MAX_ABSOLUTE_VALUE);
+        };
+    }
+
+    private EffectKind chooseKind(Random random) {
+        int total = effectWeights.values().stream().mapToInt(Integer::intValue).sum();
+        int choice = random.nextInt(total);
+        for (Map.Entry<EffectKind, Integer> entry : effectWeights.entrySet()) {
+            choice -= entry.getValue();
+            if (choice < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private static void appendIndent(StringBuilder builder, int level) {
+        builder.append(INDENT.repeat(level));
+    }
+
+    private static int between(Random random, int min, int max) {
+        return min + random.nextInt(max - min + 1);
+    }
+}
@@ -0,0 +1,167 @@
+package edu.kit.kastel.monstercombat.model.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.ConfigurationLoader;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+import edu.kit.kastel.monstercombat.model.policy.Policy;
+import edu.kit.kastel.monstercombat.model.policy.RandomPolicy;
+
+/**
+ * Generates configurations of growing size and measures for each how long the {@link ConfigurationLoader}
+ * takes, how much heap the loaded configuration keeps, how long {@link Competition#addMonster(Monster)}
+ * takes for all of its monsters and how many rounds per second a battle between some of them plays.
+ * It also records how many effects the configuration has and how many of them were shared with an identical one.
+ * The results are written as CSV, one row per configuration.
+ * Battles print like real ones, so the caller should discard the standard output while a sweep runs.
+ * @author ursxd
+ */
+public final class LoadSweep {
+    /**
+     * The header line of the CSV output.
+     */
+    public static final String CSV_HEADER = "actions,monsters,duplicate_share,repeat_depth,repeat_count,config_bytes,"
+            + "load_ms,heap_bytes,add_monster_ns,battle_rounds,rounds_per_second,effects,shared_effects";
+    private static final int[] MONSTER_COUNTS = {100, 1000, 10000};
+    private static final double[] DUPLICATE_SHARES = {0.0, 0.5, 0.95};
+    private static final int[] REPEAT_DEPTHS = {0, 1, 3};
+    private static final int REPEAT_COUNT = 4;
+    private static final double REPEAT_SHARE = 0.5;
+    private static final int MONSTERS_PER_ACTION = 4;
+    private static final int MIN_ACTIONS = 10;
+    private static final int BATTLE_MONSTERS = 4;
+    private static final int MAX_ROUNDS = 1000;
+    private static final long BATTLE_NANOS = 200_000_000L;
+    private static final int COLLECTIONS = 5;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final long seed;
+    private final Policy policy = new RandomPolicy();
+
+    /**
+     * Constructs a new sweep.
+     *
+     * @param seed the seed for the generated configurations and battles
+     */
+    public LoadSweep(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Measures all combinations of configuration size, duplicate share and repeat depth.
+     *
+     * @param output the CSV output, flushed after every row
+     * @return the number of measured configurations
+     * @throws IOException if the output or a temporary configuration file cannot be written
+     * @throws ConfigurationException if a generated configuration cannot be loaded
+     */
+    public int run(Writer output) throws IOException, ConfigurationException {
+        output.write(CSV_HEADER + "\n");
+        output.flush();
+        int rows = 0;
+        for (int monsters : MONSTER_COUNTS) {
+            for (double duplicateShare : DUPLICATE_SHARES) {
+                for (int repeatDepth : REPEAT_DEPTHS) {
+                    ConfigurationGenerator generator = new ConfigurationGenerator()
+                            .actions(Math.max(MIN_ACTIONS, monsters / MONSTERS_PER_ACTION))
+                            .monsters(monsters)
+                            .duplicateShare(duplicateShare);
+                    if (repeatDepth > 0) {
+                        generator.repeats(REPEAT_SHARE, repeatDepth, REPEAT_COUNT, REPEAT_COUNT);
+                    }
+                    output.write(measure(generator, duplicateShare, repeatDepth) + "\n");
+                    output.flush();
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private String measure(ConfigurationGenerator generator, double duplicateShare, int repeatDepth)
+            throws IOException, ConfigurationException {
+        String configuration = generator.generate(seed);
+        Path file = Files.createTempFile("monstercombat", ".txt");
+        try {
+            Files.writeString(file, configuration);
+
+            long heapBefore = usedHeap();
+            long loadStart = System.nanoTime();
+            ConfigurationLoader loader = new ConfigurationLoader();
+            loader.loadConfiguration(file.toString());
+            long loadNanos = System.nanoTime() - loadStart;
+            long heapBytes = usedHeap() - heapBefore;
+            Reference.reachabilityFence(loader);
+
+            List<Monster> monsters = loader.getMonsters();
+            Competition competition = Competition.create(seed, false);
+            long addStart = System.nanoTime();
+            for (Monster monster : monsters) {
+                competition.addMonster(monster);
+            }
+            long addNanos = System.nanoTime() - addStart;
+
+            long[] battle = battle(monsters);
+            return String.format(Locale.ROOT, "%d,%d,%.2f,%d,%d,%d,%.3f,%d,%.1f,%d,%.1f,%d,%d", loader.getActionCount(),
+                    monsters.size(), duplicateShare, repeatDepth, repeatDepth > 0 ? REPEAT_COUNT : 0,
+                    configuration.length(), loadNanos / NANOS_PER_MILLI, heapBytes,
+                    monsters.isEmpty() ? 0.0 : (double) addNanos / monsters.size(), battle[0],
+                    battle[0] * NANOS_PER_SECOND / Math.max(1, battle[1]), loader.getEffectCount(),
+                    loader.getSharedEffectCount());
+        } finally {
+            Competition.bindToCurrentThread(null);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Plays battles between randomly drawn monsters until the time budget is used up.
+     *
+     * @return the number of played rounds and the nanoseconds they took
+     */
+    private long[] battle(List<Monster> monsters) {
+        if (monsters.size() < 2) {
+            return new long[] {0, 0};
+        }
+        Random random = new Random(seed);
+        long rounds = 0;
+        long start = System.nanoTime();
+        long elapsed = 0;
+        for (int game = 0; elapsed < BATTLE_NANOS; game++) {
+            Competition competition = Competition.create(seed + game, false);
+            Competition.bindToCurrentThread(competition);
+            for (int i = 0; i < Math.min(BATTLE_MONSTERS, monsters.size()); i++) {
+                competition.addMonster(monsters.get(random.nextInt(monsters.size())));
+            }
+            for (Monster participant : competition.getMonsters()) {
+                competition.setPolicy(participant, policy);
+            }
+            competition.setMaxRounds(MAX_ROUNDS);
+            competition.start();
+            rounds += competition.getCurrentRound();
+            elapsed = System.nanoTime() - start;
+        }
+        return new long[] {rounds, elapsed};
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        // A single collection may leave garbage of the previous configuration behind
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < COLLECTIONS; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,129 @@
+package edu.kit.kastel.monstercombat.model.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.ConfigurationLoader;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.effect.EffectOptimizer;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+import edu.kit.kastel.monstercombat.model.policy.Policy;
+import edu.kit.kastel.monstercombat.model.policy.RandomPolicy;
+
+/**
+ * Checks that the {@link EffectOptimizer} does not change battles: a configuration is loaded once with and once
+ * without optimized actions, and the same games are played with both. Every game must print the same transcript
+ * and leave the random generator in the same state.
+ * @author ursxd
+ */
+public final class OptimizationVerifier {
+    private static final int MIN_BATTLE_MONSTERS = 2;
+    private static final int MAX_BATTLE_MONSTERS = 4;
+    private static final int MAX_ROUNDS = 1000;
+
+    private final long seed;
+    private final int games;
+    private final Consumer<PrintStream> output;
+    private final Policy policy = new RandomPolicy();
+
+    /**
+     * Constructs a new verifier.
+     *
+     * @param seed the seed for choosing the monsters and for the battles
+     * @param games the number of games to play
+     * @param output binds the standard output of the current thread to a stream, or back to the default for null
+     */
+    public OptimizationVerifier(long seed, int games, Consumer<PrintStream> output) {
+        this.seed = seed;
+        this.games = games;
+        this.output = output;
+    }
+
+    /**
+     * Plays the games and writes whether all transcripts were identical.
+     *
+     * @param filePath the path to the configuration file
+     * @param report the output for the result
+     * @return true if all games were identical
+     * @throws IOException if the report cannot be written
+     * @throws ConfigurationException if the configuration cannot be loaded
+     */
+    public boolean verify(String filePath, Writer report) throws IOException, ConfigurationException {
+        ConfigurationLoader plain = new ConfigurationLoader();
+        plain.setOptimizing(false);
+        plain.loadConfiguration(filePath);
+        ConfigurationLoader optimized = new ConfigurationLoader();
+        optimized.loadConfiguration(filePath);
+        List<Monster> plainMonsters = plain.getMonsters();
+        List<Monster> optimizedMonsters = optimized.getMonsters();
+        if (plainMonsters.isEmpty()) {
+            report.write("Error, the configuration has no monsters.\n");
+            report.flush();
+            return false;
+        }
+
+        Random random = new Random(seed);
+        try {
+            for (int game = 0; game < games; game++) {
+                int[] chosen = new int[MIN_BATTLE_MONSTERS
+                        + random.nextInt(MAX_BATTLE_MONSTERS - MIN_BATTLE_MONSTERS + 1)];
+                for (int i = 0; i < chosen.length; i++) {
+                    chosen[i] = random.nextInt(plainMonsters.size());
+                }
+                String expected = play(plainMonsters, chosen, seed + game);
+                String actual = play(optimizedMonsters, chosen, seed + game);
+                if (!expected.equals(actual)) {
+                    report.write(String.format("Error, game %d differs after optimization: %s\n", game + 1,
+                            firstDifference(expected, actual)));
+                    report.flush();
+                    return false;
+                }
+            }
+        } finally {
+            Competition.bindToCurrentThread(null);
+        }
+        report.write(String.format("Verified %d games with %d optimized actions, all transcripts are identical.\n",
+                games, optimized.getOptimizedActionCount()));
+        report.flush();
+        return true;
+    }
+
+    private String play(List<Monster> monsters, int[] chosen, long gameSeed) {
+        ByteArrayOutputStream transcript = new ByteArrayOutputStream();
+        Competition competition = Competition.create(gameSeed, false);
+        Competition.bindToCurrentThread(competition);
+        output.accept(new PrintStream(transcript, true, StandardCharsets.UTF_8));
+        try {
+            for (int index : chosen) {
+                competition.addMonster(monsters.get(index));
+            }
+            for (Monster participant : competition.getMonsters()) {
+                competition.setPolicy(participant, policy);
+            }
+            competition.setMaxRounds(MAX_ROUNDS);
+            competition.start();
+        } finally {
+            output.accept(null);
+        }
+        // The next number shows whether both games drew the same numbers, even the last ones
+        return transcript.toString(StandardCharsets.UTF_8) + "random " + competition.getRandom().nextLong();
+    }
+
+    private static String firstDifference(String expected, String actual) {
+        String[] expectedLines = expected.split("\n", -1);
+        String[] actualLines = actual.split("\n", -1);
+        for (int i = 0; i < Math.min(expectedLines.length, actualLines.length); i++) {
+            if (!expectedLines[i].equals(actualLines[i])) {
+                return String.format("line %d is \"%s\" instead of \"%s\"", i + 1, actualLines[i], expectedLines[i]);
+            }
+        }
+        return String.format("%d lines instead of %d", actualLines.length, expectedLines.length);
+    }
+}
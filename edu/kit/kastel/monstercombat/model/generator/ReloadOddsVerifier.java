@@ -0,0 +1,149 @@
+package edu.kit.kastel.monstercombat.model.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Locale;
+
+import edu.kit.kastel.monstercombat.model.Action;
+import edu.kit.kastel.monstercombat.model.ConfigurationCache;
+import edu.kit.kastel.monstercombat.model.ConfigurationLoader;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+import edu.kit.kastel.monstercombat.model.odds.ActionOdds;
+import edu.kit.kastel.monstercombat.model.odds.OddsCalculator;
+
+/**
+ * Checks that odds are not stale after a configuration is reloaded: the odds of every action of every monster
+ * against every other monster are computed, the attack and defense of all monsters are changed while their
+ * health and actions stay the same, and after reloading, which keeps the unchanged actions, every odds must equal
+ * the ones of a separate load of the changed file.
+ * @author ursxd
+ */
+public final class ReloadOddsVerifier {
+    private static final String MONSTER_KEYWORD = "monster";
+    private static final int ATK_FIELD = 4;
+    private static final int DEF_FIELD = 5;
+    private static final int ATK_FACTOR = 3;
+    private static final int DEF_INCREASE = 7;
+    private static final long MODIFIED_LATER_MILLIS = 2000;
+
+    /**
+     * Loads, changes and reloads a copy of a configuration and writes whether any odds were stale.
+     *
+     * @param filePath the path to the configuration file, which is not changed
+     * @param report the output for the result
+     * @return true if no odds were stale
+     * @throws IOException if the copies cannot be written or the report fails
+     * @throws ConfigurationException if the configuration cannot be loaded
+     */
+    public boolean verify(String filePath, Writer report) throws IOException, ConfigurationException {
+        String original = Files.readString(Paths.get(filePath));
+        String changed = changeStats(original);
+        Path reloaded = Files.createTempFile("monstercombat", ".txt");
+        Path separate = Files.createTempFile("monstercombat", ".txt");
+        try {
+            Files.writeString(reloaded, original);
+            List<Monster> before = ConfigurationCache.load(reloaded.toString()).getMonsters();
+            if (before.size() < 2) {
+                report.write("Error, the configuration needs at least two monsters.\n");
+                report.flush();
+                return false;
+            }
+            // Fills the cache with the odds of the original monsters
+            compare(before, before);
+
+            FileTime modified = Files.getLastModifiedTime(reloaded);
+            Files.writeString(reloaded, changed);
+            Files.setLastModifiedTime(reloaded, FileTime.fromMillis(modified.toMillis() + MODIFIED_LATER_MILLIS));
+            ConfigurationCache.CachedConfiguration after = ConfigurationCache.load(reloaded.toString());
+
+            Files.writeString(separate, changed);
+            ConfigurationLoader loader = new ConfigurationLoader();
+            loader.loadConfiguration(separate.toString());
+
+            int[] result = compare(after.getMonsters(), loader.getMonsters());
+            if (result[1] > 0) {
+                report.write(String.format("Error, %d of %d odds are stale after reloading.\n", result[1],
+                        result[0]));
+            } else {
+                report.write(String.format(Locale.ROOT, "Checked %d odds after reloading with %d shared actions, "
+                        + "none are stale.\n", result[0], after.getSharedActionCount()));
+            }
+            report.flush();
+            return result[1] == 0;
+        } finally {
+            Files.deleteIfExists(reloaded);
+            Files.deleteIfExists(separate);
+        }
+    }
+
+    /**
+     * Computes the odds of every action of every monster against every other one for two lists of the same
+     * monsters.
+     *
+     * @return the number of compared odds and the number of them that differ
+     */
+    private static int[] compare(List<Monster> monsters, List<Monster> expectedMonsters) {
+        int compared = 0;
+        int different = 0;
+        for (int user = 0; user < monsters.size(); user++) {
+            for (int target = 0; target < monsters.size(); target++) {
+                if (user == target) {
+                    continue;
+                }
+                List<Action> actions = monsters.get(user).getActions();
+                List<Action> expectedActions = expectedMonsters.get(user).getActions();
+                for (int i = 0; i < actions.size(); i++) {
+                    ActionOdds odds = OddsCalculator.calculate(monsters.get(user), actions.get(i),
+                            monsters.get(target));
+                    ActionOdds expected = OddsCalculator.calculate(expectedMonsters.get(user),
+                            expectedActions.get(i), expectedMonsters.get(target));
+                    compared++;
+                    if (!isSame(odds, expected)) {
+                        different++;
+                    }
+                }
+            }
+        }
+        return new int[] {compared, different};
+    }
+
+    private static boolean isSame(ActionOdds odds, ActionOdds expected) {
+        return odds.getExpectedDamage() == expected.getExpectedDamage()
+                && odds.getKoProbability() == expected.getKoProbability()
+                && odds.getFailureProbability() == expected.getFailureProbability()
+                && odds.getMinDamage() == expected.getMinDamage() && odds.getMaxDamage() == expected.getMaxDamage();
+    }
+
+    /**
+     * Changes attack and defense of every monster, but neither the health nor the actions, so only the base
+     * stats tell the odds of the reloaded monsters from the original ones.
+     */
+    private static String changeStats(String configuration) {
+        StringBuilder changed = new StringBuilder(configuration.length());
+        for (String line : configuration.split("\n", -1)) {
+            String[] fields = line.trim().split("\\s+");
+            if (changed.length() > 0) {
+                changed.append('\n');
+            }
+            if (fields.length <= DEF_FIELD || !fields[0].equals(MONSTER_KEYWORD)) {
+                changed.append(line);
+                continue;
+            }
+            try {
+                fields[ATK_FIELD] = String.valueOf(Integer.parseInt(fields[ATK_FIELD]) * ATK_FACTOR);
+                fields[DEF_FIELD] = String.valueOf(Integer.parseInt(fields[DEF_FIELD]) + DEF_INCREASE);
+            } catch (NumberFormatException e) {
+                changed.append(line);
+                continue;
+            }
+            changed.append(String.join(" ", fields));
+        }
+        return changed.toString();
+    }
+}
@@ -0,0 +1,223 @@
+package edu.kit.kastel.monstercombat.model.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.ConfigurationLoader;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.Ruleset;
+import edu.kit.kastel.monstercombat.model.SpectatorFeed;
+import edu.kit.kastel.monstercombat.model.SpectatorListener;
+import edu.kit.kastel.monstercombat.model.SpectatorSubscription;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+import edu.kit.kastel.monstercombat.model.policy.Policy;
+import edu.kit.kastel.monstercombat.model.policy.RandomPolicy;
+
+/**
+ * Measures what spectators cost a battle: the same games are played once without and once with a
+ * {@link SpectatorFeed} that many spectators follow from a few threads of their own. Afterwards every spectator
+ * must know the final state of the last game, whether it read all events or had to skip some.
+ * Battles print like real ones, so the caller should discard the standard output while the benchmark runs.
+ * @author ursxd
+ */
+public final class SpectatorBenchmark {
+    private static final int MIN_BATTLE_MONSTERS = 2;
+    private static final int MAX_BATTLE_MONSTERS = 4;
+    private static final int MAX_ROUNDS = 1000;
+    private static final int CAPACITY = 1 << 12;
+    private static final int MAX_READERS = 4;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final long seed;
+    private final int games;
+    private final int spectators;
+    private final Policy policy = new RandomPolicy();
+
+    /**
+     * Constructs a new benchmark.
+     *
+     * @param seed the seed for choosing the monsters and for the battles
+     * @param games the number of games to play
+     * @param spectators the number of spectators
+     */
+    public SpectatorBenchmark(long seed, int games, int spectators) {
+        this.seed = seed;
+        this.games = games;
+        this.spectators = spectators;
+    }
+
+    /**
+     * Plays the games and writes how long they took and what the spectators read.
+     *
+     * @param filePath the path to the configuration file
+     * @param report the output for the results
+     * @return true if all spectators know the final state
+     * @throws IOException if the report cannot be written
+     * @throws ConfigurationException if the configuration cannot be loaded
+     */
+    public boolean run(String filePath, Writer report) throws IOException, ConfigurationException {
+        ConfigurationLoader loader = new ConfigurationLoader();
+        loader.loadConfiguration(filePath);
+        List<Monster> monsters = loader.getMonsters();
+        Ruleset ruleset = loader.getRuleset();
+        if (monsters.isEmpty()) {
+            report.write("Error, the configuration has no monsters.\n");
+            report.flush();
+            return false;
+        }
+
+        long alone;
+        long watched;
+        Competition last;
+        SpectatorFeed feed = new SpectatorFeed(CAPACITY, MAX_BATTLE_MONSTERS);
+        List<SpectatorSubscription> subscriptions = new ArrayList<>(spectators);
+        for (int i = 0; i < spectators; i++) {
+            subscriptions.add(feed.subscribe());
+        }
+        List<Reader> readers = new ArrayList<>();
+        int readerCount = Math.max(1, Math.min(MAX_READERS, Runtime.getRuntime().availableProcessors() - 1));
+        for (int i = 0; i < readerCount; i++) {
+            readers.add(new Reader(subscriptions.subList(i * spectators / readerCount,
+                    (i + 1) * spectators / readerCount)));
+        }
+
+        try {
+            // The first games warm up the battle code for both measured runs
+            play(monsters, ruleset, null);
+            long start = System.nanoTime();
+            play(monsters, ruleset, null);
+            alone = System.nanoTime() - start;
+
+            List<Thread> threads = new ArrayList<>();
+            for (Reader reader : readers) {
+                threads.add(Thread.ofPlatform().daemon().start(reader));
+            }
+            start = System.nanoTime();
+            last = play(monsters, ruleset, feed);
+            watched = System.nanoTime() - start;
+            for (Reader reader : readers) {
+                reader.done = true;
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.write("Error, interrupted while waiting for the spectators.\n");
+            report.flush();
+            return false;
+        } finally {
+            Competition.bindToCurrentThread(null);
+        }
+
+        long read = 0;
+        long resynchronizations = 0;
+        for (Reader reader : readers) {
+            read += reader.counter.read;
+            resynchronizations += reader.counter.resynchronizations;
+        }
+        int wrong = 0;
+        for (SpectatorSubscription subscription : subscriptions) {
+            if (!knowsFinalState(subscription, last)) {
+                wrong++;
+            }
+        }
+
+        report.write(String.format(Locale.ROOT, "Played %d games with %d events in %.1f ms alone and in %.1f ms "
+                        + "with %d spectators on %d threads.\n", games, feed.getPublished(), alone / NANOS_PER_MILLI,
+                watched / NANOS_PER_MILLI, spectators, readerCount));
+        report.write(String.format(Locale.ROOT, "Spectators read %d events and skipped ahead %d times.\n", read,
+                resynchronizations));
+        if (wrong > 0) {
+            report.write(String.format("Error, %d spectators do not know the final state.\n", wrong));
+        } else {
+            report.write("All spectators know the final state.\n");
+        }
+        report.flush();
+        return wrong == 0;
+    }
+
+    private Competition play(List<Monster> monsters, Ruleset ruleset, SpectatorFeed feed) {
+        Random random = new Random(seed);
+        Competition competition = null;
+        for (int game = 0; game < games; game++) {
+            competition = Competition.create(seed + game, false);
+            Competition.bindToCurrentThread(competition);
+            competition.setRuleset(ruleset);
+            int count = MIN_BATTLE_MONSTERS + random.nextInt(MAX_BATTLE_MONSTERS - MIN_BATTLE_MONSTERS + 1);
+            for (int i = 0; i < count; i++) {
+                competition.addMonster(monsters.get(random.nextInt(monsters.size())));
+            }
+            for (Monster participant : competition.getMonsters()) {
+                competition.setPolicy(participant, policy);
+            }
+            competition.setMaxRounds(MAX_ROUNDS);
+            competition.setSpectatorFeed(feed);
+            competition.start();
+        }
+        return competition;
+    }
+
+    private static boolean knowsFinalState(SpectatorSubscription subscription, Competition competition) {
+        List<Monster> participants = competition.getMonsters();
+        if (subscription.getParticipantCount() != participants.size() || !subscription.isDecided()) {
+            return false;
+        }
+        for (int i = 0; i < participants.size(); i++) {
+            Monster participant = participants.get(i);
+            if (subscription.getHealthBarCells(i) != participant.getHealthBarCells()
+                    || subscription.getStatusCondition(i) != participant.getStatusCondition()) {
+                return false;
+            }
+        }
+        Monster winner = competition.getWinner();
+        return subscription.getWinner() == (winner == null ? -1 : winner.getParticipantIndex());
+    }
+
+    /**
+     * Polls a share of the spectators until the games are over, and once more afterwards.
+     */
+    private static final class Reader implements Runnable {
+        private final List<SpectatorSubscription> subscriptions;
+        private final Counter counter = new Counter();
+        private volatile boolean done;
+
+        Reader(List<SpectatorSubscription> subscriptions) {
+            this.subscriptions = subscriptions;
+        }
+
+        @Override
+        public void run() {
+            boolean last = false;
+            while (!last) {
+                last = done;
+                int read = 0;
+                for (SpectatorSubscription subscription : subscriptions) {
+                    read += subscription.poll(counter);
+                }
+                counter.read += read;
+                if (read == 0) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts what the spectators of a reader were told.
+     */
+    private static final class Counter implements SpectatorListener {
+        private long read;
+        private long resynchronizations;
+
+        @Override
+        public void resynchronized(long missed) {
+            resynchronizations++;
+        }
+    }
+}
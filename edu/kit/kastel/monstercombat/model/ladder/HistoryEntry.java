@@ -0,0 +1,47 @@
+package edu.kit.kastel.monstercombat.model.ladder;
+
+import java.util.List;
+
+/**
+ * One competition in the history of a monster.
+ * @author ursxd
+ */
+public final class HistoryEntry {
+
+    /**
+     * Outcome of a competition for one participant.
+     */
+    public enum Outcome {
+        WIN,
+        LOSS,
+        DRAW
+    }
+
+    private final Outcome outcome;
+    private final List<String> opponents;
+    private final int rounds;
+    private final long seed;
+
+    HistoryEntry(Outcome outcome, List<String> opponents, int rounds, long seed) {
+        this.outcome = outcome;
+        this.opponents = List.copyOf(opponents);
+        this.rounds = rounds;
+        this.seed = seed;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public List<String> getOpponents() {
+        return opponents;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,35 @@
+package edu.kit.kastel.monstercombat.model.ladder;
+
+/**
+ * Position of a monster on the rating ladder.
+ * @author ursxd
+ */
+public final class LadderEntry {
+    private final String name;
+    private final double rating;
+    private final int games;
+    private final int wins;
+
+    LadderEntry(String name, double rating, int games, int wins) {
+        this.name = name;
+        this.rating = rating;
+        this.games = games;
+        this.wins = wins;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+}
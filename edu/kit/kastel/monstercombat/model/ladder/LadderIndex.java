@@ -0,0 +1,145 @@
+package edu.kit.kastel.monstercombat.model.ladder;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped table with the rating, game counts and latest log record of every monster, indexed by monster ID.
+ * The header stores how many log records are already reflected in the table, so that after a restart
+ * only records appended after the last update have to be replayed.
+ * @author ursxd
+ */
+class LadderIndex implements AutoCloseable {
+    private static final int MAGIC = 0x4D434C49;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int ENTRY_SIZE = 32;
+    private static final int APPLIED_RECORDS_OFFSET = 8;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int RATING_OFFSET = 0;
+    private static final int LAST_RECORD_OFFSET = 8;
+    private static final int GAMES_OFFSET = 16;
+    private static final int WINS_OFFSET = 20;
+    private static final int PRESENT_OFFSET = 24;
+
+    private final FileChannel channel;
+    private MappedByteBuffer map;
+    private int capacity;
+
+    /**
+     * Opens or creates an index.
+     *
+     * @param path the index file
+     * @throws IOException if the file cannot be opened or is not a ladder index
+     */
+    LadderIndex(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        boolean created = channel.size() == 0;
+        this.capacity = created ? INITIAL_CAPACITY : (int) ((channel.size() - HEADER_SIZE) / ENTRY_SIZE);
+        remap();
+        if (created) {
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            map.putLong(APPLIED_RECORDS_OFFSET, 0);
+        } else if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+            throw new IOException("unsupported ladder index " + path);
+        }
+    }
+
+    private void remap() throws IOException {
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * ENTRY_SIZE);
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    long getAppliedRecords() {
+        return map.getLong(APPLIED_RECORDS_OFFSET);
+    }
+
+    void setAppliedRecords(long appliedRecords) {
+        map.putLong(APPLIED_RECORDS_OFFSET, appliedRecords);
+    }
+
+    /**
+     * Makes sure the table has an entry for the given monster, initialising it if it is new.
+     *
+     * @param monsterId the monster ID
+     * @param initialRating the rating of a new monster
+     * @throws IOException if the table cannot be grown
+     */
+    void ensureEntry(int monsterId, double initialRating) throws IOException {
+        if (monsterId >= capacity) {
+            capacity = Math.max(capacity * 2, monsterId + 1);
+            remap();
+        }
+        int offset = offset(monsterId);
+        if (map.get(offset + PRESENT_OFFSET) == 0) {
+            map.putDouble(offset + RATING_OFFSET, initialRating);
+            map.putLong(offset + LAST_RECORD_OFFSET, -1);
+            map.putInt(offset + GAMES_OFFSET, 0);
+            map.putInt(offset + WINS_OFFSET, 0);
+            map.put(offset + PRESENT_OFFSET, (byte) 1);
+        }
+    }
+
+    boolean hasEntry(int monsterId) {
+        return monsterId < capacity && map.get(offset(monsterId) + PRESENT_OFFSET) != 0;
+    }
+
+    double getRating(int monsterId) {
+        return map.getDouble(offset(monsterId) + RATING_OFFSET);
+    }
+
+    long getLastRecord(int monsterId) {
+        return map.getLong(offset(monsterId) + LAST_RECORD_OFFSET);
+    }
+
+    int getGames(int monsterId) {
+        return map.getInt(offset(monsterId) + GAMES_OFFSET);
+    }
+
+    int getWins(int monsterId) {
+        return map.getInt(offset(monsterId) + WINS_OFFSET);
+    }
+
+    /**
+     * Applies the result of one participant to its entry.
+     *
+     * @param monsterId the monster ID
+     * @param rating the new rating
+     * @param record the number of the log record of this result
+     * @param won whether the monster won
+     */
+    void update(int monsterId, double rating, long record, boolean won) {
+        int offset = offset(monsterId);
+        map.putDouble(offset + RATING_OFFSET, rating);
+        map.putLong(offset + LAST_RECORD_OFFSET, record);
+        map.putInt(offset + GAMES_OFFSET, map.getInt(offset + GAMES_OFFSET) + 1);
+        if (won) {
+            map.putInt(offset + WINS_OFFSET, map.getInt(offset + WINS_OFFSET) + 1);
+        }
+    }
+
+    private static int offset(int monsterId) {
+        return HEADER_SIZE + monsterId * ENTRY_SIZE;
+    }
+
+    /**
+     * Writes the table to disk.
+     */
+    void force() {
+        map.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
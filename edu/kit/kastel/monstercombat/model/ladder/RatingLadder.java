@@ -0,0 +1,294 @@
+package edu.kit.kastel.monstercombat.model.ladder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import edu.kit.kastel.monstercombat.model.CompetitionResult;
+import edu.kit.kastel.monstercombat.model.ResultListener;
+
+/**
+ * Persistent Elo ladder over all decided competitions.
+ * Every result is appended to a {@link ResultLog}, and ratings are maintained incrementally in a
+ * memory-mapped {@link LadderIndex}, so queries never scan the log and a restart only replays
+ * results that were logged but not yet applied.
+ * The IDs of all rated monsters are kept sorted by rating in memory, so the top of the ladder is read
+ * without looking at the other monsters.
+ * Monster names are mapped to IDs by an append-only name file.
+ * @author ursxd
+ */
+public final class RatingLadder implements ResultListener, AutoCloseable {
+    private static final String LOG_FILE = "results.log";
+    private static final String INDEX_FILE = "ladder.idx";
+    private static final String NAMES_FILE = "monsters.txt";
+    private static final double INITIAL_RATING = 1500.0;
+    private static final double K_FACTOR = 32.0;
+    private static final double RATING_SCALE = 400.0;
+
+    private static RatingLadder instance;
+
+    private final ResultLog log;
+    private final LadderIndex index;
+    private final BufferedWriter namesWriter;
+    private final List<String> names;
+    private final Map<String, Integer> idsByName;
+    // Highest rating first; an ID is removed before its rating changes and added again afterwards
+    private final NavigableSet<Integer> ranking;
+
+    private RatingLadder(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path namesFile = directory.resolve(NAMES_FILE);
+        this.names = Files.exists(namesFile)
+                ? new ArrayList<>(Files.readAllLines(namesFile, StandardCharsets.UTF_8))
+                : new ArrayList<>();
+        this.idsByName = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            idsByName.put(names.get(i), i);
+        }
+        this.namesWriter = Files.newBufferedWriter(namesFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.log = new ResultLog(directory.resolve(LOG_FILE));
+        this.index = new LadderIndex(directory.resolve(INDEX_FILE));
+        this.ranking = new TreeSet<>(Comparator.comparingDouble((Integer id) -> index.getRating(id)).reversed()
+                .thenComparingInt(id -> id));
+        for (int id = 0; id < names.size(); id++) {
+            if (index.hasEntry(id)) {
+                ranking.add(id);
+            }
+        }
+        replayUnappliedRecords();
+    }
+
+    /**
+     * Opens the ladder stored in the given directory and makes it the ladder of this process.
+     *
+     * @param directory the directory of the ladder files, created if missing
+     * @throws IOException if the ladder cannot be opened
+     */
+    public static synchronized void initialize(Path directory) throws IOException {
+        instance = new RatingLadder(directory);
+    }
+
+    /**
+     * Gets the ladder of this process.
+     *
+     * @return the ladder, or null if no ladder was opened
+     */
+    public static synchronized RatingLadder getInstance() {
+        return instance;
+    }
+
+    @Override
+    public void competitionDecided(CompetitionResult result) {
+        try {
+            record(result);
+        } catch (IOException e) {
+            System.err.println("Error, cannot record result: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Appends a result to the log and updates the ratings of its participants.
+     *
+     * @param result the result of a decided competition
+     * @throws IOException if the result cannot be written
+     */
+    public synchronized void record(CompetitionResult result) throws IOException {
+        List<String> participants = result.getParticipants();
+        ResultLog.Record[] records = new ResultLog.Record[participants.size()];
+        long first = log.getRecordCount();
+
+        for (int i = 0; i < records.length; i++) {
+            ResultLog.Record record = new ResultLog.Record();
+            record.seed = result.getSeed();
+            record.firstRecord = first;
+            record.monsterId = getOrCreateId(participants.get(i));
+            record.rounds = result.getRounds();
+            record.participants = records.length;
+            if (result.getWinnerIndex() < 0) {
+                record.outcome = ResultLog.OUTCOME_DRAW;
+            } else {
+                record.outcome = i == result.getWinnerIndex() ? ResultLog.OUTCOME_WIN : ResultLog.OUTCOME_LOSS;
+            }
+            records[i] = record;
+        }
+        namesWriter.flush();
+
+        // Link each record to the previous one of the same monster, also within this competition
+        Map<Integer, Long> lastRecords = new HashMap<>();
+        for (int i = 0; i < records.length; i++) {
+            int id = records[i].monsterId;
+            ensureEntry(id);
+            records[i].previousRecord = lastRecords.getOrDefault(id, index.getLastRecord(id));
+            lastRecords.put(id, log.append(records[i]));
+        }
+
+        applyCompetition(first, records);
+        index.setAppliedRecords(log.getRecordCount());
+    }
+
+    private int getOrCreateId(String name) throws IOException {
+        Integer id = idsByName.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            idsByName.put(name, id);
+            namesWriter.write(name);
+            namesWriter.newLine();
+        }
+        return id;
+    }
+
+    private void ensureEntry(int id) throws IOException {
+        index.ensureEntry(id, INITIAL_RATING);
+        ranking.add(id);
+    }
+
+    private void replayUnappliedRecords() throws IOException {
+        long next = index.getAppliedRecords();
+        while (next < log.getRecordCount()) {
+            ResultLog.Record head = log.read(next);
+            int count = Math.max(1, (int) Math.min(head.participants, log.getRecordCount() - head.firstRecord));
+            ResultLog.Record[] records = new ResultLog.Record[count];
+            for (int i = 0; i < count; i++) {
+                records[i] = log.read(head.firstRecord + i);
+                ensureEntry(records[i].monsterId);
+            }
+            applyCompetition(head.firstRecord, records);
+            next = head.firstRecord + count;
+            index.setAppliedRecords(next);
+        }
+        index.force();
+    }
+
+    /**
+     * Updates the ratings with the pairwise Elo results of one competition.
+     * The winner beats every other participant; without a winner every pair draws.
+     * Entries that already reference a record of this competition are not applied twice.
+     */
+    private void applyCompetition(long first, ResultLog.Record[] records) {
+        Map<Integer, Double> ratings = new HashMap<>();
+        for (ResultLog.Record record : records) {
+            ratings.put(record.monsterId, index.getRating(record.monsterId));
+        }
+
+        double[] deltas = new double[records.length];
+        for (int i = 0; i < records.length; i++) {
+            for (int j = i + 1; j < records.length; j++) {
+                double score;
+                if (records[i].outcome == ResultLog.OUTCOME_WIN) {
+                    score = 1.0;
+                } else if (records[j].outcome == ResultLog.OUTCOME_WIN) {
+                    score = 0.0;
+                } else if (records[i].outcome == ResultLog.OUTCOME_DRAW) {
+                    score = 0.5;
+                } else {
+                    // Two losers tell nothing about each other
+                    continue;
+                }
+                double difference = ratings.get(records[j].monsterId) - ratings.get(records[i].monsterId);
+                double expected = 1.0 / (1.0 + Math.pow(10.0, difference / RATING_SCALE));
+                double change = K_FACTOR * (score - expected);
+                deltas[i] += change;
+                deltas[j] -= change;
+            }
+        }
+
+        Map<Integer, Double> newRatings = new HashMap<>(ratings);
+        for (int i = 0; i < records.length; i++) {
+            newRatings.merge(records[i].monsterId, deltas[i], Double::sum);
+        }
+        for (int i = 0; i < records.length; i++) {
+            int id = records[i].monsterId;
+            long number = first + i;
+            if (index.getLastRecord(id) < number) {
+                ranking.remove(id);
+                index.update(id, newRatings.get(id), number, records[i].outcome == ResultLog.OUTCOME_WIN);
+                ranking.add(id);
+            }
+        }
+    }
+
+    /**
+     * Gets the monsters with the highest ratings.
+     *
+     * @param count the maximum number of entries
+     * @return the entries, highest rating first
+     */
+    public synchronized List<LadderEntry> getTop(int count) {
+        List<LadderEntry> result = new ArrayList<>();
+        for (int id : ranking) {
+            if (result.size() >= count) {
+                break;
+            }
+            result.add(new LadderEntry(names.get(id), index.getRating(id), index.getGames(id), index.getWins(id)));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the entry of a monster.
+     *
+     * @param name the name of the monster
+     * @return the entry, or null if the monster has no results
+     */
+    public synchronized LadderEntry getEntry(String name) {
+        Integer id = idsByName.get(name);
+        if (id == null || !index.hasEntry(id)) {
+            return null;
+        }
+        return new LadderEntry(name, index.getRating(id), index.getGames(id), index.getWins(id));
+    }
+
+    /**
+     * Gets the latest competitions of a monster.
+     *
+     * @param name the name of the monster
+     * @param limit the maximum number of entries
+     * @return the entries, latest first
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized List<HistoryEntry> getHistory(String name, int limit) throws IOException {
+        List<HistoryEntry> history = new ArrayList<>();
+        Integer id = idsByName.get(name);
+        if (id == null || !index.hasEntry(id)) {
+            return history;
+        }
+
+        long number = index.getLastRecord(id);
+        while (number >= 0 && history.size() < limit) {
+            ResultLog.Record record = log.read(number);
+            List<String> opponents = new ArrayList<>();
+            for (long other = record.firstRecord; other < record.firstRecord + record.participants; other++) {
+                if (other != number) {
+                    opponents.add(names.get(log.read(other).monsterId));
+                }
+            }
+            HistoryEntry.Outcome outcome = switch (record.outcome) {
+                case ResultLog.OUTCOME_WIN -> HistoryEntry.Outcome.WIN;
+                case ResultLog.OUTCOME_LOSS -> HistoryEntry.Outcome.LOSS;
+                default -> HistoryEntry.Outcome.DRAW;
+            };
+            history.add(new HistoryEntry(outcome, opponents, record.rounds, record.seed));
+            number = record.previousRecord;
+        }
+        return history;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        namesWriter.close();
+        index.close();
+        log.close();
+    }
+}
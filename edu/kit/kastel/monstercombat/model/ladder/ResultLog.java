@@ -0,0 +1,122 @@
+package edu.kit.kastel.monstercombat.model.ladder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only log of competition results with fixed-size records, one per participant.
+ * Records of one competition are appended together, and every record links to the previous record
+ * of the same monster, so the history of a monster is read without scanning the log.
+ * @author ursxd
+ */
+class ResultLog implements AutoCloseable {
+    /**
+     * Size of a record in bytes.
+     */
+    static final int RECORD_SIZE = 40;
+    static final byte OUTCOME_LOSS = 0;
+    static final byte OUTCOME_WIN = 1;
+    static final byte OUTCOME_DRAW = 2;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long recordCount;
+
+    /**
+     * Opens or creates a log. A partially written record at the end, left by a crash, is discarded.
+     *
+     * @param path the log file
+     * @throws IOException if the file cannot be opened
+     */
+    ResultLog(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocate(RECORD_SIZE);
+        this.recordCount = channel.size() / RECORD_SIZE;
+        channel.truncate(recordCount * RECORD_SIZE);
+    }
+
+    long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param record the record to append
+     * @return the number of the appended record
+     * @throws IOException if writing fails
+     */
+    long append(Record record) throws IOException {
+        buffer.clear();
+        buffer.putLong(record.seed);
+        buffer.putLong(record.firstRecord);
+        buffer.putLong(record.previousRecord);
+        buffer.putInt(record.monsterId);
+        buffer.putInt(record.rounds);
+        buffer.putInt(record.participants);
+        buffer.put(record.outcome);
+        buffer.put((byte) 0);
+        buffer.putShort((short) 0);
+        buffer.flip();
+
+        long number = recordCount;
+        long position = number * RECORD_SIZE;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        recordCount++;
+        return number;
+    }
+
+    /**
+     * Reads a record.
+     *
+     * @param number the number of the record
+     * @return the record
+     * @throws IOException if reading fails
+     */
+    Record read(long number) throws IOException {
+        buffer.clear();
+        long position = number * RECORD_SIZE;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("result log ends before record " + number);
+            }
+            position += read;
+        }
+        buffer.flip();
+
+        Record record = new Record();
+        record.seed = buffer.getLong();
+        record.firstRecord = buffer.getLong();
+        record.previousRecord = buffer.getLong();
+        record.monsterId = buffer.getInt();
+        record.rounds = buffer.getInt();
+        record.participants = buffer.getInt();
+        record.outcome = buffer.get();
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Result of one participant in one competition.
+     */
+    static final class Record {
+        long seed;
+        long firstRecord;
+        long previousRecord;
+        int monsterId;
+        int rounds;
+        int participants;
+        byte outcome;
+    }
+}
@@ -0,0 +1,239 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+import java.util.List;
+
+import edu.kit.kastel.monstercombat.model.effect.Effect;
+import edu.kit.kastel.monstercombat.model.effect.EffectContinue;
+import edu.kit.kastel.monstercombat.model.effect.EffectDamage;
+import edu.kit.kastel.monstercombat.model.effect.EffectDefense;
+import edu.kit.kastel.monstercombat.model.effect.EffectHealing;
+import edu.kit.kastel.monstercombat.model.effect.EffectRepeat;
+import edu.kit.kastel.monstercombat.model.effect.EffectStatChange;
+import edu.kit.kastel.monstercombat.model.effect.EffectStatusCondition;
+import edu.kit.kastel.monstercombat.model.effect.EffectVisitor;
+
+/**
+ * Follows one use of an action through a distribution of outcomes in the order the battle manager executes
+ * its effects: the first executed effect decides whether the action fails, and a repeat is entered with every
+ * possible count, all equally likely, since the count is drawn anew on every use.
+ * Repetitions of a single effect with a fixed count are passed on at once, so they can be combined.
+ * Subclasses define the distributions and how an effect changes them.
+ * @param <D> the type of the outcome distributions, which are never changed once created
+ * @author ursxd
+ */
+abstract class ActionFlow<D> {
+    private static final EffectVisitor<EffectRepeat> AS_REPEAT = new RepeatCheck();
+
+    private double failure;
+
+    /**
+     * Follows the effects of an action from the start state.
+     *
+     * @param effects the effects of the action
+     * @return the distribution of the outcomes in which the action did not fail
+     */
+    final D run(List<Effect> effects) {
+        Flow end = follow(effects, new Flow(1.0, null, 0.0));
+        failure = end.failure;
+        // Repeats with a count of zero may leave an action without any executed effect
+        if (end.pending > 0) {
+            return end.active == null ? initial(end.pending) : add(end.active, initial(end.pending));
+        }
+        return end.active == null ? empty() : end.active;
+    }
+
+    /**
+     * Gets the probability that the first executed effect of the last run missed.
+     *
+     * @return the probability that the action failed
+     */
+    final double getFailure() {
+        return failure;
+    }
+
+    /**
+     * Creates an empty distribution.
+     *
+     * @return the empty distribution
+     */
+    abstract D empty();
+
+    /**
+     * Creates the distribution of the start state.
+     *
+     * @param probability the probability of the start state
+     * @return the distribution
+     */
+    abstract D initial(double probability);
+
+    /**
+     * Computes the probability that an effect hits in the start state.
+     *
+     * @param effect the effect
+     * @return the hit probability
+     */
+    abstract double firstHit(Effect effect);
+
+    /**
+     * Applies uses of an effect to a distribution.
+     *
+     * @param effect the effect
+     * @param uses the number of consecutive uses
+     * @param certainHit whether the effect is the first effect and is known to hit
+     * @param distribution the distribution before the effect
+     * @return the distribution after the effect
+     */
+    abstract D apply(Effect effect, int uses, boolean certainHit, D distribution);
+
+    /**
+     * Scales the probabilities of a distribution.
+     *
+     * @param distribution the distribution
+     * @param factor the factor
+     * @return the scaled distribution
+     */
+    abstract D scale(D distribution, double factor);
+
+    /**
+     * Adds two distributions.
+     *
+     * @param first the first distribution
+     * @param second the second distribution
+     * @return the sum
+     */
+    abstract D add(D first, D second);
+
+    private Flow follow(List<Effect> effects, Flow flow) {
+        Flow current = flow;
+        int index = 0;
+        while (index < effects.size()) {
+            Effect effect = effects.get(index);
+            EffectRepeat repeat = effect.accept(AS_REPEAT);
+            if (repeat != null) {
+                current = followRepeat(repeat, current);
+                index++;
+                continue;
+            }
+            int run = 1;
+            while (index + run < effects.size() && effects.get(index + run) == effect) {
+                run++;
+            }
+            current = use(effect, run, current);
+            index += run;
+        }
+        return current;
+    }
+
+    private Flow followRepeat(EffectRepeat repeat, Flow flow) {
+        List<Effect> body = repeat.getRepeatedEffects();
+        int min = repeat.getMinCount();
+        int max = repeat.getMaxCount();
+        if (min == max && body.size() == 1 && body.get(0).accept(AS_REPEAT) == null) {
+            return use(body.get(0), min, flow);
+        }
+
+        double share = 1.0 / (max - min + 1);
+        Flow mixed = null;
+        Flow current = flow;
+        for (int count = 0; count <= max; count++) {
+            if (count >= min) {
+                Flow part = min == max ? current : current.scale(share);
+                mixed = mixed == null ? part : mixed.add(part);
+            }
+            if (count < max) {
+                current = follow(body, current);
+            }
+        }
+        return mixed == null ? flow : mixed;
+    }
+
+    private Flow use(Effect effect, int uses, Flow flow) {
+        if (uses <= 0) {
+            return flow;
+        }
+        D active = flow.active == null ? null : apply(effect, uses, false, flow.active);
+        double failed = flow.failure;
+        if (flow.pending > 0) {
+            // The outcomes in which no effect was executed yet meet their first effect
+            double hit = firstHit(effect);
+            failed += flow.pending * (1 - hit);
+            D started = apply(effect, 1, true, initial(flow.pending * hit));
+            if (uses > 1) {
+                started = apply(effect, uses - 1, false, started);
+            }
+            active = active == null ? started : add(active, started);
+        }
+        return new Flow(0.0, active, failed);
+    }
+
+    /**
+     * The outcomes after some effects: the probability that no effect was executed yet, the distribution of the
+     * outcomes in which the first effect hit, or null before it was executed, and the probability that it missed.
+     */
+    private final class Flow {
+        private final double pending;
+        private final D active;
+        private final double failure;
+
+        Flow(double pending, D active, double failure) {
+            this.pending = pending;
+            this.active = active;
+            this.failure = failure;
+        }
+
+        Flow scale(double factor) {
+            return new Flow(pending * factor, active == null ? null : ActionFlow.this.scale(active, factor),
+                    failure * factor);
+        }
+
+        Flow add(Flow other) {
+            D sum;
+            if (active == null || other.active == null) {
+                sum = active == null ? other.active : active;
+            } else {
+                sum = ActionFlow.this.add(active, other.active);
+            }
+            return new Flow(pending + other.pending, sum, failure + other.failure);
+        }
+    }
+
+    /**
+     * Gets the repeat an effect is, or null for all other effects.
+     */
+    private static final class RepeatCheck implements EffectVisitor<EffectRepeat> {
+        @Override
+        public EffectRepeat visitDamage(EffectDamage effect) {
+            return null;
+        }
+
+        @Override
+        public EffectRepeat visitHealing(EffectHealing effect) {
+            return null;
+        }
+
+        @Override
+        public EffectRepeat visitStatChange(EffectStatChange effect) {
+            return null;
+        }
+
+        @Override
+        public EffectRepeat visitStatusCondition(EffectStatusCondition effect) {
+            return null;
+        }
+
+        @Override
+        public EffectRepeat visitDefense(EffectDefense effect) {
+            return null;
+        }
+
+        @Override
+        public EffectRepeat visitContinue(EffectContinue effect) {
+            return null;
+        }
+
+        @Override
+        public EffectRepeat visitRepeat(EffectRepeat effect) {
+            return effect;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+/**
+ * Exact outcome distribution of one use of an action against a target.
+ * @author ursxd
+ */
+public final class ActionOdds {
+    private final double failureProbability;
+    private final double koProbability;
+    private final int minDamage;
+    private final double[] probabilities;
+
+    /**
+     * Constructs new odds.
+     *
+     * @param failureProbability the probability that the first effect misses and the action fails
+     * @param koProbability the probability that the target is defeated afterwards
+     * @param minDamage the smallest damage with a probability, negative if the target can be healed
+     * @param probabilities the probability of every damage starting at {@code minDamage}
+     */
+    ActionOdds(double failureProbability, double koProbability, int minDamage, double[] probabilities) {
+        this.failureProbability = failureProbability;
+        this.koProbability = koProbability;
+        this.minDamage = minDamage;
+        this.probabilities = probabilities;
+    }
+
+    public double getFailureProbability() {
+        return failureProbability;
+    }
+
+    public double getKoProbability() {
+        return koProbability;
+    }
+
+    public int getMinDamage() {
+        return minDamage;
+    }
+
+    public int getMaxDamage() {
+        return minDamage + probabilities.length - 1;
+    }
+
+    /**
+     * Gets the probability that the target loses exactly the given health points.
+     *
+     * @param damage the health points, negative for healing
+     * @return the probability
+     */
+    public double getProbability(int damage) {
+        int index = damage - minDamage;
+        return index < 0 || index >= probabilities.length ? 0.0 : probabilities[index];
+    }
+
+    /**
+     * Gets the expected health points the target loses.
+     *
+     * @return the expected damage
+     */
+    public double getExpectedDamage() {
+        double expected = 0;
+        for (int i = 0; i < probabilities.length; i++) {
+            expected += (minDamage + i) * probabilities[i];
+        }
+        return expected;
+    }
+}
@@ -0,0 +1,76 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+import java.util.Arrays;
+
+import edu.kit.kastel.monstercombat.model.Stat;
+import edu.kit.kastel.monstercombat.model.StatusCondition;
+
+/**
+ * The target of an action in one possible situation during the action: its stat changes, its status condition
+ * and the probability of every amount of health points. The probabilities of all branches sum up to one.
+ * @author ursxd
+ */
+final class Branch {
+    private static final int STAGE_BITS = 4;
+    private static final int STAGE_OFFSET = 5;
+    private static final int MIN_STAGE = -5;
+    private static final int MAX_STAGE = 5;
+
+    private final byte[] stages;
+    private final StatusCondition status;
+    private final double[] health;
+
+    Branch(byte[] stages, StatusCondition status, double[] health) {
+        this.stages = stages;
+        this.status = status;
+        this.health = health;
+    }
+
+    int getStage(Stat stat) {
+        return stages[stat.ordinal()];
+    }
+
+    StatusCondition getStatus() {
+        return status;
+    }
+
+    double[] getHealth() {
+        return health;
+    }
+
+    Branch withHealth(double[] newHealth) {
+        return new Branch(stages, status, newHealth);
+    }
+
+    Branch withStatus(StatusCondition newStatus, double[] newHealth) {
+        return new Branch(stages, newStatus, newHealth);
+    }
+
+    Branch withStatChange(Stat stat, int change, double[] newHealth) {
+        byte[] newStages = stages.clone();
+        newStages[stat.ordinal()] = (byte) Math.max(MIN_STAGE, Math.min(MAX_STAGE, stages[stat.ordinal()] + change));
+        return new Branch(newStages, status, newHealth);
+    }
+
+    /**
+     * Gets a key that is equal for branches with the same stat changes and status condition,
+     * so their health distributions can be merged.
+     *
+     * @return the key of the situation
+     */
+    long situationKey() {
+        long key = status.getIndex();
+        for (byte stage : stages) {
+            key = (key << STAGE_BITS) | (stage + STAGE_OFFSET);
+        }
+        return key;
+    }
+
+    Branch merge(Branch other) {
+        double[] merged = Arrays.copyOf(health, health.length);
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] += other.health[i];
+        }
+        return withHealth(merged);
+    }
+}
@@ -0,0 +1,107 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+import edu.kit.kastel.monstercombat.model.Element;
+import edu.kit.kastel.monstercombat.model.Stat;
+import edu.kit.kastel.monstercombat.model.StatusCondition;
+
+/**
+ * The probabilistic rules of the battle manager and the effect classes as exact distributions.
+ * @author ursxd
+ */
+final class CombatRules {
+    private static final double CRITICAL_CHANCE = 10.0;
+    private static final double CRITICAL_FACTOR = 2.0;
+    private static final double SAME_ELEMENT_FACTOR = 1.5;
+    private static final double MIN_RANDOM_FACTOR = 0.85;
+    private static final double NORMALIZATION_FACTOR = 1.0 / 3.0;
+    private static final double PERCENT = 100.0;
+
+    private CombatRules() {
+        // Utility class
+    }
+
+    /**
+     * Gets the probability of {@code nextDouble() * 100 <= chance}, the check used for all random decisions.
+     *
+     * @param chance the chance in percent
+     * @return the probability
+     */
+    static double probability(double chance) {
+        return Math.max(0.0, Math.min(1.0, chance / PERCENT));
+    }
+
+    /**
+     * Gets the probability that an effect hits another monster.
+     *
+     * @param hitRate the hit rate of the effect
+     * @param precision the effective precision of the user
+     * @param agility the effective agility of the target
+     * @return the probability
+     */
+    static double hitProbability(int hitRate, double precision, double agility) {
+        return probability(hitRate * (precision / agility));
+    }
+
+    /**
+     * Computes an effective stat exactly like {@link edu.kit.kastel.monstercombat.model.MonsterState}.
+     *
+     * @param base the base value of the stat
+     * @param stat the stat
+     * @param stage the stat change
+     * @param status the status condition
+     * @return the effective stat, at least 1
+     */
+    static double effectiveStat(int base, Stat stat, int stage, StatusCondition status) {
+        double value = base;
+        value *= stat.calculateStatChangeFactor(stage) * status.getStatusConditionMultiplier(stat);
+        return Math.max(1.0, value);
+    }
+
+    /**
+     * Gets the amount of relative damage or healing.
+     *
+     * @param maxHp the maximum health of the target
+     * @param percent the amount in percent
+     * @return the amount in health points
+     */
+    static int relativeAmount(int maxHp, int percent) {
+        return (int) Math.ceil(maxHp * percent / PERCENT);
+    }
+
+    /**
+     * Gets the amount of base healing.
+     *
+     * @param value the base value
+     * @return the amount in health points
+     */
+    static int baseHealing(int value) {
+        return (int) Math.ceil(value * NORMALIZATION_FACTOR);
+    }
+
+    /**
+     * Computes the distribution of base damage, including critical hits and the random factor.
+     *
+     * @param baseDamage the base value of the damage effect
+     * @param actionElement the element of the action
+     * @param userElement the element of the user
+     * @param targetElement the element of the target
+     * @param attack the effective attack of the user
+     * @param defense the effective defense of the target
+     * @param speedRatio the effective speed of the user divided by the one of the target
+     * @param cap the maximum damage that can be dealt
+     * @return the damage distribution
+     */
+    static DamageDistribution baseDamage(int baseDamage, Element actionElement, Element userElement,
+                                         Element targetElement, double attack, double defense, double speedRatio,
+                                         int cap) {
+        double elementFactor = actionElement.getEffectivenessMultiplier(targetElement);
+        double sameElementFactor = actionElement == userElement ? SAME_ELEMENT_FACTOR : 1.0;
+        double critical = probability(CRITICAL_CHANCE * speedRatio);
+
+        double regular = baseDamage * elementFactor * (attack / defense) * sameElementFactor * NORMALIZATION_FACTOR;
+        double criticalHit = regular * CRITICAL_FACTOR;
+        DamageDistribution normal = DamageDistribution.roundedUniform(regular * MIN_RANDOM_FACTOR, regular, cap);
+        DamageDistribution doubled = DamageDistribution.roundedUniform(criticalHit * MIN_RANDOM_FACTOR, criticalHit, cap);
+        return doubled.mix(critical, normal);
+    }
+}
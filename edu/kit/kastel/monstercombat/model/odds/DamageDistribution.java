@@ -0,0 +1,145 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+/**
+ * Probability mass function of the damage of one or more effect uses.
+ * Damage is capped at the maximum health of the target, since more damage cannot be dealt.
+ * @author ursxd
+ */
+final class DamageDistribution {
+    private final double[] probabilities;
+
+    private DamageDistribution(double[] probabilities) {
+        this.probabilities = probabilities;
+    }
+
+    /**
+     * Creates the distribution of a fixed amount of damage.
+     *
+     * @param amount the damage
+     * @param cap the maximum damage that can be dealt
+     * @return the distribution
+     */
+    static DamageDistribution fixed(int amount, int cap) {
+        double[] probabilities = new double[cap + 1];
+        probabilities[Math.max(0, Math.min(cap, amount))] = 1.0;
+        return new DamageDistribution(probabilities);
+    }
+
+    /**
+     * Creates the distribution of {@code ceil(x)} for {@code x} uniformly distributed in {@code [low, high)}.
+     *
+     * @param low the lower bound of the damage before rounding
+     * @param high the upper bound of the damage before rounding
+     * @param cap the maximum damage that can be dealt
+     * @return the distribution
+     */
+    static DamageDistribution roundedUniform(double low, double high, int cap) {
+        if (high <= low) {
+            return fixed((int) Math.ceil(low), cap);
+        }
+        double[] probabilities = new double[cap + 1];
+        int first = (int) Math.ceil(low);
+        int last = (int) Math.ceil(high);
+        for (int damage = first; damage <= last; damage++) {
+            double overlap = Math.min(damage, high) - Math.max(damage - 1, low);
+            if (overlap > 0) {
+                probabilities[Math.max(0, Math.min(cap, damage))] += overlap / (high - low);
+            }
+        }
+        return new DamageDistribution(probabilities);
+    }
+
+    /**
+     * Gets the largest damage this distribution can hold.
+     *
+     * @return the cap of the damage
+     */
+    int getCap() {
+        return probabilities.length - 1;
+    }
+
+    /**
+     * Gets the probability of the given damage, where the cap stands for at least the cap.
+     *
+     * @param damage the damage
+     * @return the probability
+     */
+    double getProbability(int damage) {
+        return probabilities[damage];
+    }
+
+    /**
+     * Mixes this distribution with another one.
+     *
+     * @param weight the probability of this distribution
+     * @param other the distribution taken with the remaining probability
+     * @return the mixture
+     */
+    DamageDistribution mix(double weight, DamageDistribution other) {
+        double[] result = new double[probabilities.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = weight * probabilities[i] + (1 - weight) * other.probabilities[i];
+        }
+        return new DamageDistribution(result);
+    }
+
+    /**
+     * Computes the distribution of the sum of this and an independent damage.
+     *
+     * @param other the distribution of the other damage
+     * @return the convolution of both distributions
+     */
+    DamageDistribution convolve(DamageDistribution other) {
+        int cap = probabilities.length - 1;
+        double[] result = new double[cap + 1];
+        for (int i = 0; i <= cap; i++) {
+            if (probabilities[i] == 0) {
+                continue;
+            }
+            for (int j = 0; j <= cap; j++) {
+                result[Math.min(cap, i + j)] += probabilities[i] * other.probabilities[j];
+            }
+        }
+        return new DamageDistribution(result);
+    }
+
+    /**
+     * Computes the distribution of the sum of {@code times} independent uses by repeated squaring.
+     *
+     * @param times the number of uses
+     * @return the distribution of the total damage
+     */
+    DamageDistribution power(int times) {
+        DamageDistribution result = fixed(0, probabilities.length - 1);
+        DamageDistribution square = this;
+        for (int remaining = times; remaining > 0; remaining >>= 1) {
+            if ((remaining & 1) != 0) {
+                result = result.convolve(square);
+            }
+            if (remaining > 1) {
+                square = square.convolve(square);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Applies the damage to a distribution of health points. Defeated monsters take no damage.
+     *
+     * @param health the probability of every amount of health points
+     * @return the distribution of health points afterwards
+     */
+    double[] applyTo(double[] health) {
+        double[] result = new double[health.length];
+        result[0] = health[0];
+        for (int hp = 1; hp < health.length; hp++) {
+            if (health[hp] == 0) {
+                continue;
+            }
+            for (int damage = 0; damage < probabilities.length; damage++) {
+                result[Math.max(0, hp - damage)] += health[hp] * probabilities[damage];
+            }
+        }
+        return result;
+    }
+}
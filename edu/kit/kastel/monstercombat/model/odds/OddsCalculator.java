@@ -0,0 +1,396 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import edu.kit.kastel.monstercombat.model.Action;
+import edu.kit.kastel.monstercombat.model.Element;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.Stat;
+import edu.kit.kastel.monstercombat.model.StatusCondition;
+import edu.kit.kastel.monstercombat.model.effect.Effect;
+import edu.kit.kastel.monstercombat.model.effect.EffectContinue;
+import edu.kit.kastel.monstercombat.model.effect.EffectDamage;
+import edu.kit.kastel.monstercombat.model.effect.EffectDefense;
+import edu.kit.kastel.monstercombat.model.effect.EffectHealing;
+import edu.kit.kastel.monstercombat.model.effect.EffectRepeat;
+import edu.kit.kastel.monstercombat.model.effect.EffectStatChange;
+import edu.kit.kastel.monstercombat.model.effect.EffectStatusCondition;
+import edu.kit.kastel.monstercombat.model.effect.EffectVisitor;
+
+/**
+ * Computes the exact outcome distribution of one use of an action instead of sampling it.
+ * The rules are the ones of the battle manager and the effect classes: every effect hits with its hit rate scaled
+ * by precision and agility, a miss of the first effect makes the action fail, and base damage is scaled by the
+ * element, attack and defense, the critical hit chance of 10% times the speed ratio and a random factor that is
+ * uniformly distributed between 0.85 and 1.0.
+ * The state of the target is tracked as a set of branches, one per combination of stat changes and status
+ * condition, each with the probability of every amount of health points. Consecutive uses of the same damage
+ * effect, as created by {@code repeat}, are combined by convolution. A repeat with a random count is followed
+ * with every count, see {@link ActionFlow}.
+ * Results are cached per action, elements and base stats of both monsters, their stat changes and status
+ * conditions, and the health of the target.
+ * @author ursxd
+ */
+public final class OddsCalculator {
+    private static final int CACHE_SIZE = 4096;
+    private static final int STATE_BITS = 4;
+    private static final int STAGE_OFFSET = 5;
+
+    private static final Map<Key, ActionOdds> CACHE = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ActionOdds> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final Monster user;
+    private final Action action;
+    private final Monster target;
+
+    private OddsCalculator(Monster user, Action action, Monster target) {
+        this.user = user;
+        this.action = action;
+        this.target = target;
+    }
+
+    /**
+     * Computes the outcome distribution of the user using the action on the target in their current state.
+     * The user is expected to be awake, since a sleeping monster does not use its action.
+     *
+     * @param user the monster using the action
+     * @param action the action
+     * @param target the target of the action, must not be the user
+     * @return the exact odds
+     */
+    public static ActionOdds calculate(Monster user, Action action, Monster target) {
+        Key key = new Key(action, user, target);
+        synchronized (CACHE) {
+            ActionOdds cached = CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        ActionOdds odds = new OddsCalculator(user, action, target).calculate();
+        synchronized (CACHE) {
+            CACHE.put(key, odds);
+        }
+        return odds;
+    }
+
+    private ActionOdds calculate() {
+        int startHp = target.getCurrentHp();
+        double[] health = new double[target.getMaxHp() + 1];
+        health[startHp] = 1.0;
+        byte[] stages = new byte[Stat.values().length];
+        for (Stat stat : Stat.values()) {
+            stages[stat.ordinal()] = (byte) target.getStatChange(stat);
+        }
+        Branch start = new Branch(stages, target.getStatusCondition(), health);
+
+        if (action.getEffects().isEmpty() || target.isDefeated()) {
+            return summarize(List.of(start), 1.0, startHp);
+        }
+
+        TargetFlow flow = new TargetFlow(start);
+        List<Branch> branches = flow.run(action.getEffects());
+        return summarize(branches, flow.getFailure(), startHp);
+    }
+
+    private ActionOdds summarize(List<Branch> branches, double failure, int startHp) {
+        double[] health = new double[target.getMaxHp() + 1];
+        health[startHp] += failure;
+        for (Branch branch : branches) {
+            double[] branchHealth = branch.getHealth();
+            for (int hp = 0; hp < health.length; hp++) {
+                health[hp] += branchHealth[hp];
+            }
+        }
+        int lowest = health.length - 1;
+        int highest = 0;
+        for (int hp = 0; hp < health.length; hp++) {
+            if (health[hp] > 0) {
+                lowest = Math.min(lowest, hp);
+                highest = Math.max(highest, hp);
+            }
+        }
+        // Damage is the health lost, so the highest remaining health is the smallest damage
+        double[] probabilities = new double[highest - lowest + 1];
+        for (int hp = lowest; hp <= highest; hp++) {
+            probabilities[highest - hp] = health[hp];
+        }
+        return new ActionOdds(failure, health[0], startHp - highest, probabilities);
+    }
+
+    private static List<Branch> merge(List<Branch> branches) {
+        Map<Long, Branch> merged = new LinkedHashMap<>();
+        for (Branch branch : branches) {
+            merged.merge(branch.situationKey(), branch, Branch::merge);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private double hitProbability(Effect effect, Branch branch) {
+        return CombatRules.hitProbability(effect.getHitRate(), user.getEffectiveStat(Stat.PRC),
+                targetStat(Stat.AGL, branch));
+    }
+
+    private double targetStat(Stat stat, Branch branch) {
+        return CombatRules.effectiveStat(target.getBaseStat(stat), stat, branch.getStage(stat), branch.getStatus());
+    }
+
+    private static double[] scale(double[] health, double factor) {
+        double[] result = new double[health.length];
+        for (int hp = 0; hp < health.length; hp++) {
+            result[hp] = health[hp] * factor;
+        }
+        return result;
+    }
+
+    /**
+     * Follows the action through the branches of the target.
+     */
+    private final class TargetFlow extends ActionFlow<List<Branch>> {
+        private final Branch start;
+
+        TargetFlow(Branch start) {
+            this.start = start;
+        }
+
+        @Override
+        List<Branch> empty() {
+            return List.of();
+        }
+
+        @Override
+        List<Branch> initial(double probability) {
+            return List.of(start.withHealth(OddsCalculator.scale(start.getHealth(), probability)));
+        }
+
+        @Override
+        double firstHit(Effect effect) {
+            return hitProbability(effect, start);
+        }
+
+        @Override
+        List<Branch> apply(Effect effect, int uses, boolean certainHit, List<Branch> branches) {
+            List<Branch> next = new ArrayList<>();
+            for (Branch branch : branches) {
+                next.addAll(effect.accept(new Transition(branch, uses, certainHit)));
+            }
+            return merge(next);
+        }
+
+        @Override
+        List<Branch> scale(List<Branch> branches, double factor) {
+            List<Branch> scaled = new ArrayList<>(branches.size());
+            for (Branch branch : branches) {
+                scaled.add(branch.withHealth(OddsCalculator.scale(branch.getHealth(), factor)));
+            }
+            return scaled;
+        }
+
+        @Override
+        List<Branch> add(List<Branch> first, List<Branch> second) {
+            List<Branch> sum = new ArrayList<>(first);
+            sum.addAll(second);
+            return merge(sum);
+        }
+    }
+
+    /**
+     * Applies one run of uses of the same effect to a branch.
+     */
+    private final class Transition implements EffectVisitor<List<Branch>> {
+        private final Branch branch;
+        private final int uses;
+        private final boolean certainHit;
+
+        Transition(Branch branch, int uses, boolean certainHit) {
+            this.branch = branch;
+            this.uses = uses;
+            this.certainHit = certainHit;
+        }
+
+        private double hit(Effect effect, Branch current) {
+            return certainHit ? 1.0 : hitProbability(effect, current);
+        }
+
+        @Override
+        public List<Branch> visitDamage(EffectDamage effect) {
+            int cap = target.getMaxHp();
+            DamageDistribution onHit;
+            if (target.isProtectedAgainstDamage()) {
+                onHit = DamageDistribution.fixed(0, cap);
+            } else {
+                onHit = switch (effect.getType()) {
+                    case ABSOLUTE -> DamageDistribution.fixed(effect.getValue(), cap);
+                    case RELATIVE -> DamageDistribution.fixed(CombatRules.relativeAmount(cap, effect.getValue()), cap);
+                    case BASE -> CombatRules.baseDamage(effect.getValue(), action.getElement(), user.getElement(),
+                            target.getElement(), user.getEffectiveStat(Stat.ATK), targetStat(Stat.DEF, branch),
+                            user.getEffectiveStat(Stat.SPD) / targetStat(Stat.SPD, branch), cap);
+                };
+            }
+            DamageDistribution perUse = onHit.mix(hit(effect, branch), DamageDistribution.fixed(0, cap));
+            return List.of(branch.withHealth(perUse.power(uses).applyTo(branch.getHealth())));
+        }
+
+        @Override
+        public List<Branch> visitHealing(EffectHealing effect) {
+            int maxHp = target.getMaxHp();
+            int amount = switch (effect.getHealingType()) {
+                case ABSOLUTE -> effect.getValue();
+                case RELATIVE -> CombatRules.relativeAmount(maxHp, effect.getValue());
+                case BASE -> CombatRules.baseHealing(effect.getValue());
+            };
+            double hit = hit(effect, branch);
+            double[] health = branch.getHealth();
+            for (int use = 0; use < uses; use++) {
+                double[] healed = new double[health.length];
+                healed[0] = health[0];
+                for (int hp = 1; hp < health.length; hp++) {
+                    healed[hp] += (1 - hit) * health[hp];
+                    healed[Math.min(maxHp, hp + amount)] += hit * health[hp];
+                }
+                health = healed;
+            }
+            return List.of(branch.withHealth(health));
+        }
+
+        @Override
+        public List<Branch> visitStatChange(EffectStatChange effect) {
+            if (effect.getStatChanges() < 0 && target.isProtectedAgainstStatChanges()) {
+                return List.of(branch);
+            }
+            List<Branch> current = List.of(branch);
+            for (int use = 0; use < uses; use++) {
+                List<Branch> next = new ArrayList<>();
+                for (Branch situation : current) {
+                    double hit = hit(effect, situation);
+                    double[][] split = split(situation.getHealth(), hit);
+                    next.add(situation.withHealth(split[0]));
+                    next.add(situation.withStatChange(effect.getStat(), effect.getStatChanges(), split[1]));
+                }
+                current = merge(next);
+            }
+            return current;
+        }
+
+        @Override
+        public List<Branch> visitStatusCondition(EffectStatusCondition effect) {
+            if (branch.getStatus() != StatusCondition.NONE) {
+                return List.of(branch);
+            }
+            double[][] split = split(branch.getHealth(), hit(effect, branch));
+            return List.of(branch.withHealth(split[0]), branch.withStatus(effect.getCondition(), split[1]));
+        }
+
+        @Override
+        public List<Branch> visitDefense(EffectDefense effect) {
+            // Protects the user, which does not change the target
+            return List.of(branch);
+        }
+
+        @Override
+        public List<Branch> visitContinue(EffectContinue effect) {
+            return List.of(branch);
+        }
+
+        @Override
+        public List<Branch> visitRepeat(EffectRepeat effect) {
+            // Repeats are entered by the action flow
+            return List.of(branch);
+        }
+
+        /**
+         * Splits a health distribution into the part that is not affected by an effect, because it missed or the
+         * target is already defeated, and the part the effect hits.
+         */
+        private double[][] split(double[] health, double hit) {
+            double[] missed = new double[health.length];
+            double[] affected = new double[health.length];
+            missed[0] = health[0];
+            for (int hp = 1; hp < health.length; hp++) {
+                missed[hp] = (1 - hit) * health[hp];
+                affected[hp] = hit * health[hp];
+            }
+            return new double[][] {missed, affected};
+        }
+    }
+
+    /**
+     * Cache key of one calculation. Actions are compared by identity, and a reloaded configuration may keep
+     * an unchanged action for changed monsters, so the key also holds everything of both monsters the odds
+     * depend on instead of their names.
+     */
+    private static final class Key {
+        private final Action action;
+        private final Element userElement;
+        private final Element targetElement;
+        private final int[] userStats;
+        private final int[] targetStats;
+        private final StatusCondition userCondition;
+        private final StatusCondition targetCondition;
+        private final long userStages;
+        private final long targetStages;
+        private final int targetHp;
+
+        Key(Action action, Monster user, Monster target) {
+            this.action = action;
+            this.userElement = user.getElement();
+            this.targetElement = target.getElement();
+            this.userStats = baseStats(user);
+            this.targetStats = baseStats(target);
+            this.userCondition = user.getStatusCondition();
+            this.targetCondition = target.getStatusCondition();
+            this.userStages = stages(user);
+            this.targetStages = stages(target) << 2
+                    | (target.isProtectedAgainstDamage() ? 2 : 0)
+                    | (target.isProtectedAgainstStatChanges() ? 1 : 0);
+            this.targetHp = target.getCurrentHp();
+        }
+
+        private static int[] baseStats(Monster monster) {
+            Stat[] stats = Stat.values();
+            int[] values = new int[stats.length];
+            for (Stat stat : stats) {
+                values[stat.ordinal()] = monster.getBaseStat(stat);
+            }
+            return values;
+        }
+
+        private static long stages(Monster monster) {
+            long stages = 0;
+            for (Stat stat : Stat.values()) {
+                stages = (stages << STATE_BITS) | (monster.getStatChange(stat) + STAGE_OFFSET);
+            }
+            return stages;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            Key key = (Key) other;
+            return action == key.action && userElement == key.userElement && targetElement == key.targetElement
+                    && userCondition == key.userCondition && targetCondition == key.targetCondition
+                    && userStages == key.userStages && targetStages == key.targetStages && targetHp == key.targetHp
+                    && Arrays.equals(userStats, key.userStats) && Arrays.equals(targetStats, key.targetStats);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(action), userElement, targetElement, userCondition,
+                    targetCondition, userStages, targetStages, targetHp, Arrays.hashCode(userStats),
+                    Arrays.hashCode(targetStats));
+        }
+    }
+}
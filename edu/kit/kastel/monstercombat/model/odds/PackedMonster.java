@@ -0,0 +1,118 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+import edu.kit.kastel.monstercombat.model.Stat;
+
+/**
+ * Packs the combat state of a monster into a long: health, the stat changes of ATK, DEF, SPD, PRC and AGL,
+ * the index of the status condition in the {@link SolverConditions} of the solver, and the protection with its
+ * remaining duration.
+ * @author ursxd
+ */
+final class PackedMonster {
+    /** No protection. */
+    static final int PROTECT_NONE = 0;
+    /** Protection against damage. */
+    static final int PROTECT_HEALTH = 1;
+    /** Protection against stat decreases. */
+    static final int PROTECT_STATS = 2;
+    /** The longest protection duration that can be packed. */
+    static final int MAX_DURATION = 0xFF;
+
+    private static final int HP_BITS = 16;
+    private static final int STAGE_BITS = 4;
+    private static final int STAGE_OFFSET = 5;
+    private static final int MIN_STAGE = -5;
+    private static final int MAX_STAGE = 5;
+    private static final int STATUS_SHIFT = HP_BITS + (Stat.values().length - 1) * STAGE_BITS;
+    private static final int STATUS_BITS = 7;
+    private static final int PROTECTION_SHIFT = STATUS_SHIFT + STATUS_BITS;
+    private static final int PROTECTION_BITS = 2;
+    private static final int DURATION_SHIFT = PROTECTION_SHIFT + PROTECTION_BITS;
+    private static final long HP_MASK = (1L << HP_BITS) - 1;
+    private static final long STAGE_MASK = (1L << STAGE_BITS) - 1;
+    private static final long STATUS_MASK = (1L << STATUS_BITS) - 1;
+    private static final long PROTECTION_MASK = (1L << PROTECTION_BITS) - 1;
+
+    private PackedMonster() {
+        // Utility class
+    }
+
+    /**
+     * Packs a monster at full health without stat changes, condition or protection.
+     *
+     * @param hp the health points
+     * @return the packed state
+     */
+    static long of(int hp) {
+        long packed = hp;
+        for (Stat stat : Stat.values()) {
+            if (stat != Stat.HP) {
+                packed = withStage(packed, stat, 0);
+            }
+        }
+        return packed;
+    }
+
+    static int hp(long packed) {
+        return (int) (packed & HP_MASK);
+    }
+
+    static long withHp(long packed, int hp) {
+        return (packed & ~HP_MASK) | hp;
+    }
+
+    static int stage(long packed, Stat stat) {
+        if (stat == Stat.HP) {
+            return 0;
+        }
+        return (int) ((packed >>> stageShift(stat)) & STAGE_MASK) - STAGE_OFFSET;
+    }
+
+    static long withStage(long packed, Stat stat, int stage) {
+        if (stat == Stat.HP) {
+            return packed;
+        }
+        int shift = stageShift(stat);
+        long clamped = Math.max(MIN_STAGE, Math.min(MAX_STAGE, stage)) + STAGE_OFFSET;
+        return (packed & ~(STAGE_MASK << shift)) | (clamped << shift);
+    }
+
+    static int status(long packed) {
+        return (int) ((packed >>> STATUS_SHIFT) & STATUS_MASK);
+    }
+
+    static long withStatus(long packed, int status) {
+        return (packed & ~(STATUS_MASK << STATUS_SHIFT)) | ((long) status << STATUS_SHIFT);
+    }
+
+    static int protection(long packed) {
+        return (int) ((packed >>> PROTECTION_SHIFT) & PROTECTION_MASK);
+    }
+
+    static int duration(long packed) {
+        return (int) (packed >>> DURATION_SHIFT);
+    }
+
+    static long withProtection(long packed, int protection, int duration) {
+        long cleared = packed & ((1L << PROTECTION_SHIFT) - 1);
+        return cleared | ((long) protection << PROTECTION_SHIFT) | ((long) duration << DURATION_SHIFT);
+    }
+
+    /**
+     * Decreases the protection duration at the end of a round, like {@link edu.kit.kastel.monstercombat.model.MonsterState#decreaseProtectionDuration()}.
+     *
+     * @param packed the packed state
+     * @return the packed state of the next round
+     */
+    static long endRound(long packed) {
+        int duration = duration(packed);
+        if (duration == 0) {
+            return packed;
+        }
+        return duration == 1 ? withProtection(packed, PROTECT_NONE, 0) : withProtection(packed, protection(packed), duration - 1);
+    }
+
+    private static int stageShift(Stat stat) {
+        return HP_BITS + (stat.ordinal() - 1) * STAGE_BITS;
+    }
+}
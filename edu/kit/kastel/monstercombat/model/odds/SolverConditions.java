@@ -0,0 +1,41 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.kit.kastel.monstercombat.model.StatusCondition;
+
+/**
+ * Numbers the status conditions a solver meets in the order it meets them, so packed states store a small index
+ * of their own that does not depend on the ruleset the conditions come from. No condition is index 0.
+ * @author ursxd
+ */
+final class SolverConditions {
+    private final List<StatusCondition> conditions = new ArrayList<>(List.of(StatusCondition.NONE));
+
+    /**
+     * Gets the condition of an index.
+     *
+     * @param index the index, see {@link #indexOf(StatusCondition)}
+     * @return the condition
+     */
+    StatusCondition get(int index) {
+        return conditions.get(index);
+    }
+
+    /**
+     * Gets the index of a condition, numbering it if it is met for the first time. There are at most as many
+     * conditions as a ruleset has.
+     *
+     * @param condition the condition
+     * @return the index
+     */
+    int indexOf(StatusCondition condition) {
+        int index = conditions.indexOf(condition);
+        if (index < 0) {
+            conditions.add(condition);
+            index = conditions.size() - 1;
+        }
+        return index;
+    }
+}
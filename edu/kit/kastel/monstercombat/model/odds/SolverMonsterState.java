@@ -0,0 +1,114 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+import edu.kit.kastel.monstercombat.model.FixedPoint;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.MonsterState;
+import edu.kit.kastel.monstercombat.model.Stat;
+import edu.kit.kastel.monstercombat.model.StatusCondition;
+
+/**
+ * Read-only monster state that decodes a packed state of the solver, so policies can look at solver states
+ * through regular monsters.
+ * @author ursxd
+ */
+final class SolverMonsterState extends MonsterState {
+    private final Monster species;
+    private final SolverConditions conditions;
+    private long packed;
+
+    SolverMonsterState(Monster species, SolverConditions conditions) {
+        this.species = species;
+        this.conditions = conditions;
+    }
+
+    void set(long packedState) {
+        this.packed = packedState;
+    }
+
+    @Override
+    public int getBaseStat(Stat stat) {
+        return species.getBaseStat(stat);
+    }
+
+    @Override
+    public double getEffectiveStat(Stat stat) {
+        return CombatRules.effectiveStat(species.getBaseStat(stat), stat, PackedMonster.stage(packed, stat),
+                getStatusCondition());
+    }
+
+    @Override
+    public long getFixedEffectiveStat(Stat stat) {
+        return FixedPoint.effectiveStat(species.getBaseStat(stat), stat, PackedMonster.stage(packed, stat),
+                getStatusCondition());
+    }
+
+    @Override
+    public int getCurrentHp() {
+        return PackedMonster.hp(packed);
+    }
+
+    @Override
+    public int getMaxHp() {
+        return species.getMaxHp();
+    }
+
+    @Override
+    public StatusCondition getStatusCondition() {
+        return conditions.get(PackedMonster.status(packed));
+    }
+
+    @Override
+    public void setStatusCondition(StatusCondition condition) {
+        throw new UnsupportedOperationException("Solver states are read-only");
+    }
+
+    @Override
+    public int getStatChange(Stat stat) {
+        return PackedMonster.stage(packed, stat);
+    }
+
+    @Override
+    public void setStatChange(Stat stat, int statChange) {
+        throw new UnsupportedOperationException("Solver states are read-only");
+    }
+
+    @Override
+    public int takeDamage(int amount) {
+        throw new UnsupportedOperationException("Solver states are read-only");
+    }
+
+    @Override
+    public int heal(int amount) {
+        throw new UnsupportedOperationException("Solver states are read-only");
+    }
+
+    @Override
+    public boolean isDefeated() {
+        return PackedMonster.hp(packed) <= 0;
+    }
+
+    @Override
+    public boolean isProtectedAgainstDamage() {
+        return PackedMonster.protection(packed) == PackedMonster.PROTECT_HEALTH;
+    }
+
+    @Override
+    public boolean isProtectedAgainstStatChanges() {
+        return PackedMonster.protection(packed) == PackedMonster.PROTECT_STATS;
+    }
+
+    @Override
+    public void setProtection(boolean protectHealth, boolean protectStatChanges, int protectionDuration) {
+        throw new UnsupportedOperationException("Solver states are read-only");
+    }
+
+    @Override
+    public int getProtectionDuration() {
+        return PackedMonster.duration(packed);
+    }
+
+    @Override
+    public boolean decreaseProtectionDuration() {
+        throw new UnsupportedOperationException("Solver states are read-only");
+    }
+}
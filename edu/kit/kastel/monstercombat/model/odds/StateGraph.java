@@ -0,0 +1,180 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+import java.util.Arrays;
+
+/**
+ * The battle states the win probability solver reached, numbered in the order they were reached, with the sparse
+ * row of transitions of every state: the probabilities that either monster wins within the round, that the round
+ * keeps the state, and that it leads to each other state. Each row is written once when its round is played,
+ * so solving the states only reads the rows. All data is kept in primitive arrays that double when full.
+ * @author ursxd
+ */
+final class StateGraph {
+    /**
+     * Bytes needed per state: two keys, the start of its row, three probabilities of the row and two values.
+     */
+    static final long BYTES_PER_STATE = 2L * Long.BYTES + Integer.BYTES + 5L * Double.BYTES;
+    /**
+     * Bytes needed per transition: the index of the next state and the probability.
+     */
+    static final long BYTES_PER_TRANSITION = Integer.BYTES + Double.BYTES;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] firstStates;
+    private long[] secondStates;
+    // The row of a state ends where the row of the next state starts, so rows are written in the order of states
+    private int[] rowStarts;
+    private double[] firstWins;
+    private double[] secondWins;
+    private double[] sameState;
+    private double[] firstValues;
+    private double[] secondValues;
+    private int[] targets;
+    private double[] weights;
+    private int size;
+    private int rows;
+    private int transitions;
+
+    StateGraph(int expectedStates) {
+        int capacity = Math.max(MIN_CAPACITY, expectedStates);
+        firstStates = new long[capacity];
+        secondStates = new long[capacity];
+        rowStarts = new int[capacity + 1];
+        firstWins = new double[capacity];
+        secondWins = new double[capacity];
+        sameState = new double[capacity];
+        firstValues = new double[capacity];
+        secondValues = new double[capacity];
+        targets = new int[capacity];
+        weights = new double[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the memory of the states and transitions, counted by their number rather than the array capacities.
+     *
+     * @return the size in bytes
+     */
+    long bytes() {
+        return size * BYTES_PER_STATE + transitions * BYTES_PER_TRANSITION;
+    }
+
+    /**
+     * Adds a state without a row.
+     *
+     * @param first the packed state of the first monster
+     * @param second the packed state of the second monster
+     * @return the index of the state
+     */
+    int add(long first, long second) {
+        if (size == firstStates.length) {
+            int capacity = size * 2;
+            firstStates = Arrays.copyOf(firstStates, capacity);
+            secondStates = Arrays.copyOf(secondStates, capacity);
+            rowStarts = Arrays.copyOf(rowStarts, capacity + 1);
+            firstWins = Arrays.copyOf(firstWins, capacity);
+            secondWins = Arrays.copyOf(secondWins, capacity);
+            sameState = Arrays.copyOf(sameState, capacity);
+            firstValues = Arrays.copyOf(firstValues, capacity);
+            secondValues = Arrays.copyOf(secondValues, capacity);
+        }
+        firstStates[size] = first;
+        secondStates[size] = second;
+        return size++;
+    }
+
+    long getFirstState(int state) {
+        return firstStates[state];
+    }
+
+    long getSecondState(int state) {
+        return secondStates[state];
+    }
+
+    /**
+     * Adds a transition to the row that is being written, which is the row of the state after the last
+     * finished one.
+     *
+     * @param target the index of the next state, which must differ from the state of the row
+     * @param weight the probability
+     */
+    void addTransition(int target, double weight) {
+        if (transitions == targets.length) {
+            targets = Arrays.copyOf(targets, transitions * 2);
+            weights = Arrays.copyOf(weights, transitions * 2);
+        }
+        targets[transitions] = target;
+        weights[transitions] = weight;
+        transitions++;
+    }
+
+    /**
+     * Finishes the row of the next state with the transitions added since the last row.
+     *
+     * @param firstWin the probability that the first monster wins within the round
+     * @param secondWin the probability that the second monster wins within the round
+     * @param same the probability that the round keeps the state
+     */
+    void finishRow(double firstWin, double secondWin, double same) {
+        firstWins[rows] = firstWin;
+        secondWins[rows] = secondWin;
+        sameState[rows] = same;
+        rows++;
+        rowStarts[rows] = transitions;
+    }
+
+    int getRowStart(int state) {
+        return rowStarts[state];
+    }
+
+    int getRowEnd(int state) {
+        return rowStarts[state + 1];
+    }
+
+    int getTarget(int transition) {
+        return targets[transition];
+    }
+
+    double getWeight(int transition) {
+        return weights[transition];
+    }
+
+    /**
+     * Computes the values of a state from the values of the states of its row, like the rows were a single
+     * round: a round that keeps the state is repeated until the state changes.
+     *
+     * @param state the index of the state
+     * @return the largest change of either value
+     */
+    double update(int state) {
+        double first = firstWins[state];
+        double second = secondWins[state];
+        for (int transition = rowStarts[state]; transition < rowStarts[state + 1]; transition++) {
+            first += weights[transition] * firstValues[targets[transition]];
+            second += weights[transition] * secondValues[targets[transition]];
+        }
+        if (sameState[state] >= 1.0) {
+            first = 0;
+            second = 0;
+        } else {
+            first /= 1.0 - sameState[state];
+            second /= 1.0 - sameState[state];
+        }
+        double change = Math.max(Math.abs(first - firstValues[state]), Math.abs(second - secondValues[state]));
+        firstValues[state] = first;
+        secondValues[state] = second;
+        return change;
+    }
+
+    double getFirstValue(int state) {
+        return firstValues[state];
+    }
+
+    double getSecondValue(int state) {
+        return secondValues[state];
+    }
+}
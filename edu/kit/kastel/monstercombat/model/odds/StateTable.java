@@ -0,0 +1,174 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+/**
+ * Open-addressing hash table keyed by two packed monster states, with primitive arrays for keys and values.
+ * Used as the index of the states of the win probability solver and for the state distributions within a round.
+ * @author ursxd
+ */
+final class StateTable {
+    /**
+     * Bytes needed per slot: two keys, a value, an index and a flag byte.
+     */
+    static final long BYTES_PER_SLOT = 2L * Long.BYTES + Double.BYTES + Integer.BYTES + 1;
+
+    private static final byte EMPTY = 0;
+    private static final byte OCCUPIED = 1;
+    private static final long FIRST_MIX = 0x9E3779B97F4A7C15L;
+    private static final long SECOND_MIX = 0xC2B2AE3D27D4EB4FL;
+    private static final int ROTATION = 31;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] firstKeys;
+    private long[] secondKeys;
+    private double[] values;
+    private int[] indices;
+    private byte[] flags;
+    private int size;
+    private int mask;
+
+    StateTable(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        firstKeys = new long[capacity];
+        secondKeys = new long[capacity];
+        values = new double[capacity];
+        indices = new int[capacity];
+        flags = new byte[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return flags.length;
+    }
+
+    /**
+     * Gets the memory the table needs after the next insertion, which may double its capacity.
+     *
+     * @return the size in bytes
+     */
+    long bytesAfterInsert() {
+        int capacity = needsGrowth() ? capacity() * 2 : capacity();
+        return capacity * BYTES_PER_SLOT;
+    }
+
+    /**
+     * Finds the slot of a key.
+     *
+     * @param first the first key
+     * @param second the second key
+     * @return the slot, or -1 if the key is absent
+     */
+    int find(long first, long second) {
+        int slot = hash(first, second) & mask;
+        while (flags[slot] != EMPTY) {
+            if (firstKeys[slot] == first && secondKeys[slot] == second) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts an absent key with a zero value and index.
+     *
+     * @param first the first key
+     * @param second the second key
+     * @return the slot of the key
+     */
+    int insert(long first, long second) {
+        if (needsGrowth()) {
+            grow();
+        }
+        int slot = hash(first, second) & mask;
+        while (flags[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        firstKeys[slot] = first;
+        secondKeys[slot] = second;
+        flags[slot] = OCCUPIED;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Adds probability to the value of a key, inserting it if absent.
+     *
+     * @param first the first key
+     * @param second the second key
+     * @param weight the probability to add
+     */
+    void add(long first, long second, double weight) {
+        if (weight == 0) {
+            return;
+        }
+        int slot = find(first, second);
+        if (slot < 0) {
+            slot = insert(first, second);
+        }
+        values[slot] += weight;
+    }
+
+    boolean isOccupied(int slot) {
+        return flags[slot] != EMPTY;
+    }
+
+    long getFirstKey(int slot) {
+        return firstKeys[slot];
+    }
+
+    long getSecondKey(int slot) {
+        return secondKeys[slot];
+    }
+
+    double getValue(int slot) {
+        return values[slot];
+    }
+
+    int getIndex(int slot) {
+        return indices[slot];
+    }
+
+    void setIndex(int slot, int index) {
+        indices[slot] = index;
+    }
+
+    private boolean needsGrowth() {
+        return (size + 1) * 2 > capacity();
+    }
+
+    private void grow() {
+        long[] oldFirstKeys = firstKeys;
+        long[] oldSecondKeys = secondKeys;
+        double[] oldValues = values;
+        int[] oldIndices = indices;
+        byte[] oldFlags = flags;
+        allocate(oldFlags.length * 2);
+        for (int old = 0; old < oldFlags.length; old++) {
+            if (oldFlags[old] == EMPTY) {
+                continue;
+            }
+            int slot = hash(oldFirstKeys[old], oldSecondKeys[old]) & mask;
+            while (flags[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            firstKeys[slot] = oldFirstKeys[old];
+            secondKeys[slot] = oldSecondKeys[old];
+            values[slot] = oldValues[old];
+            indices[slot] = oldIndices[old];
+            flags[slot] = oldFlags[old];
+        }
+    }
+
+    private static int hash(long first, long second) {
+        long hash = first * FIRST_MIX ^ Long.rotateLeft(second * SECOND_MIX, ROTATION);
+        return (int) (hash ^ (hash >>> Integer.SIZE));
+    }
+}
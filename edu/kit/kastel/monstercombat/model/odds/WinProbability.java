@@ -0,0 +1,52 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+/**
+ * Exact outcome probabilities of a 1v1 battle.
+ * @author ursxd
+ */
+public final class WinProbability {
+    private final double firstWins;
+    private final double secondWins;
+    private final int states;
+    private final int passes;
+
+    /**
+     * Constructs new win probabilities.
+     *
+     * @param firstWins the probability that the first monster wins
+     * @param secondWins the probability that the second monster wins
+     * @param states the number of battle states that were solved
+     * @param passes the number of passes needed until battles that can return to a former state converged
+     */
+    WinProbability(double firstWins, double secondWins, int states, int passes) {
+        this.firstWins = firstWins;
+        this.secondWins = secondWins;
+        this.states = states;
+        this.passes = passes;
+    }
+
+    public double getFirstWins() {
+        return firstWins;
+    }
+
+    public double getSecondWins() {
+        return secondWins;
+    }
+
+    /**
+     * Gets the probability that both monsters faint or that the battle never ends.
+     *
+     * @return the probability of no winner
+     */
+    public double getNoWinner() {
+        return Math.max(0.0, 1.0 - firstWins - secondWins);
+    }
+
+    public int getStates() {
+        return states;
+    }
+
+    public int getPasses() {
+        return passes;
+    }
+}
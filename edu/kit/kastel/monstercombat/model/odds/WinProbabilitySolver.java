@@ -0,0 +1,647 @@
+package edu.kit.kastel.monstercombat.model.odds;
+
+import java.util.List;
+
+import edu.kit.kastel.monstercombat.model.Action;
+import edu.kit.kastel.monstercombat.model.Element;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.Stat;
+import edu.kit.kastel.monstercombat.model.StatusCondition;
+import edu.kit.kastel.monstercombat.model.effect.Effect;
+import edu.kit.kastel.monstercombat.model.effect.EffectContinue;
+import edu.kit.kastel.monstercombat.model.effect.EffectDamage;
+import edu.kit.kastel.monstercombat.model.effect.EffectDefense;
+import edu.kit.kastel.monstercombat.model.effect.EffectHealing;
+import edu.kit.kastel.monstercombat.model.effect.EffectRepeat;
+import edu.kit.kastel.monstercombat.model.effect.EffectStatChange;
+import edu.kit.kastel.monstercombat.model.effect.EffectStatusCondition;
+import edu.kit.kastel.monstercombat.model.effect.EffectVisitor;
+import edu.kit.kastel.monstercombat.model.exception.SolverException;
+import edu.kit.kastel.monstercombat.model.policy.Policy;
+
+/**
+ * Computes the exact win probability of a 1v1 battle under a policy for each monster, where a battle state is
+ * the health, stat changes, status condition and protection of both monsters at the start of a round.
+ * A round follows the competition and the battle manager: both monsters choose an action by their policy, act
+ * in order of speed, and after every action the acting monster may recover from its condition or burn. An
+ * action whose first effect misses fails, a sleeping monster only tries to wake up, and protection fades at the
+ * end of the round. All random decisions are enumerated with their exact probabilities, see {@link CombatRules}.
+ * The round of every state that can be reached from the start is played exactly once, and its outcome is kept
+ * as the sparse row of the state in a {@link StateGraph}. The states are then solved by strongly connected
+ * components of the graph, later states first: a state that cannot return to itself is solved once from its
+ * row, rounds that keep the state are solved in closed form, and states that can return to each other are solved
+ * by sweeping over their rows until the values converge.
+ * States, rows and the index of the states are limited by a memory cap, which is checked whenever a state is
+ * reached, so a battle that is too large fails while it is explored.
+ * @author ursxd
+ */
+public final class WinProbabilitySolver {
+    /**
+     * The memory cap of the states if no other cap is given. It includes the rows, so it is larger than a cap
+     * of the states alone would be.
+     */
+    public static final long DEFAULT_MEMORY_CAP = 128L << 20;
+
+    private static final int INITIAL_STATES = 1 << 12;
+    private static final int ROUND_STATES = 64;
+    private static final int MAX_PASSES = 1000;
+    private static final double CONVERGENCE = 1e-12;
+    // The search for the components needs five integers per state
+    private static final long SEARCH_BYTES_PER_STATE = 5L * Integer.BYTES;
+
+    private final Side first;
+    private final Side second;
+    private final long memoryCap;
+    private final StateTable index;
+    private final StateGraph graph;
+    private int passes;
+
+    /**
+     * Constructs a new solver for a battle of two species.
+     *
+     * @param firstSpecies the first monster, which acts first on equal speed
+     * @param firstPolicy the policy of the first monster
+     * @param secondSpecies the second monster
+     * @param secondPolicy the policy of the second monster
+     * @param memoryCap the maximum size of the states in bytes
+     */
+    public WinProbabilitySolver(Monster firstSpecies, Policy firstPolicy, Monster secondSpecies, Policy secondPolicy,
+                                long memoryCap) {
+        SolverConditions conditions = new SolverConditions();
+        this.first = new Side(firstSpecies, firstPolicy, conditions);
+        this.second = new Side(secondSpecies, secondPolicy, conditions);
+        this.memoryCap = memoryCap;
+        this.index = new StateTable(INITIAL_STATES);
+        this.graph = new StateGraph(INITIAL_STATES);
+    }
+
+    /**
+     * Solves the battle starting with both monsters at full health.
+     *
+     * @return the exact win probabilities
+     * @throws SolverException if the battle has more states than fit into the memory cap or does not converge
+     */
+    public WinProbability solve() throws SolverException {
+        stateOf(PackedMonster.of(first.species.getMaxHp()), PackedMonster.of(second.species.getMaxHp()));
+        // States are played in the order they are reached, which is the order in which their rows are written
+        for (int state = 0; state < graph.size(); state++) {
+            expand(state);
+        }
+        solveComponents();
+        return new WinProbability(graph.getFirstValue(0), graph.getSecondValue(0), graph.size(), passes);
+    }
+
+    /**
+     * Gets the index of a state, adding it if it was not reached before.
+     */
+    private int stateOf(long firstState, long secondState) throws SolverException {
+        int slot = index.find(firstState, secondState);
+        if (slot >= 0) {
+            return index.getIndex(slot);
+        }
+        checkMemory(index.bytesAfterInsert());
+        slot = index.insert(firstState, secondState);
+        int state = graph.add(firstState, secondState);
+        index.setIndex(slot, state);
+        return state;
+    }
+
+    private void checkMemory(long indexBytes) throws SolverException {
+        long bytes = indexBytes + graph.bytes() + (graph.size() + 1) * SEARCH_BYTES_PER_STATE;
+        if (bytes > memoryCap) {
+            throw new SolverException(String.format("the battle has more than %d states, which exceeds the memory "
+                    + "cap of %d MB", graph.size(), memoryCap >> 20));
+        }
+    }
+
+    /**
+     * Plays the round of a state and writes its row.
+     */
+    private void expand(int state) throws SolverException {
+        long firstState = graph.getFirstState(state);
+        long secondState = graph.getSecondState(state);
+        Round round = new Round(firstState, secondState);
+        round.play();
+
+        double sameState = 0;
+        StateTable next = round.states;
+        for (int i = 0; i < next.capacity(); i++) {
+            if (!next.isOccupied(i)) {
+                continue;
+            }
+            long nextFirst = next.getFirstKey(i);
+            long nextSecond = next.getSecondKey(i);
+            if (nextFirst == firstState && nextSecond == secondState) {
+                sameState += next.getValue(i);
+            } else {
+                graph.addTransition(stateOf(nextFirst, nextSecond), next.getValue(i));
+            }
+        }
+        graph.finishRow(round.firstWins, round.secondWins, sameState);
+        checkMemory(index.capacity() * StateTable.BYTES_PER_SLOT);
+    }
+
+    /**
+     * Finds the strongly connected components of the graph by the algorithm of Tarjan, without recursion, and
+     * solves each component as soon as it is found. A component is only found after all components its rows lead
+     * to, so their values are final by then.
+     */
+    private void solveComponents() throws SolverException {
+        int size = graph.size();
+        // The number of a state in the order of the search, starting at 1, and the lowest number it reaches
+        int[] order = new int[size];
+        int[] lowest = new int[size];
+        // The states whose component is not found yet, in the order of the search
+        int[] open = new int[size];
+        // The path of the search and the next transition of each state on it
+        int[] path = new int[size];
+        int[] nextTransition = new int[size];
+        int openSize = 0;
+        int depth = 0;
+        int visited = 0;
+        passes = 1;
+
+        order[0] = ++visited;
+        lowest[0] = visited;
+        open[openSize++] = 0;
+        path[depth++] = 0;
+        nextTransition[0] = graph.getRowStart(0);
+        while (depth > 0) {
+            int state = path[depth - 1];
+            if (nextTransition[state] < graph.getRowEnd(state)) {
+                int target = graph.getTarget(nextTransition[state]++);
+                if (order[target] == 0) {
+                    order[target] = ++visited;
+                    lowest[target] = visited;
+                    open[openSize++] = target;
+                    path[depth++] = target;
+                    nextTransition[target] = graph.getRowStart(target);
+                } else if (order[target] > 0) {
+                    lowest[state] = Math.min(lowest[state], order[target]);
+                }
+                continue;
+            }
+            depth--;
+            if (depth > 0) {
+                int parent = path[depth - 1];
+                lowest[parent] = Math.min(lowest[parent], lowest[state]);
+            }
+            if (lowest[state] == order[state]) {
+                int start = openSize;
+                do {
+                    start--;
+                } while (open[start] != state);
+                solveComponent(open, start, openSize);
+                // Solved states are marked by a negative number, so later components ignore them
+                for (int i = start; i < openSize; i++) {
+                    order[open[i]] = -1;
+                }
+                openSize = start;
+            }
+        }
+    }
+
+    /**
+     * Solves a component whose rows only lead to solved states and to the component itself.
+     */
+    private void solveComponent(int[] states, int start, int end) throws SolverException {
+        if (end - start == 1) {
+            graph.update(states[start]);
+            return;
+        }
+        // The states are swept from the last reached one, which is closest to the end of the battle
+        int sweeps = 0;
+        double maxChange;
+        do {
+            if (++sweeps > MAX_PASSES) {
+                throw new SolverException("the battle did not converge after " + MAX_PASSES + " passes");
+            }
+            maxChange = 0;
+            for (int i = end - 1; i >= start; i--) {
+                maxChange = Math.max(maxChange, graph.update(states[i]));
+            }
+        } while (maxChange > CONVERGENCE);
+        passes = Math.max(passes, sweeps);
+    }
+
+    /**
+     * The static data of one monster of the battle.
+     */
+    private static final class Side {
+        private final Monster species;
+        private final Policy policy;
+        private final List<Action> actions;
+        private final SolverConditions conditions;
+        private final SolverMonsterState viewState;
+        private final Monster view;
+
+        Side(Monster species, Policy policy, SolverConditions conditions) {
+            this.species = species;
+            this.policy = policy;
+            this.actions = species.getActions();
+            this.conditions = conditions;
+            this.viewState = new SolverMonsterState(species, conditions);
+            this.view = species.createParticipant(viewState);
+        }
+
+        double stat(long packed, Stat stat) {
+            return CombatRules.effectiveStat(species.getBaseStat(stat), stat, PackedMonster.stage(packed, stat),
+                    status(packed));
+        }
+
+        StatusCondition status(long packed) {
+            return conditions.get(PackedMonster.status(packed));
+        }
+
+        long withStatus(long packed, StatusCondition status) {
+            return PackedMonster.withStatus(packed, conditions.indexOf(status));
+        }
+    }
+
+    /**
+     * One round from a state at its start, producing the distribution of states at the start of the next round
+     * and the probability that either monster has won.
+     */
+    private final class Round {
+        private final long firstState;
+        private final long secondState;
+        private final StateTable states;
+        private double firstWins;
+        private double secondWins;
+
+        Round(long firstState, long secondState) {
+            this.firstState = firstState;
+            this.secondState = secondState;
+            this.states = new StateTable(ROUND_STATES);
+        }
+
+        void play() {
+            first.viewState.set(firstState);
+            second.viewState.set(secondState);
+            double[] firstWeights = first.policy.weigh(first.view, second.view);
+            double[] secondWeights = second.policy.weigh(second.view, first.view);
+
+            // Both monsters act in order of their speed at the start of the round
+            boolean firstIsFaster = first.stat(firstState, Stat.SPD) >= second.stat(secondState, Stat.SPD);
+            StateTable current = new StateTable(1);
+            current.add(firstState, secondState, 1.0);
+            if (firstIsFaster) {
+                current = act(current, true, firstWeights);
+                current = act(current, false, secondWeights);
+            } else {
+                current = act(current, false, secondWeights);
+                current = act(current, true, firstWeights);
+            }
+
+            // Protection fades at the end of the round
+            for (int i = 0; i < current.capacity(); i++) {
+                if (current.isOccupied(i)) {
+                    states.add(PackedMonster.endRound(current.getFirstKey(i)),
+                            PackedMonster.endRound(current.getSecondKey(i)), current.getValue(i));
+                }
+            }
+        }
+
+        /**
+         * Lets one monster act in all states of the distribution. States in which the battle is decided are
+         * counted as wins and removed.
+         */
+        private StateTable act(StateTable current, boolean firstActs, double[] weights) {
+            Side user = firstActs ? first : second;
+            Side target = firstActs ? second : first;
+            StateTable result = new StateTable(current.size());
+            for (int i = 0; i < current.capacity(); i++) {
+                if (!current.isOccupied(i)) {
+                    continue;
+                }
+                long userState = firstActs ? current.getFirstKey(i) : current.getSecondKey(i);
+                long targetState = firstActs ? current.getSecondKey(i) : current.getFirstKey(i);
+                double weight = current.getValue(i);
+
+                // Outcomes are collected as (user, target) and mapped back after the action
+                StateTable outcomes = new StateTable(ROUND_STATES);
+                StatusCondition status = user.status(userState);
+                if (status.skipsTurn()) {
+                    double wake = CombatRules.probability(status.getEndChance());
+                    outcomes.add(user.withStatus(userState, StatusCondition.NONE), targetState, weight * wake);
+                    outcomes.add(userState, targetState, weight * (1 - wake));
+                } else {
+                    double pass = 1.0;
+                    for (int action = 0; action < weights.length; action++) {
+                        if (weights[action] > 0) {
+                            useAction(user, target, action, userState, targetState, weight * weights[action],
+                                    outcomes);
+                            pass -= weights[action];
+                        }
+                    }
+                    if (pass > 0) {
+                        outcomes.add(userState, targetState, weight * pass);
+                    }
+                }
+
+                for (int j = 0; j < outcomes.capacity(); j++) {
+                    if (outcomes.isOccupied(j)) {
+                        long firstKey = firstActs ? outcomes.getFirstKey(j) : outcomes.getSecondKey(j);
+                        long secondKey = firstActs ? outcomes.getSecondKey(j) : outcomes.getFirstKey(j);
+                        record(firstKey, secondKey, outcomes.getValue(j), result);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void record(long firstKey, long secondKey, double weight, StateTable result) {
+            boolean firstConscious = PackedMonster.hp(firstKey) > 0;
+            boolean secondConscious = PackedMonster.hp(secondKey) > 0;
+            if (firstConscious && secondConscious) {
+                result.add(firstKey, secondKey, weight);
+            } else if (firstConscious) {
+                firstWins += weight;
+            } else if (secondConscious) {
+                secondWins += weight;
+            }
+        }
+
+        private void useAction(Side user, Side target, int action, long userState, long targetState, double weight,
+                               StateTable outcomes) {
+            List<Effect> effects = user.actions.get(action).getEffects();
+            Element element = user.actions.get(action).getElement();
+            StateTable finished = new StateTable(ROUND_STATES);
+            if (effects.isEmpty()) {
+                finished.add(userState, targetState, weight);
+            } else {
+                // A miss of the first effect makes the whole action fail
+                StateFlow flow = new StateFlow(user, target, element, userState, targetState, weight);
+                StateTable active = flow.run(effects);
+                finished.add(userState, targetState, weight * flow.getFailure());
+                for (int i = 0; i < active.capacity(); i++) {
+                    if (active.isOccupied(i)) {
+                        finished.add(active.getFirstKey(i), active.getSecondKey(i), active.getValue(i));
+                    }
+                }
+            }
+
+            // After the action, the user may recover from its condition or burn
+            for (int i = 0; i < finished.capacity(); i++) {
+                if (finished.isOccupied(i)) {
+                    processStatusCondition(user, finished.getFirstKey(i), finished.getSecondKey(i),
+                            finished.getValue(i), outcomes);
+                }
+            }
+        }
+
+        private void processStatusCondition(Side user, long userState, long targetState, double weight,
+                                            StateTable outcomes) {
+            StatusCondition status = user.status(userState);
+            if (status == StatusCondition.NONE || status.skipsTurn()) {
+                outcomes.add(userState, targetState, weight);
+                return;
+            }
+            double end = CombatRules.probability(status.getEndChance());
+            outcomes.add(user.withStatus(userState, StatusCondition.NONE), targetState, weight * end);
+
+            long remaining = userState;
+            int hp = PackedMonster.hp(userState);
+            if (status.getDamagePercent() > 0 && hp > 0
+                    && PackedMonster.protection(userState) != PackedMonster.PROTECT_HEALTH) {
+                int damage = CombatRules.relativeAmount(user.species.getMaxHp(), status.getDamagePercent());
+                remaining = PackedMonster.withHp(userState, Math.max(0, hp - damage));
+            }
+            outcomes.add(remaining, targetState, weight * (1 - end));
+        }
+    }
+
+    /**
+     * Follows an action through the distribution of (user, target) states.
+     */
+    private static final class StateFlow extends ActionFlow<StateTable> {
+        private final Side user;
+        private final Side target;
+        private final Element actionElement;
+        private final long userState;
+        private final long targetState;
+        private final double weight;
+
+        StateFlow(Side user, Side target, Element actionElement, long userState, long targetState, double weight) {
+            this.user = user;
+            this.target = target;
+            this.actionElement = actionElement;
+            this.userState = userState;
+            this.targetState = targetState;
+            this.weight = weight;
+        }
+
+        @Override
+        StateTable empty() {
+            return new StateTable(1);
+        }
+
+        @Override
+        StateTable initial(double probability) {
+            StateTable table = new StateTable(1);
+            table.add(userState, targetState, weight * probability);
+            return table;
+        }
+
+        @Override
+        double firstHit(Effect effect) {
+            return CombatRules.hitProbability(effect.getHitRate(), user.stat(userState, Stat.PRC),
+                    target.stat(targetState, Stat.AGL));
+        }
+
+        @Override
+        StateTable apply(Effect effect, int uses, boolean certainHit, StateTable distribution) {
+            StateTable current = distribution;
+            for (int use = 0; use < uses; use++) {
+                StateTable next = new StateTable(current.size());
+                for (int i = 0; i < current.capacity(); i++) {
+                    if (current.isOccupied(i)) {
+                        effect.accept(new EffectStep(user, target, actionElement, current.getFirstKey(i),
+                                current.getSecondKey(i), current.getValue(i), certainHit, next));
+                    }
+                }
+                current = next;
+            }
+            return current;
+        }
+
+        @Override
+        StateTable scale(StateTable distribution, double factor) {
+            StateTable scaled = new StateTable(distribution.size());
+            for (int i = 0; i < distribution.capacity(); i++) {
+                if (distribution.isOccupied(i)) {
+                    scaled.add(distribution.getFirstKey(i), distribution.getSecondKey(i),
+                            distribution.getValue(i) * factor);
+                }
+            }
+            return scaled;
+        }
+
+        @Override
+        StateTable add(StateTable first, StateTable second) {
+            StateTable sum = new StateTable(first.size() + second.size());
+            for (StateTable part : List.of(first, second)) {
+                for (int i = 0; i < part.capacity(); i++) {
+                    if (part.isOccupied(i)) {
+                        sum.add(part.getFirstKey(i), part.getSecondKey(i), part.getValue(i));
+                    }
+                }
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Applies one effect to one (user, target) state and adds the outcomes to a distribution.
+     * All effects act on the selected target except protection, which acts on the user, like in the effect classes.
+     */
+    private static final class EffectStep implements EffectVisitor<Void> {
+        private final Side user;
+        private final Side target;
+        private final Element actionElement;
+        private final long userState;
+        private final long targetState;
+        private final double weight;
+        private final boolean certainHit;
+        private final StateTable result;
+
+        EffectStep(Side user, Side target, Element actionElement, long userState, long targetState, double weight,
+                   boolean certainHit, StateTable result) {
+            this.user = user;
+            this.target = target;
+            this.actionElement = actionElement;
+            this.userState = userState;
+            this.targetState = targetState;
+            this.weight = weight;
+            this.certainHit = certainHit;
+            this.result = result;
+        }
+
+        private double hit(Effect effect) {
+            if (certainHit) {
+                return 1.0;
+            }
+            return CombatRules.hitProbability(effect.getHitRate(), user.stat(userState, Stat.PRC),
+                    target.stat(targetState, Stat.AGL));
+        }
+
+        private boolean targetDefeated() {
+            return PackedMonster.hp(targetState) <= 0;
+        }
+
+        private void unchanged() {
+            result.add(userState, targetState, weight);
+        }
+
+        @Override
+        public Void visitDamage(EffectDamage effect) {
+            if (targetDefeated()) {
+                unchanged();
+                return null;
+            }
+            double hit = hit(effect);
+            result.add(userState, targetState, weight * (1 - hit));
+            if (PackedMonster.protection(targetState) == PackedMonster.PROTECT_HEALTH) {
+                result.add(userState, targetState, weight * hit);
+                return null;
+            }
+
+            int maxHp = target.species.getMaxHp();
+            DamageDistribution damage = switch (effect.getType()) {
+                case ABSOLUTE -> DamageDistribution.fixed(effect.getValue(), maxHp);
+                case RELATIVE -> DamageDistribution.fixed(CombatRules.relativeAmount(maxHp, effect.getValue()), maxHp);
+                case BASE -> CombatRules.baseDamage(effect.getValue(), actionElement, user.species.getElement(),
+                        target.species.getElement(), user.stat(userState, Stat.ATK), target.stat(targetState, Stat.DEF),
+                        user.stat(userState, Stat.SPD) / target.stat(targetState, Stat.SPD), maxHp);
+            };
+            int hp = PackedMonster.hp(targetState);
+            for (int amount = 0; amount <= damage.getCap(); amount++) {
+                double probability = damage.getProbability(amount);
+                if (probability > 0) {
+                    result.add(userState, PackedMonster.withHp(targetState, Math.max(0, hp - amount)),
+                            weight * hit * probability);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitHealing(EffectHealing effect) {
+            if (targetDefeated()) {
+                unchanged();
+                return null;
+            }
+            int maxHp = target.species.getMaxHp();
+            int amount = switch (effect.getHealingType()) {
+                case ABSOLUTE -> effect.getValue();
+                case RELATIVE -> CombatRules.relativeAmount(maxHp, effect.getValue());
+                case BASE -> CombatRules.baseHealing(effect.getValue());
+            };
+            double hit = hit(effect);
+            int healed = Math.min(maxHp, PackedMonster.hp(targetState) + amount);
+            result.add(userState, targetState, weight * (1 - hit));
+            result.add(userState, PackedMonster.withHp(targetState, healed), weight * hit);
+            return null;
+        }
+
+        @Override
+        public Void visitStatChange(EffectStatChange effect) {
+            boolean blocked = effect.getStatChanges() < 0
+                    && PackedMonster.protection(targetState) == PackedMonster.PROTECT_STATS;
+            if (targetDefeated() || blocked) {
+                unchanged();
+                return null;
+            }
+            double hit = hit(effect);
+            int stage = PackedMonster.stage(targetState, effect.getStat()) + effect.getStatChanges();
+            result.add(userState, targetState, weight * (1 - hit));
+            result.add(userState, PackedMonster.withStage(targetState, effect.getStat(), stage), weight * hit);
+            return null;
+        }
+
+        @Override
+        public Void visitStatusCondition(EffectStatusCondition effect) {
+            if (targetDefeated() || target.status(targetState) != StatusCondition.NONE) {
+                unchanged();
+                return null;
+            }
+            double hit = hit(effect);
+            result.add(userState, targetState, weight * (1 - hit));
+            result.add(userState, target.withStatus(targetState, effect.getCondition()), weight * hit);
+            return null;
+        }
+
+        @Override
+        public Void visitDefense(EffectDefense effect) {
+            if (PackedMonster.hp(userState) <= 0) {
+                unchanged();
+                return null;
+            }
+            int protection = effect.getProtectionType() == EffectDefense.ProtectionType.HEALTH
+                    ? PackedMonster.PROTECT_HEALTH : PackedMonster.PROTECT_STATS;
+            double hit = hit(effect);
+            result.add(userState, targetState, weight * (1 - hit));
+            // The duration is drawn on every use, all durations equally likely
+            int min = effect.getMinDuration();
+            int max = effect.getMaxDuration();
+            for (int duration = min; duration <= max; duration++) {
+                result.add(PackedMonster.withProtection(userState, protection,
+                        Math.min(PackedMonster.MAX_DURATION, duration)), targetState, weight * hit / (max - min + 1));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitContinue(EffectContinue effect) {
+            unchanged();
+            return null;
+        }
+
+        @Override
+        public Void visitRepeat(EffectRepeat effect) {
+            // Repeats are entered by the action flow
+            unchanged();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package edu.kit.kastel.monstercombat.model.policy;
+
+import java.util.List;
+import java.util.Random;
+
+import edu.kit.kastel.monstercombat.model.Action;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.odds.OddsCalculator;
+
+/**
+ * Policy that uses the action with the highest expected damage against the opponent it hurts most.
+ * Expected damage is computed exactly by the {@link OddsCalculator}; actions with the same expected damage
+ * are equally likely.
+ * @author ursxd
+ */
+public final class GreedyPolicy implements Policy {
+    private static final double EPSILON = 1e-9;
+
+    @Override
+    public double[] weigh(Monster monster, Monster opponent) {
+        List<Action> actions = monster.getActions();
+        double[] expected = new double[actions.size()];
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = OddsCalculator.calculate(monster, actions.get(i), opponent).getExpectedDamage();
+            best = Math.max(best, expected[i]);
+        }
+
+        int ties = 0;
+        for (double value : expected) {
+            if (value >= best - EPSILON) {
+                ties++;
+            }
+        }
+        double[] weights = new double[expected.length];
+        for (int i = 0; i < expected.length; i++) {
+            weights[i] = expected[i] >= best - EPSILON ? 1.0 / ties : 0.0;
+        }
+        return weights;
+    }
+
+    @Override
+    public Monster chooseOpponent(Monster monster, List<Monster> opponents, Random random) {
+        Monster chosen = opponents.get(0);
+        double best = Double.NEGATIVE_INFINITY;
+        for (Monster opponent : opponents) {
+            double damage = bestExpectedDamage(monster, opponent);
+            if (damage > best + EPSILON) {
+                best = damage;
+                chosen = opponent;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Gets the highest expected damage of any action of a monster against an opponent.
+     *
+     * @param monster the monster
+     * @param opponent the opponent
+     * @return the highest expected damage, or 0 if the monster has no actions
+     */
+    private static double bestExpectedDamage(Monster monster, Monster opponent) {
+        double best = 0;
+        for (Action action : monster.getActions()) {
+            best = Math.max(best, OddsCalculator.calculate(monster, action, opponent).getExpectedDamage());
+        }
+        return best;
+    }
+}
@@ -0,0 +1,156 @@
+package edu.kit.kastel.monstercombat.model.policy;
+
+import java.util.List;
+import java.util.Random;
+
+import edu.kit.kastel.monstercombat.model.Action;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.effect.Effect;
+import edu.kit.kastel.monstercombat.model.effect.EffectContinue;
+import edu.kit.kastel.monstercombat.model.effect.EffectDamage;
+import edu.kit.kastel.monstercombat.model.effect.EffectDefense;
+import edu.kit.kastel.monstercombat.model.effect.EffectHealing;
+import edu.kit.kastel.monstercombat.model.effect.EffectRepeat;
+import edu.kit.kastel.monstercombat.model.effect.EffectStatChange;
+import edu.kit.kastel.monstercombat.model.effect.EffectStatusCondition;
+import edu.kit.kastel.monstercombat.model.effect.EffectVisitor;
+
+/**
+ * Policy that uses its strongest healing action on itself once its health is low, and otherwise acts like the
+ * {@link GreedyPolicy}. Healing actions are the actions with a healing effect on the user.
+ * @author ursxd
+ */
+public final class HealWhenLowPolicy implements Policy {
+    /**
+     * The health in percent of the maximum health at or below which a monster heals if no other limit is given.
+     */
+    public static final int DEFAULT_LOW_HEALTH_PERCENT = 30;
+    private static final double PERCENT = 100.0;
+
+    private final int lowHealthPercent;
+    private final GreedyPolicy greedy;
+
+    /**
+     * Constructs a new policy that heals at or below {@value #DEFAULT_LOW_HEALTH_PERCENT}% health.
+     */
+    public HealWhenLowPolicy() {
+        this(DEFAULT_LOW_HEALTH_PERCENT);
+    }
+
+    /**
+     * Constructs a new policy.
+     *
+     * @param lowHealthPercent the health in percent of the maximum health at or below which a monster heals
+     */
+    public HealWhenLowPolicy(int lowHealthPercent) {
+        this.lowHealthPercent = lowHealthPercent;
+        this.greedy = new GreedyPolicy();
+    }
+
+    @Override
+    public double[] weigh(Monster monster, Monster opponent) {
+        int healing = strongestHealing(monster);
+        if (healing < 0) {
+            return greedy.weigh(monster, opponent);
+        }
+        double[] weights = new double[monster.getActions().size()];
+        weights[healing] = 1.0;
+        return weights;
+    }
+
+    @Override
+    public Monster chooseOpponent(Monster monster, List<Monster> opponents, Random random) {
+        return greedy.chooseOpponent(monster, opponents, random);
+    }
+
+    @Override
+    public Monster chooseTarget(Monster monster, Action action, Monster opponent) {
+        return isLow(monster) && healAmount(action, monster.getMaxHp()) > 0 ? monster : opponent;
+    }
+
+    private boolean isLow(Monster monster) {
+        return monster.getCurrentHp() * PERCENT <= monster.getMaxHp() * (double) lowHealthPercent;
+    }
+
+    /**
+     * Finds the action that heals a monster the most, if its health is low.
+     *
+     * @return the index of the action, or -1 if the health is not low or no action heals
+     */
+    private int strongestHealing(Monster monster) {
+        if (!isLow(monster)) {
+            return -1;
+        }
+        List<Action> actions = monster.getActions();
+        int best = -1;
+        int bestAmount = 0;
+        for (int i = 0; i < actions.size(); i++) {
+            int amount = healAmount(actions.get(i), monster.getMaxHp());
+            if (amount > bestAmount) {
+                best = i;
+                bestAmount = amount;
+            }
+        }
+        return best;
+    }
+
+    private static int healAmount(Action action, int maxHp) {
+        HealAmount visitor = new HealAmount(maxHp);
+        int amount = 0;
+        for (Effect effect : action.getEffects()) {
+            amount += effect.accept(visitor);
+        }
+        return amount;
+    }
+
+    /**
+     * Gets the amount an effect heals its user.
+     */
+    private static final class HealAmount implements EffectVisitor<Integer> {
+        private final int maxHp;
+
+        HealAmount(int maxHp) {
+            this.maxHp = maxHp;
+        }
+
+        @Override
+        public Integer visitDamage(EffectDamage effect) {
+            return 0;
+        }
+
+        @Override
+        public Integer visitHealing(EffectHealing effect) {
+            return effect.getTargetType() == Effect.TargetType.USER ? effect.calculateHealAmount(maxHp) : 0;
+        }
+
+        @Override
+        public Integer visitStatChange(EffectStatChange effect) {
+            return 0;
+        }
+
+        @Override
+        public Integer visitStatusCondition(EffectStatusCondition effect) {
+            return 0;
+        }
+
+        @Override
+        public Integer visitDefense(EffectDefense effect) {
+            return 0;
+        }
+
+        @Override
+        public Integer visitContinue(EffectContinue effect) {
+            return 0;
+        }
+
+        @Override
+        public Integer visitRepeat(EffectRepeat effect) {
+            int amount = 0;
+            for (Effect repeated : effect.getRepeatedEffects()) {
+                amount += repeated.accept(this);
+            }
+            // The count is drawn on every use, so the average count is expected, rounded to the nearest point
+            return (int) Math.round(amount * (effect.getMinCount() + effect.getMaxCount()) / 2.0);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package edu.kit.kastel.monstercombat.model.policy;
+
+import java.util.List;
+
+/**
+ * Built-in policies by name.
+ * @author ursxd
+ */
+public final class Policies {
+    /**
+     * The names of the built-in policies.
+     */
+    public static final List<String> NAMES = List.of("random", "greedy", "heal-when-low");
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Policies() {
+        // Utility class
+    }
+
+    /**
+     * Creates a built-in policy.
+     *
+     * @param name the name of the policy, one of {@link #NAMES}
+     * @return the policy, or null if there is no policy with this name
+     */
+    public static Policy create(String name) {
+        return switch (name.toLowerCase()) {
+            case "random" -> new RandomPolicy();
+            case "greedy" -> new GreedyPolicy();
+            case "heal-when-low" -> new HealWhenLowPolicy();
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package edu.kit.kastel.monstercombat.model.policy;
+
+import java.util.List;
+import java.util.Random;
+
+import edu.kit.kastel.monstercombat.model.Action;
+import edu.kit.kastel.monstercombat.model.Monster;
+
+/**
+ * Strategy that decides which action a monster uses against an opponent.
+ * Policies are pure functions of the state of both monsters, so solvers can evaluate them on any state,
+ * and may be asked for several monsters from several threads at once.
+ * @author ursxd
+ */
+public interface Policy {
+
+    /**
+     * Gets the probability of every action of the monster.
+     * Probabilities may sum up to less than one, in which case the monster passes with the remaining probability.
+     *
+     * @param monster the monster that chooses an action
+     * @param opponent the opponent of the monster
+     * @return one probability per action, in the order of {@link Monster#getActions()}
+     */
+    double[] weigh(Monster monster, Monster opponent);
+
+    /**
+     * Chooses the opponent a monster acts against. By default, every opponent is equally likely.
+     *
+     * @param monster the monster that chooses an action
+     * @param opponents the opponents that are not defeated, at least one
+     * @param random the source of randomness
+     * @return the chosen opponent
+     */
+    default Monster chooseOpponent(Monster monster, List<Monster> opponents, Random random) {
+        return opponents.get(random.nextInt(opponents.size()));
+    }
+
+    /**
+     * Chooses the target of a chosen action. By default, the action targets the opponent.
+     * The battle applies every effect of an action to its target, so a monster that wants an action
+     * to heal itself has to target itself.
+     *
+     * @param monster the monster that chose the action
+     * @param action the chosen action
+     * @param opponent the opponent the action was chosen against
+     * @return the target of the action
+     */
+    default Monster chooseTarget(Monster monster, Action action, Monster opponent) {
+        return opponent;
+    }
+
+    /**
+     * Chooses an action according to the probabilities of {@link #weigh(Monster, Monster)}.
+     *
+     * @param monster the monster that chooses an action
+     * @param opponent the opponent of the monster
+     * @param random the source of randomness
+     * @return the chosen action, or null to pass
+     */
+    default Action choose(Monster monster, Monster opponent, Random random) {
+        List<Action> actions = monster.getActions();
+        double[] weights = weigh(monster, opponent);
+        double remaining = random.nextDouble();
+        for (int i = 0; i < weights.length; i++) {
+            remaining -= weights[i];
+            if (remaining < 0) {
+                return actions.get(i);
+            }
+        }
+        return null;
+    }
+}
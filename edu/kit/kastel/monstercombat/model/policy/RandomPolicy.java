@@ -0,0 +1,24 @@
+package edu.kit.kastel.monstercombat.model.policy;
+
+import java.util.Arrays;
+
+import edu.kit.kastel.monstercombat.model.Monster;
+
+/**
+ * Policy that uses every action of a monster with the same probability.
+ * @author ursxd
+ */
+public final class RandomPolicy implements Policy {
+
+    @Override
+    public double[] weigh(Monster monster, Monster opponent) {
+        int count = monster.getActions().size();
+        if (count == 0) {
+            // A monster without actions always passes
+            return new double[0];
+        }
+        double[] weights = new double[count];
+        Arrays.fill(weights, 1.0 / count);
+        return weights;
+    }
+}
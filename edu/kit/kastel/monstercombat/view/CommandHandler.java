@@ -2,21 +2,37 @@ package edu.kit.kastel.monstercombat.view;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import edu.kit.kastel.monstercombat.model.exception.CommandException;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
 import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.ConfigurationCache;
+import edu.kit.kastel.monstercombat.model.ConfigurationWatcher;
 import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.MonsterPack;
+import edu.kit.kastel.monstercombat.model.Ruleset;
+import edu.kit.kastel.monstercombat.model.SymbolTable;
 import edu.kit.kastel.monstercombat.view.command.Command;
 import edu.kit.kastel.monstercombat.view.command.CommandAction;
+import edu.kit.kastel.monstercombat.view.command.CommandAutoplay;
 import edu.kit.kastel.monstercombat.view.command.CommandCompetition;
 import edu.kit.kastel.monstercombat.view.command.CommandLoad;
+import edu.kit.kastel.monstercombat.view.command.CommandLoadLazy;
 import edu.kit.kastel.monstercombat.view.command.CommandPass;
 import edu.kit.kastel.monstercombat.view.command.CommandQuit;
+import edu.kit.kastel.monstercombat.view.command.CommandRestore;
+import edu.kit.kastel.monstercombat.view.command.CommandSave;
 import edu.kit.kastel.monstercombat.view.command.CommandShow;
 import edu.kit.kastel.monstercombat.view.command.CommandShowActions;
+import edu.kit.kastel.monstercombat.view.command.CommandShowLadder;
 import edu.kit.kastel.monstercombat.view.command.CommandShowMonsters;
+import edu.kit.kastel.monstercombat.view.command.CommandShowOdds;
 import edu.kit.kastel.monstercombat.view.command.CommandShowStats;
+import edu.kit.kastel.monstercombat.view.command.CommandSolve;
+import edu.kit.kastel.monstercombat.view.command.CommandWhatIf;
 
 /**
  * Handler for user commands.
@@ -24,7 +40,14 @@ import edu.kit.kastel.monstercombat.view.command.CommandShowStats;
 public class CommandHandler {
     private final UserInterface userInterface;
     private List<Monster> monsters;
+    private SymbolTable symbols;
+    private Map<Integer, Monster> monstersBySymbol;
+    private Ruleset ruleset;
     private boolean inCompetition;
+    private ConfigurationWatcher watcher;
+    private ConfigurationCache.CachedConfiguration watchedConfiguration;
+    private int seenFailures;
+    private MonsterPack monsterPack;
 
     /**
      * Constructs a new command handler.
@@ -34,6 +57,9 @@ public class CommandHandler {
     public CommandHandler(UserInterface userInterface) {
         this.userInterface = userInterface;
         this.monsters = new ArrayList<>();
+        this.symbols = new SymbolTable();
+        this.monstersBySymbol = new HashMap<>();
+        this.ruleset = Ruleset.BUILT_IN;
         this.inCompetition = false;
     }
 
@@ -49,6 +75,8 @@ public class CommandHandler {
             return false;
         }
 
+        applyReload();
+
         String[] parts = input.trim().split("\\s+");
         String command = parts[0].toLowerCase();
 
@@ -65,6 +93,29 @@ public class CommandHandler {
         }
     }
 
+    /**
+     * Takes over the monsters of a watched configuration file if a newer version was loaded in the meantime.
+     * A competition that is already running keeps its monsters, only later competitions use the new ones.
+     */
+    private void applyReload() {
+        if (watcher == null) {
+            return;
+        }
+        ConfigurationCache.CachedConfiguration latest = watcher.getConfiguration();
+        if (latest != watchedConfiguration) {
+            watchedConfiguration = latest;
+            useMonsters(latest.getMonsters(), latest.getSymbols(), latest.getRuleset());
+            System.out.printf("Reloaded %d actions, %d monsters (%d actions, %d monsters unchanged).\n",
+                    latest.getActionCount(), latest.getMonsterCount(), latest.getSharedActionCount(),
+                    latest.getSharedMonsterCount());
+        }
+        int failures = watcher.getFailureCount();
+        if (failures != seenFailures) {
+            seenFailures = failures;
+            System.out.println("Error, reload failed: " + watcher.getFailure());
+        }
+    }
+
     /**
      * Checks if the input is a response to a debug mode prompt.
      *
@@ -100,12 +151,23 @@ public class CommandHandler {
                 cmd = new CommandQuit(userInterface);
                 break;
             case "load":
-                checkArgCount(args, 1);
-                cmd = new CommandLoad(args[0], this);
+                if (args.length == 2 && args[1].equalsIgnoreCase("watch")) {
+                    cmd = new CommandLoad(args[0], true, this);
+                } else if (args.length == 2 && args[1].equalsIgnoreCase("lazy")) {
+                    cmd = new CommandLoadLazy(args[0], this);
+                } else {
+                    checkArgCount(args, 1);
+                    cmd = new CommandLoad(args[0], false, this);
+                }
                 break;
             case "competition":
                 checkMinArgCount(args, 2);
-                cmd = new CommandCompetition(Arrays.asList(args));
+                cmd = new CommandCompetition(Arrays.asList(args), this);
+                inCompetition = true;
+                break;
+            case "autoplay":
+                checkMinArgCount(args, 3);
+                cmd = new CommandAutoplay(args[0], Arrays.asList(args).subList(1, args.length), this);
                 inCompetition = true;
                 break;
             case "show":
@@ -117,6 +179,14 @@ public class CommandHandler {
                 } else {
                     cmd = switch (args[0].toLowerCase()) {
                         case "monsters" -> new CommandShowMonsters(this);
+                        case "ladder" -> new CommandShowLadder(args.length >= 2 ? args[1] : null);
+                        case "odds" -> {
+                            if (!inCompetition) {
+                                throw new CommandException("Not in a competition.");
+                            }
+                            checkArgCount(args, 3);
+                            yield new CommandShowOdds(args[1], args[2]);
+                        }
                         case "actions" -> {
                             if (!inCompetition) {
                                 throw new CommandException("Not in a competition.");
@@ -145,6 +215,13 @@ public class CommandHandler {
                     cmd = new CommandAction(args[0], null);
                 }
                 break;
+            case "whatif":
+                if (!inCompetition) {
+                    throw new CommandException("Not in a competition.");
+                }
+                checkMinArgCount(args, 1);
+                cmd = createWhatIf(args);
+                break;
             case "pass":
                 if (!inCompetition) {
                     throw new CommandException("Not in a competition.");
@@ -152,12 +229,67 @@ public class CommandHandler {
                 checkArgCount(args, 0);
                 cmd = new CommandPass();
                 break;
+            case "save":
+                if (!inCompetition) {
+                    throw new CommandException("Not in a competition.");
+                }
+                checkArgCount(args, 1);
+                cmd = new CommandSave(args[0]);
+                break;
+            case "solve":
+                checkArgCount(args, 2);
+                cmd = new CommandSolve(args[0], args[1], this);
+                break;
+            case "restore":
+                checkArgCount(args, 1);
+                cmd = new CommandRestore(args[0], this);
+                inCompetition = true;
+                break;
             default:
                 throw new CommandException("Unknown command: " + command);
         }
         return cmd.execute();
     }
 
+    /**
+     * Creates a what-if command from {@code <action> [target] [n]}.
+     * With two arguments, a positive number is the number of playouts and anything else is the target.
+     *
+     * @param args the arguments
+     * @return the command
+     * @throws CommandException if there are too many arguments or the number of playouts is invalid
+     */
+    private Command createWhatIf(String[] args) throws CommandException {
+        if (args.length > 3) {
+            throw new CommandException("Expected at most 3 arguments, got " + args.length);
+        }
+        String target = null;
+        String playouts = null;
+        if (args.length == 3) {
+            target = args[1];
+            playouts = args[2];
+        } else if (args.length == 2) {
+            if (args[1].matches("\\d+")) {
+                playouts = args[1];
+            } else {
+                target = args[1];
+            }
+        }
+        if (playouts == null) {
+            return new CommandWhatIf(args[0], target, CommandWhatIf.DEFAULT_PLAYOUTS);
+        }
+        int count;
+        try {
+            count = Integer.parseInt(playouts);
+        } catch (NumberFormatException e) {
+            throw new CommandException("Invalid number of playouts: " + playouts);
+        }
+        if (count <= 0) {
+            throw new CommandException("Invalid number of playouts: " + playouts);
+        }
+        return new CommandWhatIf(args[0], target, count);
+    }
+
     /**
      * Checks if the argument count is exactly as expected.
      *
@@ -188,21 +320,87 @@ public class CommandHandler {
      * Sets the monsters.
      *
      * @param monsters the monsters to set
+     * @param symbols the symbols of the configuration of the monsters
+     * @param ruleset the ruleset of the configuration of the monsters
      */
-    public void setMonsters(List<Monster> monsters) {
-        this.monsters = new ArrayList<>(monsters);
+    public void setMonsters(List<Monster> monsters, SymbolTable symbols, Ruleset ruleset) {
+        useMonsters(monsters, symbols, ruleset);
         this.inCompetition = false;
+        this.watcher = null;
+        this.watchedConfiguration = null;
+        this.monsterPack = null;
+    }
+
+    /**
+     * Sets a lazily loaded configuration whose monsters are parsed once they are needed.
+     *
+     * @param monsterPack the lazily loaded configuration
+     */
+    public void setMonsterPack(MonsterPack monsterPack) {
+        setMonsters(List.of(), new SymbolTable(), monsterPack.getRuleset());
+        this.monsterPack = monsterPack;
+    }
+
+    private void useMonsters(List<Monster> monsters, SymbolTable symbols, Ruleset monstersRuleset) {
+        this.monsters = new ArrayList<>(monsters);
+        this.symbols = symbols;
+        this.ruleset = monstersRuleset;
+        // Competitions name monsters by their species, and the first monster of a name wins
+        this.monstersBySymbol = new HashMap<>();
+        for (Monster monster : monsters) {
+            monstersBySymbol.putIfAbsent(monster.getSymbol(), monster);
+        }
+    }
+
+    /**
+     * Keeps the monsters up to date with a watched configuration file.
+     * Newer versions are taken over before the next command is processed.
+     *
+     * @param watcher the watcher of the file
+     * @param configuration the version of the file whose monsters are currently set
+     */
+    public void watch(ConfigurationWatcher watcher, ConfigurationCache.CachedConfiguration configuration) {
+        this.watcher = watcher;
+        this.watchedConfiguration = configuration;
+        this.seenFailures = watcher.getFailureCount();
     }
 
     /**
      * Gets the monsters.
      *
      * @return the monsters
+     * @throws ConfigurationException if a lazily loaded monster is invalid
      */
-    public List<Monster> getMonsters() {
+    public List<Monster> getMonsters() throws ConfigurationException {
+        if (monsterPack != null) {
+            return monsterPack.getMonsters();
+        }
         return new ArrayList<>(monsters);
     }
 
+    /**
+     * Gets the ruleset of the loaded configuration, which competitions of its monsters use.
+     *
+     * @return the ruleset
+     */
+    public Ruleset getRuleset() {
+        return ruleset;
+    }
+
+    /**
+     * Finds the first monster of a name.
+     *
+     * @param name the name of the monster
+     * @return the monster, or null if there is no monster of that name
+     * @throws ConfigurationException if the lazily loaded monster is invalid
+     */
+    public Monster findMonster(String name) throws ConfigurationException {
+        if (monsterPack != null) {
+            return monsterPack.getMonster(name);
+        }
+        return monstersBySymbol.get(symbols.find(name));
+    }
+
     /**
      * Checks if currently in a competition.
      *
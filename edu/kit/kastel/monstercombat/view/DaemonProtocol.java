@@ -0,0 +1,35 @@
+package edu.kit.kastel.monstercombat.view;
+
+/**
+ * Wire format between {@link GameDaemon} and its thin client.
+ * The client sends the number of arguments as an int, every argument in modified UTF-8
+ * and then the raw bytes of its standard input, closing its output on end of input.
+ * The daemon answers with frames of a type byte and an int length followed by that many bytes;
+ * the exit frame carries the exit code in its length field and no payload.
+ * @author ursxd
+ */
+public final class DaemonProtocol {
+    /**
+     * Frame with bytes for standard output.
+     */
+    public static final byte FRAME_OUTPUT = 1;
+    /**
+     * Frame with bytes for standard error.
+     */
+    public static final byte FRAME_ERROR = 2;
+    /**
+     * Final frame with the exit code of the session.
+     */
+    public static final byte FRAME_EXIT = 3;
+    /**
+     * Maximum number of arguments the daemon accepts.
+     */
+    public static final int MAX_ARGUMENTS = 64;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private DaemonProtocol() {
+        // Utility class
+    }
+}
@@ -0,0 +1,44 @@
+package edu.kit.kastel.monstercombat.view;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream that sends every write as one frame of the daemon protocol.
+ * Output and error streams of a session share the underlying stream, so frames are written atomically.
+ * @author ursxd
+ */
+class FrameOutputStream extends OutputStream {
+    private final DataOutputStream frames;
+    private final byte type;
+
+    /**
+     * Constructs a new frame output stream.
+     *
+     * @param frames the stream to the client, also used as lock between the streams of one session
+     * @param type the frame type from {@link DaemonProtocol}
+     */
+    FrameOutputStream(DataOutputStream frames, byte type) {
+        this.frames = frames;
+        this.type = type;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        synchronized (frames) {
+            frames.writeByte(type);
+            frames.writeInt(length);
+            frames.write(buffer, offset, length);
+            frames.flush();
+        }
+    }
+}
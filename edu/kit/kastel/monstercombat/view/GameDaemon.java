@@ -0,0 +1,101 @@
+package edu.kit.kastel.monstercombat.view;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.ToIntBiFunction;
+
+import edu.kit.kastel.monstercombat.model.ConfigurationCache;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+
+/**
+ * Long-lived daemon that keeps the JVM warm and configurations parsed.
+ * A thin client forwards its command line arguments, standard input and standard output
+ * over a Unix domain socket, see {@link DaemonProtocol}, and exits with the exit code of its session.
+ * @author ursxd
+ */
+public class GameDaemon extends SessionServer {
+    private final Path socketPath;
+    private final List<String> preloadedConfigFiles;
+    private final ToIntBiFunction<String[], InputStream> session;
+
+    /**
+     * Constructs a new daemon.
+     *
+     * @param socketPath the path of the Unix domain socket
+     * @param preloadedConfigFiles the configurations to parse before the first client connects
+     * @param session runs one session for the given arguments and input and returns its exit code
+     */
+    public GameDaemon(Path socketPath, List<String> preloadedConfigFiles, ToIntBiFunction<String[], InputStream> session) {
+        this.socketPath = socketPath;
+        this.preloadedConfigFiles = List.copyOf(preloadedConfigFiles);
+        this.session = session;
+    }
+
+    @Override
+    protected void prepare() throws ConfigurationException {
+        for (String configFile : preloadedConfigFiles) {
+            ConfigurationCache.load(configFile);
+        }
+    }
+
+    @Override
+    protected ServerSocketChannel openServerChannel() throws IOException {
+        // A socket file left behind by a previous daemon would make bind fail
+        Files.deleteIfExists(socketPath);
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketPath));
+        socketPath.toFile().deleteOnExit();
+        return server;
+    }
+
+    @Override
+    protected void serve(SocketChannel connection) throws IOException {
+        DataInputStream request = new DataInputStream(Channels.newInputStream(connection));
+        DataOutputStream response = new DataOutputStream(Channels.newOutputStream(connection));
+
+        int argumentCount = request.readInt();
+        if (argumentCount < 0 || argumentCount > DaemonProtocol.MAX_ARGUMENTS) {
+            throw new IOException("Invalid argument count " + argumentCount);
+        }
+        String[] args = new String[argumentCount];
+        for (int i = 0; i < argumentCount; i++) {
+            args[i] = request.readUTF();
+        }
+
+        PrintStream output = createFrameStream(response, DaemonProtocol.FRAME_OUTPUT);
+        PrintStream error = createFrameStream(response, DaemonProtocol.FRAME_ERROR);
+        SessionPrintStream.bind(output, error);
+        int exitCode;
+        try {
+            exitCode = session.applyAsInt(args, request);
+        } finally {
+            output.flush();
+            error.flush();
+            SessionPrintStream.bind(null);
+        }
+
+        synchronized (response) {
+            response.writeByte(DaemonProtocol.FRAME_EXIT);
+            response.writeInt(exitCode);
+            response.flush();
+        }
+    }
+
+    private static PrintStream createFrameStream(DataOutputStream response, byte type) {
+        return new PrintStream(new BufferedOutputStream(new FrameOutputStream(response, type),
+                GameServer.SESSION_BUFFER_SIZE), true, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,118 @@
+package edu.kit.kastel.monstercombat.view;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.CompetitionActor;
+import edu.kit.kastel.monstercombat.model.CompetitionScheduler;
+import edu.kit.kastel.monstercombat.model.ConfigurationCache;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+
+/**
+ * Game server that serves many players on one machine.
+ * Every connection gets its own user interface, command handler and competition.
+ * Input is read on a virtual thread per connection, while commands are messages to the actor of the
+ * competition, so that all competitions share a small scheduler. Configurations are parsed once and shared.
+ * @author ursxd
+ */
+public class GameServer extends SessionServer {
+    /**
+     * Size of the input and output buffers of a session, kept small so that idle connections stay cheap.
+     */
+    static final int SESSION_BUFFER_SIZE = 512;
+
+    private final int port;
+    private final String configFile;
+    private final long seed;
+    private final CompetitionScheduler scheduler;
+
+    /**
+     * Constructs a new game server listening on a localhost TCP port.
+     *
+     * @param port the port to listen on
+     * @param configFile the configuration every session starts with
+     * @param seed the seed for the random number generator of each session
+     */
+    public GameServer(int port, String configFile, long seed) {
+        this.port = port;
+        this.configFile = configFile;
+        this.seed = seed;
+        this.scheduler = new CompetitionScheduler(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    protected void prepare() throws ConfigurationException {
+        // Parse once up front, so that configuration errors are reported before accepting connections
+        ConfigurationCache.load(configFile);
+    }
+
+    @Override
+    protected ServerSocketChannel openServerChannel() throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        return server;
+    }
+
+    @Override
+    protected void serve(SocketChannel connection) {
+        PrintStream output = new PrintStream(
+                new BufferedOutputStream(Channels.newOutputStream(connection), SESSION_BUFFER_SIZE),
+                true, StandardCharsets.UTF_8);
+        Competition competition = Competition.create(seed, false);
+        CompetitionActor actor = scheduler.createActor(competition, output);
+        Competition.bindToCurrentThread(competition);
+        SessionPrintStream.bind(output);
+        try {
+            ConfigurationCache.CachedConfiguration configuration = ConfigurationCache.load(configFile);
+            System.out.println(configuration.getContent());
+            System.out.println(configuration.getLoadedMessage());
+
+            UserInterface userInterface = new UserInterface(Channels.newInputStream(connection), output, output,
+                    SESSION_BUFFER_SIZE);
+            userInterface.setMonsters(configuration.getMonsters(), configuration.getSymbols(),
+                    configuration.getRuleset());
+            userInterface.setCommandExecutor(command -> actor.execute(() -> {
+                SessionPrintStream.bind(output);
+                try {
+                    command.run();
+                } finally {
+                    SessionPrintStream.bind(null);
+                }
+            }));
+            userInterface.setStopListener(() -> closeQuietly(connection));
+            userInterface.handleUserInput();
+        } catch (ConfigurationException e) {
+            System.out.println("Error, " + e.getMessage());
+        } finally {
+            output.flush();
+            scheduler.release(actor);
+            SessionPrintStream.bind(null);
+            Competition.bindToCurrentThread(null);
+        }
+    }
+
+    /**
+     * Gets the scheduler that runs the competitions of all sessions, e.g. to read queue depths.
+     *
+     * @return the scheduler
+     */
+    public CompetitionScheduler getScheduler() {
+        return scheduler;
+    }
+
+    private static void closeQuietly(SocketChannel connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            // The session ends anyway
+        }
+    }
+}
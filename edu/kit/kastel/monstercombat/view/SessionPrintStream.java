@@ -0,0 +1,237 @@
+package edu.kit.kastel.monstercombat.view;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Print stream that forwards all output to the stream bound to the current thread.
+ * Installed as {@link System#out} and {@link System#err} by session servers, so that output of commands
+ * and battles reaches the connection of the session that produced it.
+ * Threads without a bound stream write to the original standard streams.
+ * @author ursxd
+ */
+public final class SessionPrintStream extends PrintStream {
+    private static final ThreadLocal<PrintStream> SESSION_OUTPUT = new ThreadLocal<>();
+    private static final ThreadLocal<PrintStream> SESSION_ERROR = new ThreadLocal<>();
+
+    private final PrintStream fallback;
+    private final ThreadLocal<PrintStream> sessionStream;
+
+    private SessionPrintStream(PrintStream fallback, ThreadLocal<PrintStream> sessionStream) {
+        super(fallback, true);
+        this.fallback = fallback;
+        this.sessionStream = sessionStream;
+    }
+
+    /**
+     * Replaces {@link System#out} and {@link System#err} with session print streams, unless this was already done.
+     */
+    public static synchronized void install() {
+        if (!(System.out instanceof SessionPrintStream)) {
+            System.setOut(new SessionPrintStream(System.out, SESSION_OUTPUT));
+        }
+        if (!(System.err instanceof SessionPrintStream)) {
+            System.setErr(new SessionPrintStream(System.err, SESSION_ERROR));
+        }
+    }
+
+    /**
+     * Binds standard output and standard error of the current thread to the given stream.
+     *
+     * @param output the stream of the current session, or null to write to the original standard streams
+     */
+    public static void bind(PrintStream output) {
+        bind(output, output);
+    }
+
+    /**
+     * Binds standard output and standard error of the current thread to separate streams.
+     *
+     * @param output the output stream of the current session, or null for the original standard output
+     * @param error the error stream of the current session, or null for the original standard error
+     */
+    public static void bind(PrintStream output, PrintStream error) {
+        set(SESSION_OUTPUT, output);
+        set(SESSION_ERROR, error);
+    }
+
+    private static void set(ThreadLocal<PrintStream> sessionStream, PrintStream stream) {
+        if (stream == null) {
+            sessionStream.remove();
+        } else {
+            sessionStream.set(stream);
+        }
+    }
+
+    private PrintStream target() {
+        PrintStream stream = sessionStream.get();
+        return stream != null ? stream : fallback;
+    }
+
+    @Override
+    public void flush() {
+        target().flush();
+    }
+
+    @Override
+    public void close() {
+        target().close();
+    }
+
+    @Override
+    public boolean checkError() {
+        return target().checkError();
+    }
+
+    @Override
+    public void write(int b) {
+        target().write(b);
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) {
+        target().write(buf, off, len);
+    }
+
+    @Override
+    public void write(byte[] buf) {
+        target().write(buf, 0, buf.length);
+    }
+
+    @Override
+    public void print(boolean b) {
+        target().print(b);
+    }
+
+    @Override
+    public void print(char c) {
+        target().print(c);
+    }
+
+    @Override
+    public void print(int i) {
+        target().print(i);
+    }
+
+    @Override
+    public void print(long l) {
+        target().print(l);
+    }
+
+    @Override
+    public void print(float f) {
+        target().print(f);
+    }
+
+    @Override
+    public void print(double d) {
+        target().print(d);
+    }
+
+    @Override
+    public void print(char[] s) {
+        target().print(s);
+    }
+
+    @Override
+    public void print(String s) {
+        target().print(s);
+    }
+
+    @Override
+    public void print(Object obj) {
+        target().print(obj);
+    }
+
+    @Override
+    public void println() {
+        target().println();
+    }
+
+    @Override
+    public void println(boolean x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(char x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(int x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(long x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(float x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(double x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(char[] x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(String x) {
+        target().println(x);
+    }
+
+    @Override
+    public void println(Object x) {
+        target().println(x);
+    }
+
+    @Override
+    public PrintStream printf(String format, Object... args) {
+        target().printf(format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream printf(Locale l, String format, Object... args) {
+        target().printf(l, format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream format(String format, Object... args) {
+        target().format(format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream format(Locale l, String format, Object... args) {
+        target().format(l, format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream append(CharSequence csq) {
+        target().append(csq);
+        return this;
+    }
+
+    @Override
+    public PrintStream append(CharSequence csq, int start, int end) {
+        target().append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    public PrintStream append(char c) {
+        target().append(c);
+        return this;
+    }
+}
@@ -0,0 +1,69 @@
+package edu.kit.kastel.monstercombat.view;
+
+import java.io.IOException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+
+/**
+ * Base class for servers that run one session per connection on a virtual thread.
+ * @author ursxd
+ */
+public abstract class SessionServer {
+    private final AtomicLong sessionCounter = new AtomicLong();
+
+    /**
+     * Accepts connections until the server channel is closed.
+     *
+     * @throws IOException if the server channel cannot be opened
+     * @throws ConfigurationException if a configuration needed up front is invalid
+     */
+    public void run() throws IOException, ConfigurationException {
+        prepare();
+        SessionPrintStream.install();
+
+        try (ServerSocketChannel server = openServerChannel()) {
+            System.out.printf("Listening on %s\n", server.getLocalAddress());
+
+            while (server.isOpen()) {
+                SocketChannel connection = server.accept();
+                Thread.ofVirtual()
+                        .name("session-" + sessionCounter.incrementAndGet())
+                        .start(() -> {
+                            try (connection) {
+                                serve(connection);
+                            } catch (IOException e) {
+                                System.err.println("Error in session: " + e.getMessage());
+                            }
+                        });
+            }
+        }
+    }
+
+    /**
+     * Prepares shared state before the first connection is accepted.
+     *
+     * @throws ConfigurationException if a configuration needed up front is invalid
+     */
+    protected void prepare() throws ConfigurationException {
+        // Nothing to prepare by default
+    }
+
+    /**
+     * Opens and binds the server channel.
+     *
+     * @return the bound server channel
+     * @throws IOException if the channel cannot be opened or bound
+     */
+    protected abstract ServerSocketChannel openServerChannel() throws IOException;
+
+    /**
+     * Serves one connection on its own virtual thread. The connection is closed afterwards.
+     *
+     * @param connection the accepted connection
+     * @throws IOException if reading from or writing to the connection fails
+     */
+    protected abstract void serve(SocketChannel connection) throws IOException;
+}
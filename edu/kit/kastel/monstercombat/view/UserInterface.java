@@ -5,18 +5,32 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.MonsterPack;
+import edu.kit.kastel.monstercombat.model.Ruleset;
+import edu.kit.kastel.monstercombat.model.SymbolTable;
 
 /**
  * User interface for the monster battle game.
  */
 public class UserInterface {
+    private static final int DEFAULT_READ_BUFFER_SIZE = 8192;
+    private static final long REJECTED_RETRY_MILLIS = 10;
+
     private final InputStream inputSource;
     private final PrintStream outputStream;
     private final PrintStream errorStream;
     private final CommandHandler commandHandler;
-    private boolean isRunning;
+    private final int readBufferSize;
+    private Executor commandExecutor;
+    private Runnable stopListener;
+    private volatile boolean isRunning;
 
     /**
      * Constructs a new user interface.
@@ -26,19 +40,56 @@ public class UserInterface {
      * @param errorStream the error stream
      */
     public UserInterface(InputStream inputSource, PrintStream outputStream, PrintStream errorStream) {
+        this(inputSource, outputStream, errorStream, DEFAULT_READ_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a new user interface with a custom input buffer size.
+     * Sessions of the game server use a small buffer so that idle connections stay cheap.
+     *
+     * @param inputSource the input source
+     * @param outputStream the output stream
+     * @param errorStream the error stream
+     * @param readBufferSize the size of the input buffer in characters
+     */
+    public UserInterface(InputStream inputSource, PrintStream outputStream, PrintStream errorStream,
+                         int readBufferSize) {
         this.inputSource = inputSource;
+        this.readBufferSize = readBufferSize;
         this.outputStream = outputStream;
         this.errorStream = errorStream;
         this.commandHandler = new CommandHandler(this);
+        this.commandExecutor = Runnable::run;
+        this.stopListener = () -> { };
         this.isRunning = false;
     }
 
+    /**
+     * Processes commands with the given executor instead of the thread reading the input,
+     * e.g. with the actor of the competition. Commands are still processed in input order.
+     * Commands the executor rejects are dropped with an error.
+     *
+     * @param commandExecutor the executor for commands
+     */
+    public void setCommandExecutor(Executor commandExecutor) {
+        this.commandExecutor = commandExecutor;
+    }
+
+    /**
+     * Sets a listener that is notified when the user quits, e.g. to close the connection of a session.
+     *
+     * @param stopListener the listener
+     */
+    public void setStopListener(Runnable stopListener) {
+        this.stopListener = stopListener;
+    }
+
     /**
      * Handles user input.
      */
     public void handleUserInput() {
         this.isRunning = true;
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputSource));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputSource), readBufferSize);
 
         try {
             while (isRunning) {
@@ -48,24 +99,83 @@ public class UserInterface {
                     break;
                 }
 
-                commandHandler.processCommand(line);
-
-                // If in a competition, ensure we keep asking for actions
-                if (commandHandler.isInCompetition() && Competition.getInstance().getCurrentMonster() != null) {
-                    System.out.println();
-                    System.out.printf("What should %s do?\n",
-                            Competition.getInstance().getCurrentMonster().getDisplayName());
+                try {
+                    commandExecutor.execute(() -> processLine(line));
+                } catch (RejectedExecutionException e) {
+                    errorStream.println("Error, command dropped, " + e.getMessage());
                 }
             }
         } catch (IOException e) {
-            errorStream.println("Error reading input: " + e.getMessage());
+            if (isRunning) {
+                errorStream.println("Error reading input: " + e.getMessage());
+            }
+        }
+        awaitCommands();
+    }
+
+    private void processLine(String line) {
+        // Input that was read before quit was processed is ignored
+        if (!isRunning) {
+            return;
+        }
+
+        commandHandler.processCommand(line);
+
+        // If in a competition, ensure we keep asking for actions
+        if (commandHandler.isInCompetition() && Competition.getInstance().getCurrentMonster() != null) {
+            System.out.println();
+            System.out.printf("What should %s do?\n",
+                    Competition.getInstance().getCurrentMonster().getDisplayName());
+        }
+    }
+
+    private void awaitCommands() {
+        CountDownLatch processed = new CountDownLatch(1);
+        try {
+            // Waits until the executor has room, since this marker must not be dropped
+            while (!tryExecute(processed::countDown)) {
+                Thread.sleep(REJECTED_RETRY_MILLIS);
+            }
+            processed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
+    private boolean tryExecute(Runnable command) {
+        try {
+            commandExecutor.execute(command);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sets the monsters that are available for competitions.
+     *
+     * @param monsters the monsters of the loaded configuration
+     * @param symbols the symbols of the loaded configuration
+     * @param ruleset the ruleset of the loaded configuration
+     */
+    public void setMonsters(List<Monster> monsters, SymbolTable symbols, Ruleset ruleset) {
+        commandHandler.setMonsters(monsters, symbols, ruleset);
+    }
+
+    /**
+     * Sets a lazily loaded configuration whose monsters are available for competitions.
+     *
+     * @param monsterPack the lazily loaded configuration
+     */
+    public void setMonsterPack(MonsterPack monsterPack) {
+        commandHandler.setMonsterPack(monsterPack);
+    }
+
     /**
      * Stops handling user input.
      */
     public void stop() {
         this.isRunning = false;
+        stopListener.run();
     }
 }
\ No newline at end of file
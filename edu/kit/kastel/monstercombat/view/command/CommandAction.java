@@ -53,9 +53,8 @@ public class CommandAction implements Command {
             }
         }
 
-        // Set the action and target
-        competition.setCurrentAction(action);
-        competition.setCurrentTarget(target);
+        // Choose the action and target, which continues the competition
+        competition.chooseAction(action, target);
 
         return true;
     }
@@ -0,0 +1,74 @@
+package edu.kit.kastel.monstercombat.view.command;
+
+import java.util.List;
+
+import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+import edu.kit.kastel.monstercombat.model.policy.Policies;
+import edu.kit.kastel.monstercombat.model.policy.Policy;
+import edu.kit.kastel.monstercombat.view.CommandHandler;
+
+/**
+ * Command to run a whole competition in which every monster is controlled by a built-in policy.
+ * The competition is played to the end before the command returns.
+ */
+public class CommandAutoplay implements Command {
+    /**
+     * The number of rounds after which an autoplayed competition ends without a winner.
+     */
+    public static final int MAX_ROUNDS = 10000;
+
+    private final String policyName;
+    private final List<String> monsterNames;
+    private final CommandHandler handler;
+
+    /**
+     * Constructs a new autoplay command.
+     *
+     * @param policyName the name of the policy controlling all monsters
+     * @param monsterNames the names of the monsters
+     * @param handler the command handler holding the loaded monsters
+     */
+    public CommandAutoplay(String policyName, List<String> monsterNames, CommandHandler handler) {
+        this.policyName = policyName;
+        this.monsterNames = monsterNames;
+        this.handler = handler;
+    }
+
+    @Override
+    public boolean execute() {
+        Policy policy = Policies.create(policyName);
+        if (policy == null) {
+            System.out.printf("Error, unknown policy %s. Known policies are %s.\n", policyName,
+                    String.join(", ", Policies.NAMES));
+            return false;
+        }
+
+        Competition competition = Competition.getInstance();
+        competition.clear();
+        competition.setRuleset(handler.getRuleset());
+        for (String name : monsterNames) {
+            Monster found;
+            try {
+                found = handler.findMonster(name);
+            } catch (ConfigurationException e) {
+                System.out.println("Error, " + e.getMessage());
+                return false;
+            }
+            if (found == null) {
+                System.out.printf("Error, monster %s not found.\n", name);
+                return false;
+            }
+            competition.addMonster(found);
+        }
+        for (Monster participant : competition.getMonsters()) {
+            competition.setPolicy(participant, policy);
+        }
+        competition.setMaxRounds(MAX_ROUNDS);
+
+        System.out.printf("The %d monsters enter the competition!\n", monsterNames.size());
+        competition.start();
+        return true;
+    }
+}
@@ -3,14 +3,17 @@ package edu.kit.kastel.monstercombat.view.command;
 import java.util.List;
 
 import edu.kit.kastel.monstercombat.model.Competition;
-import edu.kit.kastel.monstercombat.model.ConfigurationLoader;
 import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+import edu.kit.kastel.monstercombat.view.CommandHandler;
 
 public class CommandCompetition implements Command {
     private final List<String> monsterNames;
+    private final CommandHandler handler;
 
-    public CommandCompetition(List<String> monsterNames) {
+    public CommandCompetition(List<String> monsterNames, CommandHandler handler) {
         this.monsterNames = monsterNames;
+        this.handler = handler;
     }
 
     @Override
@@ -19,20 +22,17 @@ public class CommandCompetition implements Command {
 
         // Clear the current competition
         competition.clear();
-
-        // Get the monsters from the configuration
-        ConfigurationLoader loader = new ConfigurationLoader();
-        List<Monster> allMonsters = loader.getMonsters();
+        competition.setRuleset(handler.getRuleset());
 
         // Add the specified monsters to the competition
         for (String name : monsterNames) {
-            // Find the monster with the given name
-            Monster found = null;
-            for (Monster monster : allMonsters) {
-                if (monster.getName().equals(name)) {
-                    found = monster;
-                    break;
-                }
+            // Find the monster with the given name in the loaded configuration
+            Monster found;
+            try {
+                found = handler.findMonster(name);
+            } catch (ConfigurationException e) {
+                System.out.println("Error, " + e.getMessage());
+                return false;
             }
 
             if (found == null) {
@@ -45,6 +45,7 @@ public class CommandCompetition implements Command {
 
         // Start the competition
         System.out.printf("The %d monsters enter the competition!\n", monsterNames.size());
+        competition.start();
 
         return true;
     }
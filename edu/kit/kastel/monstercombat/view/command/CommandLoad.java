@@ -1,32 +1,39 @@
 package edu.kit.kastel.monstercombat.view.command;
 
-import edu.kit.kastel.monstercombat.model.ConfigurationLoader;
+import edu.kit.kastel.monstercombat.model.ConfigurationCache;
+import edu.kit.kastel.monstercombat.model.ConfigurationWatcher;
 import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
 import edu.kit.kastel.monstercombat.view.CommandHandler;
 
 public class CommandLoad implements Command {
     private final String filePath;
+    private final boolean watch;
     private final CommandHandler handler;
 
-    public CommandLoad(String filePath, CommandHandler handler) {
+    public CommandLoad(String filePath, boolean watch, CommandHandler handler) {
         this.filePath = filePath;
+        this.watch = watch;
         this.handler = handler;
     }
 
     @Override
     public boolean execute() {
         try {
-            // Load the configuration
-            ConfigurationLoader loader = new ConfigurationLoader();
-            String configContent = loader.loadConfiguration(filePath);
+            // Load the configuration, shared with other sessions that use the same file
+            ConfigurationWatcher watcher = watch ? ConfigurationCache.watch(filePath) : null;
+            ConfigurationCache.CachedConfiguration configuration = watch
+                    ? watcher.getConfiguration()
+                    : ConfigurationCache.load(filePath);
 
             // Set the loaded monsters in the handler
-            handler.setMonsters(loader.getMonsters());
+            handler.setMonsters(configuration.getMonsters(), configuration.getSymbols(), configuration.getRuleset());
+            if (watch) {
+                handler.watch(watcher, configuration);
+            }
 
             // Output the configuration
-            System.out.println(configContent);
-            System.out.printf("Loaded %d actions, %d monsters.\n",
-                    loader.getActionCount(), loader.getMonsterCount());
+            System.out.println(configuration.getContent());
+            System.out.println(configuration.getLoadedMessage());
 
             return true;
         } catch (ConfigurationException e) {
@@ -0,0 +1,33 @@
+package edu.kit.kastel.monstercombat.view.command;
+
+import edu.kit.kastel.monstercombat.model.MonsterPack;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+import edu.kit.kastel.monstercombat.view.CommandHandler;
+
+/**
+ * Command to load a configuration lazily, parsing monsters only once a competition needs them.
+ */
+public class CommandLoadLazy implements Command {
+    private final String filePath;
+    private final CommandHandler handler;
+
+    public CommandLoadLazy(String filePath, CommandHandler handler) {
+        this.filePath = filePath;
+        this.handler = handler;
+    }
+
+    @Override
+    public boolean execute() {
+        try {
+            MonsterPack pack = MonsterPack.open(filePath);
+            handler.setMonsterPack(pack);
+
+            // The configuration is not printed, as that would read the whole file
+            System.out.printf("Loaded %d actions, %d monsters.\n", pack.getActionCount(), pack.getMonsterCount());
+            return true;
+        } catch (ConfigurationException e) {
+            System.out.println("Error, " + e.getMessage());
+            return false;
+        }
+    }
+}
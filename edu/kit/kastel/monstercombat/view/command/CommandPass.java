@@ -14,8 +14,8 @@ public class CommandPass implements Command {
             return false;
         }
 
-        // Set null action to indicate passing
-        competition.setCurrentAction(null);
+        // Choose no action to indicate passing
+        competition.chooseAction(null, null);
 
         return true;
     }
@@ -0,0 +1,55 @@
+package edu.kit.kastel.monstercombat.view.command;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.CompetitionSnapshot;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+import edu.kit.kastel.monstercombat.view.CommandHandler;
+
+/**
+ * Command to continue a competition from a snapshot file.
+ * The monsters of the snapshot must be part of the loaded configuration.
+ */
+public class CommandRestore implements Command {
+    private final String filePath;
+    private final CommandHandler handler;
+
+    public CommandRestore(String filePath, CommandHandler handler) {
+        this.filePath = filePath;
+        this.handler = handler;
+    }
+
+    @Override
+    public boolean execute() {
+        Map<String, Monster> species = new HashMap<>();
+        try {
+            for (Monster monster : handler.getMonsters()) {
+                species.putIfAbsent(monster.getName(), monster);
+            }
+        } catch (ConfigurationException e) {
+            System.out.println("Error, " + e.getMessage());
+            return false;
+        }
+
+        Competition competition = Competition.getInstance();
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(Paths.get(filePath))))) {
+            CompetitionSnapshot.read(competition, input, species, handler.getRuleset());
+        } catch (IOException e) {
+            competition.clear();
+            System.out.println("Error, cannot restore competition: " + e.getMessage());
+            return false;
+        }
+
+        System.out.printf("Restored competition from %s in round %d.\n", filePath, competition.getCurrentRound());
+        return true;
+    }
+}
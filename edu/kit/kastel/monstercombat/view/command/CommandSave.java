@@ -0,0 +1,35 @@
+package edu.kit.kastel.monstercombat.view.command;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.CompetitionSnapshot;
+
+/**
+ * Command to save the running competition to a snapshot file.
+ */
+public class CommandSave implements Command {
+    private final String filePath;
+
+    public CommandSave(String filePath) {
+        this.filePath = filePath;
+    }
+
+    @Override
+    public boolean execute() {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(Paths.get(filePath))))) {
+            CompetitionSnapshot.write(Competition.getInstance(), output);
+        } catch (IOException e) {
+            System.out.println("Error, cannot save competition: " + e.getMessage());
+            return false;
+        }
+
+        System.out.printf("Saved competition to %s.\n", filePath);
+        return true;
+    }
+}
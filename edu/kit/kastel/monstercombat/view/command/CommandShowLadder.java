@@ -0,0 +1,84 @@
+package edu.kit.kastel.monstercombat.view.command;
+
+import java.io.IOException;
+import java.util.List;
+
+import edu.kit.kastel.monstercombat.model.ladder.HistoryEntry;
+import edu.kit.kastel.monstercombat.model.ladder.LadderEntry;
+import edu.kit.kastel.monstercombat.model.ladder.RatingLadder;
+
+/**
+ * Command to show the top of the rating ladder, or the history of one monster.
+ */
+public class CommandShowLadder implements Command {
+    private static final int DEFAULT_COUNT = 10;
+
+    private final String argument;
+
+    /**
+     * Constructs a new show ladder command.
+     *
+     * @param argument the number of top entries, the name of a monster, or null for the top ten
+     */
+    public CommandShowLadder(String argument) {
+        this.argument = argument;
+    }
+
+    @Override
+    public boolean execute() {
+        RatingLadder ladder = RatingLadder.getInstance();
+        if (ladder == null) {
+            System.out.println("Error, no ladder is open.");
+            return false;
+        }
+
+        if (argument == null) {
+            showTop(ladder, DEFAULT_COUNT);
+            return true;
+        }
+        if (argument.matches("\\d+")) {
+            showTop(ladder, Integer.parseInt(argument));
+            return true;
+        }
+        return showHistory(ladder, argument);
+    }
+
+    private void showTop(RatingLadder ladder, int count) {
+        System.out.println("LADDER");
+        List<LadderEntry> entries = ladder.getTop(count);
+        for (int i = 0; i < entries.size(); i++) {
+            LadderEntry entry = entries.get(i);
+            System.out.printf("%d. %s: rating %.0f, %d wins in %d games\n",
+                    i + 1, entry.getName(), entry.getRating(), entry.getWins(), entry.getGames());
+        }
+    }
+
+    private boolean showHistory(RatingLadder ladder, String name) {
+        LadderEntry entry = ladder.getEntry(name);
+        if (entry == null) {
+            System.out.printf("Error, monster %s has no results.\n", name);
+            return false;
+        }
+
+        List<HistoryEntry> history;
+        try {
+            history = ladder.getHistory(name, DEFAULT_COUNT);
+        } catch (IOException e) {
+            System.out.println("Error, cannot read ladder: " + e.getMessage());
+            return false;
+        }
+
+        System.out.printf("HISTORY OF %s (rating %.0f, %d wins in %d games)\n",
+                name, entry.getRating(), entry.getWins(), entry.getGames());
+        for (HistoryEntry result : history) {
+            String outcome = switch (result.getOutcome()) {
+                case WIN -> "won";
+                case LOSS -> "lost";
+                case DRAW -> "drew";
+            };
+            System.out.printf("%s against %s in %d rounds (seed %d)\n",
+                    outcome, String.join(", ", result.getOpponents()), result.getRounds(), result.getSeed());
+        }
+        return true;
+    }
+}
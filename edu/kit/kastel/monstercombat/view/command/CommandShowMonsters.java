@@ -3,6 +3,7 @@ package edu.kit.kastel.monstercombat.view.command;
 import java.util.List;
 
 import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
 import edu.kit.kastel.monstercombat.view.CommandHandler;
 
 public class CommandShowMonsters implements Command {
@@ -14,7 +15,13 @@ public class CommandShowMonsters implements Command {
 
     @Override
     public boolean execute() {
-        List<Monster> monsters = handler.getMonsters();
+        List<Monster> monsters;
+        try {
+            monsters = handler.getMonsters();
+        } catch (ConfigurationException e) {
+            System.out.println("Error, " + e.getMessage());
+            return false;
+        }
 
         for (Monster monster : monsters) {
             System.out.println(monster);
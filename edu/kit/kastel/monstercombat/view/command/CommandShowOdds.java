@@ -0,0 +1,61 @@
+package edu.kit.kastel.monstercombat.view.command;
+
+import edu.kit.kastel.monstercombat.model.Action;
+import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.odds.ActionOdds;
+import edu.kit.kastel.monstercombat.model.odds.OddsCalculator;
+
+/**
+ * Command to show the exact odds of the current monster using an action on a target.
+ */
+public class CommandShowOdds implements Command {
+    private static final double PERCENT = 100.0;
+
+    private final String actionName;
+    private final String targetName;
+
+    /**
+     * Constructs a new show odds command.
+     *
+     * @param actionName the name of the action
+     * @param targetName the display name of the target
+     */
+    public CommandShowOdds(String actionName, String targetName) {
+        this.actionName = actionName;
+        this.targetName = targetName;
+    }
+
+    @Override
+    public boolean execute() {
+        Competition competition = Competition.getInstance();
+        Monster currentMonster = competition.getCurrentMonster();
+        if (currentMonster == null) {
+            System.out.println("Error, no monster is currently active.");
+            return false;
+        }
+
+        Action action = currentMonster.getAction(actionName);
+        if (action == null) {
+            System.out.printf("Error, %s does not know the action %s.\n", currentMonster.getDisplayName(), actionName);
+            return false;
+        }
+        Monster target = competition.getMonster(targetName);
+        if (target == null) {
+            System.out.printf("Error, monster %s not found.\n", targetName);
+            return false;
+        }
+        if (target == currentMonster) {
+            System.out.println("Error, odds are only available against other monsters.");
+            return false;
+        }
+
+        ActionOdds odds = OddsCalculator.calculate(currentMonster, action, target);
+        System.out.printf("ODDS OF %s USING %s ON %s\n",
+                currentMonster.getDisplayName(), action.getName(), target.getDisplayName());
+        System.out.printf("Failure %.2f%%, expected damage %.2f, damage %d to %d, KO %.2f%%\n",
+                odds.getFailureProbability() * PERCENT, odds.getExpectedDamage(),
+                odds.getMinDamage(), odds.getMaxDamage(), odds.getKoProbability() * PERCENT);
+        return true;
+    }
+}
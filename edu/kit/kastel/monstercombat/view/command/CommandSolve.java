@@ -0,0 +1,74 @@
+package edu.kit.kastel.monstercombat.view.command;
+
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.exception.ConfigurationException;
+import edu.kit.kastel.monstercombat.model.exception.SolverException;
+import edu.kit.kastel.monstercombat.model.odds.WinProbability;
+import edu.kit.kastel.monstercombat.model.odds.WinProbabilitySolver;
+import edu.kit.kastel.monstercombat.model.policy.Policy;
+import edu.kit.kastel.monstercombat.model.policy.RandomPolicy;
+import edu.kit.kastel.monstercombat.view.CommandHandler;
+
+/**
+ * Command to compute the exact win probabilities of a 1v1 battle between two loaded monsters
+ * that both choose their actions uniformly at random.
+ */
+public class CommandSolve implements Command {
+    private static final double PERCENT = 100.0;
+
+    private final String firstName;
+    private final String secondName;
+    private final CommandHandler handler;
+
+    /**
+     * Constructs a new solve command.
+     *
+     * @param firstName the name of the first monster
+     * @param secondName the name of the second monster
+     * @param handler the command handler holding the loaded monsters
+     */
+    public CommandSolve(String firstName, String secondName, CommandHandler handler) {
+        this.firstName = firstName;
+        this.secondName = secondName;
+        this.handler = handler;
+    }
+
+    @Override
+    public boolean execute() {
+        Monster first = findMonster(firstName);
+        Monster second = findMonster(secondName);
+        if (first == null || second == null) {
+            return false;
+        }
+
+        Policy policy = new RandomPolicy();
+        WinProbability result;
+        try {
+            result = new WinProbabilitySolver(first, policy, second, policy,
+                    WinProbabilitySolver.DEFAULT_MEMORY_CAP).solve();
+        } catch (SolverException e) {
+            System.out.println("Error, cannot solve battle: " + e.getMessage() + ".");
+            return false;
+        }
+
+        String secondDisplayName = firstName.equals(secondName) ? secondName + "#1" : secondName;
+        System.out.printf("%s wins %.4f%%, %s wins %.4f%%, no winner %.4f%% (%d states)\n",
+                firstName, result.getFirstWins() * PERCENT, secondDisplayName, result.getSecondWins() * PERCENT,
+                result.getNoWinner() * PERCENT, result.getStates());
+        return true;
+    }
+
+    private Monster findMonster(String name) {
+        Monster monster;
+        try {
+            monster = handler.findMonster(name);
+        } catch (ConfigurationException e) {
+            System.out.println("Error, " + e.getMessage());
+            return null;
+        }
+        if (monster == null) {
+            System.out.printf("Error, monster %s not found.\n", name);
+        }
+        return monster;
+    }
+}
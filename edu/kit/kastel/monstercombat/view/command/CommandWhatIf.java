@@ -0,0 +1,122 @@
+package edu.kit.kastel.monstercombat.view.command;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import edu.kit.kastel.monstercombat.model.Action;
+import edu.kit.kastel.monstercombat.model.Competition;
+import edu.kit.kastel.monstercombat.model.Monster;
+import edu.kit.kastel.monstercombat.model.WhatIfAnalysis;
+import edu.kit.kastel.monstercombat.model.WhatIfResult;
+import edu.kit.kastel.monstercombat.model.policy.RandomPolicy;
+import edu.kit.kastel.monstercombat.view.SessionPrintStream;
+
+/**
+ * Command to play the rest of the competition many times in parallel after the current monster
+ * used an action, and to show how often every monster wins. The running competition is not changed.
+ * All later choices are made at random.
+ */
+public class CommandWhatIf implements Command {
+    /**
+     * The number of playouts if no other number is given.
+     */
+    public static final int DEFAULT_PLAYOUTS = 1000;
+    private static final double PERCENT = 100.0;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    private final String actionName;
+    private final String targetName;
+    private final int playouts;
+
+    /**
+     * Constructs a new what-if command.
+     *
+     * @param actionName the name of the action
+     * @param targetName the display name of the target, or null for the first other conscious monster
+     * @param playouts the number of playouts
+     */
+    public CommandWhatIf(String actionName, String targetName, int playouts) {
+        this.actionName = actionName;
+        this.targetName = targetName;
+        this.playouts = playouts;
+    }
+
+    @Override
+    public boolean execute() {
+        Competition competition = Competition.getInstance();
+        Monster currentMonster = competition.getCurrentMonster();
+        if (currentMonster == null) {
+            System.out.println("Error, no monster is currently active.");
+            return false;
+        }
+        Action action = currentMonster.getAction(actionName);
+        if (action == null) {
+            System.out.printf("Error, %s does not know the action %s.\n", currentMonster.getDisplayName(), actionName);
+            return false;
+        }
+        Monster target = findTarget(competition, currentMonster);
+        if (target == null) {
+            return false;
+        }
+
+        // Playouts print like real battles, so their threads write to nowhere
+        SessionPrintStream.install();
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(() -> {
+                SessionPrintStream.bind(DISCARD);
+                task.run();
+            }, "whatif");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        WhatIfResult result;
+        try {
+            result = new WhatIfAnalysis(competition, new RandomPolicy()).run(action, target, playouts, executor,
+                    threads);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Error, the playouts were interrupted.");
+            return false;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.printf("WHAT IF %s USES %s ON %s (%d playouts)\n", currentMonster.getDisplayName(),
+                action.getName(), target.getDisplayName(), result.getPlayouts());
+        List<Monster> participants = result.getParticipants();
+        for (int i = 0; i < participants.size(); i++) {
+            System.out.printf("%s wins %.2f%%\n", participants.get(i).getDisplayName(),
+                    result.getWinProbability(i) * PERCENT);
+        }
+        System.out.printf("No winner %.2f%%\n", result.getNoWinnerProbability() * PERCENT);
+        if (result.getUndecidedProbability() > 0) {
+            System.out.printf("Undecided after %d rounds %.2f%%\n", WhatIfAnalysis.MAX_ROUNDS,
+                    result.getUndecidedProbability() * PERCENT);
+        }
+        System.out.printf("Average length %.2f rounds\n", result.getAverageRounds());
+        return true;
+    }
+
+    private Monster findTarget(Competition competition, Monster currentMonster) {
+        if (targetName != null) {
+            Monster target = competition.getMonster(targetName);
+            if (target == null) {
+                System.out.printf("Error, monster %s not found.\n", targetName);
+            }
+            return target;
+        }
+        // Same default target as the action command
+        for (Monster monster : competition.getMonsters()) {
+            if (!monster.equals(currentMonster) && !monster.isDefeated()) {
+                return monster;
+            }
+        }
+        System.out.println("Error, no valid target found.");
+        return null;
+    }
+}